@@ -0,0 +1,126 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the basic operations of {@link BigIntegerFieldElement}, {@link
+ * MersennePrimeFieldElement} and {@link MontgomeryFieldElement}. All fields use the same modulus,
+ * i.e., the largest prime {@code 2^bitLength - c} for a small {@code c}, so the numbers are
+ * directly comparable. The inner product uses the {@link FieldAccumulator} of each field, which
+ * for the Montgomery field is an allocation free {@link MontgomeryAccumulator}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldElementBenchmark {
+
+  private static final int ELEMENTS = 1024;
+
+  @Param({"bigInteger", "mersenne", "montgomery"})
+  public String field;
+
+  @Param({"64", "128", "256", "512"})
+  public int bitLength;
+
+  private FieldDefinition definition;
+  private FieldElement[] left;
+  private FieldElement[] right;
+  private byte[][] serialized;
+
+  /**
+   * Creates random elements to operate on.
+   */
+  @Setup
+  public void setup() {
+    MersennePrimeFieldDefinition mersenne = MersennePrimeFieldDefinition.find(bitLength);
+    if (field.equals("mersenne")) {
+      definition = mersenne;
+    } else if (field.equals("montgomery")) {
+      definition = new MontgomeryFieldDefinition(mersenne.getModulus());
+    } else {
+      definition = new BigIntegerFieldDefinition(mersenne.getModulus());
+    }
+    Random random = new Random(42);
+    left = new FieldElement[ELEMENTS];
+    right = new FieldElement[ELEMENTS];
+    serialized = new byte[ELEMENTS][];
+    for (int i = 0; i < ELEMENTS; i++) {
+      left[i] = definition.createElement(new BigInteger(bitLength + 8, random));
+      right[i] = definition.createElement(new BigInteger(bitLength + 8, random));
+      serialized[i] = definition.serialize(left[i]);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void add(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left[i].add(right[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void subtract(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left[i].subtract(right[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void multiply(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left[i].multiply(right[i]));
+    }
+  }
+
+  /**
+   * Computes the inner product of the left and right elements.
+   *
+   * @return the inner product
+   */
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public FieldElement innerProduct() {
+    FieldAccumulator accumulator = definition.createAccumulator();
+    for (int i = 0; i < ELEMENTS; i++) {
+      accumulator.addProduct(left[i], right[i]);
+    }
+    return accumulator.get();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void serialize(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(definition.serialize(left[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void deserialize(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(definition.deserialize(serialized[i]));
+    }
+  }
+}
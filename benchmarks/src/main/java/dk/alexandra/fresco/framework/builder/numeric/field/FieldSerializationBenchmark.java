@@ -0,0 +1,96 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures serialization of lists of field elements as done when sending elements in bulk, e.g.,
+ * in MASCOT and when opening values, both to and from byte arrays and to and from a single
+ * pre-sized {@link ByteBuffer}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FieldSerializationBenchmark {
+
+  @Param({"bigInteger", "mersenne", "montgomery"})
+  public String field;
+
+  @Param({"128"})
+  public int bitLength;
+
+  @Param({"1000000"})
+  public int size;
+
+  private FieldDefinition definition;
+  private List<FieldElement> elements;
+  private byte[] serialized;
+  private ByteBuffer buffer;
+
+  /**
+   * Creates a list of random elements to serialize.
+   */
+  @Setup
+  public void setup() {
+    MersennePrimeFieldDefinition mersenne = MersennePrimeFieldDefinition.find(bitLength);
+    if (field.equals("mersenne")) {
+      definition = mersenne;
+    } else if (field.equals("montgomery")) {
+      definition = new MontgomeryFieldDefinition(mersenne.getModulus());
+    } else {
+      definition = new BigIntegerFieldDefinition(mersenne.getModulus());
+    }
+    Random random = new Random(42);
+    elements = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      elements.add(definition.createElement(new BigInteger(bitLength + 8, random)));
+    }
+    serialized = definition.serialize(elements);
+    buffer = ByteBuffer.allocate(serialized.length);
+  }
+
+  @Benchmark
+  public byte[] serializeList() {
+    return definition.serialize(elements);
+  }
+
+  @Benchmark
+  public List<FieldElement> deserializeList() {
+    return definition.deserializeList(serialized);
+  }
+
+  /**
+   * Writes the elements to a reused buffer.
+   *
+   * @return the buffer
+   */
+  @Benchmark
+  public ByteBuffer serializeToBuffer() {
+    buffer.clear();
+    definition.serialize(elements, buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public List<FieldElement> deserializeFromBuffer() {
+    return definition.deserializeList(ByteBuffer.wrap(serialized));
+  }
+}
@@ -0,0 +1,101 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link LongFieldElement} to {@link BigIntegerFieldElement} for moduli below 2^63. The
+ * moduli are the largest primes below {@code 2^bitLength}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongFieldElementBenchmark {
+
+  private static final int ELEMENTS = 1024;
+
+  @Param({"bigInteger", "long"})
+  public String field;
+
+  @Param({"32", "61", "63"})
+  public int bitLength;
+
+  private FieldDefinition definition;
+  private FieldElement[] left;
+  private FieldElement[] right;
+  private byte[][] serialized;
+
+  /**
+   * Creates random elements to operate on.
+   */
+  @Setup
+  public void setup() {
+    BigInteger modulus = BigInteger.ONE.shiftLeft(bitLength).subtract(BigInteger.ONE);
+    while (!modulus.isProbablePrime(40)) {
+      modulus = modulus.subtract(BigInteger.valueOf(2));
+    }
+    if (field.equals("long")) {
+      definition = new LongFieldDefinition(modulus);
+    } else {
+      definition = new BigIntegerFieldDefinition(modulus);
+    }
+    Random random = new Random(42);
+    left = new FieldElement[ELEMENTS];
+    right = new FieldElement[ELEMENTS];
+    serialized = new byte[ELEMENTS][];
+    for (int i = 0; i < ELEMENTS; i++) {
+      left[i] = definition.createElement(new BigInteger(bitLength + 8, random));
+      right[i] = definition.createElement(new BigInteger(bitLength + 8, random));
+      serialized[i] = definition.serialize(left[i]);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void add(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left[i].add(right[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void multiply(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left[i].multiply(right[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void serialize(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(definition.serialize(left[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void deserialize(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(definition.deserialize(serialized[i]));
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package dk.alexandra.fresco.framework.network;
+
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A network between parties running in the same process, passing messages through queues. Used to
+ * benchmark protocol suites without measuring the cost of the network stack.
+ */
+public class InProcessNetwork implements Network {
+
+  private final int myId;
+  private final BlockingQueue<byte[]>[][] queues;
+
+  private InProcessNetwork(int myId, BlockingQueue<byte[]>[][] queues) {
+    this.myId = myId;
+    this.queues = queues;
+  }
+
+  /**
+   * Creates connected networks for the given number of parties.
+   *
+   * @param noOfParties the number of parties
+   * @return the networks, where the network of party {@code i} is at index {@code i - 1}
+   */
+  public static List<Network> create(int noOfParties) {
+    @SuppressWarnings("unchecked")
+    BlockingQueue<byte[]>[][] queues = new BlockingQueue[noOfParties][noOfParties];
+    for (int from = 0; from < noOfParties; from++) {
+      for (int to = 0; to < noOfParties; to++) {
+        queues[from][to] = new LinkedBlockingQueue<>();
+      }
+    }
+    List<Network> networks = new ArrayList<>(noOfParties);
+    for (int i = 1; i <= noOfParties; i++) {
+      networks.add(new InProcessNetwork(i, queues));
+    }
+    return networks;
+  }
+
+  @Override
+  public void send(int partyId, byte[] data) {
+    queues[myId - 1][partyId - 1].add(data);
+  }
+
+  @Override
+  public byte[] receive(int partyId) {
+    return ExceptionConverter.safe(() -> queues[partyId - 1][myId - 1].take(),
+        "Interrupted while receiving from P" + partyId);
+  }
+
+  @Override
+  public int getNoOfParties() {
+    return queues.length;
+  }
+}
@@ -0,0 +1,153 @@
+package dk.alexandra.fresco.framework.network;
+
+import dk.alexandra.fresco.framework.Party;
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkConfigurationImpl;
+import dk.alexandra.fresco.framework.network.nio.NioNetwork;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the latency and throughput of {@link SocketNetwork} and {@link NioNetwork} between two
+ * parties on the loopback interface. Party 1 runs the benchmark, party 2 runs an echo loop in a
+ * separate thread which returns every {@value #PING_BYTES} byte message and drops all others.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetworkBenchmark {
+
+  private static final int PING_BYTES = 8;
+  private static final int STOP_BYTES = 1;
+  private static final int STREAM_LENGTH = 1000;
+
+  /**
+   * Sends a {@value #PING_BYTES} byte message to party 2 and waits for the echo.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public byte[] pingPong(Parties parties) {
+    parties.network.send(2, new byte[PING_BYTES]);
+    return parties.network.receive(2);
+  }
+
+  /**
+   * Sends a stream of {@value #STREAM_LENGTH} messages of {@code messageSize} bytes to party 2,
+   * followed by a ping. Since messages are delivered in order the echo of the ping arrives once
+   * party 2 has received the entire stream.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @OperationsPerInvocation(STREAM_LENGTH)
+  public byte[] stream(Parties parties) {
+    for (int i = 0; i < STREAM_LENGTH; i++) {
+      parties.network.send(2, new byte[parties.messageSize]);
+    }
+    parties.network.send(2, new byte[PING_BYTES]);
+    return parties.network.receive(2);
+  }
+
+  /**
+   * The network of party 1 and the echo loop of party 2.
+   */
+  @State(Scope.Benchmark)
+  public static class Parties {
+
+    @Param({"SOCKET", "NIO"})
+    public NetworkType type;
+
+    @Param({"1024"})
+    public int messageSize;
+
+    private CloseableNetwork network;
+    private CloseableNetwork echoNetwork;
+    private ExecutorService executor;
+    private Future<?> echo;
+
+    /**
+     * Connects the two parties and starts the echo loop.
+     */
+    @Setup
+    public void setup() throws Exception {
+      Map<Integer, Party> parties = new HashMap<>();
+      parties.put(1, new Party(1, "localhost", freePort()));
+      parties.put(2, new Party(2, "localhost", freePort()));
+      executor = Executors.newFixedThreadPool(2);
+      Future<CloseableNetwork> first =
+          executor.submit(() -> type.create(new NetworkConfigurationImpl(1, parties)));
+      Future<CloseableNetwork> second =
+          executor.submit(() -> type.create(new NetworkConfigurationImpl(2, parties)));
+      network = first.get();
+      echoNetwork = second.get();
+      echo = executor.submit(() -> {
+        while (true) {
+          byte[] message = echoNetwork.receive(1);
+          if (message.length == STOP_BYTES) {
+            return;
+          }
+          if (message.length == PING_BYTES) {
+            echoNetwork.send(1, message);
+          }
+        }
+      });
+    }
+
+    /**
+     * Stops the echo loop and closes the networks.
+     */
+    @TearDown
+    public void tearDown() throws Exception {
+      network.send(2, new byte[STOP_BYTES]);
+      echo.get();
+      executor.shutdown();
+      network.close();
+      echoNetwork.close();
+    }
+
+    private static int freePort() throws IOException {
+      try (ServerSocket socket = new ServerSocket(0)) {
+        return socket.getLocalPort();
+      }
+    }
+  }
+
+  /**
+   * The network implementations being compared.
+   */
+  public enum NetworkType {
+    SOCKET(SocketNetwork::new), NIO(NioNetwork::new);
+
+    private final Function<NetworkConfiguration, CloseableNetwork> constructor;
+
+    NetworkType(Function<NetworkConfiguration, CloseableNetwork> constructor) {
+      this.constructor = constructor;
+    }
+
+    CloseableNetwork create(NetworkConfiguration conf) {
+      return constructor.apply(conf);
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package dk.alexandra.fresco.framework.sce;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.ProtocolBuilder;
+import dk.alexandra.fresco.framework.builder.binary.Binary;
+import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.InProcessNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.ProtocolSuite;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticProtocolSuite;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePool;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePoolImpl;
+import dk.alexandra.fresco.suite.dummy.bool.DummyBooleanProtocolSuite;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures applications running end to end on {@link SecureComputationEngineImpl}, with all parties
+ * in the same process connected by an {@link InProcessNetwork}. Each invocation runs the
+ * application once at every party.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecureComputationEngineBenchmark {
+
+  /**
+   * Each party inputs its share of {@code width} values. The values are then multiplied pairwise
+   * and the products are opened.
+   */
+  @Benchmark
+  public List<Object> dummyArithmetic(ArithmeticParties parties) {
+    return parties.run(parties.app);
+  }
+
+  /**
+   * Each party inputs its share of {@code width} bits. The bits are then combined pairwise by AND
+   * and XOR and the results are opened.
+   */
+  @Benchmark
+  public List<Object> dummyBoolean(BooleanParties parties) {
+    return parties.run(parties.app);
+  }
+
+  /**
+   * The engines, resource pools and networks of all parties.
+   */
+  @State(Scope.Benchmark)
+  public abstract static class Parties<ResourcePoolT extends ResourcePool,
+      BuilderT extends ProtocolBuilder> {
+
+    @Param({"2", "3"})
+    public int noOfParties;
+
+    @Param({"SEQUENTIAL_BATCHED"})
+    public EvaluationStrategy strategy;
+
+    @Param({"10000"})
+    public int width;
+
+    private List<SecureComputationEngine<ResourcePoolT, BuilderT>> engines;
+    private List<ResourcePoolT> resourcePools;
+    private List<Network> networks;
+
+    void setup(ProtocolSuite<ResourcePoolT, BuilderT> suite,
+        IntFunction<ResourcePoolT> resourcePool) {
+      networks = InProcessNetwork.create(noOfParties);
+      engines = new ArrayList<>(noOfParties);
+      resourcePools = new ArrayList<>(noOfParties);
+      for (int i = 1; i <= noOfParties; i++) {
+        engines.add(new SecureComputationEngineImpl<>(suite,
+            new BatchedProtocolEvaluator<>(strategy.getStrategy(), suite)));
+        resourcePools.add(resourcePool.apply(i));
+      }
+    }
+
+    <OutputT> List<Object> run(Application<OutputT, BuilderT> app) {
+      List<Future<OutputT>> futures = new ArrayList<>(noOfParties);
+      for (int i = 0; i < noOfParties; i++) {
+        futures.add(engines.get(i).startApplication(app, resourcePools.get(i), networks.get(i)));
+      }
+      return futures.stream()
+          .map(future -> ExceptionConverter.safe(future::get, "Application failed"))
+          .collect(Collectors.toList());
+    }
+
+    /**
+     * Shuts down the engines.
+     */
+    @TearDown
+    public void tearDown() {
+      engines.forEach(SecureComputationEngine::close);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class ArithmeticParties
+      extends Parties<DummyArithmeticResourcePool, ProtocolBuilderNumeric> {
+
+    private Application<List<BigInteger>, ProtocolBuilderNumeric> app;
+
+    /**
+     * Creates the parties and the application.
+     */
+    @Setup
+    public void setup() {
+      MersennePrimeFieldDefinition definition = MersennePrimeFieldDefinition.find(128);
+      setup(new DummyArithmeticProtocolSuite(definition, 64, 16),
+          id -> new DummyArithmeticResourcePoolImpl(id, noOfParties, definition));
+      app = builder -> builder.par(par -> {
+        Numeric numeric = par.numeric();
+        List<DRes<SInt>> inputs = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+          inputs.add(numeric.input(BigInteger.valueOf(i), i % noOfParties + 1));
+        }
+        return () -> inputs;
+      }).par((par, inputs) -> {
+        Numeric numeric = par.numeric();
+        List<DRes<BigInteger>> opened = new ArrayList<>(width / 2);
+        for (int i = 0; i + 1 < width; i += 2) {
+          opened.add(numeric.open(numeric.mult(inputs.get(i), inputs.get(i + 1))));
+        }
+        return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+      });
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class BooleanParties extends Parties<ResourcePoolImpl, ProtocolBuilderBinary> {
+
+    private Application<List<Boolean>, ProtocolBuilderBinary> app;
+
+    /**
+     * Creates the parties and the application.
+     */
+    @Setup
+    public void setup() {
+      setup(new DummyBooleanProtocolSuite(), id -> new ResourcePoolImpl(id, noOfParties));
+      app = builder -> builder.par(par -> {
+        Binary binary = par.binary();
+        List<DRes<SBool>> inputs = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+          inputs.add(binary.input(i % 3 == 0, i % noOfParties + 1));
+        }
+        return () -> inputs;
+      }).par((par, inputs) -> {
+        Binary binary = par.binary();
+        List<DRes<Boolean>> opened = new ArrayList<>(width);
+        for (int i = 0; i + 1 < width; i += 2) {
+          opened.add(binary.open(binary.and(inputs.get(i), inputs.get(i + 1))));
+          opened.add(binary.open(binary.xor(inputs.get(i), inputs.get(i + 1))));
+        }
+        return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+      });
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.ProtocolEvaluator.EvaluationStatistics;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.InProcessNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticProtocolSuite;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePool;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePoolImpl;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a single party running a computation directly on the {@link BatchedProtocolEvaluator},
+ * i.e., the cost of producing and evaluating native protocols for each evaluation strategy. The
+ * computation is a number of sequential layers, each multiplying {@code width} pairs of values in
+ * parallel, using the dummy arithmetic suite.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchedProtocolEvaluatorBenchmark {
+
+  @Param({"SEQUENTIAL_BATCHED", "PIPELINED_BATCHED", "PARALLEL_BATCHED"})
+  public EvaluationStrategy strategy;
+
+  @Param({"10000"})
+  public int width;
+
+  @Param({"10"})
+  public int depth;
+
+  private DummyArithmeticProtocolSuite suite;
+  private DummyArithmeticResourcePool resourcePool;
+  private Network network;
+  private BatchedProtocolEvaluator<DummyArithmeticResourcePool> evaluator;
+
+  /**
+   * Creates the suite and evaluator.
+   */
+  @Setup
+  public void setup() {
+    MersennePrimeFieldDefinition definition = MersennePrimeFieldDefinition.find(128);
+    suite = new DummyArithmeticProtocolSuite(definition, 64, 16);
+    resourcePool = new DummyArithmeticResourcePoolImpl(1, 1, definition);
+    network = InProcessNetwork.create(1).get(0);
+    evaluator = new BatchedProtocolEvaluator<>(strategy.getStrategy(), suite);
+  }
+
+  @Benchmark
+  public EvaluationStatistics evaluate() {
+    ProtocolBuilderNumeric builder = suite.init(resourcePool).createSequential();
+    builder.par(par -> {
+      Numeric numeric = par.numeric();
+      List<DRes<SInt>> values = new ArrayList<>(width);
+      for (int i = 0; i < width; i++) {
+        values.add(numeric.known(BigInteger.valueOf(i)));
+      }
+      return () -> new Pair<>(0, values);
+    }).whileLoop((layer) -> layer.getFirst() < depth, (seq, layer) -> seq.par(par -> {
+      Numeric numeric = par.numeric();
+      List<DRes<SInt>> next = new ArrayList<>(width);
+      for (DRes<SInt> value : layer.getSecond()) {
+        next.add(numeric.mult(value, value));
+      }
+      return () -> new Pair<>(layer.getFirst() + 1, next);
+    }));
+    return evaluator.eval(builder.build(), resourcePool, network);
+  }
+}
@@ -0,0 +1,188 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticMultProtocol;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePool;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePoolImpl;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticSInt;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a single batch of dummy arithmetic multiplications being evaluated by the {@link
+ * BatchedStrategy}, comparing the array backed {@link ProtocolCollectionList}, reused across
+ * batches, with the linked list based collection allocated for every batch it replaced.
+ *
+ * <p>
+ * In the multi round case protocol {@code i} of the batch takes {@code i % rounds + 1} rounds, so
+ * protocols are removed from the collection in every round.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtocolCollectionBenchmark {
+
+  @Param({"array", "linked"})
+  public String collection;
+
+  @Param({"4096"})
+  public int batchSize;
+
+  @Param({"1", "8"})
+  public int rounds;
+
+  private DummyArithmeticResourcePool resourcePool;
+  private NetworkBatchDecorator network;
+  private BatchedStrategy<DummyArithmeticResourcePool> strategy;
+  private List<NativeProtocol<?, DummyArithmeticResourcePool>> protocols;
+  private ProtocolCollectionList<DummyArithmeticResourcePool> reused;
+
+  /**
+   * Creates the protocols of the batch.
+   */
+  @Setup
+  public void setup() {
+    FieldDefinition definition = MersennePrimeFieldDefinition.find(128);
+    resourcePool = new DummyArithmeticResourcePoolImpl(1, 1, definition);
+    network = new NetworkBatchDecorator(1, new NoNetwork());
+    strategy = new BatchedStrategy<>();
+    protocols = new ArrayList<>(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      SInt left = new DummyArithmeticSInt(definition.createElement(i));
+      SInt right = new DummyArithmeticSInt(definition.createElement(i + 1));
+      protocols.add(new MultiRoundProtocol(
+          new DummyArithmeticMultProtocol(() -> left, () -> right), i % rounds + 1));
+    }
+    reused = new ProtocolCollectionList<>(batchSize);
+  }
+
+  /**
+   * Fills a batch and evaluates it.
+   *
+   * @return the output of the last protocol
+   */
+  @Benchmark
+  public Object processBatch() {
+    ProtocolCollection<DummyArithmeticResourcePool> batch;
+    if (collection.equals("array")) {
+      reused.clear();
+      batch = reused;
+    } else {
+      batch = new LinkedProtocolCollection(batchSize);
+    }
+    for (NativeProtocol<?, DummyArithmeticResourcePool> protocol : protocols) {
+      batch.addProtocol(protocol);
+    }
+    strategy.processBatch(batch, resourcePool, network);
+    return protocols.get(batchSize - 1).out();
+  }
+
+  /**
+   * The linked list based collection used before the array backed {@link ProtocolCollectionList}.
+   */
+  private static class LinkedProtocolCollection
+      implements ProtocolCollection<DummyArithmeticResourcePool> {
+
+    private final int capacity;
+    private final List<NativeProtocol<?, DummyArithmeticResourcePool>> protocols;
+
+    private LinkedProtocolCollection(int capacity) {
+      this.capacity = capacity;
+      this.protocols = new LinkedList<>();
+    }
+
+    @Override
+    public void addProtocol(NativeProtocol<?, DummyArithmeticResourcePool> protocol) {
+      protocols.add(protocol);
+    }
+
+    @Override
+    public boolean hasFreeCapacity() {
+      return protocols.size() < capacity;
+    }
+
+    @Override
+    public int size() {
+      return protocols.size();
+    }
+
+    @Override
+    public Iterator<NativeProtocol<?, DummyArithmeticResourcePool>> iterator() {
+      return protocols.iterator();
+    }
+  }
+
+  /**
+   * Evaluates a protocol in the last of a given number of rounds.
+   */
+  private static class MultiRoundProtocol
+      implements NativeProtocol<SInt, DummyArithmeticResourcePool> {
+
+    private final NativeProtocol<SInt, DummyArithmeticResourcePool> protocol;
+    private final int rounds;
+
+    private MultiRoundProtocol(NativeProtocol<SInt, DummyArithmeticResourcePool> protocol,
+        int rounds) {
+      this.protocol = protocol;
+      this.rounds = rounds;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, DummyArithmeticResourcePool resourcePool,
+        Network network) {
+      if (round < rounds - 1) {
+        return EvaluationStatus.HAS_MORE_ROUNDS;
+      }
+      return protocol.evaluate(round, resourcePool, network);
+    }
+
+    @Override
+    public SInt out() {
+      return protocol.out();
+    }
+  }
+
+  /**
+   * Network for a single party, which never sends or receives anything.
+   */
+  private static class NoNetwork implements Network {
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return 1;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package dk.alexandra.fresco.framework.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of {@link AesCtrDrbg} for requests of different sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AesCtrDrbgBenchmark {
+
+  @Param({"16", "1024", "65536"})
+  public int length;
+
+  private Drbg drbg;
+  private byte[] bytes;
+
+  @Setup
+  public void setup() {
+    drbg = new AesCtrDrbg(new byte[AesCtrDrbg.SEED_LENGTH]);
+    bytes = new byte[length];
+  }
+
+  @Benchmark
+  public byte[] nextBytes() {
+    drbg.nextBytes(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,91 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the basic operations of {@link CompUInt128}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompUInt128Benchmark {
+
+  private static final int ELEMENTS = 1024;
+
+  private CompUInt128[] left;
+  private CompUInt128[] right;
+  private byte[][] serialized;
+
+  /**
+   * Creates random elements to operate on.
+   */
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    left = new CompUInt128[ELEMENTS];
+    right = new CompUInt128[ELEMENTS];
+    serialized = new byte[ELEMENTS][];
+    for (int i = 0; i < ELEMENTS; i++) {
+      left[i] = new CompUInt128(new BigInteger(128, random));
+      right[i] = new CompUInt128(new BigInteger(128, random));
+      serialized[i] = left[i].toByteArray();
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void add(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left[i].add(right[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void subtract(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left[i].subtract(right[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void multiply(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left[i].multiply(right[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void toByteArray(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(left[i].toByteArray());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public void fromByteArray(Blackhole blackhole) {
+    for (int i = 0; i < ELEMENTS; i++) {
+      blackhole.consume(new CompUInt128(serialized[i]));
+    }
+  }
+}
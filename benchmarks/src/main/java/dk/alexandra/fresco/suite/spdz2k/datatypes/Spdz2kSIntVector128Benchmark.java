@@ -0,0 +1,126 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.suite.spdz2k.util.UIntSerializer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares operating on lists of {@link Spdz2kSInt} with operating on a {@link
+ * Spdz2kSIntVector128} holding the same elements, and the per-element {@link UIntSerializer} with
+ * the serializer of {@link CompUInt128Factory}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Spdz2kSIntVector128Benchmark {
+
+  private static final int ELEMENTS = 1024;
+
+  private List<Spdz2kSInt<CompUInt128>> left;
+  private List<Spdz2kSInt<CompUInt128>> right;
+  private List<CompUInt128> shares;
+  private Spdz2kSIntVector128 leftVector;
+  private Spdz2kSIntVector128 rightVector;
+  private CompUInt128 constant;
+  private ByteSerializer<CompUInt128> uintSerializer;
+  private ByteSerializer<CompUInt128> serializer;
+  private byte[] serialized;
+
+  /**
+   * Creates random elements to operate on.
+   */
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    left = new ArrayList<>(ELEMENTS);
+    right = new ArrayList<>(ELEMENTS);
+    shares = new ArrayList<>(ELEMENTS);
+    for (int i = 0; i < ELEMENTS; i++) {
+      left.add(new Spdz2kSInt<>(new CompUInt128(random.nextLong(), random.nextLong()),
+          new CompUInt128(random.nextLong(), random.nextLong())));
+      right.add(new Spdz2kSInt<>(new CompUInt128(random.nextLong(), random.nextLong()),
+          new CompUInt128(random.nextLong(), random.nextLong())));
+      shares.add(left.get(i).getShare());
+    }
+    leftVector = Spdz2kSIntVector128.fromSInts(left);
+    rightVector = Spdz2kSIntVector128.fromSInts(right);
+    constant = new CompUInt128(random.nextLong(), random.nextLong());
+    CompUInt128Factory factory = new CompUInt128Factory();
+    uintSerializer = new UIntSerializer<>(factory);
+    serializer = factory.getSerializer();
+    serialized = serializer.serialize(shares);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public List<Spdz2kSInt<CompUInt128>> addList() {
+    List<Spdz2kSInt<CompUInt128>> result = new ArrayList<>(ELEMENTS);
+    for (int i = 0; i < ELEMENTS; i++) {
+      result.add(left.get(i).add(right.get(i)));
+    }
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public Spdz2kSIntVector128 addVector() {
+    return leftVector.add(rightVector);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public List<Spdz2kSInt<CompUInt128>> multiplyList() {
+    List<Spdz2kSInt<CompUInt128>> result = new ArrayList<>(ELEMENTS);
+    for (int i = 0; i < ELEMENTS; i++) {
+      result.add(left.get(i).multiply(constant));
+    }
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public Spdz2kSIntVector128 multiplyVector() {
+    return leftVector.multiply(constant);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public byte[] serializeUIntSerializer() {
+    return uintSerializer.serialize(shares);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public byte[] serializeVector() {
+    return leftVector.serializeShares();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public List<CompUInt128> deserializeUIntSerializer() {
+    return uintSerializer.deserializeList(serialized);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ELEMENTS)
+  public List<CompUInt128> deserializeBulk() {
+    return serializer.deserializeList(serialized);
+  }
+}
@@ -0,0 +1,180 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.network.InProcessNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.tools.mascot.Mascot;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePoolImpl;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the triple generation throughput of the OT-based SPDZ2k pre-processing over
+ * <i>Z<sub>2<sup>128</sup></sub></i> with MASCOT over a 128-bit prime field. All parties run in the
+ * same process connected by an {@link InProcessNetwork}, and the seed OTs are insecure dummy OTs.
+ * Each invocation generates one batch of triples at every party, and scores are triples per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@OperationsPerInvocation(Spdz2kOtPreprocessingBenchmark.BATCH_SIZE)
+public class Spdz2kOtPreprocessingBenchmark {
+
+  static final int BATCH_SIZE = 1024;
+
+  @Benchmark
+  public List<Object> spdz2k(Spdz2kParties parties) {
+    return parties.run(id -> parties.preprocessing.get(id - 1).getTriples(BATCH_SIZE));
+  }
+
+  @Benchmark
+  public List<Object> mascot(MascotParties parties) {
+    return parties.run(id -> parties.mascot.get(id - 1).getTriples(BATCH_SIZE));
+  }
+
+  /**
+   * The networks, seed OTs and threads of all parties.
+   */
+  @State(Scope.Benchmark)
+  public abstract static class Parties {
+
+    @Param({"2", "3"})
+    public int noOfParties;
+
+    private ExecutorService executor;
+    List<Network> networks;
+    List<Map<Integer, RotList>> seedOts;
+    List<Drbg> drbgs;
+
+    void setupParties() {
+      executor = Executors.newFixedThreadPool(noOfParties);
+      networks = InProcessNetwork.create(noOfParties);
+      drbgs = new ArrayList<>(noOfParties);
+      for (int id = 1; id <= noOfParties; id++) {
+        byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+        seed[0] = (byte) id;
+        drbgs.add(new AesCtrDrbg(seed));
+      }
+      seedOts = run(this::createSeedOts);
+    }
+
+    private Map<Integer, RotList> createSeedOts(int myId) {
+      Map<Integer, RotList> result = new HashMap<>();
+      for (int otherId = 1; otherId <= noOfParties; otherId++) {
+        if (otherId != myId) {
+          Ot ot = new DummyOt(otherId, networks.get(myId - 1));
+          RotList rotList = new RotList(drbgs.get(myId - 1),
+              Spdz2kOtPreprocessing.PRG_SEED_LENGTH);
+          if (myId < otherId) {
+            rotList.send(ot);
+            rotList.receive(ot);
+          } else {
+            rotList.receive(ot);
+            rotList.send(ot);
+          }
+          result.put(otherId, rotList);
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Runs the given task for all parties concurrently and waits for the results.
+     */
+    <T> List<T> run(IntFunction<T> task) {
+      List<Future<T>> futures = new ArrayList<>(noOfParties);
+      for (int id = 1; id <= noOfParties; id++) {
+        int myId = id;
+        futures.add(executor.submit(() -> task.apply(myId)));
+      }
+      List<T> results = new ArrayList<>(noOfParties);
+      for (Future<T> future : futures) {
+        results.add(ExceptionConverter.safe(future::get, "Party failed"));
+      }
+      return results;
+    }
+
+    /**
+     * Shuts down the threads of the parties.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      executor.shutdownNow();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Spdz2kParties extends Parties {
+
+    private List<Spdz2kOtPreprocessing<CompUInt128>> preprocessing;
+
+    /**
+     * Creates the parties and initializes the pre-processing.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+      setupParties();
+      CompUInt128Factory factory = new CompUInt128Factory();
+      preprocessing = run(id -> new Spdz2kOtPreprocessing<>(id, noOfParties, 1,
+          networks.get(id - 1), factory, factory.createRandom(), seedOts.get(id - 1),
+          drbgs.get(id - 1)));
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class MascotParties extends Parties {
+
+    private List<Mascot> mascot;
+
+    /**
+     * Creates the parties and initializes MASCOT.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+      setupParties();
+      FieldDefinition definition = new BigIntegerFieldDefinition(
+          ModulusFinder.findSuitableModulus(128));
+      mascot = run(id -> new Mascot(
+          new MascotResourcePoolImpl(id, noOfParties, 1, drbgs.get(id - 1), seedOts.get(id - 1),
+              new MascotSecurityParameters(), definition),
+          networks.get(id - 1),
+          definition.createElement(new BigInteger(127, new Random(id)))));
+    }
+  }
+}
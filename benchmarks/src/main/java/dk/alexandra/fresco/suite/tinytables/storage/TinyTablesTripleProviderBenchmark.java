@@ -0,0 +1,192 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.framework.network.InProcessNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.DrngImpl;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTripleVector;
+import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesNaorPinkasOt;
+import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesOt;
+import dk.alexandra.fresco.suite.tinytables.util.TinyTablesTripleGenerator;
+import dk.alexandra.fresco.suite.tinytables.util.Util;
+import dk.alexandra.fresco.tools.bitTriples.BitTripleResourcePoolImpl;
+import dk.alexandra.fresco.tools.bitTriples.BitTripleSecurityParameters;
+import dk.alexandra.fresco.tools.cointossing.CoinTossing;
+import dk.alexandra.fresco.tools.ot.otextension.BristolOtExtensionResourcePool;
+import dk.alexandra.fresco.tools.ot.otextension.BristolOtFactory;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePool;
+import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the throughput of the triple providers for the TinyTables preprocessing: the
+ * {@link BatchTinyTablesTripleProvider} set up as in the preprocessing resource pool, with
+ * Naor-Pinkas base OTs and OT extension driving {@link TinyTablesTripleGenerator}, and the
+ * {@link BitTripleTinyTablesTripleProvider} generating actively secure triples in the background.
+ * Both players run in the same process connected by an {@link InProcessNetwork}. Each invocation
+ * takes {@link #TRIPLES} triples at both players, and scores are triples per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@OperationsPerInvocation(TinyTablesTripleProviderBenchmark.TRIPLES)
+public class TinyTablesTripleProviderBenchmark {
+
+  static final int TRIPLES = 8192;
+  private static final int COMPUTATIONAL_SECURITY = 128;
+  private static final int STATISTICAL_SECURITY = 40;
+  private static final int OT_BATCH_SIZE = 16000;
+
+  @Benchmark
+  public List<TinyTablesTripleVector> naorPinkas(NaorPinkasParties parties) {
+    return parties.run(id -> parties.providers.get(id - 1).getNextTriples(TRIPLES));
+  }
+
+  @Benchmark
+  public List<TinyTablesTripleVector> bitTriple(BitTripleParties parties) {
+    return parties.run(id -> parties.providers.get(id - 1).getNextTriples(TRIPLES));
+  }
+
+  /**
+   * The networks, randomness, threads and triple providers of the two players.
+   */
+  @State(Scope.Benchmark)
+  public abstract static class Parties {
+
+    private static final int NO_OF_PLAYERS = 2;
+
+    private ExecutorService executor;
+    List<Network> networks;
+    List<Drbg> drbgs;
+    List<TinyTablesTripleProvider> providers;
+
+    void setupParties() {
+      executor = Executors.newFixedThreadPool(NO_OF_PLAYERS);
+      networks = InProcessNetwork.create(NO_OF_PLAYERS);
+      drbgs = new ArrayList<>(NO_OF_PLAYERS);
+      for (int id = 1; id <= NO_OF_PLAYERS; id++) {
+        byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+        seed[0] = (byte) id;
+        drbgs.add(new AesCtrDrbg(seed));
+      }
+    }
+
+    /**
+     * Runs the given task for both players concurrently and waits for the results.
+     */
+    <T> List<T> run(IntFunction<T> task) {
+      List<Future<T>> futures = new ArrayList<>(NO_OF_PLAYERS);
+      for (int id = 1; id <= NO_OF_PLAYERS; id++) {
+        int myId = id;
+        futures.add(executor.submit(() -> task.apply(myId)));
+      }
+      List<T> results = new ArrayList<>(NO_OF_PLAYERS);
+      for (Future<T> future : futures) {
+        results.add(ExceptionConverter.safe(future::get, "Player failed"));
+      }
+      return results;
+    }
+
+    /**
+     * Closes the providers and shuts down the threads of the players.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      run(id -> {
+        providers.get(id - 1).close();
+        return null;
+      });
+      executor.shutdownNow();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class NaorPinkasParties extends Parties {
+
+    /**
+     * Runs the base OTs and sets up OT extension as in the TinyTables preprocessing resource pool.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+      setupParties();
+      providers = run(this::createProvider);
+    }
+
+    private TinyTablesTripleProvider createProvider(int myId) {
+      Drbg drbg = drbgs.get(myId - 1);
+      Network network = networks.get(myId - 1);
+      int otherId = Util.otherPlayerId(myId);
+      RotList rotList = new RotList(drbg, COMPUTATIONAL_SECURITY);
+      CoinTossing ct = new CoinTossing(myId, otherId, drbg);
+      OtExtensionResourcePool otExtRes = new BristolOtExtensionResourcePool(myId, otherId,
+          COMPUTATIONAL_SECURITY, STATISTICAL_SECURITY, 1, drbg, ct, rotList);
+      TinyTablesOt baseOt = new TinyTablesNaorPinkasOt(otherId, drbg);
+      baseOt.init(network);
+      if (myId < otherId) {
+        rotList.send(baseOt);
+        rotList.receive(baseOt);
+      } else {
+        rotList.receive(baseOt);
+        rotList.send(baseOt);
+      }
+      ct.initialize(network);
+      RotFactory rotFactory = new RotFactory(otExtRes, network);
+      BristolOtFactory otFactory = new BristolOtFactory(rotFactory, otExtRes, network,
+          OT_BATCH_SIZE);
+      TinyTablesTripleGenerator generator =
+          new TinyTablesTripleGenerator(myId, new DrngImpl(drbg), otFactory);
+      return new BatchTinyTablesTripleProvider(generator, TRIPLES);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class BitTripleParties extends Parties {
+
+    /**
+     * The minimum number of triples generated in each background batch. The generator rounds this
+     * up to one of a fixed set of sizes.
+     */
+    @Param({"2047", "16389"})
+    public int batchSize;
+
+    /**
+     * Creates the providers, which start generating triples in the background.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+      setupParties();
+      providers = new ArrayList<>();
+      for (int id = 1; id <= networks.size(); id++) {
+        providers.add(new BitTripleTinyTablesTripleProvider(
+            new BitTripleResourcePoolImpl(id, networks.size(), 1, drbgs.get(id - 1),
+                new BitTripleSecurityParameters()),
+            networks.get(id - 1), batchSize));
+      }
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures transposing the bit matrices used in OT extension, i.e., a tall matrix with one row per
+ * extended OT and one column per base OT.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransposeBenchmark {
+
+  @Param({"128"})
+  public int columns;
+
+  @Param({"1024", "8192", "65536"})
+  public int rows;
+
+  private List<StrictBitVector> matrix;
+
+  /**
+   * Creates a random matrix.
+   */
+  @Setup
+  public void setup() {
+    Drbg drbg = new AesCtrDrbg(new byte[AesCtrDrbg.SEED_LENGTH]);
+    matrix = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      matrix.add(new StrictBitVector(columns, drbg));
+    }
+  }
+
+  @Benchmark
+  public List<StrictBitVector> transpose() {
+    return Transpose.transpose(matrix);
+  }
+}
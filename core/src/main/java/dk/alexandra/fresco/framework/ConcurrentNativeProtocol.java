@@ -0,0 +1,51 @@
+package dk.alexandra.fresco.framework;
+
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+
+/**
+ * Marks native protocols that may be evaluated concurrently with the other protocols of a batch.
+ *
+ * <p>
+ * A protocol can be marked if {@link #evaluate} does not depend on the order in which the
+ * protocols of a batch are evaluated, other than through the messages it sends and receives. In
+ * particular it must not consume preprocessed material or random values from the resource pool,
+ * or record values in the resource pool, as the parties would then no longer agree on which values
+ * belong to which protocol. Any state of the resource pool read during evaluation must be safe to
+ * read from multiple threads.
+ * </p>
+ *
+ * <p>
+ * Work which does depend on the order of the protocols goes in {@link #beforeEvaluate} and {@link
+ * #afterEvaluate} instead. When a round is evaluated concurrently, these are called on the thread
+ * driving the evaluation for all protocols of the batch in batch order, before and after all the
+ * protocols are evaluated in that round. Strategies evaluating one protocol at a time call them
+ * right before and after {@link #evaluate}, so the order is the same either way.
+ * </p>
+ *
+ * @param <OutputT> The output type produced
+ * @param <ResourcePoolT> The resource pool type
+ * @see dk.alexandra.fresco.framework.sce.evaluator.ParallelBatchedStrategy
+ */
+public interface ConcurrentNativeProtocol<OutputT, ResourcePoolT extends ResourcePool>
+    extends NativeProtocol<OutputT, ResourcePoolT> {
+
+  /**
+   * Does the part of a round which depends on the order of the protocols and must happen before
+   * the round is evaluated, such as taking preprocessed material from the resource pool.
+   *
+   * @param round the round about to be evaluated
+   * @param resourcePool the resource pool
+   */
+  default void beforeEvaluate(int round, ResourcePoolT resourcePool) {
+  }
+
+  /**
+   * Does the part of a round which depends on the order of the protocols and must happen after the
+   * round is evaluated, such as recording opened values in the resource pool.
+   *
+   * @param round the round just evaluated
+   * @param resourcePool the resource pool
+   */
+  default void afterEvaluate(int round, ResourcePoolT resourcePool) {
+  }
+}
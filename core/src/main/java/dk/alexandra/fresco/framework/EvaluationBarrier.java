@@ -0,0 +1,53 @@
+package dk.alexandra.fresco.framework;
+
+/**
+ * Lets protocol producers wait for previously produced native protocols to be evaluated.
+ *
+ * <p>
+ * Producers run user code, i.e., the lambdas of build steps and the predicates of loops, and this
+ * code may read the output of native protocols that were produced earlier in the same sequential
+ * composition. When production and evaluation alternate on the same thread these protocols are
+ * always evaluated by the time the code runs. An evaluator that produces the next batch on a
+ * separate thread, while the current batch is being evaluated, installs a barrier on the producing
+ * thread. Producers must then call {@link #awaitEvaluated()} before running code that depends on
+ * protocols they produced in an earlier batch.
+ * </p>
+ *
+ * <p>
+ * On threads without an installed barrier {@link #awaitEvaluated()} does nothing.
+ * </p>
+ */
+public final class EvaluationBarrier {
+
+  private static final ThreadLocal<Runnable> BARRIER = new ThreadLocal<>();
+
+  private EvaluationBarrier() {
+    // Should not be instantiated
+  }
+
+  /**
+   * Installs a barrier on the current thread.
+   *
+   * @param awaitEvaluated blocks until all batches handed to the evaluator have been evaluated
+   */
+  public static void install(Runnable awaitEvaluated) {
+    BARRIER.set(awaitEvaluated);
+  }
+
+  /**
+   * Removes the barrier installed on the current thread, if any.
+   */
+  public static void uninstall() {
+    BARRIER.remove();
+  }
+
+  /**
+   * Blocks until all native protocols produced so far by the current thread have been evaluated.
+   */
+  public static void awaitEvaluated() {
+    Runnable barrier = BARRIER.get();
+    if (barrier != null) {
+      barrier.run();
+    }
+  }
+}
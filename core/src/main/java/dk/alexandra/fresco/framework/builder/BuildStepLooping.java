@@ -2,6 +2,7 @@ package dk.alexandra.fresco.framework.builder;
 
 import dk.alexandra.fresco.framework.BuilderFactory;
 import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.EvaluationBarrier;
 import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.ProtocolProducer;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
@@ -69,6 +70,7 @@ class BuildStepLooping<BuilderT extends ProtocolBuilderImpl<BuilderT>, InputT>
 
     private void next() {
       while (!isDone && !currentProducer.hasNextProtocols()) {
+        EvaluationBarrier.awaitEvaluated();
         updateToNextProducer(out());
       }
     }
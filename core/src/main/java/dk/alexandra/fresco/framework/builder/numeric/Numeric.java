@@ -4,6 +4,8 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.ComputationDirectory;
 import dk.alexandra.fresco.framework.value.SInt;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Basic interface for numeric applications. This is the interface which an arithmetic protocol
@@ -104,6 +106,30 @@ public interface Numeric extends ComputationDirectory {
     return mult(BigInteger.valueOf(a), b);
   }
 
+  /**
+   * Multiplies two lists of secret values element-wise and returns the products.
+   * <p>
+   * Protocol suites may override this to evaluate all the multiplications as a single native
+   * protocol, which is more efficient than appending a protocol for each multiplication. By
+   * default each multiplication is done using {@link #mult(DRes, DRes)}.
+   * </p>
+   *
+   * @param a Secret values 1
+   * @param b Secret values 2, must have the same size as a
+   * @return A deferred result computing the list of a[i]*b[i]
+   */
+  default DRes<List<DRes<SInt>>> multVector(List<DRes<SInt>> a, List<DRes<SInt>> b) {
+    if (a.size() != b.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have the same size, was " + a.size() + " and " + b.size());
+    }
+    List<DRes<SInt>> products = new ArrayList<>(a.size());
+    for (int i = 0; i < a.size(); i++) {
+      products.add(mult(a.get(i), b.get(i)));
+    }
+    return () -> products;
+  }
+
   /**
    * Returns a deferred result which creates a secret shared random bit. (This should be computed
    * beforehand to increase the speed of the application)
@@ -2,6 +2,7 @@ package dk.alexandra.fresco.framework.builder.numeric.field;
 
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
@@ -23,7 +24,8 @@ public final class BigIntegerFieldDefinition implements FieldDefinition {
     this.modulus = new BigIntegerModulus(modulus);
     this.modulusHalf = this.modulus.getBigInteger().shiftRight(1);
     this.modulusBitLength = this.modulus.getBigInteger().bitLength();
-    this.utils = new FieldUtils(modulusBitLength, this::createElement);
+    this.utils = new FieldUtils(modulusBitLength, modulus,
+        value -> BigIntegerFieldElement.createReduced(value, this.modulus));
   }
 
   /**
@@ -85,6 +87,11 @@ public final class BigIntegerFieldDefinition implements FieldDefinition {
     return utils.serializeList(fieldElements);
   }
 
+  @Override
+  public void serialize(List<FieldElement> fieldElements, ByteBuffer buffer) {
+    utils.serializeList(fieldElements, buffer);
+  }
+
   @Override
   public FieldElement deserialize(byte[] bytes) {
     return utils.deserialize(bytes);
@@ -94,4 +101,9 @@ public final class BigIntegerFieldDefinition implements FieldDefinition {
   public List<FieldElement> deserializeList(byte[] bytes) {
     return utils.deserializeList(bytes);
   }
+
+  @Override
+  public List<FieldElement> deserializeList(ByteBuffer buffer) {
+    return utils.deserializeList(buffer);
+  }
 }
@@ -0,0 +1,45 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+/**
+ * Default {@link FieldAccumulator} holding the accumulated value as an immutable {@link
+ * FieldElement}.
+ */
+final class ElementAccumulator implements FieldAccumulator {
+
+  private final FieldElement zero;
+  private FieldElement value;
+
+  ElementAccumulator(FieldDefinition definition) {
+    this.zero = definition.createElement(0);
+    this.value = zero;
+  }
+
+  @Override
+  public FieldAccumulator add(FieldElement element) {
+    value = value.add(element);
+    return this;
+  }
+
+  @Override
+  public FieldAccumulator subtract(FieldElement element) {
+    value = value.subtract(element);
+    return this;
+  }
+
+  @Override
+  public FieldAccumulator addProduct(FieldElement left, FieldElement right) {
+    value = value.add(left.multiply(right));
+    return this;
+  }
+
+  @Override
+  public FieldAccumulator reset() {
+    value = zero;
+    return this;
+  }
+
+  @Override
+  public FieldElement get() {
+    return value;
+  }
+}
@@ -0,0 +1,52 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+/**
+ * A mutable sum of field elements, used to compute sums and sums of products in hot loops. Field
+ * definitions with a mutable representation of their elements can implement this without
+ * allocating a new element for each operation.
+ *
+ * <p>
+ * Accumulators are created by {@link FieldDefinition#createAccumulator()} and are not thread safe.
+ * </p>
+ */
+public interface FieldAccumulator {
+
+  /**
+   * Adds an element to the accumulated value.
+   *
+   * @param element the element to add
+   * @return this accumulator
+   */
+  FieldAccumulator add(FieldElement element);
+
+  /**
+   * Subtracts an element from the accumulated value.
+   *
+   * @param element the element to subtract
+   * @return this accumulator
+   */
+  FieldAccumulator subtract(FieldElement element);
+
+  /**
+   * Adds the product of two elements to the accumulated value.
+   *
+   * @param left the left factor
+   * @param right the right factor
+   * @return this accumulator
+   */
+  FieldAccumulator addProduct(FieldElement left, FieldElement right);
+
+  /**
+   * Resets the accumulated value to zero.
+   *
+   * @return this accumulator
+   */
+  FieldAccumulator reset();
+
+  /**
+   * Gets the accumulated value as an immutable field element.
+   *
+   * @return the accumulated value
+   */
+  FieldElement get();
+}
@@ -3,6 +3,8 @@ package dk.alexandra.fresco.framework.builder.numeric.field;
 import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  * Describes a finite field.
@@ -85,5 +87,40 @@ public interface FieldDefinition extends ByteSerializer<FieldElement> {
    *     close to modulus
    */
   BigInteger convertToSigned(BigInteger asUnsigned);
+
+  /**
+   * Creates a new accumulator for elements of this field, initially zero. By default the
+   * accumulator adds up immutable elements, field definitions with mutable element representations
+   * can override this to compute sums without allocation.
+   *
+   * @return the accumulator
+   */
+  default FieldAccumulator createAccumulator() {
+    return new ElementAccumulator(this);
+  }
+
+  /**
+   * Writes a list of elements to a buffer in the same format as {@link #serialize(List)}, i.e.,
+   * each element as a fixed width big endian integer. The buffer must have room for all elements.
+   *
+   * @param fieldElements the elements to write
+   * @param buffer the buffer to write to
+   */
+  default void serialize(List<FieldElement> fieldElements, ByteBuffer buffer) {
+    buffer.put(serialize(fieldElements));
+  }
+
+  /**
+   * Reads the remaining bytes of a buffer as a list of elements written by {@link
+   * #serialize(List)} or {@link #serialize(List, ByteBuffer)}.
+   *
+   * @param buffer the buffer to read from
+   * @return the elements read
+   */
+  default List<FieldElement> deserializeList(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return deserializeList(bytes);
+  }
 }
 
@@ -2,7 +2,9 @@ package dk.alexandra.fresco.framework.builder.numeric.field;
 
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
 
@@ -12,16 +14,21 @@ import java.util.function.Function;
 final class FieldUtils {
 
   private final int modulusLength;
+  private final BigInteger modulus;
   private final Function<BigInteger, FieldElement> creator;
 
   /**
    * Creates a new utility class.
    *
    * @param modulusBitLength the modulus bit length - translates to byte length in serialization
-   * @param creator boot strap creator from open values and deserialization
+   * @param modulus the modulus
+   * @param creator boot strap creator from open values and deserialization, only called with
+   *     values in the range <i>0, ..., modulus - 1</i>
    */
-  FieldUtils(int modulusBitLength, Function<BigInteger, FieldElement> creator) {
+  FieldUtils(int modulusBitLength, BigInteger modulus,
+      Function<BigInteger, FieldElement> creator) {
     this.modulusLength = 1 + ((modulusBitLength - 1) / 8);
+    this.modulus = modulus;
     this.creator = creator;
   }
 
@@ -41,16 +48,21 @@ final class FieldUtils {
    * @return the value in a byte array
    */
   byte[] serialize(FieldElement value) {
-    return serializeWithOffset(value, 0, new byte[modulusLength]);
+    byte[] res = new byte[modulusLength];
+    serializeWithOffset(value, 0, res);
+    return res;
   }
 
-  private byte[] serializeWithOffset(FieldElement value, int offset, byte[] res) {
+  private void serializeWithOffset(FieldElement value, int offset, byte[] res) {
     byte[] bytes = value.toBigInteger().toByteArray();
     int arrayStart = bytes.length > modulusLength ? bytes.length - modulusLength : 0;
     int resStart = bytes.length > modulusLength ? 0 : modulusLength - bytes.length;
     int len = Math.min(modulusLength, bytes.length);
+    // The array may be reused, so leading zeros must be written
+    for (int i = 0; i < resStart; i++) {
+      res[offset + i] = 0;
+    }
     System.arraycopy(bytes, arrayStart, res, resStart + offset, len);
-    return res;
   }
 
   /**
@@ -65,14 +77,19 @@ final class FieldUtils {
   }
 
   private FieldElement deserializeWithOffset(byte[] bytes, int offset) {
-    byte[] actual;
-    if (bytes.length == modulusLength) {
-      actual = bytes;
-    } else {
-      actual = new byte[modulusLength];
-      System.arraycopy(bytes, offset, actual, 0, modulusLength);
+    if (offset == 0 && bytes.length == modulusLength) {
+      return create(new BigInteger(1, bytes));
+    }
+    // This class is shared by protocols evaluated concurrently, so the slice is not copied into a
+    // shared scratch array
+    return create(new BigInteger(1, Arrays.copyOfRange(bytes, offset, offset + modulusLength)));
+  }
+
+  private FieldElement create(BigInteger value) {
+    if (value.compareTo(modulus) >= 0) {
+      return creator.apply(value.mod(modulus));
     }
-    return creator.apply(new BigInteger(1, actual));
+    return creator.apply(value);
   }
 
   /**
@@ -89,6 +106,26 @@ final class FieldUtils {
     return bytes;
   }
 
+  /**
+   * Writes a list of field elements to a buffer, in the same format as {@link
+   * #serializeList(List)}.
+   *
+   * @param fieldElements values to serialize
+   * @param buffer the buffer to write to
+   */
+  void serializeList(List<FieldElement> fieldElements, ByteBuffer buffer) {
+    int length = modulusLength * fieldElements.size();
+    if (buffer.hasArray() && buffer.remaining() >= length) {
+      int offset = buffer.arrayOffset() + buffer.position();
+      for (int i = 0; i < fieldElements.size(); i++) {
+        serializeWithOffset(fieldElements.get(i), offset + i * modulusLength, buffer.array());
+      }
+      buffer.position(buffer.position() + length);
+    } else {
+      buffer.put(serializeList(fieldElements));
+    }
+  }
+
   /**
    * Reads a list of serialized field elements from a byte array, the length is fixed and
    * determined as the the bit length of the modulus for each value.
@@ -97,13 +134,39 @@ final class FieldUtils {
    * @return value deserialized
    */
   List<FieldElement> deserializeList(byte[] bytes) {
-    ArrayList<FieldElement> elements = new ArrayList<>();
+    List<FieldElement> elements = new ArrayList<>(bytes.length / modulusLength);
     for (int i = 0; i < bytes.length; i += modulusLength) {
       elements.add(deserializeWithOffset(bytes, i));
     }
     return elements;
   }
 
+  /**
+   * Reads the remaining bytes of a buffer as a list of serialized field elements, in the same
+   * format as {@link #deserializeList(byte[])}.
+   *
+   * @param buffer the buffer to read from
+   * @return value deserialized
+   */
+  List<FieldElement> deserializeList(ByteBuffer buffer) {
+    int count = buffer.remaining() / modulusLength;
+    List<FieldElement> elements = new ArrayList<>(count);
+    if (buffer.hasArray()) {
+      int offset = buffer.arrayOffset() + buffer.position();
+      for (int i = 0; i < count; i++) {
+        elements.add(deserializeWithOffset(buffer.array(), offset + i * modulusLength));
+      }
+      buffer.position(buffer.position() + count * modulusLength);
+    } else {
+      byte[] bytes = new byte[modulusLength];
+      for (int i = 0; i < count; i++) {
+        buffer.get(bytes);
+        elements.add(create(new BigInteger(1, bytes)));
+      }
+    }
+    return elements;
+  }
+
   /**
    * Implementation of {@link FieldDefinition#convertToSigned(BigInteger)}.
    *
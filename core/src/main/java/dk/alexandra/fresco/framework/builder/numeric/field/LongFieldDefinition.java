@@ -0,0 +1,163 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Defines a field based on a {@link LongModulus}, i.e., a modulus smaller than 2^63. Elements are
+ * stored as primitive longs, so no {@link BigInteger}s are involved in the arithmetic.
+ *
+ * <p>
+ * Elements are serialized in the same format as for the other field definitions, i.e., as big
+ * endian integers of as many bytes as needed for the modulus, at most 8, so parties may use
+ * different implementations for the same modulus.
+ * </p>
+ */
+public final class LongFieldDefinition implements FieldDefinition {
+
+  private final LongModulus modulus;
+  private final BigInteger modulusHalf;
+  private final int modulusBitLength;
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus, must be smaller than 2^63 and not 2^62
+   */
+  public LongFieldDefinition(BigInteger modulus) {
+    this.modulus = new LongModulus(modulus);
+    this.modulusHalf = modulus.shiftRight(1);
+    this.modulusBitLength = modulus.bitLength();
+  }
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus, must be smaller than 2^63 and not 2^62
+   */
+  public LongFieldDefinition(long modulus) {
+    this(BigInteger.valueOf(modulus));
+  }
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus as a string, must be smaller than 2^63 and not 2^62
+   */
+  public LongFieldDefinition(String modulus) {
+    this(new BigInteger(modulus));
+  }
+
+  @Override
+  public FieldElement createElement(long value) {
+    return LongFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(String value) {
+    return LongFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(BigInteger value) {
+    return LongFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public BigInteger getModulus() {
+    return modulus.getBigInteger();
+  }
+
+  @Override
+  public int getBitLength() {
+    return modulusBitLength;
+  }
+
+  @Override
+  public StrictBitVector convertToBitVector(FieldElement fieldElement) {
+    return new StrictBitVector(serialize(fieldElement));
+  }
+
+  @Override
+  public BigInteger convertToUnsigned(FieldElement value) {
+    return value.toBigInteger();
+  }
+
+  @Override
+  public BigInteger convertToSigned(BigInteger asUnsigned) {
+    return FieldUtils.convertRepresentation(asUnsigned, getModulus(), modulusHalf);
+  }
+
+  @Override
+  public byte[] serialize(FieldElement fieldElement) {
+    byte[] bytes = new byte[modulus.getByteLength()];
+    modulus.toBytes(LongFieldElement.value(fieldElement, modulus), bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public byte[] serialize(List<FieldElement> fieldElements) {
+    byte[] bytes = new byte[modulus.getByteLength() * fieldElements.size()];
+    serialize(fieldElements, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public void serialize(List<FieldElement> fieldElements, ByteBuffer buffer) {
+    int length = modulus.getByteLength() * fieldElements.size();
+    if (buffer.hasArray() && buffer.remaining() >= length) {
+      serialize(fieldElements, buffer.array(), buffer.arrayOffset() + buffer.position());
+      buffer.position(buffer.position() + length);
+    } else if (modulus.getByteLength() == Long.BYTES) {
+      for (FieldElement element : fieldElements) {
+        buffer.putLong(LongFieldElement.value(element, modulus));
+      }
+    } else {
+      buffer.put(serialize(fieldElements));
+    }
+  }
+
+  private void serialize(List<FieldElement> fieldElements, byte[] bytes, int offset) {
+    int length = modulus.getByteLength();
+    for (int i = 0; i < fieldElements.size(); i++) {
+      modulus.toBytes(LongFieldElement.value(fieldElements.get(i), modulus), bytes,
+          offset + i * length);
+    }
+  }
+
+  @Override
+  public FieldElement deserialize(byte[] bytes) {
+    return LongFieldElement.wrap(modulus.fromBytes(bytes, 0), modulus);
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(byte[] bytes) {
+    return deserializeList(bytes, 0, bytes.length / modulus.getByteLength());
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(ByteBuffer buffer) {
+    int count = buffer.remaining() / modulus.getByteLength();
+    if (buffer.hasArray()) {
+      List<FieldElement> elements =
+          deserializeList(buffer.array(), buffer.arrayOffset() + buffer.position(), count);
+      buffer.position(buffer.position() + count * modulus.getByteLength());
+      return elements;
+    }
+    byte[] bytes = new byte[count * modulus.getByteLength()];
+    buffer.get(bytes);
+    return deserializeList(bytes, 0, count);
+  }
+
+  private List<FieldElement> deserializeList(byte[] bytes, int offset, int count) {
+    int length = modulus.getByteLength();
+    List<FieldElement> elements = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      elements.add(LongFieldElement.wrap(modulus.fromBytes(bytes, offset + i * length), modulus));
+    }
+    return elements;
+  }
+}
@@ -0,0 +1,100 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+import java.math.BigInteger;
+
+/**
+ * An element in a field defined by a {@link LongModulus}, stored as a primitive long.
+ */
+final class LongFieldElement implements FieldElement {
+
+  private static final long serialVersionUID = 1L;
+
+  private final long value;
+  private final LongModulus modulus;
+
+  private LongFieldElement(long value, LongModulus modulus) {
+    this.value = value;
+    this.modulus = modulus;
+  }
+
+  /**
+   * Wraps a value already reduced modulo the modulus.
+   */
+  static LongFieldElement wrap(long value, LongModulus modulus) {
+    return new LongFieldElement(value, modulus);
+  }
+
+  static FieldElement create(BigInteger value, LongModulus modulus) {
+    return new LongFieldElement(modulus.reduce(value), modulus);
+  }
+
+  static FieldElement create(long value, LongModulus modulus) {
+    return new LongFieldElement(modulus.reduce(value), modulus);
+  }
+
+  static FieldElement create(String string, LongModulus modulus) {
+    return create(new BigInteger(string), modulus);
+  }
+
+  /**
+   * Gets the value of an element of this field. Elements of other implementations are converted.
+   */
+  static long value(FieldElement element, LongModulus modulus) {
+    if (element instanceof LongFieldElement) {
+      LongFieldElement other = (LongFieldElement) element;
+      if (other.modulus == modulus || other.modulus.equals(modulus)) {
+        return other.value;
+      }
+    }
+    return modulus.reduce(element.toBigInteger());
+  }
+
+  @Override
+  public FieldElement add(FieldElement operand) {
+    return wrap(modulus.add(value, value(operand, modulus)), modulus);
+  }
+
+  @Override
+  public FieldElement subtract(FieldElement operand) {
+    return wrap(modulus.subtract(value, value(operand, modulus)), modulus);
+  }
+
+  @Override
+  public FieldElement negate() {
+    return wrap(modulus.negate(value), modulus);
+  }
+
+  @Override
+  public FieldElement multiply(FieldElement operand) {
+    return wrap(modulus.multiply(value, value(operand, modulus)), modulus);
+  }
+
+  @Override
+  public FieldElement sqrt() {
+    return create(MathUtils.modularSqrt(toBigInteger(), modulus.getBigInteger()), modulus);
+  }
+
+  @Override
+  public FieldElement modInverse() {
+    return wrap(modulus.inverse(value), modulus);
+  }
+
+  @Override
+  public boolean isZero() {
+    return value == 0;
+  }
+
+  @Override
+  public BigInteger toBigInteger() {
+    return BigInteger.valueOf(value);
+  }
+
+  @Override
+  public String toString() {
+    return "LongFieldElement{"
+        + "value=" + value
+        + ", modulus=" + modulus
+        + '}';
+  }
+}
@@ -0,0 +1,184 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+import java.io.Serializable;
+import java.math.BigInteger;
+
+/**
+ * A modulus <i>p &lt; 2<sup>63</sup></i> fitting in a single <code>long</code>. Values modulo
+ * <i>p</i> are non-negative longs smaller than <i>p</i>, so sums of two values fit in 64 bits read
+ * as unsigned. Products are reduced using Barrett reduction on the 126 bit product computed with
+ * {@link MathUtils#unsignedMultiplyHigh(long, long)}.
+ */
+final class LongModulus implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+  private final long value;
+  private final BigInteger bigInteger;
+  private final int bitLength;
+  private final int byteLength;
+  // floor(2^(2 * bitLength) / p), at most bitLength + 1 bits and read as unsigned
+  private final long mu;
+
+  /**
+   * Creates a new modulus. The value must be larger than 1 and smaller than 2^63, and must not be
+   * 2^62, for which the Barrett constant would need 65 bits.
+   *
+   * @param value the underlying value to use as modulus.
+   */
+  LongModulus(BigInteger value) {
+    if (value.compareTo(BigInteger.ONE) <= 0) {
+      throw new IllegalArgumentException("Only modulus larger than 1 is acceptable");
+    }
+    if (value.bitLength() > 63) {
+      throw new IllegalArgumentException("Modulus must be smaller than 2^63, was " + value);
+    }
+    this.bigInteger = value;
+    this.value = value.longValue();
+    this.bitLength = value.bitLength();
+    this.byteLength = 1 + (bitLength - 1) / 8;
+    BigInteger mu = BigInteger.ONE.shiftLeft(2 * bitLength).divide(value);
+    if (mu.bitLength() > Long.SIZE) {
+      throw new IllegalArgumentException("Modulus " + value + " is not supported, use a modulus "
+          + "which is not a power of two");
+    }
+    this.mu = mu.longValue();
+  }
+
+  BigInteger getBigInteger() {
+    return bigInteger;
+  }
+
+  /**
+   * Gets the number of bytes of a serialized value.
+   */
+  int getByteLength() {
+    return byteLength;
+  }
+
+  long reduce(long x) {
+    return Math.floorMod(x, value);
+  }
+
+  long reduce(BigInteger x) {
+    return x.mod(bigInteger).longValue();
+  }
+
+  long add(long a, long b) {
+    long sum = a + b;
+    // A negative sum has overflowed into the sign bit and is thus larger than the modulus
+    return sum < 0 || sum >= value ? sum - value : sum;
+  }
+
+  long subtract(long a, long b) {
+    long diff = a - b;
+    return diff < 0 ? diff + value : diff;
+  }
+
+  long negate(long a) {
+    return a == 0 ? 0 : value - a;
+  }
+
+  /**
+   * Computes <i>ab mod p</i> for reduced values <i>a</i> and <i>b</i>.
+   */
+  long multiply(long a, long b) {
+    return reduce(MathUtils.unsignedMultiplyHigh(a, b), a * b);
+  }
+
+  /**
+   * Barrett reduction of <i>x = hi 2<sup>64</sup> + lo &lt; p<sup>2</sup></i>.
+   */
+  private long reduce(long hi, long lo) {
+    // x >> (k - 1), fits in k + 1 <= 64 bits
+    long shifted = (hi << (65 - bitLength)) | (lo >>> (bitLength - 1));
+    long productHigh = MathUtils.unsignedMultiplyHigh(shifted, mu);
+    long productLow = shifted * mu;
+    long quotient = bitLength == 63
+        ? productHigh
+        : (productHigh << (63 - bitLength)) | (productLow >>> (bitLength + 1));
+    // The estimate is at most two too small, so the remainder is below 3p which may not fit in
+    // 64 bits for the largest moduli. Keep track of the high word while correcting.
+    long subtrahend = quotient * value;
+    long remainder = lo - subtrahend;
+    long remainderHigh = hi - MathUtils.unsignedMultiplyHigh(quotient, value)
+        - (Long.compareUnsigned(lo, subtrahend) < 0 ? 1 : 0);
+    while (remainderHigh != 0 || Long.compareUnsigned(remainder, value) >= 0) {
+      remainderHigh -= Long.compareUnsigned(remainder, value) < 0 ? 1 : 0;
+      remainder -= value;
+    }
+    return remainder;
+  }
+
+  /**
+   * Computes the inverse of a value using the extended Euclidean algorithm.
+   *
+   * @param a the value to invert
+   * @return the inverse of a
+   * @throws ArithmeticException if the value is not invertible
+   */
+  long inverse(long a) {
+    long r0 = value;
+    long r1 = a;
+    long t0 = 0;
+    long t1 = 1;
+    while (r1 != 0) {
+      long q = r0 / r1;
+      long r = r0 - q * r1;
+      r0 = r1;
+      r1 = r;
+      // Coefficients are bounded by p in absolute value
+      long t = t0 - q * t1;
+      t0 = t1;
+      t1 = t;
+    }
+    if (r0 != 1) {
+      throw new ArithmeticException("Value " + a + " is not invertible modulo " + value);
+    }
+    return t0 < 0 ? t0 + value : t0;
+  }
+
+  /**
+   * Writes a value as a big endian integer of {@link #getByteLength()} bytes.
+   */
+  void toBytes(long x, byte[] bytes, int offset) {
+    for (int i = 0; i < byteLength; i++) {
+      bytes[offset + byteLength - 1 - i] = (byte) (x >>> (8 * i));
+    }
+  }
+
+  /**
+   * Reads a big endian integer of {@link #getByteLength()} bytes.
+   */
+  long fromBytes(byte[] bytes, int offset) {
+    long x = 0;
+    for (int i = 0; i < byteLength; i++) {
+      x = (x << 8) | (bytes[offset + i] & 0xFFL);
+    }
+    // Serialized values are expected to be reduced, but handled as for the other definitions
+    return Long.compareUnsigned(x, value) < 0 ? x : Long.remainderUnsigned(x, value);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return value == ((LongModulus) o).value;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(value);
+  }
+
+  @Override
+  public String toString() {
+    return "LongModulus{"
+        + "value=" + value
+        + '}';
+  }
+}
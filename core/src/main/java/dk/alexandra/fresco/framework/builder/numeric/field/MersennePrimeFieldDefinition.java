@@ -2,6 +2,7 @@ package dk.alexandra.fresco.framework.builder.numeric.field;
 
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,7 +32,7 @@ public final class MersennePrimeFieldDefinition implements FieldDefinition {
     this.modulus = new MersennePrimeModulus(bitLength, constant);
     this.modulusHalf = modulus.getPrime().shiftRight(1);
     this.modulusBitLength = bitLength;
-    this.utils = new FieldUtils(modulusBitLength, this::createElement);
+    this.utils = new FieldUtils(modulusBitLength, getModulus(), this::createElement);
   }
 
   /** Try to find a pseudo-Mersenne prime with the given bit length. */
@@ -93,6 +94,11 @@ public final class MersennePrimeFieldDefinition implements FieldDefinition {
     return utils.serializeList(fieldElements);
   }
 
+  @Override
+  public void serialize(List<FieldElement> fieldElements, ByteBuffer buffer) {
+    utils.serializeList(fieldElements, buffer);
+  }
+
   @Override
   public FieldElement deserialize(byte[] bytes) {
     return utils.deserialize(bytes);
@@ -103,6 +109,11 @@ public final class MersennePrimeFieldDefinition implements FieldDefinition {
     return utils.deserializeList(bytes);
   }
 
+  @Override
+  public List<FieldElement> deserializeList(ByteBuffer buffer) {
+    return utils.deserializeList(buffer);
+  }
+
   private static Map<Integer, Integer> createPrecomputedModuli() {
     return new HashMap<Integer, Integer>() {{
       put(512, 569);
@@ -0,0 +1,70 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.util.Arrays;
+
+/**
+ * A mutable field element of a {@link MontgomeryFieldDefinition}, used to compute sums and sums
+ * of products without allocating a new element for each operation.
+ *
+ * <p>
+ * The accumulator is not thread safe. Accumulators are created by {@link
+ * MontgomeryFieldDefinition#createAccumulator()}. Besides the operations of {@link
+ * FieldAccumulator} the accumulated value can be multiplied in place.
+ * </p>
+ */
+public final class MontgomeryAccumulator implements FieldAccumulator {
+
+  private final MontgomeryModulus modulus;
+  private final long[] value;
+  private final long[] product;
+  private final long[] scratch;
+
+  MontgomeryAccumulator(MontgomeryModulus modulus) {
+    this.modulus = modulus;
+    this.value = new long[modulus.getLimbs()];
+    this.product = new long[modulus.getLimbs()];
+    this.scratch = modulus.createScratch();
+  }
+
+  @Override
+  public MontgomeryAccumulator add(FieldElement element) {
+    modulus.add(value, MontgomeryFieldElement.limbs(element, modulus), value);
+    return this;
+  }
+
+  @Override
+  public MontgomeryAccumulator subtract(FieldElement element) {
+    modulus.subtract(value, MontgomeryFieldElement.limbs(element, modulus), value);
+    return this;
+  }
+
+  @Override
+  public MontgomeryAccumulator addProduct(FieldElement left, FieldElement right) {
+    modulus.multiply(MontgomeryFieldElement.limbs(left, modulus),
+        MontgomeryFieldElement.limbs(right, modulus), product, scratch);
+    modulus.add(value, product, value);
+    return this;
+  }
+
+  /**
+   * Multiplies the accumulated value by an element.
+   *
+   * @param element the factor
+   * @return this accumulator
+   */
+  public MontgomeryAccumulator multiply(FieldElement element) {
+    modulus.multiply(value, MontgomeryFieldElement.limbs(element, modulus), value, scratch);
+    return this;
+  }
+
+  @Override
+  public MontgomeryAccumulator reset() {
+    Arrays.fill(value, 0L);
+    return this;
+  }
+
+  @Override
+  public FieldElement get() {
+    return MontgomeryFieldElement.wrap(value.clone(), modulus);
+  }
+}
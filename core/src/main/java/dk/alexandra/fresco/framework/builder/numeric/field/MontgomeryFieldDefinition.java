@@ -0,0 +1,161 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Defines a field based on a {@link MontgomeryModulus}. Elements are stored in Montgomery form as
+ * fixed width arrays of 64 bit limbs, which avoids the allocation of intermediate {@link
+ * BigInteger}s and the division in the modular reduction. The modulus must be odd.
+ *
+ * <p>
+ * Elements are serialized in the same format as for the other field definitions, so parties may
+ * use different implementations for the same modulus. For computing sums of products without
+ * allocation use a {@link MontgomeryAccumulator}.
+ * </p>
+ */
+public final class MontgomeryFieldDefinition implements FieldDefinition {
+
+  private final MontgomeryModulus modulus;
+  private final BigInteger modulusHalf;
+  private final int modulusBitLength;
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus, must be odd
+   */
+  public MontgomeryFieldDefinition(BigInteger modulus) {
+    this.modulus = new MontgomeryModulus(modulus);
+    this.modulusHalf = modulus.shiftRight(1);
+    this.modulusBitLength = modulus.bitLength();
+  }
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus as a string, must be odd
+   */
+  public MontgomeryFieldDefinition(String modulus) {
+    this(new BigInteger(modulus));
+  }
+
+  @Override
+  public MontgomeryAccumulator createAccumulator() {
+    return new MontgomeryAccumulator(modulus);
+  }
+
+  @Override
+  public FieldElement createElement(long value) {
+    return MontgomeryFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(String value) {
+    return MontgomeryFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(BigInteger value) {
+    return MontgomeryFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public BigInteger getModulus() {
+    return modulus.getBigInteger();
+  }
+
+  @Override
+  public int getBitLength() {
+    return modulusBitLength;
+  }
+
+  @Override
+  public StrictBitVector convertToBitVector(FieldElement fieldElement) {
+    return new StrictBitVector(serialize(fieldElement));
+  }
+
+  @Override
+  public BigInteger convertToUnsigned(FieldElement value) {
+    return value.toBigInteger();
+  }
+
+  @Override
+  public BigInteger convertToSigned(BigInteger asUnsigned) {
+    return FieldUtils.convertRepresentation(asUnsigned, getModulus(), modulusHalf);
+  }
+
+  @Override
+  public byte[] serialize(FieldElement fieldElement) {
+    byte[] bytes = new byte[modulus.getByteLength()];
+    modulus.toBytes(MontgomeryFieldElement.limbs(fieldElement, modulus), bytes, 0,
+        modulus.createScratch());
+    return bytes;
+  }
+
+  @Override
+  public byte[] serialize(List<FieldElement> fieldElements) {
+    byte[] bytes = new byte[modulus.getByteLength() * fieldElements.size()];
+    serialize(fieldElements, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public void serialize(List<FieldElement> fieldElements, ByteBuffer buffer) {
+    int length = modulus.getByteLength() * fieldElements.size();
+    if (buffer.hasArray() && buffer.remaining() >= length) {
+      serialize(fieldElements, buffer.array(), buffer.arrayOffset() + buffer.position());
+      buffer.position(buffer.position() + length);
+    } else {
+      buffer.put(serialize(fieldElements));
+    }
+  }
+
+  private void serialize(List<FieldElement> fieldElements, byte[] bytes, int offset) {
+    int length = modulus.getByteLength();
+    long[] scratch = modulus.createScratch();
+    for (int i = 0; i < fieldElements.size(); i++) {
+      modulus.toBytes(MontgomeryFieldElement.limbs(fieldElements.get(i), modulus), bytes,
+          offset + i * length, scratch);
+    }
+  }
+
+  @Override
+  public FieldElement deserialize(byte[] bytes) {
+    return MontgomeryFieldElement.wrap(modulus.fromBytes(bytes, 0, modulus.createScratch()),
+        modulus);
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(byte[] bytes) {
+    return deserializeList(bytes, 0, bytes.length / modulus.getByteLength());
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(ByteBuffer buffer) {
+    int count = buffer.remaining() / modulus.getByteLength();
+    if (buffer.hasArray()) {
+      List<FieldElement> elements =
+          deserializeList(buffer.array(), buffer.arrayOffset() + buffer.position(), count);
+      buffer.position(buffer.position() + count * modulus.getByteLength());
+      return elements;
+    }
+    byte[] bytes = new byte[count * modulus.getByteLength()];
+    buffer.get(bytes);
+    return deserializeList(bytes, 0, count);
+  }
+
+  private List<FieldElement> deserializeList(byte[] bytes, int offset, int count) {
+    int length = modulus.getByteLength();
+    long[] scratch = modulus.createScratch();
+    List<FieldElement> elements = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      long[] value = modulus.fromBytes(bytes, offset + i * length, scratch);
+      elements.add(MontgomeryFieldElement.wrap(value, modulus));
+    }
+    return elements;
+  }
+}
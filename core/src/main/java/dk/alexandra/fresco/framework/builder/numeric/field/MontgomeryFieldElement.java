@@ -0,0 +1,118 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+import java.math.BigInteger;
+
+/**
+ * An element in a field defined by a {@link MontgomeryModulus}, stored in Montgomery form as an
+ * array of limbs.
+ */
+final class MontgomeryFieldElement implements FieldElement {
+
+  private static final long serialVersionUID = 1L;
+
+  private final long[] value;
+  private final MontgomeryModulus modulus;
+
+  private MontgomeryFieldElement(long[] value, MontgomeryModulus modulus) {
+    this.value = value;
+    this.modulus = modulus;
+  }
+
+  /**
+   * Wraps an array of limbs already in Montgomery form. The array must not be modified afterwards.
+   */
+  static MontgomeryFieldElement wrap(long[] value, MontgomeryModulus modulus) {
+    return new MontgomeryFieldElement(value, modulus);
+  }
+
+  static FieldElement create(BigInteger value, MontgomeryModulus modulus) {
+    return new MontgomeryFieldElement(modulus.toMontgomery(value), modulus);
+  }
+
+  static FieldElement create(long value, MontgomeryModulus modulus) {
+    return create(BigInteger.valueOf(value), modulus);
+  }
+
+  static FieldElement create(String string, MontgomeryModulus modulus) {
+    return create(new BigInteger(string), modulus);
+  }
+
+  /**
+   * Gets the limbs of the Montgomery form of an element of this field. Elements of other
+   * implementations are converted.
+   */
+  static long[] limbs(FieldElement element, MontgomeryModulus modulus) {
+    if (element instanceof MontgomeryFieldElement) {
+      MontgomeryFieldElement other = (MontgomeryFieldElement) element;
+      if (other.modulus == modulus || other.modulus.equals(modulus)) {
+        return other.value;
+      }
+    }
+    return modulus.toMontgomery(element.toBigInteger());
+  }
+
+  long[] getLimbs() {
+    return value;
+  }
+
+  @Override
+  public FieldElement add(FieldElement operand) {
+    long[] result = new long[value.length];
+    modulus.add(value, limbs(operand, modulus), result);
+    return wrap(result, modulus);
+  }
+
+  @Override
+  public FieldElement subtract(FieldElement operand) {
+    long[] result = new long[value.length];
+    modulus.subtract(value, limbs(operand, modulus), result);
+    return wrap(result, modulus);
+  }
+
+  @Override
+  public FieldElement negate() {
+    long[] result = new long[value.length];
+    modulus.negate(value, result);
+    return wrap(result, modulus);
+  }
+
+  @Override
+  public FieldElement multiply(FieldElement operand) {
+    long[] result = new long[value.length];
+    modulus.multiply(value, limbs(operand, modulus), result, modulus.createScratch());
+    return wrap(result, modulus);
+  }
+
+  @Override
+  public FieldElement sqrt() {
+    return create(MathUtils.modularSqrt(toBigInteger(), getModulus()), modulus);
+  }
+
+  @Override
+  public FieldElement modInverse() {
+    return create(toBigInteger().modInverse(getModulus()), modulus);
+  }
+
+  @Override
+  public boolean isZero() {
+    return modulus.isZero(value);
+  }
+
+  @Override
+  public BigInteger toBigInteger() {
+    return modulus.fromMontgomery(value);
+  }
+
+  private BigInteger getModulus() {
+    return modulus.getBigInteger();
+  }
+
+  @Override
+  public String toString() {
+    return "MontgomeryFieldElement{"
+        + "value=" + toBigInteger()
+        + ", modulus=" + modulus
+        + '}';
+  }
+}
@@ -0,0 +1,373 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An odd modulus <i>M</i> of <i>n</i> 64 bit limbs supporting arithmetic on values in Montgomery
+ * form, i.e., the value <i>x</i> is represented by <i>xR mod M</i> where
+ * <i>R = 2<sup>64n</sup></i>.
+ *
+ * <p>
+ * Values are stored as <code>long</code> arrays of <i>n</i> limbs, least significant limb first,
+ * with each limb read as an unsigned integer. All values are assumed to be reduced, i.e., smaller
+ * than the modulus. The arithmetic methods write the result to a given array, which may be one of
+ * the operands, so callers can avoid allocating.
+ * </p>
+ */
+final class MontgomeryModulus implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+  private final BigInteger value;
+  private final int limbs;
+  private final int byteLength;
+  private final long[] modulus;
+  // -M^-1 mod 2^64
+  private final long inverse;
+  // R^2 mod M, used to convert into Montgomery form
+  private final long[] rSquared;
+
+  /**
+   * Creates a new modulus. The value must be odd and larger than 1.
+   *
+   * @param value the underlying value to use as modulus.
+   */
+  MontgomeryModulus(BigInteger value) {
+    Objects.requireNonNull(value);
+    if (value.compareTo(BigInteger.ONE) <= 0) {
+      throw new IllegalArgumentException("Only modulus larger than 1 is acceptable");
+    }
+    if (!value.testBit(0)) {
+      throw new IllegalArgumentException("Montgomery arithmetic requires an odd modulus");
+    }
+    this.value = value;
+    this.limbs = (value.bitLength() + 63) / 64;
+    this.byteLength = 1 + (value.bitLength() - 1) / 8;
+    this.modulus = toLimbs(value, limbs);
+    long inv = modulus[0];
+    // Newton iteration, each step doubles the number of correct low bits
+    for (int i = 0; i < 5; i++) {
+      inv *= 2 - modulus[0] * inv;
+    }
+    this.inverse = -inv;
+    this.rSquared = toLimbs(BigInteger.ONE.shiftLeft(128 * limbs).mod(value), limbs);
+  }
+
+  BigInteger getBigInteger() {
+    return value;
+  }
+
+  /**
+   * Gets the number of limbs of values modulo this modulus.
+   */
+  int getLimbs() {
+    return limbs;
+  }
+
+  /**
+   * Gets the number of bytes of a serialized value.
+   */
+  int getByteLength() {
+    return byteLength;
+  }
+
+  /**
+   * Creates a scratch array large enough for {@link #multiply(long[], long[], long[], long[])}.
+   */
+  long[] createScratch() {
+    return new long[limbs + 2];
+  }
+
+  /**
+   * Converts an arbitrary integer to Montgomery form.
+   *
+   * @param x the integer
+   * @return <i>xR mod M</i>
+   */
+  long[] toMontgomery(BigInteger x) {
+    long[] result = toLimbs(x.mod(value), limbs);
+    multiply(result, rSquared, result, createScratch());
+    return result;
+  }
+
+  /**
+   * Converts a value in Montgomery form back to an integer.
+   *
+   * @param x the value <i>xR mod M</i>
+   * @return <i>x</i>
+   */
+  BigInteger fromMontgomery(long[] x) {
+    long[] result = new long[limbs];
+    reduce(x, result, createScratch());
+    return toBigInteger(result);
+  }
+
+  /**
+   * Computes the Montgomery product <i>abR<sup>-1</sup> mod M</i> using the coarsely integrated
+   * operand scanning method.
+   *
+   * @param a the first operand
+   * @param b the second operand
+   * @param result array for the result, may be one of the operands
+   * @param scratch array created by {@link #createScratch()}
+   */
+  void multiply(long[] a, long[] b, long[] result, long[] scratch) {
+    long[] t = scratch;
+    Arrays.fill(t, 0L);
+    for (int i = 0; i < limbs; i++) {
+      long ai = a[i];
+      long carry = 0L;
+      for (int j = 0; j < limbs; j++) {
+        long lo = ai * b[j];
+        long hi = MathUtils.unsignedMultiplyHigh(ai, b[j]);
+        long sum = t[j] + lo;
+        hi += Long.compareUnsigned(sum, lo) < 0 ? 1 : 0;
+        sum += carry;
+        hi += Long.compareUnsigned(sum, carry) < 0 ? 1 : 0;
+        t[j] = sum;
+        carry = hi;
+      }
+      long top = t[limbs] + carry;
+      t[limbs + 1] = Long.compareUnsigned(top, carry) < 0 ? 1 : 0;
+      t[limbs] = top;
+      reduceStep(t);
+    }
+    finish(t, result);
+  }
+
+  /**
+   * Computes <i>aR<sup>-1</sup> mod M</i>, i.e., converts out of Montgomery form. The result may
+   * be written to the scratch array.
+   */
+  private void reduce(long[] a, long[] result, long[] scratch) {
+    long[] t = scratch;
+    Arrays.fill(t, 0L);
+    System.arraycopy(a, 0, t, 0, limbs);
+    for (int i = 0; i < limbs; i++) {
+      reduceStep(t);
+    }
+    finish(t, result);
+  }
+
+  /**
+   * Adds a multiple of the modulus to <i>t</i> making the lowest limb zero, and shifts the result
+   * down by one limb.
+   */
+  private void reduceStep(long[] t) {
+    long factor = t[0] * inverse;
+    long lo = factor * modulus[0];
+    long sum = t[0] + lo;
+    long carry = MathUtils.unsignedMultiplyHigh(factor, modulus[0])
+        + (Long.compareUnsigned(sum, lo) < 0 ? 1 : 0);
+    for (int j = 1; j < limbs; j++) {
+      lo = factor * modulus[j];
+      long hi = MathUtils.unsignedMultiplyHigh(factor, modulus[j]);
+      sum = t[j] + lo;
+      hi += Long.compareUnsigned(sum, lo) < 0 ? 1 : 0;
+      sum += carry;
+      hi += Long.compareUnsigned(sum, carry) < 0 ? 1 : 0;
+      t[j - 1] = sum;
+      carry = hi;
+    }
+    sum = t[limbs] + carry;
+    t[limbs - 1] = sum;
+    t[limbs] = t[limbs + 1] + (Long.compareUnsigned(sum, carry) < 0 ? 1 : 0);
+    t[limbs + 1] = 0L;
+  }
+
+  /**
+   * Copies the <i>n + 1</i> limb value <i>t &lt; 2M</i> to the result, subtracting the modulus if
+   * needed.
+   */
+  private void finish(long[] t, long[] result) {
+    if (t[limbs] != 0 || compare(t, modulus) >= 0) {
+      subtractModulus(t, result);
+    } else {
+      System.arraycopy(t, 0, result, 0, limbs);
+    }
+  }
+
+  /**
+   * Computes <i>a + b mod M</i>.
+   *
+   * @param a the first operand
+   * @param b the second operand
+   * @param result array for the result, may be one of the operands
+   */
+  void add(long[] a, long[] b, long[] result) {
+    long carry = 0L;
+    for (int i = 0; i < limbs; i++) {
+      long sum = a[i] + b[i];
+      long overflow = Long.compareUnsigned(sum, a[i]) < 0 ? 1 : 0;
+      sum += carry;
+      overflow += Long.compareUnsigned(sum, carry) < 0 ? 1 : 0;
+      result[i] = sum;
+      carry = overflow;
+    }
+    if (carry != 0 || compare(result, modulus) >= 0) {
+      subtractModulus(result, result);
+    }
+  }
+
+  /**
+   * Computes <i>a - b mod M</i>.
+   *
+   * @param a the first operand
+   * @param b the second operand
+   * @param result array for the result, may be one of the operands
+   */
+  void subtract(long[] a, long[] b, long[] result) {
+    long borrow = 0L;
+    for (int i = 0; i < limbs; i++) {
+      long diff = a[i] - b[i];
+      long underflow = Long.compareUnsigned(a[i], b[i]) < 0 ? 1 : 0;
+      underflow += Long.compareUnsigned(diff, borrow) < 0 ? 1 : 0;
+      result[i] = diff - borrow;
+      borrow = underflow;
+    }
+    if (borrow != 0) {
+      long carry = 0L;
+      for (int i = 0; i < limbs; i++) {
+        long sum = result[i] + modulus[i];
+        long overflow = Long.compareUnsigned(sum, result[i]) < 0 ? 1 : 0;
+        sum += carry;
+        overflow += Long.compareUnsigned(sum, carry) < 0 ? 1 : 0;
+        result[i] = sum;
+        carry = overflow;
+      }
+    }
+  }
+
+  /**
+   * Computes <i>-a mod M</i>.
+   *
+   * @param a the operand
+   * @param result array for the result, may be the operand
+   */
+  void negate(long[] a, long[] result) {
+    if (isZero(a)) {
+      Arrays.fill(result, 0, limbs, 0L);
+    } else {
+      long borrow = 0L;
+      for (int i = 0; i < limbs; i++) {
+        long diff = modulus[i] - a[i];
+        long underflow = Long.compareUnsigned(modulus[i], a[i]) < 0 ? 1 : 0;
+        underflow += Long.compareUnsigned(diff, borrow) < 0 ? 1 : 0;
+        result[i] = diff - borrow;
+        borrow = underflow;
+      }
+    }
+  }
+
+  boolean isZero(long[] a) {
+    for (int i = 0; i < limbs; i++) {
+      if (a[i] != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes the value of <i>x</i>, in Montgomery form, as a big endian integer of {@link
+   * #getByteLength()} bytes.
+   *
+   * @param x the value in Montgomery form
+   * @param bytes the array to write to
+   * @param offset the position of the first byte to write
+   * @param scratch array created by {@link #createScratch()}
+   */
+  void toBytes(long[] x, byte[] bytes, int offset, long[] scratch) {
+    reduce(x, scratch, scratch);
+    for (int i = 0; i < byteLength; i++) {
+      bytes[offset + byteLength - 1 - i] = (byte) (scratch[i / 8] >>> (8 * (i % 8)));
+    }
+  }
+
+  /**
+   * Reads a big endian integer of {@link #getByteLength()} bytes and converts it to Montgomery
+   * form.
+   *
+   * @param bytes the array to read from
+   * @param offset the position of the first byte to read
+   * @param scratch array created by {@link #createScratch()}
+   * @return the value read in Montgomery form
+   */
+  long[] fromBytes(byte[] bytes, int offset, long[] scratch) {
+    long[] result = new long[limbs];
+    for (int i = 0; i < byteLength; i++) {
+      result[i / 8] |= (bytes[offset + byteLength - 1 - i] & 0xFFL) << (8 * (i % 8));
+    }
+    if (compare(result, modulus) >= 0) {
+      // Not reduced, which is unexpected but handled as for the other field definitions
+      return toMontgomery(toBigInteger(result));
+    }
+    multiply(result, rSquared, result, scratch);
+    return result;
+  }
+
+  private void subtractModulus(long[] a, long[] result) {
+    long borrow = 0L;
+    for (int i = 0; i < limbs; i++) {
+      long diff = a[i] - modulus[i];
+      long underflow = Long.compareUnsigned(a[i], modulus[i]) < 0 ? 1 : 0;
+      underflow += Long.compareUnsigned(diff, borrow) < 0 ? 1 : 0;
+      result[i] = diff - borrow;
+      borrow = underflow;
+    }
+  }
+
+  private int compare(long[] a, long[] b) {
+    for (int i = limbs - 1; i >= 0; i--) {
+      int cmp = Long.compareUnsigned(a[i], b[i]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  private static long[] toLimbs(BigInteger x, int limbs) {
+    long[] result = new long[limbs];
+    for (int i = 0; i < limbs; i++) {
+      result[i] = x.shiftRight(64 * i).longValue();
+    }
+    return result;
+  }
+
+  private static BigInteger toBigInteger(long[] x) {
+    byte[] bytes = new byte[x.length * 8 + 1];
+    for (int i = 0; i < x.length; i++) {
+      for (int j = 0; j < 8; j++) {
+        bytes[bytes.length - 1 - 8 * i - j] = (byte) (x[i] >>> (8 * j));
+      }
+    }
+    return new BigInteger(bytes);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return value.equals(((MontgomeryModulus) o).value);
+  }
+
+  @Override
+  public int hashCode() {
+    return value.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "MontgomeryModulus{"
+        + "value=" + value
+        + '}';
+  }
+}
@@ -1,5 +1,7 @@
 package dk.alexandra.fresco.framework.network;
 
+import dk.alexandra.fresco.framework.network.serializers.BooleanSerializer;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -30,6 +32,42 @@ public interface Network {
    */
   byte[] receive(int partyId);
 
+  /**
+   * Blocking call that only returns once the data has been fully received. Unlike {@link
+   * #receive(int)} the caller does not get ownership of the data: implementations may return a
+   * read-only view into their own buffers, which is only valid until the caller sends or receives
+   * the next batch of messages. By default the result of {@link #receive(int)} is wrapped.
+   *
+   * @param partyId the party to receive from
+   * @return a buffer holding the data send by the given partyId
+   */
+  default ByteBuffer receiveBuffer(int partyId) {
+    return ByteBuffer.wrap(receive(partyId));
+  }
+
+  /**
+   * Sends a single bit to party with id partyId. The bit must be received using {@link
+   * #receiveBit(int)}. By default the bit is sent as a message of one byte, but implementations
+   * may pack the bits sent to a party into fewer bytes.
+   *
+   * @param partyId the party to send the bit to
+   * @param bit the bit to send
+   */
+  default void sendBit(int partyId, boolean bit) {
+    send(partyId, new byte[] {BooleanSerializer.toBytes(bit)});
+  }
+
+  /**
+   * Blocking call that only returns once a bit sent using {@link #sendBit(int, boolean)} by the
+   * given party has been received.
+   *
+   * @param partyId the party to receive from
+   * @return the bit sent by the given party
+   */
+  default boolean receiveBit(int partyId) {
+    return BooleanSerializer.fromBytes(receive(partyId)[0]);
+  }
+
   /**
    * Gets the total amount of players. Used for building the default methods.
    *
@@ -0,0 +1,289 @@
+package dk.alexandra.fresco.framework.network.nio;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link CloseableNetwork} implementation based on Java's nio API.
+ *
+ * <p>
+ * In contrast to {@link dk.alexandra.fresco.framework.network.socket.SocketNetwork}, which uses two
+ * threads per opposing party, all channels are handled by a single selector thread. Outgoing
+ * messages are written by the sending thread itself whenever the channel is able to take them, and
+ * only handed over to the selector thread when the channel is congested. Incoming messages are
+ * handed to a blocked receiver without any polling. The wire format is the same as
+ * for the socket based network, i.e., each message is prefixed by an integer indicating the byte
+ * length of the message.
+ * </p>
+ */
+public class NioNetwork implements CloseableNetwork {
+
+  static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+  private static final Logger logger = LoggerFactory.getLogger(NioNetwork.class);
+  private final NetworkConfiguration conf;
+  private final BlockingQueue<byte[]> selfQueue;
+  private final Map<Integer, PeerChannel> peers;
+  private final Selector selector;
+  private final AtomicBoolean wakeupPending;
+  private final Thread thread;
+  private volatile boolean alive;
+  private volatile boolean stopping;
+
+  /**
+   * Creates a network with the given a configuration and a mapping from party ids to channels.
+   *
+   * <p>
+   * The mapping of party ids to channels must be consistent with the network configuration. I.e.,
+   * there should be exactly one mapping for each opposing party (but not for the local party).
+   * Also, the channels must be connected and open.
+   * </p>
+   *
+   * @param conf the network configuration
+   * @param channelMap a mapping from party ids to the channel to be used for communicating with
+   *     the given party.
+   * @param bufferSize the size of the per party direct buffers used for reading and writing
+   * @throws IllegalArgumentException if {@code channelMap} and {@code conf} are inconsistent or
+   *     the channels are not open and connected.
+   */
+  public NioNetwork(NetworkConfiguration conf, Map<Integer, SocketChannel> channelMap,
+      int bufferSize) {
+    Objects.requireNonNull(conf);
+    Objects.requireNonNull(channelMap);
+    if (bufferSize < Integer.BYTES) {
+      throw new IllegalArgumentException("Buffer size must be at least " + Integer.BYTES);
+    }
+    for (int i = 1; i < conf.noOfParties() + 1; i++) {
+      if (i == conf.getMyId()) {
+        continue;
+      }
+      if (!channelMap.containsKey(i)) {
+        throw new IllegalArgumentException("Missing channel for P" + i);
+      }
+      SocketChannel channel = channelMap.get(i);
+      if (!channel.isOpen()) {
+        throw new IllegalArgumentException("Closed channel for P" + i);
+      }
+      if (!channel.isConnected()) {
+        throw new IllegalArgumentException("Unconnected channel for P" + i);
+      }
+    }
+    this.conf = conf;
+    this.selfQueue = new LinkedBlockingQueue<>();
+    this.peers = new HashMap<>(conf.noOfParties() - 1);
+    this.wakeupPending = new AtomicBoolean(false);
+    this.selector = ExceptionConverter.safe(Selector::open, "Unable to open selector");
+    for (Entry<Integer, SocketChannel> entry : channelMap.entrySet()) {
+      int id = entry.getKey();
+      inRange(id);
+      PeerChannel peer = ExceptionConverter.safe(
+          () -> new PeerChannel(entry.getValue(), selector, bufferSize),
+          "Unable to register channel for P" + id);
+      peers.put(id, peer);
+    }
+    this.alive = true;
+    this.thread = new Thread(this::run);
+    this.thread.setDaemon(true);
+    this.thread.setName("nio-network-" + conf.getMyId() + "-" + this.thread.getId());
+    this.thread.start();
+  }
+
+  /**
+   * Creates a network with the given a configuration and a mapping from party ids to channels
+   * using the default buffer size.
+   *
+   * @param conf the network configuration
+   * @param channelMap a mapping from party ids to the channel to be used for communicating with
+   *     the given party.
+   */
+  public NioNetwork(NetworkConfiguration conf, Map<Integer, SocketChannel> channelMap) {
+    this(conf, channelMap, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a network connecting to the parties of the given configuration.
+   *
+   * @param conf the configuration to load the network from.
+   * @param timeout duration to wait for the network to connect
+   */
+  public NioNetwork(NetworkConfiguration conf, Duration timeout) {
+    this(conf, new NioConnector(conf, timeout).getChannelMap());
+  }
+
+  /**
+   * Default constructor using one minute timeout.
+   *
+   * @param conf the configuration to load the network from.
+   */
+  public NioNetwork(NetworkConfiguration conf) {
+    this(conf, NioConnector.DEFAULT_CONNECTION_TIMEOUT);
+  }
+
+  @Override
+  public void send(int partyId, byte[] data) {
+    if (partyId == conf.getMyId()) {
+      selfQueue.add(data);
+    } else {
+      inRange(partyId);
+      PeerChannel peer = peers.get(partyId);
+      if (!alive || !peer.isOpen()) {
+        throw new RuntimeException(
+            "P" + conf.getMyId() + ": Unable to send to P" + partyId + ". Channel not open");
+      }
+      if (!peer.queueMessage(data) && wakeupPending.compareAndSet(false, true)) {
+        selector.wakeup();
+      }
+    }
+  }
+
+  @Override
+  public byte[] receive(int partyId) {
+    if (partyId == conf.getMyId()) {
+      return ExceptionConverter.safe(selfQueue::take, "Receiving from self failed");
+    }
+    inRange(partyId);
+    PeerChannel peer = peers.get(partyId);
+    try {
+      return peer.takeMessage();
+    } catch (InterruptedException e) {
+      throw new RuntimeException("Receive interrupted", e);
+    } catch (RuntimeException e) {
+      throw new RuntimeException("P" + conf.getMyId() + ": Unable to receive from P" + partyId
+          + ". Channel not open", e);
+    }
+  }
+
+  @Override
+  public int getNoOfParties() {
+    return conf.noOfParties();
+  }
+
+  /**
+   * Closes the network down and releases held resources. This will block until all queued
+   * messages have been written.
+   */
+  @Override
+  public void close() {
+    if (alive) {
+      alive = false;
+      stopping = true;
+      selector.wakeup();
+      ExceptionConverter.safe(() -> {
+        thread.join();
+        return null;
+      }, "Interrupted while closing network");
+      logger.info("P{}: Network closed", conf.getMyId());
+    } else {
+      logger.info("P{}: Network already closed", conf.getMyId());
+    }
+  }
+
+  /**
+   * The selector loop. Handles reads and writes for all channels until the network is stopped and
+   * all pending output has been flushed.
+   */
+  private void run() {
+    try {
+      while (!(stopping && !hasPendingOutput())) {
+        selector.select();
+        wakeupPending.set(false);
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          PeerChannel peer = (PeerChannel) key.attachment();
+          handle(peer, key);
+        }
+        for (PeerChannel peer : peers.values()) {
+          if (peer.hasPendingOutput()) {
+            write(peer);
+          }
+        }
+      }
+      for (PeerChannel peer : peers.values()) {
+        peer.shutdownOutput();
+      }
+    } catch (Exception e) {
+      if (!stopping) {
+        logger.error("P" + conf.getMyId() + ": Network failed unexpectedly", e);
+      }
+    } finally {
+      alive = false;
+      for (PeerChannel peer : peers.values()) {
+        peer.close();
+      }
+      ExceptionConverter.safe(() -> {
+        selector.close();
+        return null;
+      }, "Unable to properly close selector");
+    }
+  }
+
+  private void handle(PeerChannel peer, SelectionKey key) {
+    if (!key.isValid()) {
+      return;
+    }
+    if (key.isReadable()) {
+      try {
+        peer.read();
+      } catch (IOException e) {
+        fail(peer, e);
+        return;
+      }
+    }
+    if (key.isValid() && key.isWritable()) {
+      write(peer);
+    }
+  }
+
+  private void write(PeerChannel peer) {
+    try {
+      peer.write();
+    } catch (IOException e) {
+      fail(peer, e);
+    }
+  }
+
+  private void fail(PeerChannel peer, IOException e) {
+    if (!stopping) {
+      logger.error("P" + conf.getMyId() + ": Channel failed unexpectedly", e);
+    }
+    peer.close();
+  }
+
+  private boolean hasPendingOutput() {
+    for (PeerChannel peer : peers.values()) {
+      if (peer.hasPendingOutput()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Check if a party ID is in the range of known parties.
+   *
+   * @param partyId an ID for a party
+   */
+  private void inRange(final int partyId) {
+    if (!(0 < partyId && partyId < getNoOfParties() + 1)) {
+      throw new IllegalArgumentException(
+          "Party id " + partyId + " not in range 1 ... " + getNoOfParties());
+    }
+  }
+}
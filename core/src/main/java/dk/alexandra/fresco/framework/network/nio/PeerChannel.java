@@ -0,0 +1,288 @@
+package dk.alexandra.fresco.framework.network.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The connection to a single opposing party in a {@link NioNetwork}.
+ *
+ * <p>
+ * Messages are framed by a four byte length prefix. Outgoing messages are copied into a direct
+ * buffer in as large chunks as possible before being written to the channel and incoming bytes are
+ * read into a direct buffer from which complete messages are cut out. A negative length prefix
+ * fails the channel. The array of an incoming message grows with the bytes actually received, so a
+ * corrupt or malicious length prefix cannot make the receiver allocate more memory than the
+ * opposing party sends. All reading is done by the
+ * selector thread of the network. Writing is done either by the selector thread or, if the channel
+ * is not busy, directly by the sending thread to avoid waking up the selector. The write lock
+ * guards the write buffer and the message currently being written.
+ * </p>
+ */
+class PeerChannel {
+
+  private static final int HEADER_BYTES = Integer.BYTES;
+  private static final byte[] CLOSED = new byte[0];
+  private final SocketChannel channel;
+  private final SelectionKey key;
+  private final ByteBuffer readBuffer;
+  private final ByteBuffer writeBuffer;
+  private final Queue<byte[]> outgoing;
+  private final BlockingQueue<byte[]> incoming;
+  private final ReentrantLock writeLock;
+  private byte[] currentOut;
+  private int currentOutOffset;
+  private boolean headerWritten;
+  private byte[] currentIn;
+  private int currentInLength;
+  private int currentInOffset;
+  private volatile boolean open;
+
+  /**
+   * Creates a new peer channel and registers the underlying channel with the given selector.
+   *
+   * @param channel a connected channel
+   * @param selector the selector handling the channel
+   * @param bufferSize the size of the direct buffers used for reading and writing
+   * @throws IOException if the channel cannot be configured or registered
+   */
+  PeerChannel(SocketChannel channel, Selector selector, int bufferSize) throws IOException {
+    this.channel = channel;
+    this.channel.configureBlocking(false);
+    this.channel.socket().setTcpNoDelay(true);
+    this.key = channel.register(selector, SelectionKey.OP_READ, this);
+    this.readBuffer = ByteBuffer.allocateDirect(bufferSize);
+    this.writeBuffer = ByteBuffer.allocateDirect(bufferSize);
+    this.outgoing = new ConcurrentLinkedQueue<>();
+    this.incoming = new LinkedBlockingQueue<>();
+    this.writeLock = new ReentrantLock();
+    this.open = true;
+  }
+
+  /**
+   * Queues a message for sending and tries to write it right away, unless another thread is
+   * currently writing to the channel.
+   *
+   * @param msg the message
+   * @return true if all output was written, false if the selector thread needs to write the rest
+   */
+  boolean queueMessage(byte[] msg) {
+    outgoing.add(msg);
+    if (writeLock.tryLock()) {
+      try {
+        return open && flush();
+      } catch (IOException e) {
+        // Leave the error to be discovered and handled by the selector thread
+        return false;
+      } finally {
+        writeLock.unlock();
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Blocks until a message has been received.
+   *
+   * @return the message
+   * @throws RuntimeException if the channel has been closed and no further messages will arrive
+   * @throws InterruptedException if interrupted while waiting
+   */
+  byte[] takeMessage() throws InterruptedException {
+    byte[] msg = incoming.take();
+    if (msg == CLOSED) {
+      // Put the marker back to make sure later calls fail as well
+      incoming.add(CLOSED);
+      throw new RuntimeException("Channel closed");
+    }
+    return msg;
+  }
+
+  /**
+   * Tests if the channel is still open for sending and receiving.
+   *
+   * @return true if open, false otherwise
+   */
+  boolean isOpen() {
+    return open;
+  }
+
+  /**
+   * Tests if there are outgoing bytes not yet written to the channel.
+   *
+   * @return true if there is pending output
+   */
+  boolean hasPendingOutput() {
+    writeLock.lock();
+    try {
+      return open && (writeBuffer.position() > 0 || hasNext());
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Reads available bytes from the channel and cuts out any completed messages.
+   *
+   * @throws IOException if reading fails
+   */
+  void read() throws IOException {
+    boolean full;
+    do {
+      if (channel.read(readBuffer) < 0) {
+        close();
+        return;
+      }
+      full = !readBuffer.hasRemaining();
+      readBuffer.flip();
+      parseMessages();
+      readBuffer.compact();
+    } while (full);
+  }
+
+  private void parseMessages() throws IOException {
+    while (true) {
+      if (currentIn == null) {
+        if (readBuffer.remaining() < HEADER_BYTES) {
+          return;
+        }
+        int length = readBuffer.getInt();
+        if (length < 0) {
+          throw new IOException("Invalid message length " + length);
+        }
+        currentIn = new byte[Math.min(length, readBuffer.capacity())];
+        currentInLength = length;
+        currentInOffset = 0;
+      }
+      int length = Math.min(readBuffer.remaining(), currentInLength - currentInOffset);
+      if (currentInOffset + length > currentIn.length) {
+        long grown = Math.max(2L * currentIn.length, currentInOffset + length);
+        currentIn = Arrays.copyOf(currentIn, (int) Math.min(grown, currentInLength));
+      }
+      readBuffer.get(currentIn, currentInOffset, length);
+      currentInOffset += length;
+      if (currentInOffset < currentInLength) {
+        return;
+      }
+      incoming.add(currentIn);
+      currentIn = null;
+    }
+  }
+
+  /**
+   * Writes as much pending output as the channel accepts without blocking. Registers interest in
+   * write readiness if not all output could be written. Must only be called by the selector
+   * thread.
+   *
+   * @throws IOException if writing fails
+   */
+  void write() throws IOException {
+    writeLock.lock();
+    try {
+      if (flush()) {
+        key.interestOps(SelectionKey.OP_READ);
+      } else {
+        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Writes pending output until either all output is written or the channel does not accept any
+   * more bytes. The caller must hold the write lock.
+   *
+   * @return true if all output was written
+   * @throws IOException if writing fails
+   */
+  private boolean flush() throws IOException {
+    do {
+      fillWriteBuffer();
+      writeBuffer.flip();
+      channel.write(writeBuffer);
+      writeBuffer.compact();
+    } while (writeBuffer.position() == 0 && hasNext());
+    return writeBuffer.position() == 0 && !hasNext();
+  }
+
+  private boolean hasNext() {
+    return currentOut != null || !outgoing.isEmpty();
+  }
+
+  /**
+   * Copies queued messages into the write buffer until either the buffer is full or there are no
+   * more messages.
+   */
+  private void fillWriteBuffer() {
+    while (true) {
+      if (currentOut == null) {
+        currentOut = outgoing.poll();
+        if (currentOut == null) {
+          return;
+        }
+        currentOutOffset = 0;
+        headerWritten = false;
+      }
+      if (!headerWritten) {
+        if (writeBuffer.remaining() < HEADER_BYTES) {
+          return;
+        }
+        writeBuffer.putInt(currentOut.length);
+        headerWritten = true;
+      }
+      int length = Math.min(writeBuffer.remaining(), currentOut.length - currentOutOffset);
+      writeBuffer.put(currentOut, currentOutOffset, length);
+      currentOutOffset += length;
+      if (currentOutOffset < currentOut.length) {
+        return;
+      }
+      currentOut = null;
+    }
+  }
+
+  /**
+   * Signals the opposing party that no more messages will be sent.
+   *
+   * @throws IOException if the output cannot be shut down
+   */
+  void shutdownOutput() throws IOException {
+    writeLock.lock();
+    try {
+      if (open) {
+        channel.shutdownOutput();
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Closes the channel and wakes up any thread waiting for a message.
+   */
+  void close() {
+    writeLock.lock();
+    try {
+      if (open) {
+        open = false;
+        key.cancel();
+        try {
+          channel.close();
+        } catch (IOException e) {
+          // ignore, the channel is unusable anyway
+        }
+        incoming.add(CLOSED);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+}
@@ -19,4 +19,14 @@ public interface BatchEvaluationStrategy<ResourcePoolT extends ResourcePool> {
   void processBatch(
       ProtocolCollection<ResourcePoolT> protocols, ResourcePoolT resourcePool,
       NetworkBatchDecorator network);
+
+  /**
+   * Tells if the evaluator may produce the next batch on a separate thread while this strategy is
+   * processing the current batch.
+   *
+   * @return true if production and evaluation of batches should be pipelined
+   */
+  default boolean isPipelined() {
+    return false;
+  }
 }
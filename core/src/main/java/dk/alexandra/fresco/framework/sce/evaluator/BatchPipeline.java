@@ -0,0 +1,129 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+
+/**
+ * Hands batches from a producing thread to an evaluating thread, one batch at a time.
+ *
+ * <p>
+ * Also keeps track of how many of the handed over batches have been evaluated, allowing the
+ * producing thread to wait for all of them to be evaluated before running code that depends on
+ * their output. Evaluated batches are handed back to be reused by the producing thread.
+ * </p>
+ *
+ * @param <ResourcePoolT> the type of resource pool of the protocols in the batches
+ */
+class BatchPipeline<ResourcePoolT extends ResourcePool> {
+
+  private ProtocolCollectionList<ResourcePoolT> next;
+  private ProtocolCollectionList<ResourcePoolT> free;
+  private int handedOver;
+  private int evaluated;
+  private boolean finished;
+  private boolean aborted;
+  private Throwable failure;
+
+  /**
+   * Hands over a batch. Blocks until the previous batch has been taken by the evaluating thread.
+   *
+   * @param batch the batch
+   * @throws InterruptedException if interrupted while waiting
+   */
+  synchronized void put(ProtocolCollectionList<ResourcePoolT> batch) throws InterruptedException {
+    while (next != null && !aborted) {
+      wait();
+    }
+    checkAborted();
+    next = batch;
+    handedOver++;
+    notifyAll();
+  }
+
+  /**
+   * Signals that no more batches will be handed over.
+   */
+  synchronized void finish() {
+    finished = true;
+    notifyAll();
+  }
+
+  /**
+   * Signals that production failed. The failure is rethrown to the evaluating thread.
+   *
+   * @param e the cause of the failure
+   */
+  synchronized void fail(Throwable e) {
+    failure = e;
+    notifyAll();
+  }
+
+  /**
+   * Signals that the evaluating thread has stopped and will not take any more batches.
+   */
+  synchronized void abort() {
+    aborted = true;
+    notifyAll();
+  }
+
+  /**
+   * Takes the next batch. Blocks until a batch has been handed over.
+   *
+   * @return the next batch or null if production has finished
+   * @throws RuntimeException if production failed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  synchronized ProtocolCollectionList<ResourcePoolT> take() throws InterruptedException {
+    while (next == null && !finished && failure == null) {
+      wait();
+    }
+    if (failure != null) {
+      throw new RuntimeException("Failed to produce next batch", failure);
+    }
+    ProtocolCollectionList<ResourcePoolT> batch = next;
+    next = null;
+    notifyAll();
+    return batch;
+  }
+
+  /**
+   * Signals that the evaluation of the last batch taken is done. The batch is kept for reuse by the
+   * producing thread.
+   *
+   * @param batch the evaluated batch
+   */
+  synchronized void evaluated(ProtocolCollectionList<ResourcePoolT> batch) {
+    batch.clear();
+    free = batch;
+    evaluated++;
+    notifyAll();
+  }
+
+  /**
+   * Gets an evaluated, now empty, batch to fill again, if any.
+   *
+   * @return an empty batch or null if no evaluated batch is available
+   */
+  synchronized ProtocolCollectionList<ResourcePoolT> reuse() {
+    ProtocolCollectionList<ResourcePoolT> batch = free;
+    free = null;
+    return batch;
+  }
+
+  /**
+   * Blocks until all batches handed over have been evaluated.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  synchronized void awaitEvaluated() throws InterruptedException {
+    while (evaluated < handedOver && !aborted) {
+      wait();
+    }
+    checkAborted();
+  }
+
+  private void checkAborted() {
+    if (aborted) {
+      throw new IllegalStateException("Evaluation stopped");
+    }
+  }
+}
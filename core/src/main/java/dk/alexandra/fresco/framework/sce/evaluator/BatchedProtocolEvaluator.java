@@ -1,10 +1,13 @@
 package dk.alexandra.fresco.framework.sce.evaluator;
 
+import dk.alexandra.fresco.framework.EvaluationBarrier;
 import dk.alexandra.fresco.framework.ProtocolEvaluator;
 import dk.alexandra.fresco.framework.ProtocolProducer;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 import dk.alexandra.fresco.suite.ProtocolSuite;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,6 +16,12 @@ import org.slf4j.LoggerFactory;
  * certain batch size. How each batch is evaluated is up to the given batch evaluation strategy.
  * Each batch is required to contain only functionally independent native protocols.
  *
+ * <p>
+ * If the batch evaluation strategy is {@link BatchEvaluationStrategy#isPipelined() pipelined} the
+ * next batch is produced on a separate thread while the current batch is being evaluated. See
+ * {@link EvaluationBarrier} for how producers avoid reading output that is not yet available.
+ * </p>
+ *
  * @param <ResourcePoolT> The resource pool type to use
  */
 public class BatchedProtocolEvaluator<ResourcePoolT extends ResourcePool>
@@ -42,6 +51,9 @@ public class BatchedProtocolEvaluator<ResourcePoolT extends ResourcePool>
   @Override
   public EvaluationStatistics eval(ProtocolProducer protocolProducer, ResourcePoolT resourcePool,
       Network network) {
+    if (batchEvaluator.isPipelined()) {
+      return evalPipelined(protocolProducer, resourcePool, network);
+    }
     int batch = 0;
     int totalProtocols = 0;
     int totalBatches = 0;
@@ -49,8 +61,9 @@ public class BatchedProtocolEvaluator<ResourcePoolT extends ResourcePool>
     NetworkBatchDecorator networkBatchDecorator = createSceNetwork(resourcePool, network);
     ProtocolSuite.RoundSynchronization<ResourcePoolT> roundSynchronization =
         protocolSuite.createRoundSynchronization();
+    ProtocolCollectionList<ResourcePoolT> protocols = new ProtocolCollectionList<>(maxBatchSize);
     do {
-      ProtocolCollectionList<ResourcePoolT> protocols = new ProtocolCollectionList<>(maxBatchSize);
+      protocols.clear();
       protocolProducer.getNextProtocols(protocols);
       int size = protocols.size();
 
@@ -69,6 +82,73 @@ public class BatchedProtocolEvaluator<ResourcePoolT extends ResourcePool>
     return new EvaluationStatistics(totalProtocols, totalBatches);
   }
 
+  private EvaluationStatistics evalPipelined(ProtocolProducer protocolProducer,
+      ResourcePoolT resourcePool, Network network) {
+    int batch = 0;
+    int totalProtocols = 0;
+    int totalBatches = 0;
+
+    NetworkBatchDecorator networkBatchDecorator = createSceNetwork(resourcePool, network);
+    ProtocolSuite.RoundSynchronization<ResourcePoolT> roundSynchronization =
+        protocolSuite.createRoundSynchronization();
+    BatchPipeline<ResourcePoolT> pipeline = new BatchPipeline<>();
+    ExecutorService producer = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "fresco-batch-producer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      producer.execute(() -> produce(protocolProducer, pipeline));
+      ProtocolCollectionList<ResourcePoolT> protocols;
+      while ((protocols = pipeline.take()) != null) {
+        int size = protocols.size();
+        roundSynchronization.beforeBatch(protocols, resourcePool, network);
+        batchEvaluator.processBatch(protocols, resourcePool, networkBatchDecorator);
+        logger.trace("Done evaluating batch: " + batch++ + " with " + size + " native protocols");
+        if (size == 0) {
+          logger.debug("Batch " + batch + " is empty");
+        }
+        totalProtocols += size;
+        totalBatches += 1;
+        roundSynchronization.finishedBatch(size, resourcePool, network);
+        pipeline.evaluated(protocols);
+      }
+    } catch (InterruptedException e) {
+      throw new RuntimeException("Interrupted while waiting for next batch", e);
+    } finally {
+      pipeline.abort();
+      producer.shutdownNow();
+    }
+
+    roundSynchronization.finishedEval(resourcePool, network);
+    return new EvaluationStatistics(totalProtocols, totalBatches);
+  }
+
+  private void produce(ProtocolProducer protocolProducer, BatchPipeline<ResourcePoolT> pipeline) {
+    EvaluationBarrier.install(() -> {
+      try {
+        pipeline.awaitEvaluated();
+      } catch (InterruptedException e) {
+        throw new RuntimeException("Interrupted while waiting for evaluation", e);
+      }
+    });
+    try {
+      do {
+        ProtocolCollectionList<ResourcePoolT> protocols = pipeline.reuse();
+        if (protocols == null) {
+          protocols = new ProtocolCollectionList<>(maxBatchSize);
+        }
+        protocolProducer.getNextProtocols(protocols);
+        pipeline.put(protocols);
+      } while (protocolProducer.hasNextProtocols());
+      pipeline.finish();
+    } catch (Throwable e) {
+      pipeline.fail(e);
+    } finally {
+      EvaluationBarrier.uninstall();
+    }
+  }
+
   private NetworkBatchDecorator createSceNetwork(ResourcePool resourcePool, Network network) {
     return new NetworkBatchDecorator(resourcePool.getNoOfParties(), network);
   }
@@ -49,7 +49,7 @@ public class BatchedStrategy<ResourcePoolT extends ResourcePool>
     Iterator<NativeProtocol<?, ResourcePoolT>> iterator = protocols.iterator();
     while (iterator.hasNext()) {
       NativeProtocol<?, ResourcePoolT> protocol = iterator.next();
-      EvaluationStatus status = protocol.evaluate(round, rp, sceNetwork);
+      EvaluationStatus status = OrderedEvaluation.evaluate(protocol, round, rp, sceNetwork);
       if (status.equals(EvaluationStatus.IS_DONE)) {
         iterator.remove();
       }
@@ -1,10 +1,9 @@
 package dk.alexandra.fresco.framework.sce.evaluator;
 
 import dk.alexandra.fresco.framework.network.Network;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Default network for the evaluators, this interface bridges the raw network4
@@ -12,35 +11,139 @@ import java.util.Map;
  * communication on the network batched and hence throttled so evaluators behave nice
  * on the network.
  * <br>
+ * Each message in a batch is prefixed by its length encoded as a varint, i.e., seven bits per
+ * byte with the most significant bit of each byte signalling that more bytes follow. Messages
+ * shorter than 128 bytes thus only carry a single byte of overhead. The per party output buffers
+ * are reused across calls to {@link #flush()}. Messages received with {@link #receiveBuffer(int)}
+ * are read-only views into the received batch, valid until the next call to {@link #flush()}, so
+ * they are not copied.
+ * <br>
+ * Single bits sent with {@link #sendBit(int, boolean)} are packed into one bit vector per party
+ * and batch, which is written in front of the messages of the batch. The bit vector is introduced
+ * by the bytes {@code 0x80 0x00}, a non-canonical varint encoding of zero that {@link #send(int,
+ * byte[])} never produces, followed by the number of bits as a varint and the bits themselves,
+ * most significant bit first. Batches without bits are thus encoded exactly as before.
+ * <br>
  * It is important to call flush to empty all buffers after sending and before receiving data
  */
 public class NetworkBatchDecorator implements Network {
 
-  private int noOfParties;
+  private static final int VARINT_PAYLOAD_BITS = 7;
+  private static final int VARINT_PAYLOAD_MASK = 0x7F;
+  private static final int VARINT_CONTINUE = 0x80;
+  private static final byte[] BITS_MARKER = {(byte) VARINT_CONTINUE, 0x00};
+  private final int noOfParties;
   private final Network network;
-  private Map<Integer, ByteArrayOutputStream> output;
-  private Map<Integer, ByteArrayInputStream> input;
+  private final Buffer[] output;
+  private final byte[][] outputBits;
+  private final int[] outputBitCount;
+  private final byte[][] input;
+  private final int[] inputPosition;
+  private final int[] inputBitOffset;
+  private final int[] inputBitCount;
+  private final int[] inputBitPosition;
 
   public NetworkBatchDecorator(int noOfParties, Network network) {
     this.noOfParties = noOfParties;
     this.network = network;
-    this.output = new HashMap<>();
-    this.input = new HashMap<>();
+    this.output = new Buffer[noOfParties];
+    this.outputBits = new byte[noOfParties][];
+    this.outputBitCount = new int[noOfParties];
+    this.input = new byte[noOfParties][];
+    this.inputPosition = new int[noOfParties];
+    this.inputBitOffset = new int[noOfParties];
+    this.inputBitCount = new int[noOfParties];
+    this.inputBitPosition = new int[noOfParties];
   }
 
   @Override
   public byte[] receive(int id) {
-    ByteArrayInputStream byteInputStream = input.get(id);
-    if (byteInputStream == null) {
-      byte[] partyData = network.receive(id);
-      byteInputStream = new ByteArrayInputStream(partyData);
-      input.put(id, byteInputStream);
+    int index = id - 1;
+    int length = readLength(index);
+    int position = inputPosition[index];
+    inputPosition[index] = position + length;
+    return Arrays.copyOfRange(input[index], position, position + length);
+  }
+
+  @Override
+  public ByteBuffer receiveBuffer(int id) {
+    int index = id - 1;
+    int length = readLength(index);
+    int position = inputPosition[index];
+    inputPosition[index] = position + length;
+    return ByteBuffer.wrap(input[index], position, length).slice().asReadOnlyBuffer();
+  }
+
+  /**
+   * Receives the next bit sent by a given party using {@link #sendBit(int, boolean)} in the
+   * current batch.
+   *
+   * @param id the party to receive from
+   * @return the bit
+   */
+  @Override
+  public boolean receiveBit(int id) {
+    int index = id - 1;
+    fetch(index);
+    int position = inputBitPosition[index];
+    if (position >= inputBitCount[index]) {
+      throw new IllegalStateException("No more bits in batch from P" + id);
+    }
+    inputBitPosition[index] = position + 1;
+    int bitsByte = input[index][inputBitOffset[index] + (position >>> 3)];
+    return ((bitsByte >>> (7 - (position & 7))) & 1) == 1;
+  }
+
+  private void fetch(int index) {
+    if (input[index] != null) {
+      return;
+    }
+    byte[] batch = network.receive(index + 1);
+    input[index] = batch;
+    inputPosition[index] = 0;
+    inputBitPosition[index] = 0;
+    inputBitCount[index] = 0;
+    if (batch.length >= BITS_MARKER.length && batch[0] == BITS_MARKER[0]
+        && batch[1] == BITS_MARKER[1]) {
+      inputPosition[index] = BITS_MARKER.length;
+      int bitCount = readVarint(index);
+      int bitBytes = (bitCount + 7) >>> 3;
+      if (bitBytes > batch.length - inputPosition[index]) {
+        throw new IllegalStateException(
+            "Bit count from P" + (index + 1) + " exceeds batch, bits=" + bitCount);
+      }
+      inputBitCount[index] = bitCount;
+      inputBitOffset[index] = inputPosition[index];
+      inputPosition[index] += bitBytes;
+    }
+  }
+
+  private int readLength(int index) {
+    fetch(index);
+    int length = readVarint(index);
+    if (length < 0 || length > input[index].length - inputPosition[index]) {
+      throw new IllegalStateException(
+          "Length prefix from P" + (index + 1) + " exceeds batch, length=" + length);
     }
+    return length;
+  }
 
-    int count = byteInputStream.read();
-    byte[] bytes = new byte[count];
-    byteInputStream.read(bytes, 0, count);
-    return bytes;
+  private int readVarint(int index) {
+    byte[] batch = input[index];
+    int position = inputPosition[index];
+    int value = 0;
+    int shift = 0;
+    int next;
+    do {
+      if (shift > Integer.SIZE || position >= batch.length) {
+        throw new IllegalStateException("Malformed length prefix from P" + (index + 1));
+      }
+      next = batch[position++];
+      value |= (next & VARINT_PAYLOAD_MASK) << shift;
+      shift += VARINT_PAYLOAD_BITS;
+    } while ((next & VARINT_CONTINUE) != 0);
+    inputPosition[index] = position;
+    return value;
   }
 
   @Override
@@ -50,28 +153,112 @@ public class NetworkBatchDecorator implements Network {
 
   @Override
   public void send(int id, byte[] data) {
-    ByteArrayOutputStream buffer = this.output
-        .computeIfAbsent(id, (i) -> new ByteArrayOutputStream());
-    if (data.length > Byte.MAX_VALUE) {
-      throw new IllegalStateException(
-          "Current implementation only supports small packages, data.length=" + data.length);
+    Buffer buffer = output[id - 1];
+    if (buffer == null) {
+      buffer = new Buffer();
+      output[id - 1] = buffer;
     }
-    buffer.write(data.length);
+    writeVarint(buffer, data.length);
     buffer.write(data, 0, data.length);
   }
 
+  /**
+   * Sends a single bit to a given party. <p>All bits sent to a party before the next call to
+   * {@link #flush()} are packed into a single bit vector, so each bit only costs a single bit on
+   * the wire. The bits are received in the order they were sent using {@link #receiveBit(int)},
+   * independently of the messages sent using {@link #send(int, byte[])}.</p>
+   *
+   * @param id the party to send to
+   * @param bit the bit
+   */
+  @Override
+  public void sendBit(int id, boolean bit) {
+    int index = id - 1;
+    int count = outputBitCount[index];
+    byte[] bits = outputBits[index];
+    if (bits == null) {
+      bits = new byte[16];
+      outputBits[index] = bits;
+    } else if ((count >>> 3) == bits.length) {
+      bits = Arrays.copyOf(bits, 2 * bits.length);
+      outputBits[index] = bits;
+    }
+    if (bit) {
+      bits[count >>> 3] |= (byte) (0x80 >>> (count & 7));
+    }
+    outputBitCount[index] = count + 1;
+  }
+
   /**
    * Flushes the internal buffers and sends the (remaining) pieces over the wire.
    */
   public void flush() {
-    for (int i = 1; i <= noOfParties; i++) {
-      if (output.containsKey(i)) {
-        ByteArrayOutputStream byteArrayOutputStream = output.get(i);
-        byte[] data = byteArrayOutputStream.toByteArray();
-        network.send(i, data);
+    for (int i = 0; i < noOfParties; i++) {
+      Buffer buffer = output[i];
+      int bitCount = outputBitCount[i];
+      if (bitCount > 0) {
+        network.send(i + 1, withBits(i, buffer));
+        Arrays.fill(outputBits[i], 0, (bitCount + 7) >>> 3, (byte) 0);
+        outputBitCount[i] = 0;
+        if (buffer != null) {
+          buffer.reset();
+        }
+      } else if (buffer != null && buffer.size() > 0) {
+        network.send(i + 1, buffer.toByteArray());
+        buffer.reset();
       }
-      output.remove(i);
+      input[i] = null;
+    }
+  }
+
+  private byte[] withBits(int index, Buffer buffer) {
+    int bitCount = outputBitCount[index];
+    int bitBytes = (bitCount + 7) >>> 3;
+    int headerSize = BITS_MARKER.length + varintSize(bitCount) + bitBytes;
+    int messagesSize = buffer == null ? 0 : buffer.size();
+    byte[] batch = new byte[headerSize + messagesSize];
+    System.arraycopy(BITS_MARKER, 0, batch, 0, BITS_MARKER.length);
+    int position = writeVarint(batch, BITS_MARKER.length, bitCount);
+    System.arraycopy(outputBits[index], 0, batch, position, bitBytes);
+    if (buffer != null) {
+      buffer.copyTo(batch, headerSize);
+    }
+    return batch;
+  }
+
+  private static int varintSize(int value) {
+    int size = 1;
+    while ((value & ~VARINT_PAYLOAD_MASK) != 0) {
+      value >>>= VARINT_PAYLOAD_BITS;
+      size++;
+    }
+    return size;
+  }
+
+  private static void writeVarint(ByteArrayOutputStream buffer, int value) {
+    while ((value & ~VARINT_PAYLOAD_MASK) != 0) {
+      buffer.write((value & VARINT_PAYLOAD_MASK) | VARINT_CONTINUE);
+      value >>>= VARINT_PAYLOAD_BITS;
+    }
+    buffer.write(value);
+  }
+
+  private static int writeVarint(byte[] destination, int position, int value) {
+    while ((value & ~VARINT_PAYLOAD_MASK) != 0) {
+      destination[position++] = (byte) ((value & VARINT_PAYLOAD_MASK) | VARINT_CONTINUE);
+      value >>>= VARINT_PAYLOAD_BITS;
+    }
+    destination[position++] = (byte) value;
+    return position;
+  }
+
+  /**
+   * Output buffer which can be copied into a larger array without an intermediate copy.
+   */
+  private static class Buffer extends ByteArrayOutputStream {
+
+    private void copyTo(byte[] destination, int offset) {
+      System.arraycopy(buf, 0, destination, offset, count);
     }
-    input.clear();
   }
 }
@@ -0,0 +1,31 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.ConcurrentNativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+
+/**
+ * Evaluates a single round of a protocol, including the order dependent parts of {@link
+ * ConcurrentNativeProtocol}s, for strategies evaluating one protocol at a time.
+ */
+final class OrderedEvaluation {
+
+  private OrderedEvaluation() {
+  }
+
+  static <ResourcePoolT extends ResourcePool> EvaluationStatus evaluate(
+      NativeProtocol<?, ResourcePoolT> protocol, int round, ResourcePoolT resourcePool,
+      Network network) {
+    if (protocol instanceof ConcurrentNativeProtocol) {
+      ConcurrentNativeProtocol<?, ResourcePoolT> concurrent =
+          (ConcurrentNativeProtocol<?, ResourcePoolT>) protocol;
+      concurrent.beforeEvaluate(round, resourcePool);
+      EvaluationStatus status = concurrent.evaluate(round, resourcePool, network);
+      concurrent.afterEvaluate(round, resourcePool);
+      return status;
+    }
+    return protocol.evaluate(round, resourcePool, network);
+  }
+}
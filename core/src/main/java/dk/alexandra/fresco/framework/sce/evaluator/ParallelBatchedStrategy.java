@@ -0,0 +1,285 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.ConcurrentNativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Batched evaluation strategy evaluating the protocols of each round on a fork/join pool.
+ *
+ * <p>
+ * The protocols of a batch are split into chunks of consecutive protocols. The number of chunks
+ * only depends on the size of the batch, so all parties split their batches in the same way. Each
+ * chunk is evaluated on its own view of the network, and at the end of each round the messages
+ * sent by each chunk are sent on as one message per chunk, in the order of the chunks. Each chunk
+ * thus receives exactly the messages sent by the corresponding chunk of the other parties, in the
+ * order they were sent, no matter how the chunks were scheduled. Note that this means that all
+ * parties must use this strategy.
+ * </p>
+ *
+ * <p>
+ * Protocols are only evaluated concurrently if all remaining protocols of the batch are {@link
+ * ConcurrentNativeProtocol}s. The order dependent parts of these protocols are then done on the
+ * calling thread, in batch order, before and after the chunks are evaluated. Otherwise, the chunks
+ * are evaluated one after the other on the calling thread.
+ * </p>
+ */
+public class ParallelBatchedStrategy<ResourcePoolT extends ResourcePool>
+    implements BatchEvaluationStrategy<ResourcePoolT> {
+
+  private static final int MIN_CHUNK_SIZE = 64;
+  private static final int MAX_CHUNKS = 64;
+  private static final byte[] EMPTY = new byte[0];
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates a strategy evaluating on the common fork/join pool.
+   */
+  public ParallelBatchedStrategy() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a strategy evaluating on the given fork/join pool.
+   *
+   * @param pool the pool
+   */
+  public ParallelBatchedStrategy(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  @Override
+  public void processBatch(ProtocolCollection<ResourcePoolT> protocols,
+      ResourcePoolT resourcePool, NetworkBatchDecorator networkBatchDecorator) {
+    int size = protocols.size();
+    if (size == 0) {
+      return;
+    }
+    int noOfParties = resourcePool.getNoOfParties();
+    int noOfChunks = Math.max(1, Math.min(MAX_CHUNKS, size / MIN_CHUNK_SIZE));
+    Incoming incoming = new Incoming(networkBatchDecorator, noOfChunks);
+    List<Chunk> chunks = split(protocols, size, noOfChunks, noOfParties, incoming);
+    int round = 0;
+    while (!chunks.stream().allMatch(Chunk::isDone)) {
+      evaluateRound(chunks, resourcePool, round);
+      for (int party = 1; party <= noOfParties; party++) {
+        sendChunks(chunks, party, networkBatchDecorator);
+      }
+      networkBatchDecorator.flush();
+      incoming.clear();
+      round++;
+    }
+  }
+
+  private List<Chunk> split(ProtocolCollection<ResourcePoolT> protocols, int size,
+      int noOfChunks, int noOfParties, Incoming incoming) {
+    List<Chunk> chunks = new ArrayList<>(noOfChunks);
+    for (int i = 0; i < noOfChunks; i++) {
+      chunks.add(new Chunk(i, noOfParties, incoming));
+    }
+    int index = 0;
+    for (NativeProtocol<?, ResourcePoolT> protocol : protocols) {
+      chunks.get((int) ((long) index * noOfChunks / size)).add(protocol);
+      index++;
+    }
+    return chunks;
+  }
+
+  private void evaluateRound(List<Chunk> chunks, ResourcePoolT resourcePool, int round) {
+    if (chunks.size() > 1 && chunks.stream().allMatch(Chunk::isConcurrent)) {
+      for (Chunk chunk : chunks) {
+        chunk.beforeEvaluate(round, resourcePool);
+      }
+      List<RecursiveAction> tasks = new ArrayList<>(chunks.size());
+      for (Chunk chunk : chunks) {
+        if (!chunk.isDone()) {
+          tasks.add(new RecursiveAction() {
+            @Override
+            protected void compute() {
+              chunk.evaluateConcurrently(round, resourcePool);
+            }
+          });
+        }
+      }
+      pool.invoke(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          invokeAll(tasks);
+        }
+      });
+      for (Chunk chunk : chunks) {
+        chunk.afterEvaluate(round, resourcePool);
+      }
+    } else {
+      for (Chunk chunk : chunks) {
+        chunk.evaluate(round, resourcePool);
+      }
+    }
+    for (Chunk chunk : chunks) {
+      chunk.removeDone();
+      chunk.network.flush();
+    }
+  }
+
+  private void sendChunks(List<Chunk> chunks, int party, NetworkBatchDecorator network) {
+    boolean hasOutput = false;
+    for (Chunk chunk : chunks) {
+      hasOutput |= chunk.output[party - 1] != null;
+    }
+    if (hasOutput) {
+      for (Chunk chunk : chunks) {
+        byte[] output = chunk.output[party - 1];
+        network.send(party, output == null ? EMPTY : output);
+        chunk.output[party - 1] = null;
+      }
+    }
+  }
+
+  /**
+   * The messages received from each party in the current round, split into chunks. Messages are
+   * received lazily, when the first chunk asks for them.
+   */
+  private static class Incoming {
+
+    private final NetworkBatchDecorator network;
+    private final int chunks;
+    private final byte[][][] received;
+
+    private Incoming(NetworkBatchDecorator network, int chunks) {
+      this.network = network;
+      this.chunks = chunks;
+      this.received = new byte[network.getNoOfParties()][][];
+    }
+
+    private synchronized byte[] receive(int party, int chunk) {
+      byte[][] fromParty = received[party - 1];
+      if (fromParty == null) {
+        fromParty = new byte[chunks][];
+        for (int i = 0; i < chunks; i++) {
+          fromParty[i] = network.receive(party);
+        }
+        received[party - 1] = fromParty;
+      }
+      return fromParty[chunk];
+    }
+
+    private synchronized void clear() {
+      Arrays.fill(received, null);
+    }
+  }
+
+  /**
+   * A chunk of consecutive protocols of the batch together with its view of the network.
+   */
+  private class Chunk {
+
+    private final int id;
+    private final Incoming incoming;
+    private final byte[][] output;
+    private final NetworkBatchDecorator network;
+    private final List<NativeProtocol<?, ResourcePoolT>> protocols;
+    private final List<EvaluationStatus> statuses;
+    private boolean concurrent;
+
+    private Chunk(int id, int noOfParties, Incoming incoming) {
+      this.id = id;
+      this.incoming = incoming;
+      this.output = new byte[noOfParties][];
+      this.network = new NetworkBatchDecorator(noOfParties, new ChunkNetwork());
+      this.protocols = new ArrayList<>();
+      this.statuses = new ArrayList<>();
+      this.concurrent = true;
+    }
+
+    private void add(NativeProtocol<?, ResourcePoolT> protocol) {
+      protocols.add(protocol);
+      concurrent &= protocol instanceof ConcurrentNativeProtocol;
+    }
+
+    private boolean isConcurrent() {
+      return concurrent;
+    }
+
+    private boolean isDone() {
+      return protocols.isEmpty();
+    }
+
+    /**
+     * Evaluates the protocols one at a time, including their order dependent parts.
+     */
+    private void evaluate(int round, ResourcePoolT resourcePool) {
+      for (NativeProtocol<?, ResourcePoolT> protocol : protocols) {
+        statuses.add(OrderedEvaluation.evaluate(protocol, round, resourcePool, network));
+      }
+    }
+
+    /**
+     * Evaluates the protocols, leaving out their order dependent parts. Only called when all
+     * protocols are {@link ConcurrentNativeProtocol}s.
+     */
+    private void evaluateConcurrently(int round, ResourcePoolT resourcePool) {
+      for (NativeProtocol<?, ResourcePoolT> protocol : protocols) {
+        statuses.add(protocol.evaluate(round, resourcePool, network));
+      }
+    }
+
+    private void beforeEvaluate(int round, ResourcePoolT resourcePool) {
+      for (NativeProtocol<?, ResourcePoolT> protocol : protocols) {
+        ((ConcurrentNativeProtocol<?, ResourcePoolT>) protocol).beforeEvaluate(round, resourcePool);
+      }
+    }
+
+    private void afterEvaluate(int round, ResourcePoolT resourcePool) {
+      for (NativeProtocol<?, ResourcePoolT> protocol : protocols) {
+        ((ConcurrentNativeProtocol<?, ResourcePoolT>) protocol).afterEvaluate(round, resourcePool);
+      }
+    }
+
+    /**
+     * Removes the protocols which were done in the round just evaluated.
+     */
+    private void removeDone() {
+      boolean stillConcurrent = true;
+      int write = 0;
+      for (int i = 0; i < protocols.size(); i++) {
+        NativeProtocol<?, ResourcePoolT> protocol = protocols.get(i);
+        if (statuses.get(i).equals(EvaluationStatus.HAS_MORE_ROUNDS)) {
+          protocols.set(write++, protocol);
+          stillConcurrent &= protocol instanceof ConcurrentNativeProtocol;
+        }
+      }
+      protocols.subList(write, protocols.size()).clear();
+      statuses.clear();
+      concurrent = stillConcurrent;
+    }
+
+    /**
+     * Network feeding the messages of a single chunk through the decorator of the chunk.
+     */
+    private class ChunkNetwork implements Network {
+
+      @Override
+      public void send(int partyId, byte[] data) {
+        output[partyId - 1] = data;
+      }
+
+      @Override
+      public byte[] receive(int partyId) {
+        return incoming.receive(partyId, id);
+      }
+
+      @Override
+      public int getNoOfParties() {
+        return output.length;
+      }
+    }
+  }
+}
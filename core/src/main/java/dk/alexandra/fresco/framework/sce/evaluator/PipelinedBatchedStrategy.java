@@ -0,0 +1,23 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+
+/**
+ * Evaluates each batch like the {@link BatchedStrategy}, but lets the evaluator produce the next
+ * batch on a separate thread while the rounds of the current batch are being evaluated.
+ *
+ * <p>
+ * Production only runs ahead as far as it can without depending on the outcome of the batch in
+ * flight, see {@link dk.alexandra.fresco.framework.EvaluationBarrier}. Large parallel blocks, where
+ * the next batch is independent of the current one, are thus built while the network is busy,
+ * while sequential computations are evaluated just as with the {@link BatchedStrategy}.
+ * </p>
+ */
+public class PipelinedBatchedStrategy<ResourcePoolT extends ResourcePool>
+    extends BatchedStrategy<ResourcePoolT> {
+
+  @Override
+  public boolean isPipelined() {
+    return true;
+  }
+}
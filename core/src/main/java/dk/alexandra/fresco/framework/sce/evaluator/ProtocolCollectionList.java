@@ -3,37 +3,125 @@ package dk.alexandra.fresco.framework.sce.evaluator;
 import dk.alexandra.fresco.framework.NativeProtocol;
 import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.NoSuchElementException;
 
+/**
+ * Array backed protocol collection.
+ *
+ * <p>
+ * Protocols removed through the iterator are compacted away while iterating, i.e., each retained
+ * protocol is moved down over the removed ones as the iterator passes it, keeping the relative order
+ * of the protocols. The order matters as the protocols of all parties must send and receive in the
+ * same order. The collection can be {@link #clear() cleared} and reused for the next batch, keeping
+ * the backing array.
+ * </p>
+ */
 public class ProtocolCollectionList<ResourcePoolT extends ResourcePool>
     implements ProtocolCollection<ResourcePoolT> {
 
-  private int capacity;
-  private List<NativeProtocol<?, ResourcePoolT>> protocols;
+  private static final int MAX_INITIAL_LENGTH = 1024;
+  private final int capacity;
+  private NativeProtocol<?, ResourcePoolT>[] protocols;
+  private int end;
+  // Slots [gapStart, gapEnd) are free slots left behind by the current iteration
+  private int gapStart;
+  private int gapEnd;
 
   public ProtocolCollectionList(int capacity) {
     this.capacity = capacity;
-    this.protocols = new LinkedList<>();
+    this.protocols = newArray(Math.max(1, Math.min(capacity, MAX_INITIAL_LENGTH)));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <ResourcePoolT extends ResourcePool> NativeProtocol<?, ResourcePoolT>[] newArray(
+      int length) {
+    return (NativeProtocol<?, ResourcePoolT>[]) new NativeProtocol<?, ?>[length];
   }
 
   @Override
   public void addProtocol(NativeProtocol<?, ResourcePoolT> protocol) {
-    protocols.add(protocol);
+    closeGap();
+    if (end == protocols.length) {
+      protocols = Arrays.copyOf(protocols, protocols.length * 2);
+    }
+    protocols[end++] = protocol;
   }
 
   @Override
   public boolean hasFreeCapacity() {
-    return protocols.size() < capacity;
+    return size() < capacity;
   }
 
   @Override
   public Iterator<NativeProtocol<?, ResourcePoolT>> iterator() {
-    return protocols.iterator();
+    closeGap();
+    return new CompactingIterator();
   }
 
+  @Override
   public int size() {
-    return protocols.size();
+    return end - (gapEnd - gapStart);
+  }
+
+  /**
+   * Removes all protocols from the collection, allowing it to be reused for a new batch.
+   */
+  public void clear() {
+    Arrays.fill(protocols, 0, end, null);
+    end = 0;
+    gapStart = 0;
+    gapEnd = 0;
+  }
+
+  /**
+   * Moves the protocols not yet visited by the last iteration down over the free slots.
+   */
+  private void closeGap() {
+    int gap = gapEnd - gapStart;
+    if (gap > 0) {
+      System.arraycopy(protocols, gapEnd, protocols, gapStart, end - gapEnd);
+      Arrays.fill(protocols, end - gap, end, null);
+      end -= gap;
+    }
+    gapStart = 0;
+    gapEnd = 0;
+  }
+
+  private class CompactingIterator implements Iterator<NativeProtocol<?, ResourcePoolT>> {
+
+    private int read;
+    private boolean canRemove;
+
+    @Override
+    public boolean hasNext() {
+      if (read < end) {
+        return true;
+      }
+      closeGap();
+      return false;
+    }
+
+    @Override
+    public NativeProtocol<?, ResourcePoolT> next() {
+      if (read >= end) {
+        throw new NoSuchElementException();
+      }
+      NativeProtocol<?, ResourcePoolT> protocol = protocols[read++];
+      protocols[gapStart++] = protocol;
+      gapEnd = read;
+      canRemove = true;
+      return protocol;
+    }
+
+    @Override
+    public void remove() {
+      if (!canRemove) {
+        throw new IllegalStateException();
+      }
+      canRemove = false;
+      protocols[--gapStart] = null;
+    }
   }
 }
@@ -16,7 +16,7 @@ public class SequentialStrategy<ResourcePoolT extends ResourcePool> implements
       int round = 0;
       EvaluationStatus status;
       do {
-        status = protocol.evaluate(round, resourcePool, networkBatchDecorator);
+        status = OrderedEvaluation.evaluate(protocol, round, resourcePool, networkBatchDecorator);
         // send phase
         networkBatchDecorator.flush();
         round++;
@@ -8,6 +8,7 @@ import java.util.List;
 public class MathUtils {
 
   private static final BigInteger TWO = BigInteger.valueOf(2);
+  private static final long LOW_MASK = 0xffffffffL;
 
   private MathUtils() {
   }
@@ -131,4 +132,25 @@ public class MathUtils {
     return bits;
   }
 
+  /**
+   * Computes the 64 most significant bits of the 128-bit product of two unsigned 64-bit values.
+   * <p>This is the unsigned counterpart of <code>Math.multiplyHigh</code>, which is not available
+   * in Java 8.</p>
+   *
+   * @param left the left factor, read as unsigned
+   * @param right the right factor, read as unsigned
+   * @return the high word of the unsigned product
+   */
+  public static long unsignedMultiplyHigh(long left, long right) {
+    long leftHigh = left >>> 32;
+    long leftLow = left & LOW_MASK;
+    long rightHigh = right >>> 32;
+    long rightLow = right & LOW_MASK;
+    long lowLow = leftLow * rightLow;
+    long lowHigh = leftLow * rightHigh;
+    long highLow = leftHigh * rightLow;
+    long middle = (lowLow >>> 32) + (lowHigh & LOW_MASK) + (highLow & LOW_MASK);
+    return leftHigh * rightHigh + (lowHigh >>> 32) + (highLow >>> 32) + (middle >>> 32);
+  }
+
 }
@@ -1,5 +1,6 @@
 package dk.alexandra.fresco.lib.helper;
 
+import dk.alexandra.fresco.framework.EvaluationBarrier;
 import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.ProtocolProducer;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
@@ -62,6 +63,10 @@ public class SequentialProtocolProducer implements ProtocolProducer {
     while (!protocolProducers.isEmpty() && !protocolProducers.getFirst().hasNextProtocols()) {
       protocolProducers.removeFirst();
       currentProducer = null;
+      if (!protocolProducers.isEmpty()) {
+        // The next producer may depend on the output of the one we just finished
+        EvaluationBarrier.awaitEvaluated();
+      }
     }
     return !protocolProducers.isEmpty();
   }
@@ -42,6 +42,11 @@ public class BatchEvaluationLoggingDecorator<ResourcePoolT extends ResourcePool>
     delegate.processBatch(protocols, resourcePool, network);
   }
 
+  @Override
+  public boolean isPipelined() {
+    return delegate.isPipelined();
+  }
+
   @Override
   public void reset() {
     counter = 0;
@@ -3,6 +3,7 @@ package dk.alexandra.fresco.logging;
 import dk.alexandra.fresco.framework.network.Network;
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -32,6 +33,14 @@ public class NetworkLoggingDecorator implements Network, PerformanceLogger, Clos
     return res;
   }
 
+  @Override
+  public ByteBuffer receiveBuffer(int partyId) {
+    ByteBuffer res = this.delegate.receiveBuffer(partyId);
+    int noBytes = res.remaining();
+    partyStatsMap.computeIfAbsent(partyId, (i) -> new PartyStats()).recordTransmission(noBytes);
+    return res;
+  }
+
   @Override
   public int getNoOfParties() {
     return delegate.getNoOfParties();
@@ -1,12 +1,14 @@
 package dk.alexandra.fresco.suite.dummy.arithmetic;
 
+import dk.alexandra.fresco.framework.ConcurrentNativeProtocol;
 import dk.alexandra.fresco.framework.NativeProtocol;
 
 /**
- * The {@link NativeProtocol} for the Dummy Arithmetic suite.
+ * The {@link NativeProtocol} for the Dummy Arithmetic suite. As the protocols only depend on their
+ * inputs and the messages they receive they can be evaluated concurrently.
  *
  * @param <OutputT> The output type of the protocol
  */
 public abstract class DummyArithmeticNativeProtocol<OutputT>
-    implements NativeProtocol<OutputT, DummyArithmeticResourcePool> {
+    implements ConcurrentNativeProtocol<OutputT, DummyArithmeticResourcePool> {
 }
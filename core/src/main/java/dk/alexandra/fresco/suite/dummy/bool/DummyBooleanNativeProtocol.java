@@ -1,10 +1,10 @@
 package dk.alexandra.fresco.suite.dummy.bool;
 
-import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ConcurrentNativeProtocol;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 
 public abstract class DummyBooleanNativeProtocol<OutputT> 
-    implements NativeProtocol<OutputT, ResourcePool> {
+    implements ConcurrentNativeProtocol<OutputT, ResourcePool> {
 
 
 }
@@ -4,6 +4,7 @@ import static org.junit.Assert.assertThat;
 
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -43,14 +44,16 @@ public final class FieldDefinitionTest {
       BiConsumer<FieldDefinition, Function<FieldElement, BigInteger>> test) {
     test.accept(new BigIntegerFieldDefinition(modulusValue), FieldElement::toBigInteger);
     test.accept(new MersennePrimeFieldDefinition(bitLength, constant), FieldElement::toBigInteger);
+    test.accept(new MontgomeryFieldDefinition(modulusValue), FieldElement::toBigInteger);
   }
 
   /**
-   * Runs the test on two field definitions, simple and mersenne
+   * Runs the test on three field definitions, simple, mersenne and montgomery
    */
   private void testDefinition(Consumer<FieldDefinition> test) {
     test.accept(new BigIntegerFieldDefinition(modulusValue));
     test.accept(new MersennePrimeFieldDefinition(bitLength, constant));
+    test.accept(new MontgomeryFieldDefinition(modulusValue));
   }
 
   private List<BigInteger> toBigIntegers(List<FieldElement> elements,
@@ -135,4 +138,78 @@ public final class FieldDefinitionTest {
           Is.is(toBigIntegers(getElements(definition), converter)));
     });
   }
+
+  @Test
+  public void serializeToBuffer() {
+    testDefinition(definition -> {
+      List<FieldElement> elements = getElements(definition);
+      for (ByteBuffer buffer : Arrays.asList(ByteBuffer.allocate(bytes.length + 3),
+          ByteBuffer.allocateDirect(bytes.length + 3))) {
+        buffer.put((byte) 1);
+        // Filled with garbage to check that leading zeros are written
+        for (int i = 1; i < buffer.capacity(); i++) {
+          buffer.put((byte) -1);
+        }
+        buffer.position(1);
+        definition.serialize(elements, buffer);
+        assertThat(buffer.position(), Is.is(bytes.length + 1));
+        byte[] result = new byte[bytes.length];
+        buffer.position(1);
+        buffer.get(result);
+        assertThat(result, Is.is(bytes));
+      }
+    });
+  }
+
+  @Test
+  public void deserializeFromBuffer() {
+    byte[] padded = new byte[bytes.length + 2];
+    System.arraycopy(bytes, 0, padded, 1, bytes.length);
+    testDefinition((definition, converter) -> {
+      ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+      direct.put(bytes).flip();
+      List<ByteBuffer> buffers = Arrays.asList(ByteBuffer.wrap(bytes),
+          ByteBuffer.wrap(padded, 1, bytes.length).slice(),
+          ByteBuffer.wrap(padded, 1, bytes.length).slice().asReadOnlyBuffer(), direct);
+      for (ByteBuffer buffer : buffers) {
+        List<FieldElement> result = definition.deserializeList(buffer);
+        assertThat(buffer.remaining(), Is.is(0));
+        assertThat(toBigIntegers(result, converter),
+            Is.is(toBigIntegers(getElements(definition), converter)));
+      }
+    });
+  }
+
+  @Test
+  public void deserializeUnreduced() {
+    byte[] unreduced = new byte[16];
+    Arrays.fill(unreduced, (byte) -1);
+    BigInteger expected = BigInteger.ONE.shiftLeft(128).subtract(BigInteger.ONE)
+        .mod(new BigInteger(modulusValue));
+    testDefinition((definition, converter) -> {
+      assertThat(converter.apply(definition.deserialize(unreduced)), Is.is(expected));
+      assertThat(converter.apply(definition.deserializeList(ByteBuffer.wrap(unreduced)).get(0)),
+          Is.is(expected));
+    });
+  }
+
+  @Test
+  public void accumulator() {
+    testDefinition((definition, converter) -> {
+      List<FieldElement> elements = getElements(definition);
+      FieldElement expected = definition.createElement(0);
+      FieldAccumulator accumulator = definition.createAccumulator();
+      for (FieldElement left : elements) {
+        for (FieldElement right : elements) {
+          accumulator.addProduct(left, right).add(right).subtract(left);
+          expected = expected.add(left.multiply(right)).add(right).subtract(left);
+        }
+      }
+      FieldElement sum = accumulator.get();
+      assertThat(converter.apply(sum), Is.is(converter.apply(expected)));
+      accumulator.add(definition.createElement(1));
+      assertThat(converter.apply(sum), Is.is(converter.apply(expected)));
+      assertThat(converter.apply(accumulator.reset().get()), Is.is(BigInteger.ZERO));
+    });
+  }
 }
@@ -0,0 +1,120 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.core.Is;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LongFieldDefinitionTest {
+
+  @Test(expected = IllegalArgumentException.class)
+  public void largeModulus() {
+    new LongFieldDefinition("340282366920938463463374607431768211283");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void powerOfTwoModulusAtBoundary() {
+    new LongFieldDefinition(BigInteger.ONE.shiftLeft(62).toString());
+  }
+
+  @Test
+  public void multiplyAtBoundary() {
+    Random random = new Random(1);
+    // smallest and largest 63 bit moduli, and the largest supported power of two
+    for (String modulus : Arrays.asList("4611686018427387905", "9223372036854775783",
+        "2305843009213693952")) {
+      LongFieldDefinition definition = new LongFieldDefinition(modulus);
+      BigInteger prime = definition.getModulus();
+      List<BigInteger> values = Arrays.asList(BigInteger.ZERO, BigInteger.ONE,
+          prime.subtract(BigInteger.ONE), prime.subtract(BigInteger.valueOf(2)),
+          new BigInteger(prime.bitLength(), random).mod(prime),
+          new BigInteger(prime.bitLength(), random).mod(prime));
+      for (BigInteger a : values) {
+        for (BigInteger b : values) {
+          FieldElement product = definition.createElement(a).multiply(definition.createElement(b));
+          assertThat(product.toBigInteger(), Is.is(a.multiply(b).mod(prime)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void createElement() {
+    Long baseNumber = 2L;
+    LongFieldDefinition definition = new LongFieldDefinition(Long.MAX_VALUE - 24);
+    FieldElement elementFromString = definition.createElement(baseNumber.toString());
+    FieldElement elementFromLong = definition.createElement(baseNumber);
+    FieldElement elementFromBigInt = definition.createElement(new BigInteger("2"));
+    FieldElement result = elementFromLong.multiply(elementFromString).multiply(elementFromBigInt);
+    Assert.assertEquals(8, result.toBigInteger().longValue());
+  }
+
+  @Test
+  public void convertToSigned() {
+    LongFieldDefinition definition = new LongFieldDefinition(7);
+    Assert.assertEquals(BigInteger.valueOf(3), definition.convertToSigned(BigInteger.valueOf(3)));
+    Assert.assertEquals(BigInteger.valueOf(-3), definition.convertToSigned(BigInteger.valueOf(4)));
+    Assert.assertEquals(BigInteger.valueOf(-1), definition.convertToSigned(BigInteger.valueOf(6)));
+  }
+
+  @Test
+  public void serializationCompatible() {
+    Random random = new Random(1);
+    for (String modulus : Arrays.asList("113", "2147483647", "9223372036854775783")) {
+      LongFieldDefinition definition = new LongFieldDefinition(modulus);
+      BigIntegerFieldDefinition reference = new BigIntegerFieldDefinition(modulus);
+      BigInteger prime = definition.getModulus();
+      for (int i = 0; i < 20; i++) {
+        BigInteger value = new BigInteger(prime.bitLength(), random).mod(prime);
+        FieldElement element = definition.createElement(value);
+        byte[] bytes = reference.serialize(reference.createElement(value));
+        assertThat(definition.serialize(element), Is.is(bytes));
+        assertThat(definition.deserialize(bytes).toBigInteger(), Is.is(value));
+        assertThat(definition.serialize(reference.createElement(value)), Is.is(bytes));
+        List<FieldElement> list = Arrays.asList(element, element.negate());
+        byte[] listBytes = definition.serialize(list);
+        assertThat(listBytes, Is.is(reference.serialize(reference.deserializeList(listBytes))));
+        assertThat(definition.deserializeList(listBytes).get(1).toBigInteger(),
+            Is.is(prime.subtract(value).mod(prime)));
+      }
+    }
+  }
+
+  @Test
+  public void convertToBitVector() {
+    LongFieldDefinition definition = new LongFieldDefinition(65521);
+    FieldElement element = definition.createElement(0x1234);
+    assertThat(definition.convertToBitVector(element).toByteArray(),
+        Is.is(new byte[]{0x12, 0x34}));
+  }
+
+  @Test
+  public void serializeBuffer() {
+    for (String modulus : Arrays.asList("65521", "9223372036854775783")) {
+      LongFieldDefinition definition = new LongFieldDefinition(modulus);
+      List<FieldElement> elements = Arrays.asList(definition.createElement(-1),
+          definition.createElement(0), definition.createElement(0x1234));
+      byte[] expected = definition.serialize(elements);
+      for (ByteBuffer buffer : Arrays.asList(ByteBuffer.allocate(expected.length),
+          ByteBuffer.allocateDirect(expected.length))) {
+        definition.serialize(elements, buffer);
+        assertThat(buffer.remaining(), Is.is(0));
+        buffer.flip();
+        byte[] actual = new byte[expected.length];
+        buffer.duplicate().get(actual);
+        assertThat(actual, Is.is(expected));
+        List<FieldElement> result = definition.deserializeList(buffer);
+        assertThat(buffer.remaining(), Is.is(0));
+        for (int i = 0; i < elements.size(); i++) {
+          assertThat(result.get(i).toBigInteger(), Is.is(elements.get(i).toBigInteger()));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.core.Is;
+import org.hamcrest.core.StringContains;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LongFieldElementTest {
+
+  private LongModulus modulus;
+
+  @Before
+  public void setUp() {
+    modulus = new LongModulus(BigInteger.valueOf(113));
+  }
+
+  private static List<BigInteger> moduli() {
+    Random random = new Random(42);
+    List<BigInteger> moduli = new ArrayList<>(Arrays.asList(
+        BigInteger.valueOf(3),
+        BigInteger.valueOf(113),
+        BigInteger.valueOf(Integer.MAX_VALUE),
+        BigInteger.ONE.shiftLeft(61).subtract(BigInteger.ONE),
+        // The largest primes below 2^62 and 2^63
+        BigInteger.ONE.shiftLeft(62).subtract(BigInteger.valueOf(57)),
+        BigInteger.ONE.shiftLeft(63).subtract(BigInteger.valueOf(25))));
+    for (int bitLength : Arrays.asList(17, 32, 33, 48, 62, 63)) {
+      moduli.add(BigInteger.probablePrime(bitLength, random));
+    }
+    return moduli;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void largeModulus() {
+    new LongModulus(BigInteger.ONE.shiftLeft(63).add(BigInteger.valueOf(29)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void smallModulus() {
+    new LongModulus(BigInteger.ONE);
+  }
+
+  @Test
+  public void creators() {
+    testCreation(27, 27);
+    testCreation(27 + 113, 27);
+    testCreation(27 - 113, 27);
+    testCreation(-1, 113 - 1);
+    testCreation(0, 0);
+  }
+
+  private void testCreation(int value, int expected) {
+    FieldElement element1 = LongFieldElement.create(value, modulus);
+    FieldElement element2 = LongFieldElement.create("" + value, modulus);
+    FieldElement element3 = LongFieldElement.create(BigInteger.valueOf(value), modulus);
+    assertThat(element1.toBigInteger(), Is.is(BigInteger.valueOf(expected)));
+    assertThat(element2.toBigInteger(), Is.is(BigInteger.valueOf(expected)));
+    assertThat(element3.toBigInteger(), Is.is(BigInteger.valueOf(expected)));
+  }
+
+  @Test
+  public void arithmetic() {
+    Random random = new Random(1);
+    for (BigInteger prime : moduli()) {
+      LongModulus modulus = new LongModulus(prime);
+      List<BigInteger> values = new ArrayList<>(Arrays.asList(BigInteger.ZERO, BigInteger.ONE,
+          prime.subtract(BigInteger.ONE), prime.shiftRight(1),
+          prime.shiftRight(1).add(BigInteger.ONE)));
+      for (int i = 0; i < 200; i++) {
+        values.add(new BigInteger(prime.bitLength() + 8, random).mod(prime));
+      }
+      for (BigInteger a : values) {
+        for (BigInteger b : values.subList(0, 20)) {
+          FieldElement left = LongFieldElement.create(a, modulus);
+          FieldElement right = LongFieldElement.create(b, modulus);
+          assertThat(left.add(right).toBigInteger(), Is.is(a.add(b).mod(prime)));
+          assertThat(left.subtract(right).toBigInteger(), Is.is(a.subtract(b).mod(prime)));
+          assertThat(left.multiply(right).toBigInteger(), Is.is(a.multiply(b).mod(prime)));
+        }
+        FieldElement element = LongFieldElement.create(a, modulus);
+        assertThat(element.negate().toBigInteger(), Is.is(a.negate().mod(prime)));
+        assertThat(element.isZero(), Is.is(a.signum() == 0));
+      }
+    }
+  }
+
+  @Test
+  public void otherElementTypes() {
+    BigIntegerModulus other = new BigIntegerModulus(BigInteger.valueOf(113));
+    FieldElement element = LongFieldElement.create(100, modulus);
+    FieldElement operand = BigIntegerFieldElement.create(20, other);
+    assertThat(element.add(operand).toBigInteger(), Is.is(BigInteger.valueOf(7)));
+    assertThat(element.subtract(operand).toBigInteger(), Is.is(BigInteger.valueOf(80)));
+    assertThat(element.multiply(operand).toBigInteger(), Is.is(BigInteger.valueOf(2000 % 113)));
+  }
+
+  @Test
+  public void sqrt() {
+    FieldElement element = LongFieldElement.create(2, modulus);
+    assertThat(element.sqrt().toBigInteger(), Is.is(BigInteger.valueOf(62)));
+  }
+
+  @Test
+  public void modInverse() {
+    List<Integer> values = Arrays.asList(-123, -12, -1, 1, 12, 123, 1234, 12345, 123456, 1234567);
+    for (BigInteger prime : moduli().subList(2, 12)) {
+      LongFieldDefinition definition = new LongFieldDefinition(prime);
+      for (Integer value : values) {
+        BigInteger expected = BigInteger.valueOf(value).mod(prime).modInverse(prime);
+        assertThat(definition.createElement(value).modInverse().toBigInteger(), Is.is(expected));
+      }
+    }
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void modInverseZero() {
+    LongFieldElement.create(0, modulus).modInverse();
+  }
+
+  @Test
+  public void toStringTest() {
+    FieldElement element = LongFieldElement.create(BigInteger.valueOf(78), modulus);
+    assertThat(element.toString(), StringContains.containsString("78"));
+  }
+}
@@ -0,0 +1,63 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.core.Is;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MontgomeryFieldDefinitionTest {
+
+  @Test(expected = IllegalArgumentException.class)
+  public void evenModulus() {
+    new MontgomeryFieldDefinition("340282366920938463463374607431768211284");
+  }
+
+  @Test
+  public void createElement() {
+    Long baseNumber = 2L;
+    MontgomeryFieldDefinition definition =
+        new MontgomeryFieldDefinition("340282366920938463463374607431768211283");
+    FieldElement elementFromString = definition.createElement(baseNumber.toString());
+    FieldElement elementFromLong = definition.createElement(baseNumber);
+    FieldElement elementFromBigInt = definition.createElement(new BigInteger("2"));
+    FieldElement result = elementFromLong.multiply(elementFromString).multiply(elementFromBigInt);
+    Assert.assertEquals(8, result.toBigInteger().longValue());
+  }
+
+  @Test
+  public void convertToSigned() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition("7");
+    Assert.assertEquals(BigInteger.valueOf(3), definition.convertToSigned(BigInteger.valueOf(3)));
+    Assert.assertEquals(BigInteger.valueOf(-3), definition.convertToSigned(BigInteger.valueOf(4)));
+    Assert.assertEquals(BigInteger.valueOf(-1), definition.convertToSigned(BigInteger.valueOf(6)));
+  }
+
+  @Test
+  public void serializationCompatible() {
+    Random random = new Random(1);
+    for (String modulus : Arrays.asList("113", "18446744073709551557",
+        "340282366920938463463374607431768211283")) {
+      MontgomeryFieldDefinition montgomery = new MontgomeryFieldDefinition(modulus);
+      BigIntegerFieldDefinition reference = new BigIntegerFieldDefinition(modulus);
+      BigInteger prime = montgomery.getModulus();
+      for (int i = 0; i < 20; i++) {
+        BigInteger value = new BigInteger(prime.bitLength(), random).mod(prime);
+        FieldElement element = montgomery.createElement(value);
+        byte[] bytes = reference.serialize(reference.createElement(value));
+        assertThat(montgomery.serialize(element), Is.is(bytes));
+        assertThat(montgomery.deserialize(bytes).toBigInteger(), Is.is(value));
+        assertThat(montgomery.serialize(reference.createElement(value)), Is.is(bytes));
+        List<FieldElement> list = Arrays.asList(element, element.negate());
+        byte[] listBytes = montgomery.serialize(list);
+        assertThat(listBytes, Is.is(reference.serialize(reference.deserializeList(listBytes))));
+        assertThat(montgomery.deserializeList(listBytes).get(1).toBigInteger(),
+            Is.is(prime.subtract(value).mod(prime)));
+      }
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.core.Is;
+import org.hamcrest.core.StringContains;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MontgomeryFieldElementTest {
+
+  private static final List<BigInteger> moduli = Arrays.asList(
+      BigInteger.valueOf(113),
+      BigInteger.ONE.shiftLeft(61).subtract(BigInteger.ONE),
+      // Uses the top bit of the single limb
+      new BigInteger("18446744073709551557"),
+      BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE),
+      new BigInteger("340282366920938463463374607431768211283"),
+      BigInteger.ONE.shiftLeft(255).subtract(BigInteger.valueOf(19)),
+      BigInteger.ONE.shiftLeft(521).subtract(BigInteger.ONE));
+
+  private MontgomeryModulus modulus;
+  private MontgomeryModulus bigModulus;
+
+  @Before
+  public void setUp() {
+    modulus = new MontgomeryModulus(BigInteger.valueOf(113));
+    bigModulus = new MontgomeryModulus(new BigInteger("340282366920938463463374607431768211283"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void evenModulus() {
+    new MontgomeryModulus(BigInteger.valueOf(114));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void smallModulus() {
+    new MontgomeryModulus(BigInteger.ONE);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void nullModulus() {
+    new MontgomeryModulus(null);
+  }
+
+  @Test
+  public void creators() {
+    testCreation(27, 27);
+    testCreation(27 + 113, 27);
+    testCreation(27 - 113, 27);
+    testCreation(-1, 113 - 1);
+    testCreation(0, 0);
+  }
+
+  private void testCreation(int value, int expected) {
+    FieldElement element1 = MontgomeryFieldElement.create(value, modulus);
+    FieldElement element2 = MontgomeryFieldElement.create("" + value, modulus);
+    FieldElement element3 = MontgomeryFieldElement.create(BigInteger.valueOf(value), modulus);
+    assertThat(element1.toBigInteger(), Is.is(BigInteger.valueOf(expected)));
+    assertThat(element2.toBigInteger(), Is.is(BigInteger.valueOf(expected)));
+    assertThat(element3.toBigInteger(), Is.is(BigInteger.valueOf(expected)));
+  }
+
+  @Test
+  public void arithmetic() {
+    Random random = new Random(42);
+    for (BigInteger prime : moduli) {
+      MontgomeryModulus modulus = new MontgomeryModulus(prime);
+      List<BigInteger> values = new ArrayList<>(Arrays.asList(BigInteger.ZERO, BigInteger.ONE,
+          prime.subtract(BigInteger.ONE), prime.shiftRight(1),
+          prime.shiftRight(1).add(BigInteger.ONE)));
+      for (int i = 0; i < 50; i++) {
+        values.add(new BigInteger(prime.bitLength() + 8, random).mod(prime));
+      }
+      for (BigInteger a : values) {
+        for (BigInteger b : values.subList(0, 10)) {
+          FieldElement left = MontgomeryFieldElement.create(a, modulus);
+          FieldElement right = MontgomeryFieldElement.create(b, modulus);
+          assertThat(left.add(right).toBigInteger(), Is.is(a.add(b).mod(prime)));
+          assertThat(left.subtract(right).toBigInteger(), Is.is(a.subtract(b).mod(prime)));
+          assertThat(left.multiply(right).toBigInteger(), Is.is(a.multiply(b).mod(prime)));
+        }
+        FieldElement element = MontgomeryFieldElement.create(a, modulus);
+        assertThat(element.negate().toBigInteger(), Is.is(a.negate().mod(prime)));
+        assertThat(element.isZero(), Is.is(a.signum() == 0));
+      }
+    }
+  }
+
+  @Test
+  public void otherElementTypes() {
+    BigIntegerModulus other = new BigIntegerModulus(BigInteger.valueOf(113));
+    FieldElement element = MontgomeryFieldElement.create(100, modulus);
+    FieldElement operand = BigIntegerFieldElement.create(20, other);
+    assertThat(element.add(operand).toBigInteger(), Is.is(BigInteger.valueOf(7)));
+    assertThat(element.subtract(operand).toBigInteger(), Is.is(BigInteger.valueOf(80)));
+    assertThat(element.multiply(operand).toBigInteger(), Is.is(BigInteger.valueOf(2000 % 113)));
+  }
+
+  @Test
+  public void accumulator() {
+    Random random = new Random(7);
+    for (BigInteger prime : moduli) {
+      MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(prime);
+      MontgomeryAccumulator accumulator = definition.createAccumulator();
+      BigInteger expected = BigInteger.ZERO;
+      for (int i = 0; i < 100; i++) {
+        BigInteger a = new BigInteger(prime.bitLength(), random).mod(prime);
+        BigInteger b = new BigInteger(prime.bitLength(), random).mod(prime);
+        accumulator.addProduct(definition.createElement(a), definition.createElement(b));
+        accumulator.subtract(definition.createElement(b));
+        expected = expected.add(a.multiply(b)).subtract(b);
+      }
+      FieldElement sum = accumulator.get();
+      assertThat(sum.toBigInteger(), Is.is(expected.mod(prime)));
+      accumulator.add(definition.createElement(1)).multiply(definition.createElement(3));
+      assertThat(sum.toBigInteger(), Is.is(expected.mod(prime)));
+      assertThat(accumulator.get().toBigInteger(),
+          Is.is(expected.add(BigInteger.ONE).multiply(BigInteger.valueOf(3)).mod(prime)));
+      assertTrue(accumulator.reset().get().isZero());
+    }
+  }
+
+  @Test
+  public void sqrt() {
+    FieldElement element = MontgomeryFieldElement.create(2, modulus);
+    assertThat(element.sqrt().toBigInteger(), Is.is(BigInteger.valueOf(62)));
+
+    element = MontgomeryFieldElement.create("180740608519057052622341767564917758093", bigModulus);
+    BigInteger expected = element.toBigInteger();
+    BigInteger value = element.sqrt().toBigInteger();
+    assertThat(value.pow(2).mod(bigModulus.getBigInteger()), Is.is(expected));
+  }
+
+  @Test
+  public void modInverse() {
+    List<Integer> values = Arrays.asList(-123, -12, -1, 1, 12, 123, 1234, 12345, 123456, 1234567);
+    for (BigInteger prime : moduli) {
+      MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(prime);
+      for (Integer value : values) {
+        BigInteger expected = BigInteger.valueOf(value).mod(prime).modInverse(prime);
+        assertThat(definition.createElement(value).modInverse().toBigInteger(), Is.is(expected));
+      }
+    }
+  }
+
+  @Test
+  public void toStringTest() {
+    FieldElement element = MontgomeryFieldElement.create(BigInteger.valueOf(7854), bigModulus);
+    assertThat(element.toString(), StringContains.containsString("7854"));
+  }
+}
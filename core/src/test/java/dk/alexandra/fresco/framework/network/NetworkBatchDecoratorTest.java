@@ -1,9 +1,12 @@
 package dk.alexandra.fresco.framework.network;
 
 import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -28,6 +31,21 @@ public class NetworkBatchDecoratorTest {
     Assert.assertArrayEquals(new byte[]{22, 0, 0}, networkBatchDecorator.receive(1));
   }
 
+  @Test
+  public void receiveBuffer() throws Exception {
+    byte[] batch = {4, 2, 2, 23, 3, 3, 22, 0, 0};
+    transmissions.put(1, batch);
+    ByteBuffer first = networkBatchDecorator.receiveBuffer(1);
+    Assert.assertEquals(4, first.remaining());
+    Assert.assertEquals(2, first.get(0));
+    Assert.assertEquals(3, first.get(3));
+    Assert.assertTrue(first.isReadOnly());
+    // the message is a view of the batch, not a copy
+    batch[4] = 42;
+    Assert.assertEquals(42, first.get(3));
+    Assert.assertArrayEquals(new byte[]{22, 0, 0}, networkBatchDecorator.receive(1));
+  }
+
   @Test
   public void receiveFromAll() throws Exception {
     transmissions.put(1, new byte[]{4, 2, 2, 23, 3, 42});
@@ -65,25 +83,136 @@ public class NetworkBatchDecoratorTest {
     Assert.assertArrayEquals(new byte[]{1, 123}, transmissions.get(3));
   }
 
-  @Test(expected = RuntimeException.class)
-  public void errorOnBigPackets() throws Exception {
-    networkBatchDecorator.sendToAll(
-        new byte[]{
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-        });
+  @Test
+  public void sendBigPackets() throws Exception {
+    byte[] data = new byte[300];
+    Arrays.fill(data, (byte) 123);
+    networkBatchDecorator.send(1, data);
+    networkBatchDecorator.flush();
+    byte[] sent = transmissions.get(1);
+    Assert.assertEquals(data.length + 2, sent.length);
+    // 300 = 0b10_0101100 is encoded as 0b1_0101100 followed by 0b0_0000010
+    Assert.assertEquals((byte) 0xAC, sent[0]);
+    Assert.assertEquals((byte) 0x02, sent[1]);
+    Assert.assertArrayEquals(data, networkBatchDecorator.receive(1));
+  }
+
+  @Test
+  public void sendMixedSizes() throws Exception {
+    int[] sizes = {0, 1, 127, 128, 16383, 16384, 1 << 21, 5};
+    for (int size : sizes) {
+      byte[] data = new byte[size];
+      Arrays.fill(data, (byte) size);
+      networkBatchDecorator.send(2, data);
+    }
+    networkBatchDecorator.flush();
+    for (int size : sizes) {
+      byte[] expected = new byte[size];
+      Arrays.fill(expected, (byte) size);
+      Assert.assertArrayEquals(expected, networkBatchDecorator.receive(2));
+    }
+  }
+
+  @Test
+  public void reuseBuffersAcrossFlushes() throws Exception {
+    networkBatchDecorator.send(1, new byte[]{1, 2, 3});
+    networkBatchDecorator.flush();
+    Assert.assertArrayEquals(new byte[]{3, 1, 2, 3}, transmissions.get(1));
+    Assert.assertArrayEquals(new byte[]{1, 2, 3}, networkBatchDecorator.receive(1));
+    networkBatchDecorator.send(1, new byte[]{4});
+    networkBatchDecorator.flush();
+    Assert.assertArrayEquals(new byte[]{1, 4}, transmissions.get(1));
+    Assert.assertArrayEquals(new byte[]{4}, networkBatchDecorator.receive(1));
+  }
+
+  @Test
+  public void sendBits() throws Exception {
+    boolean[] bits = {true, false, true, true, false, false, false, true, true, false, true};
+    for (boolean bit : bits) {
+      networkBatchDecorator.sendBit(1, bit);
+    }
+    networkBatchDecorator.flush();
+    // marker, bit count and two bytes of packed bits
+    Assert.assertArrayEquals(
+        new byte[]{(byte) 0x80, 0x00, 11, (byte) 0b10110001, (byte) 0b10100000},
+        transmissions.get(1));
+    for (boolean bit : bits) {
+      Assert.assertEquals(bit, networkBatchDecorator.receiveBit(1));
+    }
+  }
+
+  @Test
+  public void sendBitsAndMessages() throws Exception {
+    networkBatchDecorator.send(2, new byte[]{42});
+    networkBatchDecorator.sendBit(2, true);
+    networkBatchDecorator.send(2, new byte[]{});
+    networkBatchDecorator.sendBit(2, false);
+    networkBatchDecorator.flush();
+    Assert.assertArrayEquals(new byte[]{42}, networkBatchDecorator.receive(2));
+    Assert.assertTrue(networkBatchDecorator.receiveBit(2));
+    Assert.assertFalse(networkBatchDecorator.receiveBit(2));
+    Assert.assertArrayEquals(new byte[]{}, networkBatchDecorator.receive(2));
+    networkBatchDecorator.sendBit(2, false);
+    networkBatchDecorator.flush();
+    Assert.assertFalse(networkBatchDecorator.receiveBit(2));
+  }
+
+  @Test
+  public void sendManyBits() throws Exception {
+    Random random = new Random(42);
+    boolean[] bits = new boolean[1000];
+    for (int i = 0; i < bits.length; i++) {
+      bits[i] = random.nextBoolean();
+      networkBatchDecorator.sendBit(3, bits[i]);
+    }
+    networkBatchDecorator.flush();
+    Assert.assertEquals(2 + 2 + 125, transmissions.get(3).length);
+    for (boolean bit : bits) {
+      Assert.assertEquals(bit, networkBatchDecorator.receiveBit(3));
+    }
+  }
+
+  @Test
+  public void defaultBits() throws Exception {
+    Network network = new DummyNetwork();
+    network.sendBit(1, true);
+    Assert.assertArrayEquals(new byte[]{1}, transmissions.get(1));
+    Assert.assertTrue(network.receiveBit(1));
+    network.sendBit(1, false);
+    Assert.assertArrayEquals(new byte[]{0}, transmissions.get(1));
+    Assert.assertFalse(network.receiveBit(1));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void errorOnMissingBits() throws Exception {
+    networkBatchDecorator.send(1, new byte[]{1});
+    networkBatchDecorator.flush();
+    networkBatchDecorator.receiveBit(1);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void errorOnTruncatedBatch() throws Exception {
+    transmissions.put(1, new byte[]{4, 2, 2});
+    networkBatchDecorator.receive(1);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void errorOnTruncatedLengthPrefix() throws Exception {
+    transmissions.put(1, new byte[]{(byte) 0x81});
+    networkBatchDecorator.receive(1);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void errorOnReadingPastBatch() throws Exception {
+    transmissions.put(1, new byte[]{1, 7});
+    Assert.assertArrayEquals(new byte[]{7}, networkBatchDecorator.receive(1));
+    networkBatchDecorator.receive(1);
+  }
 
+  @Test(expected = IllegalStateException.class)
+  public void errorOnTruncatedBitCount() throws Exception {
+    transmissions.put(1, new byte[]{(byte) 0x80, 0x00});
+    networkBatchDecorator.receiveBit(1);
   }
 
   private class DummyNetwork implements Network {
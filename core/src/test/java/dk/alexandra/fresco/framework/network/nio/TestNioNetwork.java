@@ -0,0 +1,200 @@
+package dk.alexandra.fresco.framework.network.nio;
+
+import static dk.alexandra.fresco.framework.network.nio.NioConnector.DEFAULT_CONNECTION_TIMEOUT;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.network.AbstractCloseableNetworkTest;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class TestNioNetwork extends AbstractCloseableNetworkTest {
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf) {
+    return newCloseableNetwork(conf, DEFAULT_CONNECTION_TIMEOUT);
+  }
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf, Duration timeout) {
+    return new NioNetwork(conf, timeout);
+  }
+
+  private List<NioConnector> connect(List<NetworkConfiguration> confs)
+      throws InterruptedException, ExecutionException {
+    ExecutorService es = Executors.newFixedThreadPool(confs.size());
+    List<Future<NioConnector>> fs = new ArrayList<>(confs.size());
+    try {
+      for (NetworkConfiguration conf : confs) {
+        fs.add(es.submit(() -> new NioConnector(conf, DEFAULT_CONNECTION_TIMEOUT)));
+      }
+      List<NioConnector> connectors = new ArrayList<>(confs.size());
+      for (Future<NioConnector> f : fs) {
+        connectors.add(f.get());
+      }
+      return connectors;
+    } finally {
+      es.shutdownNow();
+    }
+  }
+
+  private void closeChannels(List<NioConnector> connectors) throws IOException {
+    for (NioConnector connector : connectors) {
+      for (SocketChannel channel : connector.getChannelMap().values()) {
+        channel.close();
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingParty() throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(3);
+    List<NioConnector> connectors = connect(confs);
+    try {
+      Map<Integer, SocketChannel> channelMap = connectors.get(0).getChannelMap();
+      channelMap.remove(2);
+      new NioNetwork(confs.get(0), channelMap);
+    } finally {
+      closeChannels(connectors);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testClosedChannel() throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(3);
+    List<NioConnector> connectors = connect(confs);
+    try {
+      Map<Integer, SocketChannel> channelMap = connectors.get(0).getChannelMap();
+      channelMap.get(3).close();
+      new NioNetwork(confs.get(0), channelMap);
+    } finally {
+      closeChannels(connectors);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnconnectedChannel() throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(2);
+    try (SocketChannel channel = SocketChannel.open()) {
+      new NioNetwork(confs.get(0), Collections.singletonMap(2, channel));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooSmallBuffer() throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(1);
+    new NioNetwork(confs.get(0), Collections.emptyMap(), Integer.BYTES - 1);
+  }
+
+  @Test
+  public void testSmallBuffer() throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(2);
+    List<NioConnector> connectors = connect(confs);
+    try (NioNetwork n1 = new NioNetwork(confs.get(0), connectors.get(0).getChannelMap(), 5);
+        NioNetwork n2 = new NioNetwork(confs.get(1), connectors.get(1).getChannelMap(), 5)) {
+      byte[] first = new byte[] {1, 2, 3, 4, 5, 6, 7};
+      byte[] second = new byte[] {8};
+      n1.send(2, first);
+      n1.send(2, new byte[0]);
+      n1.send(2, second);
+      assertArrayEquals(first, n2.receive(1));
+      assertArrayEquals(new byte[0], n2.receive(1));
+      assertArrayEquals(second, n2.receive(1));
+    }
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testPeerClosed() throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(2);
+    List<NioConnector> connectors = connect(confs);
+    try (NioNetwork network = new NioNetwork(confs.get(0), connectors.get(0).getChannelMap())) {
+      connectors.get(1).getChannelMap().get(1).close();
+      network.receive(2);
+    }
+  }
+
+  @Test
+  public void testWireFormat() throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(2);
+    List<NioConnector> connectors = connect(confs);
+    try (NioNetwork network = new NioNetwork(confs.get(0), connectors.get(0).getChannelMap())) {
+      SocketChannel other = connectors.get(1).getChannelMap().get(1);
+      ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + 2);
+      buffer.putInt(2).put((byte) 42).put((byte) 43).flip();
+      other.write(buffer);
+      assertArrayEquals(new byte[] {42, 43}, network.receive(2));
+    } finally {
+      closeChannels(connectors);
+    }
+  }
+
+  @Test
+  public void testNegativeLength() throws Exception {
+    testInvalidLength(-1);
+  }
+
+  @Test
+  public void testHugeLength() throws Exception {
+    // only the bytes actually received are allocated, so this does not run out of memory
+    testInvalidLength(Integer.MAX_VALUE);
+  }
+
+  /**
+   * P3 sends a length prefix followed by two bytes and closes the channel. Receiving from P3 must
+   * fail, while P1 and P2 are still able to communicate.
+   */
+  private void testInvalidLength(int length) throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(3);
+    List<NioConnector> connectors = connect(confs);
+    try (NioNetwork n1 = new NioNetwork(confs.get(0), connectors.get(0).getChannelMap());
+        NioNetwork n2 = new NioNetwork(confs.get(1), connectors.get(1).getChannelMap())) {
+      SocketChannel other = connectors.get(2).getChannelMap().get(1);
+      ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + 2);
+      buffer.putInt(length).put((byte) 42).put((byte) 43).flip();
+      other.write(buffer);
+      n2.send(1, new byte[] {1});
+      assertArrayEquals(new byte[] {1}, n1.receive(2));
+      other.close();
+      try {
+        n1.receive(3);
+        fail("Expected receiving from P3 to fail");
+      } catch (RuntimeException e) {
+        // expected
+      }
+      n1.send(2, new byte[] {2});
+      assertArrayEquals(new byte[] {2}, n2.receive(1));
+    } finally {
+      closeChannels(connectors);
+    }
+  }
+
+  @Test
+  public void testMessagesLargerThanBuffer() throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(2);
+    List<NioConnector> connectors = connect(confs);
+    try (NioNetwork n1 = new NioNetwork(confs.get(0), connectors.get(0).getChannelMap(), 16);
+        NioNetwork n2 = new NioNetwork(confs.get(1), connectors.get(1).getChannelMap(), 16)) {
+      byte[] large = new byte[1000];
+      for (int i = 0; i < large.length; i++) {
+        large[i] = (byte) i;
+      }
+      n1.send(2, large);
+      n1.send(2, new byte[] {1, 2, 3});
+      assertArrayEquals(large, n2.receive(1));
+      assertArrayEquals(new byte[] {1, 2, 3}, n2.receive(1));
+    }
+  }
+}
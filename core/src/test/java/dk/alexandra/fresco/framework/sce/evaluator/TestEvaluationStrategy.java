@@ -8,11 +8,22 @@ import org.junit.Test;
 
 public class TestEvaluationStrategy {
 
- @Test
- public void testEnums(){
-   assertThat(EvaluationStrategy.valueOf("SEQUENTIAL"), is(EvaluationStrategy.SEQUENTIAL));
-   assertThat(EvaluationStrategy.valueOf("SEQUENTIAL").getStrategy(), instanceOf(SequentialStrategy.class));
-   assertThat(EvaluationStrategy.valueOf("SEQUENTIAL_BATCHED"), is(EvaluationStrategy.SEQUENTIAL_BATCHED));
-     assertThat(EvaluationStrategy.valueOf("SEQUENTIAL_BATCHED").getStrategy(), instanceOf(BatchedStrategy.class));
- }
+  @Test
+  public void testEnums() {
+    assertThat(EvaluationStrategy.valueOf("SEQUENTIAL"), is(EvaluationStrategy.SEQUENTIAL));
+    assertThat(EvaluationStrategy.valueOf("SEQUENTIAL").getStrategy(),
+        instanceOf(SequentialStrategy.class));
+    assertThat(EvaluationStrategy.valueOf("SEQUENTIAL_BATCHED"),
+        is(EvaluationStrategy.SEQUENTIAL_BATCHED));
+    assertThat(EvaluationStrategy.valueOf("SEQUENTIAL_BATCHED").getStrategy(),
+        instanceOf(BatchedStrategy.class));
+    assertThat(EvaluationStrategy.valueOf("PIPELINED_BATCHED"),
+        is(EvaluationStrategy.PIPELINED_BATCHED));
+    assertThat(EvaluationStrategy.valueOf("PIPELINED_BATCHED").getStrategy(),
+        instanceOf(PipelinedBatchedStrategy.class));
+    assertThat(EvaluationStrategy.valueOf("PARALLEL_BATCHED"),
+        is(EvaluationStrategy.PARALLEL_BATCHED));
+    assertThat(EvaluationStrategy.valueOf("PARALLEL_BATCHED").getStrategy(),
+        instanceOf(ParallelBatchedStrategy.class));
+  }
 }
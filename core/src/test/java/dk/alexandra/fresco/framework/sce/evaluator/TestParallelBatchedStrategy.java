@@ -0,0 +1,92 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.dummy.arithmetic.AbstractDummyArithmeticTest;
+import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.suite.dummy.arithmetic.ParallelAndSequenceTests.TestSumAndProduct;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestParallelBatchedStrategy extends AbstractDummyArithmeticTest {
+
+  private static TestParameters parallel(int noOfParties) {
+    return new TestParameters()
+        .numParties(noOfParties)
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED);
+  }
+
+  @Test
+  public void test_input_from_all() {
+    runTest(new BasicArithmeticTests.TestInputFromAll<>(), parallel(3));
+  }
+
+  @Test
+  public void test_lots_mult() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), parallel(2));
+  }
+
+  @Test
+  public void test_alternating_mult_add() {
+    runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(), parallel(2));
+  }
+
+  @Test
+  public void test_sum_and_product() {
+    runTest(new TestSumAndProduct<>(), parallel(1));
+  }
+
+  @Test
+  public void test_many_inputs_and_openings() {
+    runTest(new TestManyInputs<>(), parallel(3));
+  }
+
+  /**
+   * Lets all parties input many values in parallel, such that every chunk of the batch both sends
+   * and receives messages, and opens all of them.
+   */
+  private static class TestManyInputs<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    private static final int INPUTS_PER_PARTY = 3000;
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          int noOfParties = conf.getResourcePool().getNoOfParties();
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app =
+              producer -> producer.par(par -> {
+                Numeric numeric = par.numeric();
+                List<DRes<SInt>> inputs = new ArrayList<>();
+                for (int i = 0; i < INPUTS_PER_PARTY * noOfParties; i++) {
+                  inputs.add(numeric.input(BigInteger.valueOf(i), i % noOfParties + 1));
+                }
+                return () -> inputs;
+              }).par((par, inputs) -> {
+                Numeric numeric = par.numeric();
+                List<DRes<BigInteger>> opened =
+                    inputs.stream().map(numeric::open).collect(Collectors.toList());
+                return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+              });
+          List<BigInteger> output = runApplication(app);
+          Assert.assertEquals(INPUTS_PER_PARTY * noOfParties, output.size());
+          for (int i = 0; i < output.size(); i++) {
+            Assert.assertEquals(BigInteger.valueOf(i), output.get(i));
+          }
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.builder.numeric.ExponentiationPipeTests;
+import dk.alexandra.fresco.suite.dummy.arithmetic.AbstractDummyArithmeticTest;
+import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.suite.dummy.arithmetic.ParallelAndSequenceTests.TestSumAndProduct;
+import org.junit.Test;
+
+public class TestPipelinedBatchedStrategy extends AbstractDummyArithmeticTest {
+
+  private static TestParameters pipelined(int noOfParties) {
+    return new TestParameters()
+        .numParties(noOfParties)
+        .evaluationStrategy(EvaluationStrategy.PIPELINED_BATCHED);
+  }
+
+  @Test
+  public void test_input_from_all() {
+    runTest(new BasicArithmeticTests.TestInputFromAll<>(), pipelined(2));
+  }
+
+  @Test
+  public void test_lots_mult() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), pipelined(2));
+  }
+
+  @Test
+  public void test_alternating_mult_add() {
+    runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(), pipelined(2));
+  }
+
+  @Test
+  public void test_sum_and_product() {
+    runTest(new TestSumAndProduct<>(), pipelined(1));
+  }
+
+  @Test
+  public void test_loop_depending_on_openings() {
+    runTest(new ExponentiationPipeTests.TestPreprocessedValues<>(), pipelined(2));
+  }
+}
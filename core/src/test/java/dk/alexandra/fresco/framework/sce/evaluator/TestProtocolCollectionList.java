@@ -0,0 +1,147 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.junit.Test;
+
+public class TestProtocolCollectionList {
+
+  private static ProtocolCollectionList<ResourcePool> collection(int capacity, int size) {
+    ProtocolCollectionList<ResourcePool> protocols = new ProtocolCollectionList<>(capacity);
+    for (int i = 0; i < size; i++) {
+      protocols.addProtocol(new IdProtocol(i));
+    }
+    return protocols;
+  }
+
+  private static List<Integer> ids(ProtocolCollectionList<ResourcePool> protocols) {
+    List<Integer> ids = new ArrayList<>();
+    for (NativeProtocol<?, ResourcePool> protocol : protocols) {
+      ids.add(((IdProtocol) protocol).out());
+    }
+    return ids;
+  }
+
+  private static List<Integer> range(int from, int to, int step) {
+    List<Integer> ids = new ArrayList<>();
+    for (int i = from; i < to; i += step) {
+      ids.add(i);
+    }
+    return ids;
+  }
+
+  @Test
+  public void testRemoveKeepsOrder() {
+    ProtocolCollectionList<ResourcePool> protocols = collection(100, 100);
+    Iterator<NativeProtocol<?, ResourcePool>> iterator = protocols.iterator();
+    while (iterator.hasNext()) {
+      if (((IdProtocol) iterator.next()).out() % 2 == 0) {
+        iterator.remove();
+      }
+    }
+    assertThat(protocols.size(), is(50));
+    assertThat(ids(protocols), is(range(1, 100, 2)));
+  }
+
+  @Test
+  public void testSizeWhileIterating() {
+    ProtocolCollectionList<ResourcePool> protocols = collection(10, 10);
+    Iterator<NativeProtocol<?, ResourcePool>> iterator = protocols.iterator();
+    iterator.next();
+    iterator.remove();
+    iterator.next();
+    iterator.next();
+    iterator.remove();
+    assertThat(protocols.size(), is(8));
+  }
+
+  @Test
+  public void testAbandonedIteration() {
+    ProtocolCollectionList<ResourcePool> protocols = collection(10, 10);
+    Iterator<NativeProtocol<?, ResourcePool>> iterator = protocols.iterator();
+    iterator.next();
+    iterator.next();
+    iterator.remove();
+    iterator.next();
+    List<Integer> expected = range(0, 10, 1);
+    expected.remove(Integer.valueOf(1));
+    assertThat(ids(protocols), is(expected));
+    protocols.addProtocol(new IdProtocol(10));
+    expected.add(10);
+    assertThat(ids(protocols), is(expected));
+  }
+
+  @Test
+  public void testRemoveAll() {
+    ProtocolCollectionList<ResourcePool> protocols = collection(10, 10);
+    Iterator<NativeProtocol<?, ResourcePool>> iterator = protocols.iterator();
+    while (iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+    }
+    assertThat(protocols.size(), is(0));
+    assertFalse(protocols.iterator().hasNext());
+  }
+
+  @Test
+  public void testClearAndReuse() {
+    ProtocolCollectionList<ResourcePool> protocols = collection(3, 3);
+    assertFalse(protocols.hasFreeCapacity());
+    protocols.clear();
+    assertThat(protocols.size(), is(0));
+    assertTrue(protocols.hasFreeCapacity());
+    protocols.addProtocol(new IdProtocol(7));
+    assertThat(ids(protocols), is(range(7, 8, 1)));
+  }
+
+  @Test
+  public void testGrowBeyondInitialLength() {
+    ProtocolCollectionList<ResourcePool> protocols = collection(5000, 5000);
+    assertThat(protocols.size(), is(5000));
+    assertThat(ids(protocols), is(range(0, 5000, 1)));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testRemoveTwice() {
+    Iterator<NativeProtocol<?, ResourcePool>> iterator = collection(2, 2).iterator();
+    iterator.next();
+    iterator.remove();
+    iterator.remove();
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testNextOnExhausted() {
+    Iterator<NativeProtocol<?, ResourcePool>> iterator = collection(1, 1).iterator();
+    iterator.next();
+    iterator.next();
+  }
+
+  private static class IdProtocol implements NativeProtocol<Integer, ResourcePool> {
+
+    private final int id;
+
+    private IdProtocol(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+      return EvaluationStatus.IS_DONE;
+    }
+
+    @Override
+    public Integer out() {
+      return id;
+    }
+  }
+}
@@ -5,6 +5,7 @@ import static org.junit.Assert.assertEquals;
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import org.junit.Test;
 
 public class TestMathUtils {
@@ -61,4 +62,20 @@ public class TestMathUtils {
     assertEquals(expected, MathUtils.toBits(value, 4));
   }
 
+  @Test
+  public void testUnsignedMultiplyHigh() {
+    Random random = new Random(42);
+    long[] edgeCases = {0, 1, -1, Long.MAX_VALUE, Long.MIN_VALUE};
+    for (int i = 0; i < 1000; i++) {
+      long left = i < edgeCases.length ? edgeCases[i] : random.nextLong();
+      long right = i < edgeCases.length ? -1 : random.nextLong();
+      BigInteger product = unsigned(left).multiply(unsigned(right));
+      assertEquals(product.shiftRight(64).longValue(), MathUtils.unsignedMultiplyHigh(left, right));
+    }
+  }
+
+  private static BigInteger unsigned(long value) {
+    return new BigInteger(Long.toUnsignedString(value));
+  }
+
 }
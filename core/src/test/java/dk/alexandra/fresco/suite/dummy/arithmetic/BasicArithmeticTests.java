@@ -531,6 +531,55 @@ public class BasicArithmeticTests {
    * Test a large amount (defined by the REPS constant) multiplication protocols in order to
    * stress-test the protocol suite.
    */
+  public static class TestMultVector<ResourcePoolT extends NumericResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      final int size = 1000;
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app =
+              producer -> producer.par(par -> {
+                Numeric numeric = par.numeric();
+                List<DRes<SInt>> left = new ArrayList<>(size);
+                List<DRes<SInt>> right = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                  left.add(numeric.known(i));
+                  right.add(numeric.input(i + 1, 1));
+                }
+                return Pair.lazy(left, right);
+              }).par((par, pair) -> {
+                Numeric numeric = par.numeric();
+                DRes<List<DRes<SInt>>> empty =
+                    numeric.multVector(new ArrayList<>(), new ArrayList<>());
+                DRes<List<DRes<SInt>>> products =
+                    numeric.multVector(pair.getFirst(), pair.getSecond());
+                return () -> {
+                  Assert.assertTrue(empty.out().isEmpty());
+                  return products.out();
+                };
+              }).par((par, products) -> {
+                Numeric numeric = par.numeric();
+                List<DRes<BigInteger>> opened =
+                    products.stream().map(numeric::open).collect(Collectors.toList());
+                return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+              });
+          List<BigInteger> output = runApplication(app);
+
+          BigInteger modulus = conf.getResourcePool().getModulus();
+          Assert.assertThat(output.size(), Is.is(size));
+          for (int i = 0; i < size; i++) {
+            BigInteger expected = BigInteger.valueOf((long) i * (i + 1)).mod(modulus);
+            Assert.assertEquals(expected, output.get(i));
+          }
+        }
+      };
+    }
+  }
+
   public static class TestLotsMult<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -109,6 +109,11 @@ public class TestBasicArithmetic extends AbstractDummyArithmeticTest {
     runTest(new BasicArithmeticTests.TestLotsMult<>(), new TestParameters());
   }
 
+  @Test
+  public void test_TestMultVector() {
+    runTest(new BasicArithmeticTests.TestMultVector<>(), new TestParameters());
+  }
+
   @Test
   public void test_TestAlternatingMultAdd() {
     runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(), new TestParameters());
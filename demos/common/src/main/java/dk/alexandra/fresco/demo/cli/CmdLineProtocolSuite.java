@@ -28,6 +28,7 @@ import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl;
 import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzAccumulatingOpenedValueStore;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzMascotDataSupplier;
@@ -181,8 +182,8 @@ public class CmdLineProtocolSuite {
               }, seedOts, drbg, ssk);
     }
 
-    return new SpdzResourcePoolImpl(myId, noOfPlayers, new SpdzOpenedValueStoreImpl(), supplier,
-        AesCtrDrbg::new);
+    return new SpdzResourcePoolImpl(myId, noOfPlayers,
+        new SpdzAccumulatingOpenedValueStore(definition), supplier, AesCtrDrbg::new);
   }
 
   private DRes<List<DRes<SInt>>> createPipe(int pipeLength, Network network,
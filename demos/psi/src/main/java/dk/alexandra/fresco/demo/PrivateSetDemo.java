@@ -210,17 +210,12 @@ public class PrivateSetDemo implements Application<List<List<Boolean>>, Protocol
       }
       PsiInputs inputs = new PsiInputs(set1, set2, commonKey);
       return () -> inputs;
-    }).par((par, inputs) -> {
-      List<DRes<List<SBool>>> aesResults = new ArrayList<>();
-      for (List<DRes<SBool>> set : inputs.set1) {
-        aesResults.add(BristolCrypto.using(par).AES(set, inputs.commonKey));
-      }
-      for (List<DRes<SBool>> set : inputs.set2) {
-        aesResults.add(BristolCrypto.using(par).AES(set, inputs.commonKey));
-      }
-      return () -> aesResults;
-    }).seq((seq, aesResults) -> {
-      List<List<SBool>> res = aesResults.stream().map(DRes::out).collect(Collectors.toList());
+    }).seq((seq, inputs) -> {
+      // Encrypt all elements in lock-step, one round per layer of AND gates of the AES circuit
+      List<List<DRes<SBool>>> plainTexts = new ArrayList<>(inputs.set1);
+      plainTexts.addAll(inputs.set2);
+      return BristolCrypto.compiled(seq).batchAES(plainTexts, inputs.commonKey);
+    }).seq((seq, res) -> {
       List<List<DRes<Boolean>>> output = new ArrayList<>();
       for (List<SBool> bs : res) {
         List<DRes<Boolean>> innerOut = new ArrayList<>();
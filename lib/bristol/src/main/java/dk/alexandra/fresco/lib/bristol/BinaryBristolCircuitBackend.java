@@ -0,0 +1,67 @@
+package dk.alexandra.fresco.lib.bristol;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+import dk.alexandra.fresco.framework.value.SBool;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link BristolCircuitBackend} evaluating a compiled circuit using the basic gates of the {@link
+ * dk.alexandra.fresco.framework.builder.binary.Binary} computation directory. Works for any binary
+ * protocol suite. The AND gates of each layer of the circuit are evaluated in parallel.
+ */
+public class BinaryBristolCircuitBackend implements BristolCircuitBackend {
+
+  @Override
+  public DRes<List<SBool>> evaluate(ProtocolBuilderBinary builder, BristolCircuit circuit,
+      List<DRes<SBool>> in1, List<DRes<SBool>> in2) {
+    circuit.checkInputs(in1.size(), in2.size());
+    if (in1.contains(null) || in2.contains(null)) {
+      throw new IllegalArgumentException("Inputs must not be null");
+    }
+    return builder.seq(seq -> {
+      List<DRes<SBool>> wires =
+          new ArrayList<>(Collections.nCopies(circuit.getNoOfWires(), null));
+      for (int i = 0; i < circuit.getNoOfInput1(); i++) {
+        wires.set(i, in1.get(i));
+      }
+      for (int i = 0; i < circuit.getNoOfInput2(); i++) {
+        wires.set(circuit.getNoOfInput1() + i, in2.get(i));
+      }
+      DRes<List<DRes<SBool>>> result = () -> wires;
+      for (int layer = 0; layer < circuit.getNoOfLayers(); layer++) {
+        int current = layer;
+        result = seq.seq(inner -> evaluateLayer(inner, circuit, current, wires));
+      }
+      return result;
+    }).seq((seq, wires) -> {
+      List<SBool> output = new ArrayList<>(circuit.getNoOfOutput());
+      for (int i = 0; i < circuit.getNoOfOutput(); i++) {
+        output.add(wires.get(circuit.getOutputWire(i)).out());
+      }
+      return () -> output;
+    });
+  }
+
+  private DRes<List<DRes<SBool>>> evaluateLayer(ProtocolBuilderBinary seq,
+      BristolCircuit circuit, int layer, List<DRes<SBool>> wires) {
+    for (int g = circuit.getLayerStart(layer); g < circuit.getAndStart(layer); g++) {
+      DRes<SBool> left = wires.get(circuit.getLeftWire(g));
+      if (circuit.getType(g) == BristolCircuit.XOR) {
+        wires.set(circuit.getOutWire(g),
+            seq.binary().xor(left, wires.get(circuit.getRightWire(g))));
+      } else {
+        wires.set(circuit.getOutWire(g), seq.binary().not(left));
+      }
+    }
+    return seq.par(par -> {
+      for (int g = circuit.getAndStart(layer); g < circuit.getLayerEnd(layer); g++) {
+        wires.set(circuit.getOutWire(g), par.binary()
+            .and(wires.get(circuit.getLeftWire(g)), wires.get(circuit.getRightWire(g))));
+      }
+      return () -> wires;
+    });
+  }
+}
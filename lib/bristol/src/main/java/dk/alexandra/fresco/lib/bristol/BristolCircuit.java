@@ -0,0 +1,520 @@
+package dk.alexandra.fresco.lib.bristol;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * A boolean circuit in "Bristol" format compiled into flat arrays.
+ *
+ * <p>
+ * Each gate is described by its type and the indices of its input and output wires. The gates are
+ * reordered into layers by AND-depth: layer <i>l</i> first holds the XOR and INV gates whose
+ * inputs depend on at most <i>l</i> layers of AND gates, in their original order, followed by the
+ * AND gates whose inputs depend on at most <i>l</i> layers of AND gates. All AND gates of a layer
+ * are thus independent and can be evaluated in a single round once the XOR and INV gates of the
+ * layer have been evaluated. The last layer holds no AND gates.
+ * </p>
+ *
+ * <p>
+ * A compiled circuit can be stored in a compact binary format using {@link #write(OutputStream)}
+ * and read back using {@link #read(InputStream)}, which avoids parsing the textual description.
+ * The format consists of the magic number {@link #MAGIC}, the format version, the number of wires,
+ * inputs, outputs, gates and layers, and the layer offsets (all ints), followed by the gate types
+ * as bytes and the left, right and output wires of the gates as ints. See {@link
+ * BristolCircuitCompiler} for converting circuit files.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable. Circuits read from resources using {@link #fromResource(String)} are
+ * compiled once and cached.
+ * </p>
+ */
+public class BristolCircuit {
+
+  public static final byte XOR = 0;
+  public static final byte AND = 1;
+  public static final byte INV = 2;
+
+  /**
+   * Magic number at the start of circuits written by {@link #write(OutputStream)}.
+   */
+  public static final int MAGIC = 0x42524331;
+  private static final int VERSION = 1;
+  private static final int HEADER_INTS = 8;
+
+  private static final Map<String, BristolCircuit> CACHE = new ConcurrentHashMap<>();
+
+  private final int noOfWires;
+  private final int noOfInput1;
+  private final int noOfInput2;
+  private final int noOfOutput;
+  private final byte[] types;
+  private final int[] left;
+  private final int[] right;
+  private final int[] out;
+  private final int[] layerOffsets;
+  private final int[] andOffsets;
+
+  private BristolCircuit(int noOfWires, int noOfInput1, int noOfInput2, int noOfOutput,
+      byte[] types, int[] left, int[] right, int[] out, int[] layerOffsets, int[] andOffsets) {
+    this.noOfWires = noOfWires;
+    this.noOfInput1 = noOfInput1;
+    this.noOfInput2 = noOfInput2;
+    this.noOfOutput = noOfOutput;
+    this.types = types;
+    this.left = left;
+    this.right = right;
+    this.out = out;
+    this.layerOffsets = layerOffsets;
+    this.andOffsets = andOffsets;
+  }
+
+  /**
+   * Compiles the circuit at the given class path resource, or returns the cached compilation if the
+   * resource has been compiled before. The resource can either be a textual description in Bristol
+   * format or a circuit in the binary format written by {@link #write(OutputStream)}.
+   *
+   * @param path the class path of the circuit description
+   * @return the compiled circuit
+   */
+  public static BristolCircuit fromResource(String path) {
+    return CACHE.computeIfAbsent(path, BristolCircuit::compileResource);
+  }
+
+  private static BristolCircuit compileResource(String path) {
+    ClassLoader classLoader = BristolCircuit.class.getClassLoader();
+    InputStream is = classLoader.getResourceAsStream(path);
+    if (is == null) {
+      throw new IllegalArgumentException("Couldn't find bristol circuit description at " + path);
+    }
+    try (BufferedInputStream in = new BufferedInputStream(is)) {
+      if (isBinary(in)) {
+        return read(in);
+      }
+      return compile(new BufferedReader(new InputStreamReader(in)).lines());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static boolean isBinary(BufferedInputStream in) throws IOException {
+    in.mark(Integer.BYTES);
+    byte[] bytes = new byte[Integer.BYTES];
+    int read = 0;
+    while (read < bytes.length) {
+      int count = in.read(bytes, read, bytes.length - read);
+      if (count < 0) {
+        break;
+      }
+      read += count;
+    }
+    in.reset();
+    return read == bytes.length && ByteBuffer.wrap(bytes).getInt() == MAGIC;
+  }
+
+  /**
+   * Compiles the circuit described by the given lines in Bristol format.
+   *
+   * @param lines the lines of the circuit description
+   * @return the compiled circuit
+   */
+  public static BristolCircuit compile(Stream<String> lines) {
+    Iterator<String> iterator = lines.iterator();
+    String[] meta = iterator.next().trim().split("\\s+");
+    int noOfGates = Integer.parseInt(meta[0]);
+    int noOfWires = Integer.parseInt(meta[1]);
+    meta = iterator.next().trim().split("\\s+");
+    int noOfInput1 = Integer.parseInt(meta[0]);
+    int noOfInput2 = Integer.parseInt(meta[1]);
+    int noOfOutput = Integer.parseInt(meta[2]);
+
+    byte[] types = new byte[noOfGates];
+    int[] left = new int[noOfGates];
+    int[] right = new int[noOfGates];
+    int[] out = new int[noOfGates];
+    int gates = 0;
+    while (iterator.hasNext()) {
+      String line = iterator.next().trim();
+      if (line.isEmpty()) {
+        continue;
+      }
+      if (gates == noOfGates) {
+        throw new IllegalArgumentException("Circuit has more than " + noOfGates + " gates");
+      }
+      String[] tokens = line.split("\\s+");
+      int noOfIn = Integer.parseInt(tokens[0]);
+      int noOfOut = Integer.parseInt(tokens[1]);
+      String type = tokens[2 + noOfIn + noOfOut];
+      if ("XOR".equals(type) || "AND".equals(type)) {
+        if (noOfIn != 2 || noOfOut != 1) {
+          throw new IllegalArgumentException("Wrong circuit format for " + type);
+        }
+        types[gates] = "XOR".equals(type) ? XOR : AND;
+        right[gates] = Integer.parseInt(tokens[3]);
+      } else if ("INV".equals(type)) {
+        if (noOfIn != 1 || noOfOut != 1) {
+          throw new IllegalArgumentException("Wrong circuit format for INV");
+        }
+        types[gates] = INV;
+        right[gates] = -1;
+      } else {
+        throw new IllegalArgumentException("Unknown gate type: " + type);
+      }
+      left[gates] = Integer.parseInt(tokens[2]);
+      out[gates] = Integer.parseInt(tokens[2 + noOfIn]);
+      gates++;
+    }
+    if (gates != noOfGates) {
+      throw new IllegalArgumentException("Expected " + noOfGates + " gates but got " + gates);
+    }
+    return layer(noOfWires, noOfInput1, noOfInput2, noOfOutput, types, left, right, out);
+  }
+
+  /**
+   * Reorders the gates into layers. Each gate gets the key <i>2l</i> if it is an XOR or INV gate
+   * in layer <i>l</i> and <i>2l + 1</i> if it is an AND gate in layer <i>l</i>, and the gates are
+   * then stably sorted by key. Wires must be set exactly once, and before they are used.
+   */
+  private static BristolCircuit layer(int noOfWires, int noOfInput1, int noOfInput2,
+      int noOfOutput, byte[] types, int[] left, int[] right, int[] out) {
+    int noOfGates = types.length;
+    int[] depth = new int[noOfWires];
+    boolean[] defined = new boolean[noOfWires];
+    for (int i = 0; i < noOfInput1 + noOfInput2; i++) {
+      defined[i] = true;
+    }
+    int[] keys = new int[noOfGates];
+    int maxKey = 0;
+    for (int g = 0; g < noOfGates; g++) {
+      int inDepth = depthOf(left[g], depth, defined);
+      if (types[g] != INV) {
+        inDepth = Math.max(inDepth, depthOf(right[g], depth, defined));
+      }
+      if (defined[out[g]]) {
+        throw new IllegalArgumentException("Wire " + out[g] + " is set more than once");
+      }
+      if (types[g] == AND) {
+        keys[g] = 2 * inDepth + 1;
+        depth[out[g]] = inDepth + 1;
+      } else {
+        keys[g] = 2 * inDepth;
+        depth[out[g]] = inDepth;
+      }
+      defined[out[g]] = true;
+      maxKey = Math.max(maxKey, keys[g]);
+    }
+    int noOfLayers = maxKey / 2 + 1;
+    if (maxKey % 2 == 1) {
+      // the outputs of the last AND layer go into a final layer without AND gates
+      noOfLayers++;
+    }
+    int[] counts = new int[2 * noOfLayers + 1];
+    for (int key : keys) {
+      counts[key + 1]++;
+    }
+    for (int i = 1; i < counts.length; i++) {
+      counts[i] += counts[i - 1];
+    }
+    int[] layerOffsets = counts.clone();
+    byte[] sortedTypes = new byte[noOfGates];
+    int[] sortedLeft = new int[noOfGates];
+    int[] sortedRight = new int[noOfGates];
+    int[] sortedOut = new int[noOfGates];
+    for (int g = 0; g < noOfGates; g++) {
+      int position = counts[keys[g]]++;
+      sortedTypes[position] = types[g];
+      sortedLeft[position] = left[g];
+      sortedRight[position] = right[g];
+      sortedOut[position] = out[g];
+    }
+    int[] andOffsets = new int[noOfLayers + 1];
+    for (int l = 0; l < noOfLayers; l++) {
+      andOffsets[l + 1] = andOffsets[l] + layerOffsets[2 * l + 2] - layerOffsets[2 * l + 1];
+    }
+    return new BristolCircuit(noOfWires, noOfInput1, noOfInput2, noOfOutput, sortedTypes,
+        sortedLeft, sortedRight, sortedOut, layerOffsets, andOffsets);
+  }
+
+  /**
+   * Writes this circuit in the binary format. The stream is not closed.
+   *
+   * @param stream the stream to write to
+   * @throws IOException if the circuit cannot be written
+   */
+  public void write(OutputStream stream) throws IOException {
+    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(stream));
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(noOfWires);
+    data.writeInt(noOfInput1);
+    data.writeInt(noOfInput2);
+    data.writeInt(noOfOutput);
+    data.writeInt(types.length);
+    data.writeInt(getNoOfLayers());
+    writeInts(data, layerOffsets);
+    data.write(types);
+    writeInts(data, left);
+    writeInts(data, right);
+    writeInts(data, out);
+    data.flush();
+  }
+
+  private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+    for (int value : values) {
+      out.writeInt(value);
+    }
+  }
+
+  /**
+   * Reads a circuit written by {@link #write(OutputStream)}. The stream is not closed.
+   *
+   * @param in the stream to read from
+   * @return the circuit
+   * @throws IOException if the circuit cannot be read or is not in the expected format
+   */
+  public static BristolCircuit read(InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(in);
+    byte[] headerBytes = new byte[HEADER_INTS * Integer.BYTES];
+    data.readFully(headerBytes);
+    ByteBuffer header = ByteBuffer.wrap(headerBytes);
+    if (header.getInt() != MAGIC) {
+      throw new IOException("Not a compiled bristol circuit");
+    }
+    int version = header.getInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported compiled bristol circuit version " + version);
+    }
+    int noOfWires = header.getInt();
+    int noOfInput1 = header.getInt();
+    int noOfInput2 = header.getInt();
+    int noOfOutput = header.getInt();
+    int noOfGates = header.getInt();
+    int noOfLayers = header.getInt();
+    if (noOfWires < 0 || noOfInput1 < 0 || noOfInput2 < 0 || noOfOutput < 0 || noOfGates < 0
+        || noOfLayers < 1 || noOfInput1 + noOfInput2 > noOfWires || noOfOutput > noOfWires) {
+      throw new IOException("Corrupt compiled bristol circuit");
+    }
+    long size = Integer.BYTES * (2L * noOfLayers + 1) + (long) noOfGates
+        + 3L * Integer.BYTES * noOfGates;
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("Compiled bristol circuit is too large");
+    }
+    byte[] bytes = new byte[(int) size];
+    data.readFully(bytes);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    int[] layerOffsets = readInts(buffer, 2 * noOfLayers + 1);
+    byte[] types = new byte[noOfGates];
+    buffer.get(types);
+    int[] left = readInts(buffer, noOfGates);
+    int[] right = readInts(buffer, noOfGates);
+    int[] out = readInts(buffer, noOfGates);
+    if (layerOffsets[0] != 0 || layerOffsets[layerOffsets.length - 1] != noOfGates) {
+      throw new IOException("Corrupt compiled bristol circuit");
+    }
+    int[] andOffsets = new int[noOfLayers + 1];
+    for (int l = 0; l < noOfLayers; l++) {
+      for (int k = 2 * l; k < 2 * l + 2; k++) {
+        if (layerOffsets[k] > layerOffsets[k + 1] || layerOffsets[k + 1] > noOfGates) {
+          throw new IOException("Corrupt compiled bristol circuit");
+        }
+        for (int g = layerOffsets[k]; g < layerOffsets[k + 1]; g++) {
+          boolean isAnd = k % 2 == 1;
+          if ((types[g] == AND) != isAnd || types[g] < XOR || types[g] > INV
+              || !isWire(left[g], noOfWires) || !isWire(out[g], noOfWires)
+              || (types[g] == INV ? right[g] != -1 : !isWire(right[g], noOfWires))) {
+            throw new IOException("Corrupt compiled bristol circuit at gate " + g);
+          }
+        }
+      }
+      andOffsets[l + 1] = andOffsets[l] + layerOffsets[2 * l + 2] - layerOffsets[2 * l + 1];
+    }
+    return new BristolCircuit(noOfWires, noOfInput1, noOfInput2, noOfOutput, types, left, right,
+        out, layerOffsets, andOffsets);
+  }
+
+  private static boolean isWire(int wire, int noOfWires) {
+    return wire >= 0 && wire < noOfWires;
+  }
+
+  private static int[] readInts(ByteBuffer buffer, int count) {
+    int[] values = new int[count];
+    buffer.asIntBuffer().get(values);
+    buffer.position(buffer.position() + count * Integer.BYTES);
+    return values;
+  }
+
+  private static int depthOf(int wire, int[] depth, boolean[] defined) {
+    if (!defined[wire]) {
+      throw new IllegalArgumentException("Wire " + wire + " is used before it is set");
+    }
+    return depth[wire];
+  }
+
+  /**
+   * Evaluates the circuit in the clear. Mostly useful for testing.
+   *
+   * @param input1 the first input
+   * @param input2 the second input
+   * @return the output
+   */
+  public boolean[] evaluate(boolean[] input1, boolean[] input2) {
+    checkInputs(input1.length, input2.length);
+    long[] wires = new long[(noOfWires + Long.SIZE - 1) / Long.SIZE];
+    for (int i = 0; i < noOfInput1; i++) {
+      setBit(wires, i, input1[i]);
+    }
+    for (int i = 0; i < noOfInput2; i++) {
+      setBit(wires, noOfInput1 + i, input2[i]);
+    }
+    for (int g = 0; g < types.length; g++) {
+      boolean value;
+      switch (types[g]) {
+        case XOR:
+          value = getBit(wires, left[g]) ^ getBit(wires, right[g]);
+          break;
+        case AND:
+          value = getBit(wires, left[g]) & getBit(wires, right[g]);
+          break;
+        default:
+          value = !getBit(wires, left[g]);
+      }
+      setBit(wires, out[g], value);
+    }
+    boolean[] output = new boolean[noOfOutput];
+    for (int i = 0; i < noOfOutput; i++) {
+      output[i] = getBit(wires, getOutputWire(i));
+    }
+    return output;
+  }
+
+  /**
+   * Checks that the given number of inputs match the circuit.
+   *
+   * @param sizeOfInput1 the size of the first input
+   * @param sizeOfInput2 the size of the second input
+   */
+  public void checkInputs(int sizeOfInput1, int sizeOfInput2) {
+    if (sizeOfInput1 < noOfInput1 || sizeOfInput2 < noOfInput2) {
+      throw new IllegalArgumentException("Circuit requires inputs of size " + noOfInput1 + " and "
+          + noOfInput2 + " but got " + sizeOfInput1 + " and " + sizeOfInput2);
+    }
+  }
+
+  /**
+   * Reads a bit from a bit vector stored as an array of longs.
+   */
+  public static boolean getBit(long[] bits, int index) {
+    return ((bits[index >>> 6] >>> index) & 1L) != 0;
+  }
+
+  /**
+   * Sets a bit in a bit vector stored as an array of longs.
+   */
+  public static void setBit(long[] bits, int index, boolean value) {
+    if (value) {
+      bits[index >>> 6] |= 1L << index;
+    } else {
+      bits[index >>> 6] &= ~(1L << index);
+    }
+  }
+
+  public int getNoOfWires() {
+    return noOfWires;
+  }
+
+  public int getNoOfInput1() {
+    return noOfInput1;
+  }
+
+  public int getNoOfInput2() {
+    return noOfInput2;
+  }
+
+  public int getNoOfOutput() {
+    return noOfOutput;
+  }
+
+  /**
+   * Returns the wire holding the given output bit.
+   */
+  public int getOutputWire(int output) {
+    return noOfWires - noOfOutput + output;
+  }
+
+  public int getNoOfGates() {
+    return types.length;
+  }
+
+  public int getNoOfAndGates() {
+    return andOffsets[andOffsets.length - 1];
+  }
+
+  /**
+   * Returns the number of layers. This is one more than the AND-depth of the circuit.
+   */
+  public int getNoOfLayers() {
+    return andOffsets.length - 1;
+  }
+
+  /**
+   * Returns the index of the first gate of the given layer.
+   */
+  public int getLayerStart(int layer) {
+    return layerOffsets[2 * layer];
+  }
+
+  /**
+   * Returns the index of the first AND gate of the given layer.
+   */
+  public int getAndStart(int layer) {
+    return layerOffsets[2 * layer + 1];
+  }
+
+  /**
+   * Returns the index following the last gate of the given layer.
+   */
+  public int getLayerEnd(int layer) {
+    return layerOffsets[2 * layer + 2];
+  }
+
+  /**
+   * Returns the number of AND gates in the layers before the given layer. The AND gates of the
+   * circuit are numbered consecutively in the compiled order, so the <i>i</i>'th AND gate of layer
+   * <i>l</i> has number <code>getAndOffset(l) + i</code>.
+   */
+  public int getAndOffset(int layer) {
+    return andOffsets[layer];
+  }
+
+  public byte getType(int gate) {
+    return types[gate];
+  }
+
+  public int getLeftWire(int gate) {
+    return left[gate];
+  }
+
+  /**
+   * Returns the right input wire of the given gate or -1 for INV gates.
+   */
+  public int getRightWire(int gate) {
+    return right[gate];
+  }
+
+  public int getOutWire(int gate) {
+    return out[gate];
+  }
+}
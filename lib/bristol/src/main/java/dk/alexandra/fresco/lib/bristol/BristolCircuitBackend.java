@@ -0,0 +1,65 @@
+package dk.alexandra.fresco.lib.bristol;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.binary.Binary;
+import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+import dk.alexandra.fresco.framework.value.SBool;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evaluates compiled {@link BristolCircuit}s. <p>Protocol suites can evaluate whole circuits more
+ * efficiently than gate by gate by letting the {@link Binary} computation directory created by
+ * their builder factory implement this interface. Such suites are used by {@link
+ * BristolCrypto#compiled(ProtocolBuilderBinary)}.</p>
+ */
+public interface BristolCircuitBackend {
+
+  /**
+   * Appends the evaluation of a circuit to the given builder.
+   *
+   * @param builder the builder to append to
+   * @param circuit the circuit
+   * @param in1 the first input to the circuit
+   * @param in2 the second input to the circuit
+   * @return the output of the circuit
+   */
+  DRes<List<SBool>> evaluate(ProtocolBuilderBinary builder, BristolCircuit circuit,
+      List<DRes<SBool>> in1, List<DRes<SBool>> in2);
+
+  /**
+   * Appends the evaluation of many independent instances of a circuit to the given builder.
+   * <p>The default implementation evaluates the instances in parallel using {@link
+   * #evaluate(ProtocolBuilderBinary, BristolCircuit, List, List)}. Backends may override this to
+   * evaluate the instances in lock-step, such that each layer of AND gates of all instances is
+   * evaluated in a single round.</p>
+   *
+   * @param builder the builder to append to
+   * @param circuit the circuit
+   * @param in1 the first inputs, one per instance
+   * @param in2 the second inputs, one per instance
+   * @return the outputs, one per instance
+   */
+  default DRes<List<List<SBool>>> evaluateMany(ProtocolBuilderBinary builder,
+      BristolCircuit circuit, List<List<DRes<SBool>>> in1, List<List<DRes<SBool>>> in2) {
+    if (in1.size() != in2.size()) {
+      throw new IllegalArgumentException(
+          "Number of first and second inputs must be equal but were " + in1.size() + " and "
+              + in2.size());
+    }
+    return builder.par(par -> {
+      List<DRes<List<SBool>>> outputs = new ArrayList<>(in1.size());
+      for (int i = 0; i < in1.size(); i++) {
+        outputs.add(evaluate(par, circuit, in1.get(i), in2.get(i)));
+      }
+      return () -> outputs;
+    }).seq((seq, outputs) -> {
+      List<List<SBool>> result = new ArrayList<>(outputs.size());
+      for (DRes<List<SBool>> output : outputs) {
+        result.add(output.out());
+      }
+      return () -> result;
+    });
+  }
+
+}
@@ -0,0 +1,66 @@
+package dk.alexandra.fresco.lib.bristol;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Converts circuit descriptions in the textual Bristol format to the binary format of {@link
+ * BristolCircuit}, such that the circuits can be loaded without parsing and layering the gates.
+ *
+ * <p>Usage: <code>BristolCircuitCompiler input output</code></p>
+ *
+ * <p>The <code>.bin</code> circuits under <code>src/main/resources/circuits</code> are generated
+ * with this class from the <code>.txt</code> descriptions next to them, and must be regenerated
+ * whenever a description changes, e.g. from <code>lib/bristol</code>:</p>
+ *
+ * <pre>
+ * java -cp target/classes:... dk.alexandra.fresco.lib.bristol.BristolCircuitCompiler \
+ *     src/main/resources/circuits/md5.txt src/main/resources/circuits/md5.bin
+ * </pre>
+ */
+public final class BristolCircuitCompiler {
+
+  private static final Logger logger = LoggerFactory.getLogger(BristolCircuitCompiler.class);
+
+  private BristolCircuitCompiler() {
+  }
+
+  /**
+   * Compiles a circuit description and writes the result in the binary format.
+   *
+   * @param input the textual circuit description
+   * @param output the file to write the compiled circuit to
+   * @return the compiled circuit
+   * @throws IOException if the input cannot be read or the output cannot be written
+   */
+  public static BristolCircuit compile(Path input, Path output) throws IOException {
+    BristolCircuit circuit;
+    try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+      circuit = BristolCircuit.compile(reader.lines());
+    }
+    try (OutputStream out = Files.newOutputStream(output)) {
+      circuit.write(out);
+    }
+    return circuit;
+  }
+
+  /**
+   * Compiles the circuit given as the first argument to the file given as the second argument.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      throw new IllegalArgumentException(
+          "Usage: BristolCircuitCompiler <circuit description> <output file>");
+    }
+    BristolCircuit circuit = compile(Paths.get(args[0]), Paths.get(args[1]));
+    logger.info("Compiled {} gates ({} AND gates) into {} layers", circuit.getNoOfGates(),
+        circuit.getNoOfAndGates(), circuit.getNoOfLayers());
+  }
+}
@@ -5,7 +5,9 @@ import dk.alexandra.fresco.framework.builder.ComputationDirectory;
 import dk.alexandra.fresco.framework.builder.binary.BuilderFactoryBinary;
 import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
 import dk.alexandra.fresco.framework.value.SBool;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Protocols for various cryptographic primitives. At least for the default implementation
@@ -24,6 +26,15 @@ public interface BristolCrypto extends ComputationDirectory {
     return new DefaultBristolCrypto(builder);
   }
 
+  /**
+   * Creates a {@link BristolCrypto} computation directory evaluating the circuits in compiled
+   * form, see {@link CompiledBristolCrypto}. Protocol suites supporting {@link
+   * BristolCircuitBackend} evaluate each circuit without creating a native protocol per gate.
+   */
+  static BristolCrypto compiled(ProtocolBuilderBinary builder) {
+    return new CompiledBristolCrypto(builder);
+  }
+
   /**
    * Computes the multiplication of two 32 bit numbers. The result will contain 64 bits.
    * 
@@ -45,6 +56,25 @@ public interface BristolCrypto extends ComputationDirectory {
   public DRes<List<SBool>> AES(List<DRes<SBool>> plainText,
       List<DRes<SBool>> keyMaterial);
 
+  /**
+   * Computes AES of each of the given plaintexts using the same key. Implementations may evaluate
+   * the encryptions in lock-step, such that each round of the circuit is evaluated for all
+   * plaintexts at once.
+   *
+   * @param plainTexts The secret shared plaintexts. Each plaintext must contain exactly 128 bits.
+   * @param keyMaterial The secret shared key. The key must contain exactly 128 bits.
+   * @return The AES encryptions of the plaintexts, in the same order as the plaintexts. Each
+   *         encryption will be exactly 128 bits long.
+   */
+  default DRes<List<List<SBool>>> batchAES(List<List<DRes<SBool>>> plainTexts,
+      List<DRes<SBool>> keyMaterial) {
+    List<DRes<List<SBool>>> cipherTexts = new ArrayList<>(plainTexts.size());
+    for (List<DRes<SBool>> plainText : plainTexts) {
+      cipherTexts.add(AES(plainText, keyMaterial));
+    }
+    return () -> cipherTexts.stream().map(DRes::out).collect(Collectors.toList());
+  }
+
   /**
    * Computes SHA-1 on the given input.
    * 
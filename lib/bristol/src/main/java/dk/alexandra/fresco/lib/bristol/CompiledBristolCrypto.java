@@ -0,0 +1,24 @@
+package dk.alexandra.fresco.lib.bristol;
+
+import dk.alexandra.fresco.framework.builder.binary.Binary;
+import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+
+/**
+ * {@link BristolCrypto} implementation evaluating the circuits of {@link DefaultBristolCrypto}
+ * using a {@link BristolCircuitBackend}. If the {@link Binary} computation directory of the
+ * builder implements {@link BristolCircuitBackend} it is used as the backend, otherwise the
+ * circuits are evaluated gate by gate using {@link BinaryBristolCircuitBackend}.
+ */
+public class CompiledBristolCrypto extends DefaultBristolCrypto {
+
+  public CompiledBristolCrypto(ProtocolBuilderBinary builder) {
+    this(builder, builder.binary() instanceof BristolCircuitBackend
+        ? (BristolCircuitBackend) builder.binary()
+        : new BinaryBristolCircuitBackend());
+  }
+
+  public CompiledBristolCrypto(ProtocolBuilderBinary builder, BristolCircuitBackend backend) {
+    super(builder, backend);
+  }
+
+}
@@ -4,65 +4,75 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
 import dk.alexandra.fresco.framework.value.SBool;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * Default {@link BristolCrypto} implementation. The circuits are compiled once per process into
+ * {@link BristolCircuit}s and evaluated gate by gate using {@link BinaryBristolCircuitBackend}.
+ */
 public class DefaultBristolCrypto implements BristolCrypto {
 
-  private ProtocolBuilderBinary builder;
+  private static final String AES_CIRCUIT = "circuits/AES-non-expanded.bin";
+
+  private final ProtocolBuilderBinary builder;
+  private final BristolCircuitBackend backend;
 
   public DefaultBristolCrypto(ProtocolBuilderBinary builder) {
+    this(builder, new BinaryBristolCircuitBackend());
+  }
+
+  protected DefaultBristolCrypto(ProtocolBuilderBinary builder, BristolCircuitBackend backend) {
     this.builder = builder;
+    this.backend = backend;
   }
 
   @Override
   public DRes<List<SBool>> mult32x32(List<DRes<SBool>> in1,
       List<DRes<SBool>> in2) {
-    BristolCircuitParser parser =
-        BristolCircuitParser.readCircuitDescription("circuits/mult_32x32.txt", in1, in2);
-    return builder.seq(parser);
+    return evaluate("circuits/mult_32x32.bin", in1, in2);
   }
 
   @Override
   public DRes<List<SBool>> AES(List<DRes<SBool>> plainText,
       List<DRes<SBool>> keyMaterial) {
-    BristolCircuitParser parser = BristolCircuitParser
-        .readCircuitDescription("circuits/AES-non-expanded.txt", plainText, keyMaterial);
-    return builder.seq(parser);
+    return evaluate(AES_CIRCUIT, plainText, keyMaterial);
+  }
+
+  @Override
+  public DRes<List<List<SBool>>> batchAES(List<List<DRes<SBool>>> plainTexts,
+      List<DRes<SBool>> keyMaterial) {
+    return backend.evaluateMany(builder, BristolCircuit.fromResource(AES_CIRCUIT), plainTexts,
+        Collections.nCopies(plainTexts.size(), keyMaterial));
   }
 
   @Override
   public DRes<List<SBool>> SHA1(List<DRes<SBool>> input) {
-    // empty list since the parser will only use input1 as inputs.
-    List<DRes<SBool>> in2 = new ArrayList<>();
-    BristolCircuitParser parser =
-        BristolCircuitParser.readCircuitDescription("circuits/sha-1.txt", input, in2);
-    return builder.seq(parser);
+    // empty list since the circuit will only use input1 as inputs.
+    return evaluate("circuits/sha-1.bin", input, new ArrayList<>());
   }
 
   @Override
   public DRes<List<SBool>> DES(List<DRes<SBool>> plainText,
       List<DRes<SBool>> keyMaterial) {
-    BristolCircuitParser parser = BristolCircuitParser
-        .readCircuitDescription("circuits/DES-non-expanded.txt", plainText, keyMaterial);
-    return builder.seq(parser);
+    return evaluate("circuits/DES-non-expanded.bin", plainText, keyMaterial);
   }
 
   @Override
   public DRes<List<SBool>> SHA256(List<DRes<SBool>> input) {
-    // empty list since the parser will only use input1 as inputs.
-    List<DRes<SBool>> in2 = new ArrayList<>();
-    BristolCircuitParser parser =
-        BristolCircuitParser.readCircuitDescription("circuits/sha-256.txt", input, in2);
-    return builder.seq(parser);
+    // empty list since the circuit will only use input1 as inputs.
+    return evaluate("circuits/sha-256.txt", input, new ArrayList<>());
   }
 
   @Override
   public DRes<List<SBool>> MD5(List<DRes<SBool>> input) {
-    // empty list since the parser will only use input1 as inputs.
-    List<DRes<SBool>> in2 = new ArrayList<>();
-    BristolCircuitParser parser =
-        BristolCircuitParser.readCircuitDescription("circuits/md5.txt", input, in2);
-    return builder.seq(parser);
+    // empty list since the circuit will only use input1 as inputs.
+    return evaluate("circuits/md5.bin", input, new ArrayList<>());
+  }
+
+  private DRes<List<SBool>> evaluate(String path, List<DRes<SBool>> in1,
+      List<DRes<SBool>> in2) {
+    return backend.evaluate(builder, BristolCircuit.fromResource(path), in1, in2);
   }
 
 }
@@ -40,6 +40,10 @@ import org.junit.Assert;
  */
 public class BadBristolCryptoTests {
 
+  private static DRes<List<SBool>> evaluate(ProtocolBuilderBinary builder, BristolCircuit circuit,
+      List<DRes<SBool>> in1, List<DRes<SBool>> in2) {
+    return new BinaryBristolCircuitBackend().evaluate(builder, circuit, in1, in2);
+  }
 
   public static class XorTest1<ResourcePoolT extends ResourcePool>
     extends TestThreadFactory<ResourcePoolT, ProtocolBuilderBinary> {
@@ -60,8 +64,8 @@ public class BadBristolCryptoTests {
                 inp1.add(null);
                 inp2.add(null);
 
-                DRes<List<SBool>> l = seq.seq(BristolCircuitParser
-                    .readCircuitDescription("circuits/XOR.txt", inp1, inp2));
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.fromResource("circuits/XOR.txt"), inp1, inp2);
                 return l;
               });
               try{
@@ -95,8 +99,8 @@ public class BadBristolCryptoTests {
                 inp1.add(() -> null);
                 inp2.add(null);
 
-                DRes<List<SBool>> l = seq.seq(BristolCircuitParser
-                    .readCircuitDescription("circuits/XOR.txt", inp1, inp2));
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.fromResource("circuits/XOR.txt"), inp1, inp2);
                 return l;
               });
               try{
@@ -130,8 +134,8 @@ public class BadBristolCryptoTests {
                 inp1.add(() -> null);
                 inp2.add(null);
 
-                DRes<List<SBool>> l = seq.seq(BristolCircuitParser
-                    .readCircuitDescription("circuits/invalid-XOR.txt", inp1, inp2));
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.fromResource("circuits/invalid-XOR.txt"), inp1, inp2);
                 return l;
               });
               try{
@@ -166,8 +170,8 @@ public class BadBristolCryptoTests {
                 inp1.add(() -> null);
                 inp2.add(null);
 
-                DRes<List<SBool>> l = seq.seq(BristolCircuitParser
-                    .readCircuitDescription("circuits/invalid-XOR2.txt", inp1, inp2));
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.fromResource("circuits/invalid-XOR2.txt"), inp1, inp2);
                 return l;
               });
               try{
@@ -203,8 +207,8 @@ public class BadBristolCryptoTests {
                 inp1.add(() -> null);
                 inp2.add(null);
 
-                DRes<List<SBool>> l = seq.seq(BristolCircuitParser
-                    .readCircuitDescription("circuits/invalid-XOR3.txt", inp1, inp2));
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.fromResource("circuits/invalid-XOR3.txt"), inp1, inp2);
                 return l;
               });
               try{
@@ -238,8 +242,8 @@ public class BadBristolCryptoTests {
                 inp1.add(null);
                 inp2.add(null);
 
-                DRes<List<SBool>> l = seq.seq(BristolCircuitParser
-                    .readCircuitDescription("circuits/AND.txt", inp1, inp2));
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.fromResource("circuits/AND.txt"), inp1, inp2);
                 return l;
               });
               try{
@@ -272,8 +276,8 @@ public class BadBristolCryptoTests {
                 inp1.add(() -> null);
                 inp2.add(null);
 
-                DRes<List<SBool>> l = seq.seq(BristolCircuitParser
-                    .readCircuitDescription("circuits/AND.txt", inp1, inp2));
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.fromResource("circuits/AND.txt"), inp1, inp2);
                 return l;
               });
               try{
@@ -306,8 +310,8 @@ public class BadBristolCryptoTests {
                 inp1.add(() -> null);
                 inp2.add(null);
 
-                DRes<List<SBool>> l = seq.seq(BristolCircuitParser
-                    .readCircuitDescription("circuits/invalid-AND.txt", inp1, inp2));
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.fromResource("circuits/invalid-AND.txt"), inp1, inp2);
                 return l;
               });
               try{
@@ -340,8 +344,8 @@ public class BadBristolCryptoTests {
                 inp1.add(() -> null);
                 inp2.add(null);
 
-                DRes<List<SBool>> l = seq.seq(BristolCircuitParser
-                    .readCircuitDescription("circuits/invalid-AND2.txt", inp1, inp2));
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.fromResource("circuits/invalid-AND2.txt"), inp1, inp2);
                 return l;
               });
               try{
@@ -375,8 +379,8 @@ public class BadBristolCryptoTests {
                 inp1.add(() -> null);
                 inp2.add(null);
 
-                DRes<List<SBool>> l = seq.seq(BristolCircuitParser
-                    .readCircuitDescription("circuits/invalid-AND3.txt", inp1, inp2));
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.fromResource("circuits/invalid-AND3.txt"), inp1, inp2);
                 return l;
               });
               try{
@@ -409,8 +413,8 @@ public class BadBristolCryptoTests {
                 inp2.add(null);
                 inp1.add(null);
 
-                DRes<List<SBool>> l = seq.seq(BristolCircuitParser
-                    .readCircuitDescription("circuits/INV.txt", inp1, inp2));
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.fromResource("circuits/INV.txt"), inp1, inp2);
                 return l;
               });
               try{
@@ -443,8 +447,8 @@ public class BadBristolCryptoTests {
                 inp1.add(() -> null);
                 inp2.add(null);
 
-                DRes<List<SBool>> l = seq.seq(BristolCircuitParser
-                    .readCircuitDescription("circuits/invalid-INV.txt", inp1, inp2));
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.fromResource("circuits/invalid-INV.txt"), inp1, inp2);
                 return l;
               });
               try{
@@ -477,8 +481,8 @@ public class BadBristolCryptoTests {
                 inp1.add(() -> null);
                 inp2.add(null);
 
-                DRes<List<SBool>> l = seq.seq(BristolCircuitParser
-                    .readCircuitDescription("circuits/invalid-INV2.txt", inp1, inp2));
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.fromResource("circuits/invalid-INV2.txt"), inp1, inp2);
                 return l;
               });
               try{
@@ -512,8 +516,8 @@ public class BadBristolCryptoTests {
                 inp1.add(() -> null);
                 inp2.add(null);
 
-                DRes<List<SBool>> l = seq.seq(BristolCircuitParser
-                    .readCircuitDescription("circuits/invalid-INV3.txt", inp1, inp2));
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.fromResource("circuits/invalid-INV3.txt"), inp1, inp2);
                 return l;
               });
               try{
@@ -546,8 +550,8 @@ public class BadBristolCryptoTests {
                 inp1.add(() -> null);
                 inp2.add(null);
 
-                DRes<List<SBool>> l = seq.seq(BristolCircuitParser
-                    .readCircuitDescription("circuits/No-Circuit.txt", inp1, inp2));
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.fromResource("circuits/No-Circuit.txt"), inp1, inp2);
                 return l;
               });
               try{
@@ -584,8 +588,8 @@ public class BadBristolCryptoTests {
 
                 StringReader reader = new StringReader(circuit);
 
-                BristolCircuitParser parser = new BristolCircuitParser(new BufferedReader(reader).lines(), inp1, inp2);
-                DRes<List<SBool>> l = seq.seq(parser);
+                DRes<List<SBool>> l = evaluate(seq,
+                    BristolCircuit.compile(new BufferedReader(reader).lines()), inp1, inp2);
                 return l;
               });
               try{
@@ -29,7 +29,7 @@ public class BristolCryptoTests {
    *
    * // 1 --> true, 0 --> false
    */
-  private static Boolean[] toBoolean(String hex) throws IllegalArgumentException {
+  static Boolean[] toBoolean(String hex) throws IllegalArgumentException {
     if (hex.length() % 2 != 0) {
       throw new IllegalArgumentException("Illegal hex string");
     }
@@ -47,6 +47,10 @@ public class BristolCryptoTests {
   }
 
 
+  private static BristolCrypto crypto(ProtocolBuilderBinary builder, boolean compiled) {
+    return compiled ? BristolCrypto.compiled(builder) : BristolCrypto.using(builder);
+  }
+
   @Test
   public void testToBoolean() throws Exception {
     Boolean[] res = toBoolean("2b7e151628aed2a6abf7158809cf4f3c");
@@ -65,9 +69,19 @@ public class BristolCryptoTests {
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderBinary> {
 
     private boolean doAsserts;
+    private boolean compiled;
 
     public AesTest(boolean doAsserts) {
+      this(doAsserts, false);
+    }
+
+    /**
+     * Creates the test, evaluating the circuit using {@link BristolCrypto#compiled} if
+     * <code>compiled</code> is true.
+     */
+    public AesTest(boolean doAsserts, boolean compiled) {
       this.doAsserts = doAsserts;
+      this.compiled = compiled;
     }
 
     @Override
@@ -92,7 +106,7 @@ public class BristolCryptoTests {
             inputs.add(key);
             return () -> inputs;
           }).seq((seq, inputs) -> {
-            DRes<List<SBool>> l = BristolCrypto.using(seq).AES(inputs.get(0), inputs.get(1));
+            DRes<List<SBool>> l = crypto(seq, compiled).AES(inputs.get(0), inputs.get(1));
             return l;
           }).seq((seq, res) -> {
             List<DRes<Boolean>> outputs = new ArrayList<>();
@@ -125,9 +139,19 @@ public class BristolCryptoTests {
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderBinary> {
 
     private boolean doAsserts;
+    private boolean compiled;
 
     public MultiAesTest(boolean doAsserts) {
+      this(doAsserts, false);
+    }
+
+    /**
+     * Creates the test, evaluating the circuit using {@link BristolCrypto#compiled} if
+     * <code>compiled</code> is true.
+     */
+    public MultiAesTest(boolean doAsserts, boolean compiled) {
       this.doAsserts = doAsserts;
+      this.compiled = compiled;
     }
 
     @Override
@@ -156,8 +180,8 @@ public class BristolCryptoTests {
                 return () -> inputs;
               }).seq((seq, inputs) -> {
                 List<DRes<List<SBool>>> ciphers = new ArrayList<>();
-                DRes<List<SBool>> l = BristolCrypto.using(seq).AES(inputs.get(0), inputs.get(2));
-                DRes<List<SBool>> l2 = BristolCrypto.using(seq).AES(inputs.get(1), inputs.get(2));
+                DRes<List<SBool>> l = crypto(seq, compiled).AES(inputs.get(0), inputs.get(2));
+                DRes<List<SBool>> l2 = crypto(seq, compiled).AES(inputs.get(1), inputs.get(2));
                 ciphers.add(l);
                 ciphers.add(l2);
                 return () -> ciphers;
@@ -192,6 +216,70 @@ public class BristolCryptoTests {
     }
   }
 
+  /**
+   * Test for encrypting many plaintexts under the same key using {@link BristolCrypto#batchAES}.
+   * The plaintexts alternate between two known test vectors.
+   */
+  public static class BatchAesTest<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderBinary> {
+
+    private boolean doAsserts;
+    private boolean compiled;
+    private int instances;
+
+    public BatchAesTest(boolean doAsserts, boolean compiled, int instances) {
+      this.doAsserts = doAsserts;
+      this.compiled = compiled;
+      this.instances = instances;
+    }
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderBinary> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderBinary>() {
+
+        final String keyVec = "000102030405060708090a0b0c0d0e0f";
+        final String[] plainVec =
+            new String[] {"00112233445566778899aabbccddeeff", "ffeeddccbbaa99887766554433221100"};
+        final String[] cipherVec =
+            new String[] {"69c4e0d86a7b0430d8cdb78070b4c55a", "1b872378795f4ffd772855fc87ca964d"};
+
+        @Override
+        public void test() throws Exception {
+          Application<List<List<Boolean>>, ProtocolBuilderBinary> app =
+              producer -> producer.seq(seq -> {
+                List<List<DRes<SBool>>> plainTexts = new ArrayList<>();
+                for (int i = 0; i < instances; i++) {
+                  plainTexts.add(BooleanHelper.known(toBoolean(plainVec[i % 2]), seq.binary()));
+                }
+                List<DRes<SBool>> key = BooleanHelper.known(toBoolean(keyVec), seq.binary());
+                return crypto(seq, compiled).batchAES(plainTexts, key);
+              }).seq((seq, res) -> {
+                List<List<DRes<Boolean>>> outputs = new ArrayList<>();
+                for (List<SBool> cipherText : res) {
+                  List<DRes<Boolean>> output = new ArrayList<>();
+                  for (SBool boo : cipherText) {
+                    output.add(seq.binary().open(() -> boo));
+                  }
+                  outputs.add(output);
+                }
+                return () -> outputs.stream()
+                    .map(output -> output.stream().map(DRes::out).collect(Collectors.toList()))
+                    .collect(Collectors.toList());
+              });
+
+          List<List<Boolean>> res = runApplication(app);
+          if (doAsserts) {
+            Assert.assertEquals(instances, res.size());
+            for (int i = 0; i < instances; i++) {
+              Assert.assertArrayEquals(toBoolean(cipherVec[i % 2]),
+                  res.get(i).toArray(new Boolean[0]));
+            }
+          }
+        }
+      };
+    }
+  }
+
   /**
    * Testing SHA-1 compression function.
    *
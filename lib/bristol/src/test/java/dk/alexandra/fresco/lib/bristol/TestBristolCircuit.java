@@ -0,0 +1,225 @@
+package dk.alexandra.fresco.lib.bristol;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestBristolCircuit {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static boolean[] toBits(String hex) {
+    Boolean[] bits = BristolCryptoTests.toBoolean(hex);
+    boolean[] res = new boolean[bits.length];
+    for (int i = 0; i < bits.length; i++) {
+      res[i] = bits[i];
+    }
+    return res;
+  }
+
+  @Test
+  public void testEvaluateAes() {
+    BristolCircuit circuit = BristolCircuit.fromResource("circuits/AES-non-expanded.txt");
+    boolean[] cipher = circuit.evaluate(toBits("00112233445566778899aabbccddeeff"),
+        toBits("000102030405060708090a0b0c0d0e0f"));
+    assertArrayEquals(toBits("69c4e0d86a7b0430d8cdb78070b4c55a"), cipher);
+  }
+
+  @Test
+  public void testFromResourceIsCached() {
+    assertSame(BristolCircuit.fromResource("circuits/mult_32x32.txt"),
+        BristolCircuit.fromResource("circuits/mult_32x32.txt"));
+  }
+
+  @Test
+  public void testLayers() {
+    BristolCircuit circuit = BristolCircuit.fromResource("circuits/AES-non-expanded.txt");
+    boolean[] defined = new boolean[circuit.getNoOfWires()];
+    for (int i = 0; i < circuit.getNoOfInput1() + circuit.getNoOfInput2(); i++) {
+      defined[i] = true;
+    }
+    int andGates = 0;
+    for (int l = 0; l < circuit.getNoOfLayers(); l++) {
+      assertEquals(andGates, circuit.getAndOffset(l));
+      for (int g = circuit.getLayerStart(l); g < circuit.getAndStart(l); g++) {
+        assertTrue(circuit.getType(g) != BristolCircuit.AND);
+        assertTrue(defined[circuit.getLeftWire(g)]);
+        assertTrue(circuit.getType(g) == BristolCircuit.INV || defined[circuit.getRightWire(g)]);
+        defined[circuit.getOutWire(g)] = true;
+      }
+      // AND gates of a layer may only depend on wires set before the layer's AND gates
+      for (int g = circuit.getAndStart(l); g < circuit.getLayerEnd(l); g++) {
+        assertEquals(BristolCircuit.AND, circuit.getType(g));
+        assertTrue(defined[circuit.getLeftWire(g)]);
+        assertTrue(defined[circuit.getRightWire(g)]);
+      }
+      for (int g = circuit.getAndStart(l); g < circuit.getLayerEnd(l); g++) {
+        defined[circuit.getOutWire(g)] = true;
+        andGates++;
+      }
+    }
+    assertEquals(circuit.getNoOfGates(), circuit.getLayerEnd(circuit.getNoOfLayers() - 1));
+    assertEquals(andGates, circuit.getNoOfAndGates());
+    assertEquals(circuit.getAndStart(circuit.getNoOfLayers() - 1),
+        circuit.getLayerEnd(circuit.getNoOfLayers() - 1));
+  }
+
+  @Test
+  public void testCompileSmallCircuit() {
+    // out = NOT((a AND b) XOR c)
+    BristolCircuit circuit = BristolCircuit.compile(Stream.of(
+        "3 6", "2 1 1", "", "2 1 0 1 3 AND", "2 1 3 2 4 XOR", "1 1 4 5 INV"));
+    assertEquals(2, circuit.getNoOfLayers());
+    assertEquals(1, circuit.getNoOfAndGates());
+    for (int i = 0; i < 8; i++) {
+      boolean a = (i & 1) != 0;
+      boolean b = (i & 2) != 0;
+      boolean c = (i & 4) != 0;
+      boolean[] res = circuit.evaluate(new boolean[] {a, b}, new boolean[] {c});
+      assertArrayEquals(new boolean[] {!((a & b) ^ c)}, res);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUndefinedWire() {
+    BristolCircuit.compile(Stream.of("1 4", "1 1 1", "2 1 0 2 3 XOR"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWireSetTwice() {
+    BristolCircuit.compile(Stream.of("2 4", "1 1 1", "2 1 0 1 2 XOR", "2 1 0 1 2 AND"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInputWireSet() {
+    BristolCircuit.compile(Stream.of("1 3", "1 1 1", "2 1 0 1 1 XOR"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongNumberOfGates() {
+    BristolCircuit.compile(Stream.of("2 3", "1 1 1", "2 1 0 1 2 XOR"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownGate() {
+    BristolCircuit.compile(Stream.of("1 3", "1 1 1", "2 1 0 1 2 OR"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooFewInputs() {
+    BristolCircuit.fromResource("circuits/mult_32x32.txt").evaluate(new boolean[32],
+        new boolean[31]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingResource() {
+    BristolCircuit.fromResource("circuits/does-not-exist.txt");
+  }
+
+  @Test
+  public void testWriteAndRead() throws IOException {
+    BristolCircuit circuit = BristolCircuit.fromResource("circuits/AES-non-expanded.txt");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    circuit.write(bytes);
+    BristolCircuit read = BristolCircuit.read(new ByteArrayInputStream(bytes.toByteArray()));
+    assertSameCircuit(circuit, read);
+    boolean[] cipher = read.evaluate(toBits("00112233445566778899aabbccddeeff"),
+        toBits("000102030405060708090a0b0c0d0e0f"));
+    assertArrayEquals(toBits("69c4e0d86a7b0430d8cdb78070b4c55a"), cipher);
+  }
+
+  @Test
+  public void testFromBinaryResource() {
+    BristolCircuit circuit = BristolCircuit.fromResource("circuits/small.bin");
+    assertEquals(2, circuit.getNoOfLayers());
+    assertArrayEquals(new boolean[] {true},
+        circuit.evaluate(new boolean[] {true, true}, new boolean[] {true}));
+    assertArrayEquals(new boolean[] {false},
+        circuit.evaluate(new boolean[] {true, false}, new boolean[] {true}));
+  }
+
+  @Test
+  public void testCompiler() throws IOException {
+    File input = folder.newFile("circuit.txt");
+    try (PrintWriter writer = new PrintWriter(input, "UTF-8")) {
+      writer.print("3 6\n2 1 1\n\n2 1 0 1 3 AND\n2 1 3 2 4 XOR\n1 1 4 5 INV\n");
+    }
+    File output = new File(folder.getRoot(), "circuit.bin");
+    BristolCircuitCompiler.main(new String[] {input.getPath(), output.getPath()});
+    try (InputStream in = new FileInputStream(output)) {
+      assertSameCircuit(BristolCircuit.fromResource("circuits/small.bin"), BristolCircuit.read(in));
+    }
+  }
+
+  @Test
+  public void testShippedBinariesMatchDescriptions() {
+    String[] circuits = {"AES-non-expanded", "DES-non-expanded", "md5", "mult_32x32", "sha-1"};
+    for (String name : circuits) {
+      assertSameCircuit(BristolCircuit.fromResource("circuits/" + name + ".txt"),
+          BristolCircuit.fromResource("circuits/" + name + ".bin"));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCompilerWrongArguments() throws IOException {
+    BristolCircuitCompiler.main(new String[] {"circuit.txt"});
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadWrongMagic() throws IOException {
+    BristolCircuit.read(new ByteArrayInputStream(new byte[64]));
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadCorrupt() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BristolCircuit.fromResource("circuits/mult_32x32.txt").write(bytes);
+    byte[] corrupt = bytes.toByteArray();
+    // make the output wire of the last gate point outside the circuit
+    Arrays.fill(corrupt, corrupt.length - Integer.BYTES, corrupt.length, (byte) 0x7f);
+    BristolCircuit.read(new ByteArrayInputStream(corrupt));
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadTruncated() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BristolCircuit.fromResource("circuits/mult_32x32.txt").write(bytes);
+    byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 1);
+    BristolCircuit.read(new ByteArrayInputStream(truncated));
+  }
+
+  private static void assertSameCircuit(BristolCircuit expected, BristolCircuit actual) {
+    assertEquals(expected.getNoOfWires(), actual.getNoOfWires());
+    assertEquals(expected.getNoOfInput1(), actual.getNoOfInput1());
+    assertEquals(expected.getNoOfInput2(), actual.getNoOfInput2());
+    assertEquals(expected.getNoOfOutput(), actual.getNoOfOutput());
+    assertEquals(expected.getNoOfGates(), actual.getNoOfGates());
+    assertEquals(expected.getNoOfLayers(), actual.getNoOfLayers());
+    for (int l = 0; l < expected.getNoOfLayers(); l++) {
+      assertEquals(expected.getLayerStart(l), actual.getLayerStart(l));
+      assertEquals(expected.getAndStart(l), actual.getAndStart(l));
+      assertEquals(expected.getAndOffset(l), actual.getAndOffset(l));
+    }
+    for (int g = 0; g < expected.getNoOfGates(); g++) {
+      assertEquals(expected.getType(g), actual.getType(g));
+      assertEquals(expected.getLeftWire(g), actual.getLeftWire(g));
+      assertEquals(expected.getRightWire(g), actual.getRightWire(g));
+      assertEquals(expected.getOutWire(g), actual.getOutWire(g));
+    }
+  }
+}
@@ -59,6 +59,29 @@ public class TestBristolCrypto extends AbstractDummyBooleanTest {
     runTest(new BristolCryptoTests.AesTest<>(true), EvaluationStrategy.SEQUENTIAL_BATCHED);
   }
 
+  @Test
+  public void test_AES_Compiled() {
+    runTest(new BristolCryptoTests.AesTest<>(true, true), EvaluationStrategy.SEQUENTIAL_BATCHED);
+  }
+
+  @Test
+  public void test_AES_Multi_Compiled() {
+    runTest(new BristolCryptoTests.MultiAesTest<>(true, true),
+        EvaluationStrategy.SEQUENTIAL_BATCHED);
+  }
+
+  @Test
+  public void test_AES_Batch() {
+    runTest(new BristolCryptoTests.BatchAesTest<>(true, false, 3),
+        EvaluationStrategy.SEQUENTIAL_BATCHED);
+  }
+
+  @Test
+  public void test_AES_Batch_Compiled() {
+    runTest(new BristolCryptoTests.BatchAesTest<>(true, true, 3),
+        EvaluationStrategy.SEQUENTIAL_BATCHED);
+  }
+
   @Test
   public void test_DES_Sequential() {
     runTest(new BristolCryptoTests.DesTest<>(true), EvaluationStrategy.SEQUENTIAL_BATCHED);
@@ -13,6 +13,7 @@ import dk.alexandra.fresco.suite.spdz.gates.SpdzInputProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzKnownSIntProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMultProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMultProtocolKnownLeft;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzMultVectorProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputSingleProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputToAllProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzRandomProtocol;
@@ -20,6 +21,7 @@ import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocolKnownLeft;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocolKnownRight;
 import java.math.BigInteger;
+import java.util.List;
 
 /**
  * Basic native builder for the SPDZ protocol suite.
@@ -87,6 +89,11 @@ public class SpdzBuilder implements BuilderFactoryNumeric {
         return protocolBuilder.append(spdzMultProtocol);
       }
 
+      @Override
+      public DRes<List<DRes<SInt>>> multVector(List<DRes<SInt>> a, List<DRes<SInt>> b) {
+        return protocolBuilder.append(new SpdzMultVectorProtocol(a, b));
+      }
+
       @Override
       public DRes<SInt> mult(BigInteger a, DRes<SInt> b) {
         SpdzMultProtocolKnownLeft spdzMultProtocol4 = new SpdzMultProtocolKnownLeft(a, b);
@@ -28,6 +28,7 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
   private final SecureRandom secRand;
   private boolean isCheckRequired = false;
   private final int batchSize;
+  private final int macCheckChunkSize;
 
   /**
    * Creates new {@link SpdzRoundSynchronization}.
@@ -41,10 +42,27 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
    */
   public SpdzRoundSynchronization(SpdzProtocolSuite spdzProtocolSuite, int openValueThreshold,
       int batchSize) {
+    this(spdzProtocolSuite, openValueThreshold, batchSize, 0);
+  }
+
+  /**
+   * Creates new {@link SpdzRoundSynchronization} which computes the mac-check in parallel.
+   *
+   * @param spdzProtocolSuite the spdz protocol suite which we will use for the mac-check
+   * computation
+   * @param openValueThreshold number of open values we accumulating before forcing mac-check
+   * @param batchSize batch size for mac-check protocol
+   * @param macCheckChunkSize number of values per chunk when the mac-check computes its random
+   * linear combinations in parallel, or zero to compute them sequentially (see {@link
+   * SpdzMacCheckProtocol})
+   */
+  public SpdzRoundSynchronization(SpdzProtocolSuite spdzProtocolSuite, int openValueThreshold,
+      int batchSize, int macCheckChunkSize) {
     this.spdzProtocolSuite = spdzProtocolSuite;
     this.secRand = new SecureRandom();
     this.openValueThreshold = openValueThreshold;
     this.batchSize = batchSize;
+    this.macCheckChunkSize = macCheckChunkSize;
   }
 
   public SpdzRoundSynchronization(SpdzProtocolSuite spdzProtocolSuite) {
@@ -63,7 +81,8 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
         resourcePool.getModulus(),
         resourcePool::createRandomGenerator,
         resourcePool.getDataSupplier().getSecretSharedKey(),
-        resourcePool.getDrbgSeedBitLength());
+        resourcePool.getDrbgSeedBitLength(),
+        macCheckChunkSize);
     ProtocolBuilderNumeric sequential = spdzBuilder.createSequential();
     macCheck.buildComputation(sequential);
     evaluator.eval(sequential.build(), resourcePool, network);
@@ -7,6 +7,7 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.MaliciousException;
 import dk.alexandra.fresco.framework.builder.Computation;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldAccumulator;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.util.AesCtrDrbg;
@@ -16,6 +17,7 @@ import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import java.math.BigInteger;
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 /**
  * Protocol which handles the MAC check internal to SPDZ. If this protocol reaches the end, no
@@ -29,6 +31,7 @@ public class SpdzMacCheckProtocol implements Computation<Void, ProtocolBuilderNu
   private final FieldElement alpha;
   private final Function<byte[], Drbg> jointDrbgSupplier;
   private final int drbgByteLength;
+  private final int chunkSize;
 
   /**
    * Protocol which handles the MAC check internal to SPDZ. If this protocol reaches the end, no
@@ -46,12 +49,45 @@ public class SpdzMacCheckProtocol implements Computation<Void, ProtocolBuilderNu
       final Function<byte[], Drbg> jointDrbgSupplier,
       final FieldElement alpha,
       final int drbgSeedBitLength) {
+    this(toCheck, modulus, jointDrbgSupplier, alpha, drbgSeedBitLength, 0);
+  }
+
+  /**
+   * Protocol which handles the MAC check internal to SPDZ. If this protocol reaches the end, no
+   * malicious activity was detected and the storage is reset.
+   *
+   * <p>
+   * If a positive chunk size is given, the values to check are split into chunks of this size,
+   * each of which gets its own joint DRBG seeded from the coin-tossed seed. The random linear
+   * combinations are then computed for all chunks in parallel on the common fork/join pool. Since
+   * the chunks are determined by the number of values only, all parties use the same coefficients.
+   * </p>
+   *
+   * @param toCheck opened values and corresponding macs to check
+   * @param modulus the global modulus used
+   * @param jointDrbgSupplier supplier of DRBG to be used for joint randomness
+   * @param alpha this party's key share
+   * @param drbgSeedBitLength seed length for local DRBG
+   * @param chunkSize number of values per chunk when computing in parallel, or zero to compute
+   *     sequentially
+   */
+  public SpdzMacCheckProtocol(
+      final Pair<List<SpdzSInt>, List<FieldElement>> toCheck,
+      final BigInteger modulus,
+      final Function<byte[], Drbg> jointDrbgSupplier,
+      final FieldElement alpha,
+      final int drbgSeedBitLength,
+      final int chunkSize) {
+    if (chunkSize < 0) {
+      throw new IllegalArgumentException("Chunk size must be non-negative, but was " + chunkSize);
+    }
     this.closedValues = toCheck.getFirst();
     this.openedValues = toCheck.getSecond();
     this.modulus = modulus;
     this.jointDrbgSupplier = jointDrbgSupplier;
     this.alpha = alpha;
     this.drbgByteLength = drbgSeedBitLength / 8;
+    this.chunkSize = chunkSize;
   }
 
   @Override
@@ -66,22 +102,30 @@ public class SpdzMacCheckProtocol implements Computation<Void, ProtocolBuilderNu
         .seq(new CoinTossingComputation(drbgByteLength, commitmentSerializer, localDrbg))
         .seq((seq, seed) -> {
           Drbg jointDrbg = jointDrbgSupplier.apply(seed);
-          FieldElement[] rs = sampleRandomCoefficients(openedValues.size(), definition,
-              jointDrbg);
-          FieldElement a = definition.createElement(0);
-          int index = 0;
-          for (FieldElement openedValue : openedValues) {
-            FieldElement openedValueHidden = openedValue.multiply(rs[index++]);
-            a = a.add(openedValueHidden);
-          }
+          FieldElement a;
+          FieldElement gamma;
+          if (chunkSize > 0 && openedValues.size() > chunkSize) {
+            Pair<FieldElement, FieldElement> sums = computeSumsParallel(definition, jointDrbg);
+            a = sums.getFirst();
+            gamma = sums.getSecond();
+          } else {
+            FieldElement[] rs = sampleRandomCoefficients(openedValues.size(), definition,
+                jointDrbg);
+            FieldAccumulator sum = definition.createAccumulator();
+            int index = 0;
+            for (FieldElement openedValue : openedValues) {
+              sum.addProduct(openedValue, rs[index++]);
+            }
+            a = sum.get();
 
-          // compute gamma_i as the sum of all MAC's on the opened values times
-          // r_j.
-          FieldElement gamma = definition.createElement(0);
-          index = 0;
-          for (SpdzSInt closedValue : closedValues) {
-            FieldElement closedValueHidden = rs[index++].multiply(closedValue.getMac());
-            gamma = gamma.add(closedValueHidden);
+            // compute gamma_i as the sum of all MAC's on the opened values times
+            // r_j.
+            sum.reset();
+            index = 0;
+            for (SpdzSInt closedValue : closedValues) {
+              sum.addProduct(rs[index++], closedValue.getMac());
+            }
+            gamma = sum.get();
           }
 
           // compute delta_i as: gamma_i - alpha_i*a
@@ -111,6 +155,45 @@ public class SpdzMacCheckProtocol implements Computation<Void, ProtocolBuilderNu
         });
   }
 
+  /**
+   * Computes the sums a and gamma over chunks of the values in parallel. The seed of each chunk is
+   * drawn from the joint DRBG in order, so the coefficients only depend on the coin-tossed seed
+   * and the number of values.
+   */
+  private Pair<FieldElement, FieldElement> computeSumsParallel(FieldDefinition definition,
+      Drbg jointDrbg) {
+    if (closedValues.size() != openedValues.size()) {
+      throw new MaliciousException("Number of macs " + closedValues.size()
+          + " does not match number of opened values " + openedValues.size());
+    }
+    int numChunks = (openedValues.size() + chunkSize - 1) / chunkSize;
+    byte[][] chunkSeeds = new byte[numChunks][drbgByteLength];
+    for (byte[] chunkSeed : chunkSeeds) {
+      jointDrbg.nextBytes(chunkSeed);
+    }
+    return IntStream.range(0, numChunks)
+        .parallel()
+        .mapToObj(chunk -> computeSums(definition, jointDrbgSupplier.apply(chunkSeeds[chunk]),
+            chunk * chunkSize, Math.min(openedValues.size(), (chunk + 1) * chunkSize)))
+        .reduce((x, y) -> new Pair<>(x.getFirst().add(y.getFirst()),
+            x.getSecond().add(y.getSecond())))
+        .get();
+  }
+
+  private Pair<FieldElement, FieldElement> computeSums(FieldDefinition definition,
+      Drbg chunkDrbg, int from, int to) {
+    byte[] bytes = new byte[modulus.bitLength() / Byte.SIZE];
+    FieldAccumulator a = definition.createAccumulator();
+    FieldAccumulator gamma = definition.createAccumulator();
+    for (int i = from; i < to; i++) {
+      chunkDrbg.nextBytes(bytes);
+      FieldElement r = definition.createElement(new BigInteger(bytes));
+      a.addProduct(openedValues.get(i), r);
+      gamma.addProduct(r, closedValues.get(i).getMac());
+    }
+    return new Pair<>(a.get(), gamma.get());
+  }
+
   private FieldElement[] sampleRandomCoefficients(int numCoefficients,
       FieldDefinition fieldDefinition, Drbg jointDrbg) {
     FieldElement[] coefficients = new FieldElement[numCoefficients];
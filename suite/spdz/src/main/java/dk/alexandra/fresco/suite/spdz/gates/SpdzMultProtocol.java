@@ -1,74 +1,101 @@
 package dk.alexandra.fresco.suite.spdz.gates;
 
+import dk.alexandra.fresco.framework.ConcurrentNativeProtocol;
 import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldAccumulator;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
-import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 
-public class SpdzMultProtocol extends SpdzNativeProtocol<SInt> {
+/**
+ * Multiplies two secret values using a Beaver triple.
+ *
+ * <p>
+ * The triple is taken from the data supplier in {@link #beforeEvaluate} and the opened
+ * differences are pushed to the opened value store in {@link #afterEvaluate}, so the protocol can
+ * be evaluated concurrently with other protocols while all parties still agree on which triple and
+ * which opened values belong to it.
+ * </p>
+ */
+public class SpdzMultProtocol extends SpdzNativeProtocol<SInt>
+    implements ConcurrentNativeProtocol<SInt, SpdzResourcePool> {
 
   private DRes<SInt> left;
   private DRes<SInt> right;
   private SpdzSInt out;
   private SpdzTriple triple;
+  private FieldElement macKeyShare;
   private SpdzSInt epsilon;  // my share of the differences [x]-[a]
   private SpdzSInt delta;  // and [y]-[b].
+  private FieldElement e;
+  private FieldElement d;
 
   public SpdzMultProtocol(DRes<SInt> left, DRes<SInt> right) {
     this.left = left;
     this.right = right;
   }
 
+  @Override
+  public void beforeEvaluate(int round, SpdzResourcePool spdzResourcePool) {
+    if (round == 0) {
+      SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
+      this.triple = dataSupplier.getNextTriple();
+      this.macKeyShare = dataSupplier.getSecretSharedKey();
+    }
+  }
+
   @Override
   public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
       Network network) {
-    SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
     int noOfPlayers = spdzResourcePool.getNoOfParties();
-    ByteSerializer<FieldElement> serializer = spdzResourcePool.getFieldDefinition();
+    FieldDefinition definition = spdzResourcePool.getFieldDefinition();
     if (round == 0) {
-      this.triple = dataSupplier.getNextTriple();
-
       epsilon = ((SpdzSInt) left.out()).subtract(triple.getA());
       delta = ((SpdzSInt) right.out()).subtract(triple.getB());
 
-      network.sendToAll(epsilon.serializeShare(serializer));
-      network.sendToAll(delta.serializeShare(serializer));
+      network.sendToAll(epsilon.serializeShare(definition));
+      network.sendToAll(delta.serializeShare(definition));
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
-      FieldElement[] epsilonShares = new FieldElement[noOfPlayers];
-      FieldElement[] deltaShares = new FieldElement[noOfPlayers];
-      for (int i = 0; i < noOfPlayers; i++) {
-        epsilonShares[i] = serializer.deserialize(network.receive(i + 1));
-        deltaShares[i] = serializer.deserialize(network.receive(i + 1));
-      }
-
-      FieldElement e = epsilonShares[0];
-      FieldElement d = deltaShares[0];
-      for (int i = 1; i < epsilonShares.length; i++) {
-        e = e.add(epsilonShares[i]);
-        d = d.add(deltaShares[i]);
+      FieldAccumulator epsilonSum = definition.createAccumulator();
+      FieldAccumulator deltaSum = definition.createAccumulator();
+      for (int i = 1; i <= noOfPlayers; i++) {
+        epsilonSum.add(definition.deserialize(network.receive(i)));
+        deltaSum.add(definition.deserialize(network.receive(i)));
       }
+      e = epsilonSum.get();
+      d = deltaSum.get();
 
+      // compute [c] + e[b] + d[a] + ed, reusing the accumulators for the share and the mac
       FieldElement product = e.multiply(d);
-      FieldElement mac = dataSupplier.getSecretSharedKey().multiply(product);
+      FieldAccumulator share = epsilonSum.reset()
+          .add(triple.getC().getShare())
+          .addProduct(triple.getB().getShare(), e)
+          .addProduct(triple.getA().getShare(), d);
+      if (spdzResourcePool.getMyId() == 1) {
+        share.add(product);
+      }
+      FieldAccumulator mac = deltaSum.reset()
+          .add(triple.getC().getMac())
+          .addProduct(triple.getB().getMac(), e)
+          .addProduct(triple.getA().getMac(), d)
+          .addProduct(macKeyShare, product);
+      out = new SpdzSInt(share.get(), mac.get());
+      return EvaluationStatus.IS_DONE;
+    }
+  }
 
-      SpdzSInt ed = new SpdzSInt(
-          product,
-          mac
-      );
-      SpdzSInt res = triple.getC();
-      out = res.add(triple.getB().multiply(e))
-          .add(triple.getA().multiply(d))
-          .add(ed, spdzResourcePool.getMyId());
+  @Override
+  public void afterEvaluate(int round, SpdzResourcePool spdzResourcePool) {
+    if (round == 1) {
       // Set the opened and closed value.
       spdzResourcePool.getOpenedValueStore().pushOpenedValue(epsilon, e);
       spdzResourcePool.getOpenedValueStore().pushOpenedValue(delta, d);
-      return EvaluationStatus.IS_DONE;
     }
   }
 
@@ -0,0 +1,117 @@
+package dk.alexandra.fresco.suite.spdz.gates;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldAccumulator;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multiplies two lists of secret values element-wise.
+ *
+ * <p>
+ * Works as {@link SpdzMultProtocol} for each pair of values, but the triples are fetched in bulk,
+ * the shares of all the masked values are sent to each party in a single message, and all the
+ * opened values are recorded in the opened value store at once.
+ * </p>
+ */
+public class SpdzMultVectorProtocol extends SpdzNativeProtocol<List<DRes<SInt>>> {
+
+  private final List<DRes<SInt>> left;
+  private final List<DRes<SInt>> right;
+  private List<SpdzTriple> triples;
+  // My shares of the differences [x_i] - [a_i] followed by [y_i] - [b_i]
+  private List<SpdzSInt> closed;
+  private List<DRes<SInt>> out;
+
+  /**
+   * Creates a new protocol multiplying two lists of values element-wise.
+   *
+   * @param left the left factors
+   * @param right the right factors, must have the same size as left
+   */
+  public SpdzMultVectorProtocol(List<DRes<SInt>> left, List<DRes<SInt>> right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have the same size, was " + left.size() + " and " + right.size());
+    }
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
+      Network network) {
+    SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
+    FieldDefinition definition = spdzResourcePool.getFieldDefinition();
+    int size = left.size();
+    if (round == 0) {
+      if (size == 0) {
+        out = new ArrayList<>();
+        return EvaluationStatus.IS_DONE;
+      }
+      triples = dataSupplier.getNextTriples(size);
+      closed = new ArrayList<>(2 * size);
+      List<FieldElement> shares = new ArrayList<>(2 * size);
+      for (int i = 0; i < size; i++) {
+        closed.add(((SpdzSInt) left.get(i).out()).subtract(triples.get(i).getA()));
+      }
+      for (int i = 0; i < size; i++) {
+        closed.add(((SpdzSInt) right.get(i).out()).subtract(triples.get(i).getB()));
+      }
+      for (SpdzSInt value : closed) {
+        shares.add(value.getShare());
+      }
+      network.sendToAll(definition.serialize(shares));
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      List<FieldElement> opened = definition.deserializeList(network.receiveBuffer(1));
+      for (int party = 2; party <= spdzResourcePool.getNoOfParties(); party++) {
+        List<FieldElement> shares = definition.deserializeList(network.receiveBuffer(party));
+        for (int i = 0; i < opened.size(); i++) {
+          opened.set(i, opened.get(i).add(shares.get(i)));
+        }
+      }
+      FieldElement key = dataSupplier.getSecretSharedKey();
+      int myId = spdzResourcePool.getMyId();
+      FieldAccumulator share = definition.createAccumulator();
+      FieldAccumulator mac = definition.createAccumulator();
+      out = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        SpdzTriple triple = triples.get(i);
+        FieldElement e = opened.get(i);
+        FieldElement d = opened.get(size + i);
+        FieldElement product = e.multiply(d);
+        share.reset()
+            .add(triple.getC().getShare())
+            .addProduct(triple.getB().getShare(), e)
+            .addProduct(triple.getA().getShare(), d);
+        if (myId == 1) {
+          share.add(product);
+        }
+        mac.reset()
+            .add(triple.getC().getMac())
+            .addProduct(triple.getB().getMac(), e)
+            .addProduct(triple.getA().getMac(), d)
+            .addProduct(key, product);
+        out.add(new SpdzSInt(share.get(), mac.get()));
+      }
+      spdzResourcePool.getOpenedValueStore().pushOpenedValues(closed, opened);
+      triples = null;
+      closed = null;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public List<DRes<SInt>> out() {
+    return out;
+  }
+}
@@ -0,0 +1,155 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldAccumulator;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzMacCheckProtocol;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@link OpenedValueStore} for SPDZ which does not keep the opened values around, but folds
+ * each of them into a running random linear combination as soon as it is pushed.
+ *
+ * <p>
+ * The store keeps a single authenticated share and a single opened value holding the sum of all
+ * values pushed since the last call to {@link #popValues()}, each multiplied by a coefficient. A
+ * subsequent {@link SpdzMacCheckProtocol} on the popped values is therefore a constant size check
+ * regardless of the number of opened values, and the memory used by the store is independent of
+ * how many values are opened between two checks.
+ * </p>
+ *
+ * <p>
+ * The coefficients must not be known before the values they are applied to are opened, since a
+ * corrupt party knowing them in advance could introduce errors in two openings which cancel out in
+ * the linear combination. They are instead derived from a hash chain over all opened values pushed
+ * to the store, such that the coefficients of a batch of values are only determined once the
+ * values themselves are fixed. As the opened values are public, all honest parties derive the same
+ * coefficients and no interaction is needed to agree on them.
+ * </p>
+ */
+public class SpdzAccumulatingOpenedValueStore implements OpenedValueStore<SpdzSInt, FieldElement> {
+
+  private static final String HASH_ALGORITHM = "SHA-256";
+
+  private final FieldDefinition definition;
+  private final MessageDigest digest;
+  private final int coefficientLength;
+  private final byte[] coefficientBytes;
+  private final ByteBuffer counter;
+  private byte[] chain;
+  private final FieldAccumulator accumulatedShare;
+  private final FieldAccumulator accumulatedMac;
+  private final FieldAccumulator accumulatedOpenedValue;
+  private int count;
+
+  /**
+   * Creates a new store for values of a given field.
+   *
+   * @param definition the definition of the field the values belong to
+   */
+  public SpdzAccumulatingOpenedValueStore(FieldDefinition definition) {
+    this.definition = definition;
+    this.digest = ExceptionConverter.safe(() -> MessageDigest.getInstance(HASH_ALGORITHM),
+        "Configuration error, " + HASH_ALGORITHM + " is needed for the opened value store");
+    this.coefficientLength = Math.max(1, definition.getModulus().bitLength() / Byte.SIZE);
+    this.coefficientBytes = new byte[coefficientLength];
+    this.counter = ByteBuffer.allocate(2 * Integer.BYTES);
+    this.chain = new byte[digest.getDigestLength()];
+    this.accumulatedShare = definition.createAccumulator();
+    this.accumulatedMac = definition.createAccumulator();
+    this.accumulatedOpenedValue = definition.createAccumulator();
+    reset();
+  }
+
+  @Override
+  public void pushOpenedValues(List<SpdzSInt> newSharesWithMacs,
+      List<FieldElement> newOpenedValues) {
+    if (newSharesWithMacs.size() != newOpenedValues.size()) {
+      throw new IllegalArgumentException("Number of shares " + newSharesWithMacs.size()
+          + " does not match number of opened values " + newOpenedValues.size());
+    }
+    if (newOpenedValues.isEmpty()) {
+      return;
+    }
+    updateChain(definition.serialize(newOpenedValues));
+    for (int i = 0; i < newOpenedValues.size(); i++) {
+      accumulate(newSharesWithMacs.get(i), newOpenedValues.get(i), i);
+    }
+  }
+
+  @Override
+  public void pushOpenedValue(SpdzSInt newShareWithMac, FieldElement newOpenedValue) {
+    updateChain(definition.serialize(newOpenedValue));
+    accumulate(newShareWithMac, newOpenedValue, 0);
+  }
+
+  @Override
+  public Pair<List<SpdzSInt>, List<FieldElement>> popValues() {
+    // the mac check clears the lists after checking, so these must be mutable
+    List<SpdzSInt> shares = new ArrayList<>(1);
+    List<FieldElement> openedValues = new ArrayList<>(1);
+    if (count > 0) {
+      shares.add(new SpdzSInt(accumulatedShare.get(), accumulatedMac.get()));
+      openedValues.add(accumulatedOpenedValue.get());
+    }
+    reset();
+    return new Pair<>(shares, openedValues);
+  }
+
+  @Override
+  public boolean hasPendingValues() {
+    return count > 0;
+  }
+
+  @Override
+  public boolean exceedsThreshold(int threshold) {
+    return count > threshold;
+  }
+
+  private void reset() {
+    accumulatedShare.reset();
+    accumulatedMac.reset();
+    accumulatedOpenedValue.reset();
+    count = 0;
+  }
+
+  private void updateChain(byte[] openedValues) {
+    digest.update(chain);
+    digest.update(openedValues);
+    chain = digest.digest();
+  }
+
+  private void accumulate(SpdzSInt share, FieldElement openedValue, int index) {
+    FieldElement coefficient = nextCoefficient(index);
+    accumulatedShare.addProduct(share.getShare(), coefficient);
+    accumulatedMac.addProduct(share.getMac(), coefficient);
+    accumulatedOpenedValue.addProduct(openedValue, coefficient);
+    count++;
+  }
+
+  /**
+   * Expands the current state of the hash chain into the coefficient of the value with a given
+   * index in the latest pushed batch.
+   */
+  private FieldElement nextCoefficient(int index) {
+    int offset = 0;
+    for (int block = 0; offset < coefficientLength; block++) {
+      digest.update(chain);
+      counter.putInt(0, index).putInt(Integer.BYTES, block);
+      digest.update(counter.array());
+      byte[] hash = digest.digest();
+      int length = Math.min(hash.length, coefficientLength - offset);
+      System.arraycopy(hash, 0, coefficientBytes, offset, length);
+      offset += length;
+    }
+    return definition.createElement(new BigInteger(1, coefficientBytes));
+  }
+}
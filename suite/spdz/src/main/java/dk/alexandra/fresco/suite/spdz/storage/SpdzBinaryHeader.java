@@ -0,0 +1,112 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Header of a file in the binary format for SPDZ preprocessed material.
+ *
+ * <p>
+ * A file consists of the header followed by a sequence of fixed width records. Each record holds
+ * a fixed number of field elements, each serialized as an unsigned big endian integer of the same
+ * width as the modulus. All integers of the header are written in big endian order:
+ * </p>
+ * <ol>
+ * <li>the magic number {@link #MAGIC}</li>
+ * <li>the format version {@link #VERSION}</li>
+ * <li>the width in bytes of a field element</li>
+ * <li>the number of field elements in a record</li>
+ * <li>the modulus, serialized as a field element</li>
+ * </ol>
+ */
+final class SpdzBinaryHeader {
+
+  static final int MAGIC = 0x53504442;
+  static final int VERSION = 1;
+
+  private final BigInteger modulus;
+  private final int elementLength;
+  private final int valuesPerRecord;
+
+  SpdzBinaryHeader(BigInteger modulus, int valuesPerRecord) {
+    this(modulus, 1 + (modulus.bitLength() - 1) / 8, valuesPerRecord);
+  }
+
+  private SpdzBinaryHeader(BigInteger modulus, int elementLength, int valuesPerRecord) {
+    if (valuesPerRecord <= 0) {
+      throw new IllegalArgumentException(
+          "Records must contain at least one value, was " + valuesPerRecord);
+    }
+    this.modulus = modulus;
+    this.elementLength = elementLength;
+    this.valuesPerRecord = valuesPerRecord;
+  }
+
+  BigInteger getModulus() {
+    return modulus;
+  }
+
+  int getElementLength() {
+    return elementLength;
+  }
+
+  int getValuesPerRecord() {
+    return valuesPerRecord;
+  }
+
+  int getRecordLength() {
+    return elementLength * valuesPerRecord;
+  }
+
+  /**
+   * Gets the length in bytes of the header.
+   */
+  int getLength() {
+    return 4 * Integer.BYTES + elementLength;
+  }
+
+  void write(DataOutputStream output) throws IOException {
+    output.writeInt(MAGIC);
+    output.writeInt(VERSION);
+    output.writeInt(elementLength);
+    output.writeInt(valuesPerRecord);
+    byte[] bytes = modulus.toByteArray();
+    // Strip the sign byte or pad with leading zeros
+    int length = Math.min(bytes.length, elementLength);
+    output.write(new byte[elementLength - length]);
+    output.write(bytes, bytes.length - length, length);
+  }
+
+  /**
+   * Reads a header from the current position of a buffer.
+   *
+   * @param buffer the buffer
+   * @param name the name of the file being read, used in error messages
+   * @return the header
+   */
+  static SpdzBinaryHeader read(ByteBuffer buffer, String name) {
+    if (buffer.remaining() < 4 * Integer.BYTES) {
+      throw new IllegalArgumentException("The file " + name + " is too short to contain a header");
+    }
+    int magic = buffer.getInt();
+    if (magic != MAGIC) {
+      throw new IllegalArgumentException("The file " + name
+          + " is not in the binary format for SPDZ preprocessed material");
+    }
+    int version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IllegalArgumentException(
+          "Unsupported version " + version + " of the file " + name);
+    }
+    int elementLength = buffer.getInt();
+    int valuesPerRecord = buffer.getInt();
+    if (elementLength <= 0 || buffer.remaining() < elementLength) {
+      throw new IllegalArgumentException("Invalid element length in the file " + name);
+    }
+    byte[] bytes = new byte[elementLength];
+    buffer.get(bytes);
+    return new SpdzBinaryHeader(new BigInteger(1, bytes), elementLength, valuesPerRecord);
+  }
+}
@@ -0,0 +1,121 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes SPDZ preprocessed material of a single kind to a file in the binary format read by
+ * {@link SpdzMappedDataSupplier}. See {@link SpdzBinaryHeader} for a description of the format.
+ *
+ * <p>
+ * Triples are written as the share and mac of <i>a</i>, <i>b</i> and <i>c</i>, bits and other
+ * single values as their share and mac, input masks as the share and mac of the mask optionally
+ * followed by the real value, and exponentiation pipes as the share and mac of each element.
+ * </p>
+ */
+public class SpdzBinaryStorageWriter implements Closeable {
+
+  private final String name;
+  private final FieldDefinition definition;
+  private final SpdzBinaryHeader header;
+  private final DataOutputStream output;
+
+  /**
+   * Creates a new writer, overwriting the file if it exists.
+   *
+   * @param name the name of the file
+   * @param definition the field definition of the elements written
+   * @param valuesPerRecord the number of field elements in each record
+   */
+  public SpdzBinaryStorageWriter(String name, FieldDefinition definition, int valuesPerRecord) {
+    this.name = name;
+    this.definition = definition;
+    this.header = new SpdzBinaryHeader(definition.getModulus(), valuesPerRecord);
+    try {
+      this.output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(name)));
+      header.write(output);
+    } catch (IOException e) {
+      throw new RuntimeException("Could not write to the file " + name, e);
+    }
+  }
+
+  /**
+   * Writes a triple. The records must hold six values.
+   */
+  public void write(SpdzTriple triple) {
+    write(Arrays.asList(
+        triple.getA().getShare(), triple.getA().getMac(),
+        triple.getB().getShare(), triple.getB().getMac(),
+        triple.getC().getShare(), triple.getC().getMac()));
+  }
+
+  /**
+   * Writes a single value. The records must hold two values.
+   */
+  public void write(SpdzSInt value) {
+    write(Arrays.asList(value.getShare(), value.getMac()));
+  }
+
+  /**
+   * Writes an input mask. The records must hold three values if the mask has a real value and two
+   * otherwise.
+   */
+  public void write(SpdzInputMask mask) {
+    List<FieldElement> values = new ArrayList<>(3);
+    values.add(mask.getMask().getShare());
+    values.add(mask.getMask().getMac());
+    if (mask.getRealValue() != null) {
+      values.add(mask.getRealValue());
+    }
+    write(values);
+  }
+
+  /**
+   * Writes an exponentiation pipe. The records must hold two values per element of the pipe.
+   */
+  public void write(SpdzSInt[] pipe) {
+    List<FieldElement> values = new ArrayList<>(2 * pipe.length);
+    for (SpdzSInt value : pipe) {
+      values.add(value.getShare());
+      values.add(value.getMac());
+    }
+    write(values);
+  }
+
+  /**
+   * Writes a single record.
+   *
+   * @param values the values of the record
+   */
+  public void write(List<FieldElement> values) {
+    if (values.size() != header.getValuesPerRecord()) {
+      throw new IllegalArgumentException("Records of " + name + " must hold "
+          + header.getValuesPerRecord() + " values, got " + values.size());
+    }
+    try {
+      output.write(definition.serialize(values));
+    } catch (IOException e) {
+      throw new RuntimeException("Could not write to the file " + name, e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      output.close();
+    } catch (IOException e) {
+      throw new RuntimeException("Could not close the file " + name, e);
+    }
+  }
+}
@@ -0,0 +1,369 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data supplier which supplies the SPDZ protocol suite with preprocessed data stored in the binary
+ * format written by {@link SpdzBinaryStorageWriter}. The files are memory mapped and the field
+ * elements are read directly from the mapped buffers, avoiding the overhead of Java serialization
+ * used by {@link SpdzStorageDataSupplier}.
+ *
+ * <p>
+ * The files are named as the streams of {@link SpdzStorageDataSupplier}, i.e., the storage name
+ * followed by {@link SpdzStorageDataSupplier#GLOBAL_STORAGE} for the mac key share, {@link
+ * SpdzStorageDataSupplier#TRIPLE_STORAGE} for triples, {@link SpdzStorageDataSupplier#BIT_STORAGE}
+ * for bits, {@link SpdzStorageDataSupplier#INPUT_STORAGE} and the party id for input masks and
+ * {@link SpdzStorageDataSupplier#EXP_PIPE_STORAGE} for exponentiation pipes. Use {@link
+ * SpdzStorageConverter} to convert material from the format of {@link SpdzStorageDataSupplier}.
+ * </p>
+ */
+public class SpdzMappedDataSupplier implements SpdzDataSupplier, Closeable {
+
+  private final List<String> storageNames;
+  private final FieldDefinition definition;
+  private final FieldElement ssk;
+  private final Map<String, ShardedStream> streams;
+
+  /**
+   * Creates a new supplier reading the files with the given storage name as prefix. The field
+   * definition is based on the modulus found in the files.
+   *
+   * @param storageName the prefix of the file names
+   */
+  public SpdzMappedDataSupplier(String storageName) {
+    this(storageName, null);
+  }
+
+  /**
+   * Creates a new supplier reading the files with the given storage name as prefix.
+   *
+   * @param storageName the prefix of the file names
+   * @param definition the field definition to use, must have the modulus found in the files
+   */
+  public SpdzMappedDataSupplier(String storageName, FieldDefinition definition) {
+    this(Collections.singletonList(storageName), definition);
+  }
+
+  /**
+   * Creates a new supplier reading a number of shards in order, e.g., as written by {@link
+   * SpdzMascotOfflineGenerator}. Each stream is read from the first shard until it is exhausted
+   * and then from the next shard. All shards must use the same modulus and mac key share.
+   *
+   * @param storageNames the prefixes of the file names of each shard
+   * @param definition the field definition to use, must have the modulus found in the files. If
+   *     null the field definition is based on the modulus found in the files.
+   */
+  public SpdzMappedDataSupplier(List<String> storageNames, FieldDefinition definition) {
+    if (storageNames.isEmpty()) {
+      throw new IllegalArgumentException("At least one storage name must be given");
+    }
+    this.storageNames = new ArrayList<>(storageNames);
+    this.streams = new HashMap<>();
+    String globalName = storageNames.get(0) + SpdzStorageDataSupplier.GLOBAL_STORAGE;
+    MappedStream global = MappedStream.open(globalName);
+    if (global == null) {
+      throw new IllegalArgumentException("SSK was not present in the storage " + globalName);
+    }
+    BigInteger modulus = global.header.getModulus();
+    if (definition == null) {
+      this.definition = new BigIntegerFieldDefinition(modulus);
+    } else if (!definition.getModulus().equals(modulus)) {
+      throw new IllegalArgumentException("The modulus of the storage " + storageNames.get(0)
+          + " does not match the modulus of the field definition");
+    } else {
+      this.definition = definition;
+    }
+    this.ssk = this.definition.deserializeList(global.next(1)).get(0);
+    global.close();
+  }
+
+  @Override
+  public SpdzTriple getNextTriple() {
+    return toTriple(getStream(SpdzStorageDataSupplier.TRIPLE_STORAGE, "Triple", 6).next(1), 0);
+  }
+
+  @Override
+  public List<SpdzTriple> getNextTriples(int amount) {
+    List<FieldElement> values =
+        getStream(SpdzStorageDataSupplier.TRIPLE_STORAGE, "Triple", 6).next(amount);
+    List<SpdzTriple> triples = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      triples.add(toTriple(values, 6 * i));
+    }
+    return triples;
+  }
+
+  private static SpdzTriple toTriple(List<FieldElement> values, int offset) {
+    return new SpdzTriple(
+        new SpdzSInt(values.get(offset), values.get(offset + 1)),
+        new SpdzSInt(values.get(offset + 2), values.get(offset + 3)),
+        new SpdzSInt(values.get(offset + 4), values.get(offset + 5)));
+  }
+
+  @Override
+  public SpdzSInt[] getNextExpPipe() {
+    List<FieldElement> values =
+        getStream(SpdzStorageDataSupplier.EXP_PIPE_STORAGE, "expPipe", -1).next(1);
+    SpdzSInt[] pipe = new SpdzSInt[values.size() / 2];
+    for (int i = 0; i < pipe.length; i++) {
+      pipe[i] = new SpdzSInt(values.get(2 * i), values.get(2 * i + 1));
+    }
+    return pipe;
+  }
+
+  @Override
+  public SpdzInputMask getNextInputMask(int towardPlayerId) {
+    List<FieldElement> values = getStream(SpdzStorageDataSupplier.INPUT_STORAGE + towardPlayerId,
+        "Mask towards player " + towardPlayerId, -1).next(1);
+    SpdzSInt mask = new SpdzSInt(values.get(0), values.get(1));
+    return values.size() > 2 ? new SpdzInputMask(mask, values.get(2)) : new SpdzInputMask(mask);
+  }
+
+  @Override
+  public SpdzSInt getNextBit() {
+    List<FieldElement> values = getStream(SpdzStorageDataSupplier.BIT_STORAGE, "Bit", 2).next(1);
+    return new SpdzSInt(values.get(0), values.get(1));
+  }
+
+  @Override
+  public FieldDefinition getFieldDefinition() {
+    return definition;
+  }
+
+  @Override
+  public FieldElement getSecretSharedKey() {
+    return ssk;
+  }
+
+  @Override
+  public SpdzSInt getNextRandomFieldElement() {
+    // As for SpdzStorageDataSupplier we use part of a triple
+    return getNextTriple().getA();
+  }
+
+  @Override
+  public void close() {
+    for (ShardedStream stream : streams.values()) {
+      stream.close();
+    }
+    streams.clear();
+  }
+
+  private ShardedStream getStream(String suffix, String description, int valuesPerRecord) {
+    return streams.computeIfAbsent(suffix,
+        key -> new ShardedStream(suffix, description, valuesPerRecord));
+  }
+
+  /**
+   * A stream of records read from the files with a given suffix of each shard in order.
+   */
+  private final class ShardedStream {
+
+    private final String suffix;
+    private final String description;
+    private final int valuesPerRecord;
+    private int shard;
+    private long counter;
+    private MappedStream current;
+
+    private ShardedStream(String suffix, String description, int valuesPerRecord) {
+      this.suffix = suffix;
+      this.description = description;
+      this.valuesPerRecord = valuesPerRecord;
+    }
+
+    /**
+     * Reads the values of a number of consecutive records.
+     */
+    private List<FieldElement> next(int records) {
+      List<FieldElement> values = null;
+      int remaining = records;
+      while (remaining > 0) {
+        if (current == null || current.remaining() == 0) {
+          openNextShard();
+        }
+        int count = (int) Math.min(remaining, current.remaining());
+        List<FieldElement> read = definition.deserializeList(current.next(count));
+        if (values == null) {
+          values = read;
+        } else {
+          values.addAll(read);
+        }
+        remaining -= count;
+        counter += count;
+      }
+      return values == null ? new ArrayList<>() : values;
+    }
+
+    private void openNextShard() {
+      if (current != null) {
+        current.close();
+        current = null;
+      }
+      while (current == null) {
+        if (shard >= storageNames.size()) {
+          throw new IllegalArgumentException(description + " no. " + counter
+              + " was not present in the storage: " + storageNames.get(0) + suffix);
+        }
+        String name = storageNames.get(shard++) + suffix;
+        MappedStream stream = MappedStream.open(name);
+        if (stream != null) {
+          SpdzBinaryHeader header = stream.header;
+          if (!header.getModulus().equals(definition.getModulus())) {
+            stream.close();
+            throw new IllegalArgumentException("The modulus of " + name
+                + " does not match the modulus of the field definition");
+          }
+          if (valuesPerRecord > 0 && header.getValuesPerRecord() != valuesPerRecord) {
+            stream.close();
+            throw new IllegalArgumentException("Expected records of " + valuesPerRecord
+                + " values in " + name + " but found " + header.getValuesPerRecord());
+          }
+          current = stream;
+        }
+      }
+    }
+
+    private void close() {
+      if (current != null) {
+        current.close();
+      }
+    }
+  }
+
+  /**
+   * A single file of records, mapped into memory in segments of at most 2 GB.
+   */
+  private static final class MappedStream {
+
+    private final String name;
+    private final FileChannel channel;
+    private final SpdzBinaryHeader header;
+    private final long size;
+    private final long maxSegmentLength;
+    private long position;
+    private MappedByteBuffer segment;
+    private long segmentStart;
+
+    private MappedStream(String name, FileChannel channel) {
+      this.name = name;
+      this.channel = channel;
+      try {
+        this.size = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, 4096));
+        channel.read(buffer, 0);
+        buffer.flip();
+        this.header = SpdzBinaryHeader.read(buffer, name);
+      } catch (IOException e) {
+        throw new RuntimeException("Could not read from the file " + name, e);
+      }
+      int recordLength = header.getRecordLength();
+      if ((size - header.getLength()) % recordLength != 0) {
+        throw new IllegalArgumentException("The file " + name + " has been truncated");
+      }
+      this.maxSegmentLength = (long) (Integer.MAX_VALUE / recordLength) * recordLength;
+      this.position = header.getLength();
+    }
+
+    /**
+     * Opens a file.
+     *
+     * @return the opened file or null if the file does not exist
+     */
+    private static MappedStream open(String name) {
+      FileChannel channel;
+      try {
+        channel = FileChannel.open(Paths.get(name), StandardOpenOption.READ);
+      } catch (NoSuchFileException e) {
+        return null;
+      } catch (IOException e) {
+        throw new RuntimeException("Could not open the file " + name, e);
+      }
+      try {
+        return new MappedStream(name, channel);
+      } catch (RuntimeException e) {
+        try {
+          channel.close();
+        } catch (IOException suppressed) {
+          e.addSuppressed(suppressed);
+        }
+        throw e;
+      }
+    }
+
+    private long remaining() {
+      return (size - position) / header.getRecordLength();
+    }
+
+    /**
+     * Gets a view of the serialized values of a number of consecutive records, which must not
+     * exceed the remaining number of records.
+     */
+    private ByteBuffer next(int records) {
+      int recordLength = header.getRecordLength();
+      ensureMapped();
+      int offset = (int) (position - segmentStart);
+      int available = (segment.limit() - offset) / recordLength;
+      ByteBuffer view;
+      if (records <= available) {
+        view = segment.duplicate();
+        view.position(offset);
+        view.limit(offset + records * recordLength);
+      } else {
+        // The records span two segments
+        view = ByteBuffer.allocate(records * recordLength);
+        try {
+          while (view.hasRemaining()) {
+            channel.read(view, position + view.position());
+          }
+        } catch (IOException e) {
+          throw new RuntimeException("Could not read from the file " + name, e);
+        }
+        view.flip();
+      }
+      position += (long) records * recordLength;
+      return view;
+    }
+
+    private void ensureMapped() {
+      if (segment != null && position < segmentStart + segment.limit()) {
+        return;
+      }
+      segmentStart = position;
+      try {
+        segment = channel.map(MapMode.READ_ONLY, segmentStart,
+            Math.min(size - segmentStart, maxSegmentLength));
+      } catch (IOException e) {
+        throw new RuntimeException("Could not map the file " + name, e);
+      }
+    }
+
+    private void close() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // Do nothing - nothing can be done
+      }
+    }
+  }
+}
@@ -20,7 +20,9 @@ import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrgImpl;
 import dk.alexandra.fresco.tools.ot.otextension.RotList;
 import java.security.SecureRandom;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -128,6 +130,21 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
     return MascotFormatConverter.toSpdzTriple(triple);
   }
 
+  @Override
+  public List<SpdzTriple> getNextTriples(int amount) {
+    ensureInitialized();
+    List<SpdzTriple> result = new ArrayList<>(amount);
+    while (result.size() < amount) {
+      if (triples.isEmpty()) {
+        logger.trace("Getting another triple batch");
+        triples.addAll(mascot.getTriples(Math.max(batchSize, amount - result.size())));
+        logger.trace("Got another triple batch");
+      }
+      result.add(MascotFormatConverter.toSpdzTriple(triples.pop()));
+    }
+    return result;
+  }
+
   @Override
   public SpdzSInt getNextRandomFieldElement() {
     ensureInitialized();
@@ -0,0 +1,279 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.Party;
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.configuration.NetworkConfigurationImpl;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.preprocessing.MascotFormatConverter;
+import dk.alexandra.fresco.tools.mascot.Mascot;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePoolImpl;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.field.InputMask;
+import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import dk.alexandra.fresco.tools.ot.base.BigIntNaorPinkas;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates SPDZ preprocessed material ahead of time using a number of independent Mascot
+ * instances running in parallel, each on its own thread and network. Each instance writes its
+ * material to its own shard of files in the format read by {@link SpdzMappedDataSupplier}, which
+ * can read the shards in order.
+ *
+ * <p>
+ * The generator produces triples, bits and input masks towards each party. Exponentiation pipes
+ * require an online computation and are not generated. All parties must call {@link
+ * #generate(String, int, IntFunction, int, int, int)} with the same number of shards and amounts.
+ * </p>
+ */
+public class SpdzMascotOfflineGenerator {
+
+  private static final Logger logger = LoggerFactory.getLogger(SpdzMascotOfflineGenerator.class);
+  private final int myId;
+  private final int noOfParties;
+  private final FieldDefinition definition;
+  private final FieldElement ssk;
+  private final Map<Integer, RotList> seedOts;
+  private final Drbg drbg;
+  private final MascotSecurityParameters securityParameters;
+  private final int batchSize;
+
+  /**
+   * Creates a new generator.
+   *
+   * @param myId this party's id
+   * @param noOfParties number of parties
+   * @param definition the field definition
+   * @param ssk mac key share
+   * @param seedOts pre-computed base OTs
+   * @param drbg source of randomness used to seed the randomness of each Mascot instance
+   * @param securityParameters the security parameters of Mascot
+   * @param batchSize the batch size in which each Mascot instance generates material
+   */
+  public SpdzMascotOfflineGenerator(int myId, int noOfParties, FieldDefinition definition,
+      FieldElement ssk, Map<Integer, RotList> seedOts, Drbg drbg,
+      MascotSecurityParameters securityParameters, int batchSize) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be positive, was " + batchSize);
+    }
+    this.myId = myId;
+    this.noOfParties = noOfParties;
+    this.definition = definition;
+    this.ssk = ssk;
+    this.seedOts = seedOts;
+    this.drbg = drbg;
+    this.securityParameters = securityParameters;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Gets the storage names of the shards written by {@link #generate(String, int, IntFunction,
+   * int, int, int)}.
+   *
+   * @param storageName the storage name given to the generator
+   * @param noOfShards the number of shards
+   * @return the storage names of each shard, in order
+   */
+  public static List<String> getShardNames(String storageName, int noOfShards) {
+    List<String> names = new ArrayList<>(noOfShards);
+    for (int shard = 0; shard < noOfShards; shard++) {
+      names.add(storageName + shard + "_");
+    }
+    return names;
+  }
+
+  /**
+   * Generates preprocessed material in a number of shards in parallel. The amounts are divided
+   * evenly between the shards. Blocks until all shards have been written.
+   *
+   * @param storageName the prefix of the names of the files written
+   * @param noOfShards the number of shards, i.e., the number of parallel Mascot instances
+   * @param networks supplies a separate network for each shard, given the shard number
+   * @param noOfTriples the total number of triples
+   * @param noOfBits the total number of bits
+   * @param noOfInputMasks the total number of input masks towards each party
+   * @return the storage names of the shards, in order
+   */
+  public List<String> generate(String storageName, int noOfShards, IntFunction<Network> networks,
+      int noOfTriples, int noOfBits, int noOfInputMasks) {
+    if (noOfShards <= 0) {
+      throw new IllegalArgumentException("Number of shards must be positive, was " + noOfShards);
+    }
+    List<String> names = getShardNames(storageName, noOfShards);
+    // Seed the randomness of each instance up front, as the drbg is not thread safe
+    List<Drbg> drbgs = new ArrayList<>(noOfShards);
+    for (int shard = 0; shard < noOfShards; shard++) {
+      byte[] seed = new byte[securityParameters.getPrgSeedLength() / 8];
+      drbg.nextBytes(seed);
+      drbgs.add(AesCtrDrbgFactory.fromDerivedSeed(seed));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(noOfShards);
+    try {
+      List<Future<Object>> futures = new ArrayList<>(noOfShards);
+      for (int shard = 0; shard < noOfShards; shard++) {
+        int instanceId = shard;
+        futures.add(executor.submit(() -> {
+          generateShard(instanceId, names.get(instanceId), networks.apply(instanceId),
+              drbgs.get(instanceId), share(noOfTriples, noOfShards, instanceId),
+              share(noOfBits, noOfShards, instanceId),
+              share(noOfInputMasks, noOfShards, instanceId));
+          return null;
+        }));
+      }
+      for (Future<Object> future : futures) {
+        ExceptionConverter.safe(future::get, "Generating a shard of preprocessed material failed");
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return names;
+  }
+
+  private static int share(int amount, int noOfShards, int shard) {
+    return amount / noOfShards + (shard < amount % noOfShards ? 1 : 0);
+  }
+
+  private void generateShard(int instanceId, String name, Network network, Drbg shardDrbg,
+      int noOfTriples, int noOfBits, int noOfInputMasks) {
+    logger.debug("Generating shard " + name);
+    Mascot mascot = new Mascot(new MascotResourcePoolImpl(myId, noOfParties, instanceId,
+        shardDrbg, seedOts, securityParameters, definition), network, ssk);
+    try (SpdzBinaryStorageWriter writer = new SpdzBinaryStorageWriter(
+        name + SpdzStorageDataSupplier.GLOBAL_STORAGE, definition, 1)) {
+      writer.write(Collections.singletonList(ssk));
+    }
+    try (SpdzBinaryStorageWriter writer = new SpdzBinaryStorageWriter(
+        name + SpdzStorageDataSupplier.TRIPLE_STORAGE, definition, 6)) {
+      for (int done = 0; done < noOfTriples; done += batchSize) {
+        for (MultiplicationTriple triple :
+            mascot.getTriples(Math.min(batchSize, noOfTriples - done))) {
+          writer.write(MascotFormatConverter.toSpdzTriple(triple));
+        }
+      }
+    }
+    try (SpdzBinaryStorageWriter writer = new SpdzBinaryStorageWriter(
+        name + SpdzStorageDataSupplier.BIT_STORAGE, definition, 2)) {
+      for (int done = 0; done < noOfBits; done += batchSize) {
+        for (AuthenticatedElement bit :
+            mascot.getRandomBits(Math.min(batchSize, noOfBits - done))) {
+          writer.write(MascotFormatConverter.toSpdzSInt(bit));
+        }
+      }
+    }
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      // Only the masks towards this party hold the real value
+      try (SpdzBinaryStorageWriter writer = new SpdzBinaryStorageWriter(
+          name + SpdzStorageDataSupplier.INPUT_STORAGE + partyId, definition,
+          partyId == myId ? 3 : 2)) {
+        for (int done = 0; done < noOfInputMasks; done += batchSize) {
+          for (InputMask mask :
+              mascot.getInputMasks(partyId, Math.min(batchSize, noOfInputMasks - done))) {
+            writer.write(MascotFormatConverter.toSpdzInputMask(mask));
+          }
+        }
+      }
+    }
+    logger.debug("Done generating shard " + name);
+  }
+
+  /**
+   * Runs the generator for one party using socket networks. The base OTs are computed on the
+   * given ports and shard <i>i</i> uses the given ports plus <i>i + 1</i>.
+   *
+   * <p>
+   * Arguments: my id, storage name, number of shards, number of triples, number of bits, number
+   * of input masks towards each party, bit length of the modulus, followed by
+   * <code>host:port</code> of each party.
+   * </p>
+   */
+  public static void main(String[] args) {
+    if (args.length < 8) {
+      System.err.println("Usage: SpdzMascotOfflineGenerator <my id> <storage name> <shards>"
+          + " <triples> <bits> <input masks> <mod bit length> <host:port>...");
+      System.exit(1);
+    }
+    int myId = Integer.parseInt(args[0]);
+    String storageName = args[1];
+    int noOfShards = Integer.parseInt(args[2]);
+    int noOfTriples = Integer.parseInt(args[3]);
+    int noOfBits = Integer.parseInt(args[4]);
+    int noOfInputMasks = Integer.parseInt(args[5]);
+    int modBitLength = Integer.parseInt(args[6]);
+    List<Party> parties = new ArrayList<>();
+    for (int i = 7; i < args.length; i++) {
+      String[] address = args[i].split(":");
+      parties.add(new Party(parties.size() + 1, address[0], Integer.parseInt(address[1])));
+    }
+    int noOfParties = parties.size();
+
+    MascotSecurityParameters securityParameters = new MascotSecurityParameters();
+    FieldDefinition definition =
+        new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(modBitLength));
+    Drbg drbg = AesCtrDrbgFactory.fromSampledSeed();
+    List<CloseableNetwork> networks = Collections.synchronizedList(new ArrayList<>());
+    try {
+      CloseableNetwork otNetwork = createNetwork(myId, parties, 0);
+      networks.add(otNetwork);
+      Map<Integer, RotList> seedOts = new HashMap<>();
+      for (int otherId = 1; otherId <= noOfParties; otherId++) {
+        if (otherId != myId) {
+          Ot ot = new BigIntNaorPinkas(otherId, drbg, otNetwork);
+          RotList currentSeedOts = new RotList(drbg, securityParameters.getPrgSeedLength());
+          if (myId < otherId) {
+            currentSeedOts.send(ot);
+            currentSeedOts.receive(ot);
+          } else {
+            currentSeedOts.receive(ot);
+            currentSeedOts.send(ot);
+          }
+          seedOts.put(otherId, currentSeedOts);
+        }
+      }
+      FieldElement ssk = SpdzMascotDataSupplier
+          .createRandomSsk(definition, securityParameters.getPrgSeedLength());
+      SpdzMascotOfflineGenerator generator = new SpdzMascotOfflineGenerator(myId, noOfParties,
+          definition, ssk, seedOts, drbg, securityParameters, 1024);
+      generator.generate(storageName, noOfShards, shard -> {
+        CloseableNetwork network = createNetwork(myId, parties, shard + 1);
+        networks.add(network);
+        return network;
+      }, noOfTriples, noOfBits, noOfInputMasks);
+    } finally {
+      for (CloseableNetwork network : networks) {
+        ExceptionConverter.safe(() -> {
+          network.close();
+          return null;
+        }, "Could not close network");
+      }
+    }
+  }
+
+  private static CloseableNetwork createNetwork(int myId, List<Party> parties, int portOffset) {
+    Map<Integer, Party> shifted = new HashMap<>();
+    for (Party party : parties) {
+      shifted.put(party.getPartyId(),
+          new Party(party.getPartyId(), party.getHostname(), party.getPort() + portOffset));
+    }
+    return new SocketNetwork(new NetworkConfigurationImpl(myId, shifted));
+  }
+}
@@ -0,0 +1,470 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.logging.PerformanceLogger;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.preprocessing.MascotFormatConverter;
+import dk.alexandra.fresco.tools.mascot.Mascot;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePoolImpl;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.field.InputMask;
+import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A data supplier based on the Mascot protocol which generates the preprocessed material ahead of
+ * demand in a background thread using a dedicated network.
+ *
+ * <p>
+ * The supplier keeps a buffer of triples, random bits, random elements and input masks towards
+ * each party. Whenever a buffer drops below the low watermark it is refilled in batches until it
+ * holds at least the high watermark number of elements. As the Mascot protocol is interactive, the
+ * parties must generate the same kind of material at the same time. Before each batch the
+ * background threads therefore exchange the state of their buffers and deterministically agree on
+ * what to generate next.
+ * </p>
+ *
+ * <p>
+ * Time spent by the online phase waiting for a buffer to be refilled is recorded and available
+ * through {@link #getLoggedValues()}. The supplier must be closed after use to stop the background
+ * thread. Closing blocks until all other parties have closed their supplier as well or stopped
+ * generating material.
+ * </p>
+ */
+public class SpdzMascotPrefetchingDataSupplier implements SpdzDataSupplier, PerformanceLogger,
+    Closeable {
+
+  public static final String PREPROCESSING_STALLS =
+      "Number of times the online phase waited for preprocessed data";
+  public static final String PREPROCESSING_STALL_TIME =
+      "Time in ms the online phase waited for preprocessed data";
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(SpdzMascotPrefetchingDataSupplier.class);
+  // Buffer states exchanged between the parties, in increasing order of urgency
+  private static final byte FULL = 0;
+  private static final byte BELOW_HIGH = 1;
+  private static final byte BELOW_LOW = 2;
+  private static final byte STARVED = 3;
+
+  private final int myId;
+  private final int instanceId;
+  private final int numberOfPlayers;
+  private final Supplier<Network> tripleNetwork;
+  private final FieldDefinition fieldDefinition;
+  private final Function<Integer, SpdzSInt[]> preprocessedValues;
+  private final FieldElement ssk;
+  private final int prgSeedLength;
+  private final int modBitLength;
+  private final int batchSize;
+  private final int lowWatermark;
+  private final int highWatermark;
+  private final Drbg drbg;
+  private final Map<Integer, RotList> seedOts;
+
+  private final ReentrantLock lock;
+  private final Condition stateChanged;
+  private final List<Buffer<?>> buffers;
+  private final Buffer<MultiplicationTriple> triples;
+  private final Buffer<AuthenticatedElement> randomBits;
+  private final Buffer<AuthenticatedElement> randomElements;
+  private final Map<Integer, Buffer<InputMask>> masks;
+  private Thread producer;
+  private boolean closed;
+  private boolean stopped;
+  private RuntimeException failure;
+
+  /**
+   * Creates {@link SpdzMascotPrefetchingDataSupplier}. The background generation is started by
+   * {@link #start()} or when the first element is requested.
+   *
+   * @param myId this party's id
+   * @param numberOfPlayers number of players
+   * @param instanceId identifier used to distinguish parallel instances of Mascot
+   * @param tripleNetwork network supplier for network to be used exclusively by Mascot instance
+   * @param fieldDefinition field definition
+   * @param modBitLength bit length of modulus
+   * @param preprocessedValues callback to generate exponentiation pipes
+   * @param prgSeedLength bit length of prg
+   * @param batchSize batch size in which Mascot will generate pre-processed material
+   * @param lowWatermark number of elements below which a buffer is refilled
+   * @param highWatermark number of elements up to which a buffer is refilled
+   * @param ssk mac key share
+   * @param seedOts pre-computed base OTs
+   * @param drbg source of randomness
+   */
+  public SpdzMascotPrefetchingDataSupplier(int myId, int numberOfPlayers, int instanceId,
+      Supplier<Network> tripleNetwork, FieldDefinition fieldDefinition, int modBitLength,
+      Function<Integer, SpdzSInt[]> preprocessedValues, int prgSeedLength, int batchSize,
+      int lowWatermark, int highWatermark, FieldElement ssk, Map<Integer, RotList> seedOts,
+      Drbg drbg) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be positive, was " + batchSize);
+    }
+    if (lowWatermark < 0 || lowWatermark > highWatermark || highWatermark <= 0) {
+      throw new IllegalArgumentException("Watermarks must satisfy 0 <= low <= high and 0 < high,"
+          + " was low=" + lowWatermark + " and high=" + highWatermark);
+    }
+    this.myId = myId;
+    this.numberOfPlayers = numberOfPlayers;
+    this.instanceId = instanceId;
+    this.tripleNetwork = tripleNetwork;
+    this.fieldDefinition = fieldDefinition;
+    this.preprocessedValues = preprocessedValues;
+    this.prgSeedLength = prgSeedLength;
+    this.modBitLength = modBitLength;
+    this.batchSize = batchSize;
+    this.lowWatermark = lowWatermark;
+    this.highWatermark = highWatermark;
+    this.ssk = ssk;
+    this.seedOts = seedOts;
+    this.drbg = drbg;
+    this.lock = new ReentrantLock();
+    this.stateChanged = lock.newCondition();
+    this.buffers = new ArrayList<>();
+    this.triples = addBuffer("triples", Mascot::getTriples);
+    this.randomBits = addBuffer("bits", Mascot::getRandomBits);
+    this.randomElements = addBuffer("random_elements", Mascot::getRandomElements);
+    this.masks = new HashMap<>();
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      int towardsPlayerId = partyId;
+      masks.put(partyId, addBuffer("input_masks_" + partyId,
+          (mascot, amount) -> mascot.getInputMasks(towardsPlayerId, amount)));
+    }
+  }
+
+  private <T> Buffer<T> addBuffer(String name, BiFunction<Mascot, Integer, List<T>> generator) {
+    Buffer<T> buffer = new Buffer<>(name, generator);
+    buffers.add(buffer);
+    return buffer;
+  }
+
+  /**
+   * Starts generating preprocessed material in the background, if not already started.
+   */
+  public void start() {
+    lock.lock();
+    try {
+      if (producer == null) {
+        producer = new Thread(this::produce, "SpdzPrefetch-" + myId + "-" + instanceId);
+        producer.setDaemon(true);
+        producer.start();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public SpdzTriple getNextTriple() {
+    return MascotFormatConverter.toSpdzTriple(take(triples, 1).get(0));
+  }
+
+  @Override
+  public List<SpdzTriple> getNextTriples(int amount) {
+    return take(triples, amount).stream().map(MascotFormatConverter::toSpdzTriple)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public SpdzSInt getNextRandomFieldElement() {
+    return MascotFormatConverter.toSpdzSInt(take(randomElements, 1).get(0));
+  }
+
+  @Override
+  public SpdzSInt[] getNextExpPipe() {
+    logger.trace("Getting another exp pipe");
+    SpdzSInt[] pipe = preprocessedValues.apply(modBitLength);
+    logger.trace("Got another exp pipe");
+    return pipe;
+  }
+
+  @Override
+  public SpdzInputMask getNextInputMask(int towardsPlayerId) {
+    return MascotFormatConverter.toSpdzInputMask(take(masks.get(towardsPlayerId), 1).get(0));
+  }
+
+  @Override
+  public SpdzSInt getNextBit() {
+    return MascotFormatConverter.toSpdzSInt(take(randomBits, 1).get(0));
+  }
+
+  @Override
+  public FieldDefinition getFieldDefinition() {
+    return fieldDefinition;
+  }
+
+  @Override
+  public FieldElement getSecretSharedKey() {
+    return ssk;
+  }
+
+  @Override
+  public void reset() {
+    lock.lock();
+    try {
+      for (Buffer<?> buffer : buffers) {
+        buffer.stalls = 0;
+        buffer.stallNanos = 0;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Map<String, Long> getLoggedValues() {
+    Map<String, Long> values = new HashMap<>();
+    lock.lock();
+    try {
+      for (Buffer<?> buffer : buffers) {
+        values.put(PREPROCESSING_STALLS + "_" + buffer.name, buffer.stalls);
+        values.put(PREPROCESSING_STALL_TIME + "_" + buffer.name,
+            TimeUnit.NANOSECONDS.toMillis(buffer.stallNanos));
+      }
+    } finally {
+      lock.unlock();
+    }
+    return values;
+  }
+
+  /**
+   * Stops the background generation. Blocks until the other parties have agreed to stop.
+   */
+  @Override
+  public void close() {
+    Thread thread;
+    lock.lock();
+    try {
+      closed = true;
+      stateChanged.signalAll();
+      thread = producer;
+    } finally {
+      lock.unlock();
+    }
+    if (thread != null) {
+      ExceptionConverter.safe(() -> {
+        thread.join();
+        return null;
+      }, "Interrupted while waiting for preprocessing to stop");
+    }
+  }
+
+  /**
+   * Takes a number of elements from a buffer, waiting for the background thread to produce more
+   * if needed.
+   */
+  private <T> List<T> take(Buffer<T> buffer, int amount) {
+    start();
+    List<T> result = new ArrayList<>(amount);
+    lock.lock();
+    try {
+      while (!buffer.elements.isEmpty() && result.size() < amount) {
+        result.add(buffer.elements.pop());
+      }
+      if (result.size() < amount) {
+        long stallStart = System.nanoTime();
+        buffer.waiting++;
+        try {
+          stateChanged.signalAll();
+          while (result.size() < amount) {
+            if (buffer.elements.isEmpty()) {
+              checkRunning();
+              stateChanged.awaitUninterruptibly();
+            } else {
+              result.add(buffer.elements.pop());
+            }
+          }
+        } finally {
+          buffer.waiting--;
+        }
+        long stallTime = System.nanoTime() - stallStart;
+        buffer.stalls++;
+        buffer.stallNanos += stallTime;
+        logger.debug("Waited {} ms for {}", TimeUnit.NANOSECONDS.toMillis(stallTime), buffer.name);
+      }
+      if (buffer.elements.size() < lowWatermark) {
+        stateChanged.signalAll();
+      }
+    } finally {
+      lock.unlock();
+    }
+    return result;
+  }
+
+  private void checkRunning() {
+    if (failure != null) {
+      throw new IllegalStateException("Generating preprocessed material failed", failure);
+    }
+    if (closed || stopped) {
+      throw new IllegalStateException("Generation of preprocessed material has been stopped");
+    }
+  }
+
+  /**
+   * The main loop of the background thread.
+   */
+  private void produce() {
+    try {
+      Network network = tripleNetwork.get();
+      int numCandidatesPerTriple = 3;
+      Mascot mascot = new Mascot(
+          new MascotResourcePoolImpl(myId, numberOfPlayers, instanceId, drbg, seedOts,
+              new MascotSecurityParameters(modBitLength, prgSeedLength,
+                  numCandidatesPerTriple), fieldDefinition), network, ssk);
+      // Agreed upon by all parties, so the same for all parties after each exchange
+      boolean[] refilling = new boolean[buffers.size()];
+      while (true) {
+        byte[] status = awaitStatus(anyRefilling(refilling));
+        network.sendToAll(status);
+        List<byte[]> statuses = network.receiveFromAll();
+        if (statuses.stream().anyMatch(s -> s[buffers.size()] != 0)) {
+          logger.debug("Stopping generation of preprocessed material");
+          return;
+        }
+        int next = -1;
+        int priority = FULL;
+        for (int i = 0; i < buffers.size(); i++) {
+          int max = FULL;
+          for (byte[] partyStatus : statuses) {
+            max = Math.max(max, partyStatus[i]);
+          }
+          if (max >= BELOW_LOW) {
+            refilling[i] = true;
+          } else if (max == FULL) {
+            refilling[i] = false;
+          }
+          if (refilling[i] && max > priority) {
+            next = i;
+            priority = max;
+          }
+        }
+        if (next >= 0) {
+          buffers.get(next).refill(mascot);
+        }
+      }
+    } catch (RuntimeException e) {
+      logger.error("Generating preprocessed material failed", e);
+      lock.lock();
+      try {
+        failure = e;
+      } finally {
+        lock.unlock();
+      }
+    } finally {
+      lock.lock();
+      try {
+        stopped = true;
+        stateChanged.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private static boolean anyRefilling(boolean[] refilling) {
+    for (boolean value : refilling) {
+      if (value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Waits until a buffer needs to be refilled, unless busy, and returns the state of the buffers
+   * followed by a flag telling if this supplier has been closed.
+   */
+  private byte[] awaitStatus(boolean busy) {
+    lock.lock();
+    try {
+      while (!closed && !busy && !needsRefill()) {
+        stateChanged.awaitUninterruptibly();
+      }
+      byte[] status = new byte[buffers.size() + 1];
+      for (int i = 0; i < buffers.size(); i++) {
+        status[i] = buffers.get(i).status();
+      }
+      status[buffers.size()] = (byte) (closed ? 1 : 0);
+      return status;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean needsRefill() {
+    for (Buffer<?> buffer : buffers) {
+      if (buffer.status() >= BELOW_LOW) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A buffer of a single kind of preprocessed material. Guarded by the lock of the supplier, except
+   * for the generator which is only used by the background thread.
+   */
+  private final class Buffer<T> {
+
+    private final String name;
+    private final BiFunction<Mascot, Integer, List<T>> generator;
+    private final ArrayDeque<T> elements;
+    private int waiting;
+    private long stalls;
+    private long stallNanos;
+
+    private Buffer(String name, BiFunction<Mascot, Integer, List<T>> generator) {
+      this.name = name;
+      this.generator = generator;
+      this.elements = new ArrayDeque<>();
+    }
+
+    private byte status() {
+      if (waiting > 0) {
+        return STARVED;
+      } else if (elements.size() < lowWatermark) {
+        return BELOW_LOW;
+      } else if (elements.size() < highWatermark) {
+        return BELOW_HIGH;
+      } else {
+        return FULL;
+      }
+    }
+
+    private void refill(Mascot mascot) {
+      logger.trace("Getting another {} batch", name);
+      List<T> batch = generator.apply(mascot, batchSize);
+      logger.trace("Got another {} batch", name);
+      lock.lock();
+      try {
+        elements.addAll(batch);
+        stateChanged.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.sce.resources.storage.FilebasedStreamedStorageImpl;
+import dk.alexandra.fresco.framework.sce.resources.storage.InMemoryStorage;
+import dk.alexandra.fresco.framework.sce.resources.storage.StreamedStorage;
+import dk.alexandra.fresco.framework.sce.resources.storage.exceptions.NoMoreElementsException;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Converts preprocessed material of a single party from the streamed format read by {@link
+ * SpdzStorageDataSupplier} to the binary format read by {@link SpdzMappedDataSupplier}.
+ */
+public final class SpdzStorageConverter {
+
+  private static final Logger logger = LoggerFactory.getLogger(SpdzStorageConverter.class);
+
+  private SpdzStorageConverter() {
+  }
+
+  /**
+   * Converts the preprocessed material with a given storage name. Streams which are not present
+   * in the storage are skipped.
+   *
+   * @param storage the storage to read from
+   * @param storageName the storage name as given to {@link SpdzStorageDataSupplier}
+   * @param outputName the storage name to give {@link SpdzMappedDataSupplier}
+   * @param noOfParties the number of parties
+   */
+  public static void convert(StreamedStorage storage, String storageName, String outputName,
+      int noOfParties) {
+    BigInteger modulus;
+    FieldElement ssk;
+    try {
+      modulus = storage.getNext(storageName + SpdzStorageDataSupplier.MODULUS_KEY);
+      ssk = storage.getNext(storageName + SpdzStorageDataSupplier.SSK_KEY);
+    } catch (NoMoreElementsException e) {
+      throw new IllegalArgumentException(
+          "Modulus and SSK must be present in the storage " + storageName, e);
+    }
+    FieldDefinition definition = new BigIntegerFieldDefinition(modulus);
+    try (SpdzBinaryStorageWriter writer = new SpdzBinaryStorageWriter(
+        outputName + SpdzStorageDataSupplier.GLOBAL_STORAGE, definition, 1)) {
+      writer.write(Collections.singletonList(ssk));
+    }
+    convertStream(storage, storageName, outputName, SpdzStorageDataSupplier.TRIPLE_STORAGE,
+        definition, (SpdzTriple t) -> 6, SpdzBinaryStorageWriter::write);
+    convertStream(storage, storageName, outputName, SpdzStorageDataSupplier.BIT_STORAGE,
+        definition, (SpdzSInt b) -> 2, SpdzBinaryStorageWriter::write);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      convertStream(storage, storageName, outputName,
+          SpdzStorageDataSupplier.INPUT_STORAGE + partyId, definition,
+          (SpdzInputMask m) -> m.getRealValue() == null ? 2 : 3, SpdzBinaryStorageWriter::write);
+    }
+    convertStream(storage, storageName, outputName, SpdzStorageDataSupplier.EXP_PIPE_STORAGE,
+        definition, (SpdzSInt[] p) -> 2 * p.length, SpdzBinaryStorageWriter::write);
+  }
+
+  private static <T extends Serializable> void convertStream(StreamedStorage storage,
+      String storageName, String outputName, String suffix, FieldDefinition definition,
+      ToIntFunction<T> valuesPerRecord, BiConsumer<SpdzBinaryStorageWriter, T> write) {
+    SpdzBinaryStorageWriter writer = null;
+    long count = 0;
+    try {
+      while (true) {
+        T element = storage.getNext(storageName + suffix);
+        if (writer == null) {
+          writer = new SpdzBinaryStorageWriter(outputName + suffix, definition,
+              valuesPerRecord.applyAsInt(element));
+        }
+        write.accept(writer, element);
+        count++;
+      }
+    } catch (NoMoreElementsException e) {
+      // The end of the stream has been reached
+    } finally {
+      if (writer != null) {
+        writer.close();
+      }
+    }
+    logger.info("Converted " + count + " elements of " + storageName + suffix);
+  }
+
+  /**
+   * Converts files stored by {@link FilebasedStreamedStorageImpl}. Takes as arguments the storage
+   * name of the existing files, the storage name of the converted files and the number of
+   * parties.
+   */
+  public static void main(String[] args) {
+    if (args.length != 3) {
+      System.err.println(
+          "Usage: SpdzStorageConverter <storage name> <output storage name> <number of parties>");
+      System.exit(1);
+    }
+    FilebasedStreamedStorageImpl storage = new FilebasedStreamedStorageImpl(new InMemoryStorage());
+    try {
+      convert(storage, args[0], args[1], Integer.parseInt(args[2]));
+    } finally {
+      storage.shutdown();
+    }
+  }
+}
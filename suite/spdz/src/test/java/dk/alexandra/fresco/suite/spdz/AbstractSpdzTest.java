@@ -8,6 +8,7 @@ import dk.alexandra.fresco.framework.ProtocolEvaluator;
 import dk.alexandra.fresco.framework.TestThreadRunner;
 import dk.alexandra.fresco.framework.builder.numeric.DefaultPreprocessedValues;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
 import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
@@ -115,7 +116,8 @@ public abstract class AbstractSpdzTest {
       PerformanceLoggerCountingAggregate aggregate = new PerformanceLoggerCountingAggregate();
 
       ProtocolSuiteNumeric<SpdzResourcePool> protocolSuite = createProtocolSuite(maxBitLength);
-      BatchEvaluationStrategy<SpdzResourcePool> batchEvalStrat = evalStrategy.getStrategy();
+      BatchEvaluationStrategy<SpdzResourcePool> batchEvalStrat =
+          createBatchEvaluationStrategy(evalStrategy);
       if (logPerformance) {
         protocolSuite = new NumericSuiteLogging<>(protocolSuite);
         aggregate.add((PerformanceLogger) protocolSuite);
@@ -162,6 +164,15 @@ public abstract class AbstractSpdzTest {
     return new SpdzProtocolSuite(maxBitLength);
   }
 
+  protected FieldDefinition createFieldDefinition(int modBitLength) {
+    return MersennePrimeFieldDefinition.find(modBitLength);
+  }
+
+  protected BatchEvaluationStrategy<SpdzResourcePool> createBatchEvaluationStrategy(
+      EvaluationStrategy evalStrategy) {
+    return evalStrategy.getStrategy();
+  }
+
   protected void runTest(
       TestThreadRunner.TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> f,
       EvaluationStrategy evalStrategy, PreprocessingStrategy preProStrat, int noOfParties,
@@ -232,7 +243,7 @@ public abstract class AbstractSpdzTest {
       NetManager tripleGenerator,
       NetManager expPipeGenerator) {
     SpdzDataSupplier supplier;
-    MersennePrimeFieldDefinition definition = MersennePrimeFieldDefinition.find(modBitLength);
+    FieldDefinition definition = createFieldDefinition(modBitLength);
     if (preProStrat == DUMMY) {
       supplier = new SpdzDummyDataSupplier(myId, numberOfParties,
           definition,
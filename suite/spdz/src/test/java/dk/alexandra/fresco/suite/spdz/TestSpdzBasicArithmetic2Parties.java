@@ -100,6 +100,17 @@ public class TestSpdzBasicArithmetic2Parties extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 2, 512, 150, 16);
   }
 
+  @Test
+  public void test_Mult_Vector() {
+    runTest(new BasicArithmeticTests.TestMultVector<>(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void test_Mult_Vector_Mascot() {
+    runTest(new BasicArithmeticTests.TestMultVector<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.MASCOT, 2, 16, 16, 16);
+  }
+
   @Test
   public void test_Input_SequentialBatched_Mascot() {
     runTest(new BasicArithmeticTests.TestInput<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
@@ -41,6 +41,12 @@ public class TestSpdzBasicArithmetic3Parties extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 3);
   }
 
+  @Test
+  public void test_Mult_Vector() {
+    runTest(new BasicArithmeticTests.TestMultVector<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
   @Test
   public void test_Alternating() {
     runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(),
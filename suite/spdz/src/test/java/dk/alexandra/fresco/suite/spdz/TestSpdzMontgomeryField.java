@@ -0,0 +1,39 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MontgomeryFieldDefinition;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.lib.common.math.integer.division.DivisionTests.TestDivision;
+import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import org.junit.Test;
+
+/**
+ * Tests SPDZ with a {@link MontgomeryFieldDefinition}, such that the multiplication protocols and
+ * the mac check compute their sums with the allocation free accumulator of the field.
+ */
+public class TestSpdzMontgomeryField extends AbstractSpdzTest {
+
+  @Test
+  public void testLotsOfMults() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testMultVectorThreeParties() {
+    runTest(new BasicArithmeticTests.TestMultVector<>(), PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void testDivision() {
+    runTest(new TestDivision<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.DUMMY, 2, 512, 150, 16);
+  }
+
+  @Override
+  protected FieldDefinition createFieldDefinition(int modBitLength) {
+    return new MontgomeryFieldDefinition(
+        MersennePrimeFieldDefinition.find(modBitLength).getModulus());
+  }
+}
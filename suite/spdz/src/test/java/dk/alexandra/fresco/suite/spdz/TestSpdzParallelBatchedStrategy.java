@@ -0,0 +1,51 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.ParallelBatchedStrategy;
+import dk.alexandra.fresco.lib.common.math.integer.division.DivisionTests.TestDivision;
+import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+/**
+ * Tests SPDZ with the {@link ParallelBatchedStrategy}. The batches of multiplications are evaluated
+ * concurrently, and the mac check at the end only succeeds if all parties use the triples and
+ * record the opened values in the same order. Each party gets a pool of its own with several
+ * threads, so the chunks are not evaluated in the same order by all parties even on a single core.
+ */
+public class TestSpdzParallelBatchedStrategy extends AbstractSpdzTest {
+
+  private static final int PARALLELISM = 4;
+
+  @Test
+  public void testLotsOfMults() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), EvaluationStrategy.PARALLEL_BATCHED,
+        PreprocessingStrategy.DUMMY, 2, 128, 64, 16);
+  }
+
+  @Test
+  public void testLotsOfMultsThreeParties() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), EvaluationStrategy.PARALLEL_BATCHED,
+        PreprocessingStrategy.DUMMY, 3, 128, 64, 16);
+  }
+
+  @Test
+  public void testAlternatingMultAdd() {
+    runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(),
+        EvaluationStrategy.PARALLEL_BATCHED, PreprocessingStrategy.DUMMY, 2, 128, 64, 16);
+  }
+
+  @Test
+  public void testDivision() {
+    runTest(new TestDivision<>(), EvaluationStrategy.PARALLEL_BATCHED,
+        PreprocessingStrategy.DUMMY, 2, 512, 150, 16);
+  }
+
+  @Override
+  protected BatchEvaluationStrategy<SpdzResourcePool> createBatchEvaluationStrategy(
+      EvaluationStrategy evalStrategy) {
+    return new ParallelBatchedStrategy<>(new ForkJoinPool(PARALLELISM));
+  }
+}
@@ -0,0 +1,96 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
+import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestSpdzParallelMacCheck extends AbstractSpdzTest {
+
+  private static final int CHUNK_SIZE = 7;
+
+  @Test
+  public void testMultVector() {
+    runTest(new BasicArithmeticTests.TestMultVector<>(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testMultVectorThree() {
+    runTest(new BasicArithmeticTests.TestMultVector<>(), PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void testModifyShare() {
+    runTest(new TestModifyShare<>(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Override
+  protected SpdzProtocolSuite createProtocolSuite(int maxBitLength) {
+    return new ParallelMacCheckSpdzSuite(maxBitLength);
+  }
+
+  private class ParallelMacCheckSpdzSuite extends SpdzProtocolSuite {
+
+    ParallelMacCheckSpdzSuite(int maxBitLength) {
+      super(maxBitLength);
+    }
+
+    @Override
+    public RoundSynchronization<SpdzResourcePool> createRoundSynchronization() {
+      return new SpdzRoundSynchronization(this, 1000000, 128, CHUNK_SIZE);
+    }
+  }
+
+  private static class TestModifyShare<ResourcePoolT extends SpdzResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          Application<List<DRes<BigInteger>>, ProtocolBuilderNumeric> app = producer -> {
+            List<DRes<SInt>> inputs = new ArrayList<>();
+            for (int i = 0; i < 5 * CHUNK_SIZE; i++) {
+              inputs.add(producer.numeric().input(BigInteger.valueOf(i), 1));
+            }
+            return producer.seq(seq -> {
+              List<DRes<BigInteger>> opened = new ArrayList<>();
+              for (int i = 0; i < inputs.size(); i++) {
+                SpdzSInt value = (SpdzSInt) inputs.get(i).out();
+                if (i == 3 * CHUNK_SIZE + 1 && seq.getBasicNumericContext().getMyId() == 2) {
+                  value = value.multiply(
+                      seq.getBasicNumericContext().getFieldDefinition().createElement(2));
+                }
+                SpdzSInt finalValue = value;
+                opened.add(seq.numeric().open(() -> finalValue));
+              }
+              return () -> opened;
+            });
+          };
+          try {
+            runApplication(app);
+            Assert.fail("Modified share was not detected");
+          } catch (Exception e) {
+            assertThat(e.getCause(), IsInstanceOf.instanceOf(MaliciousException.class));
+          }
+        }
+      };
+    }
+  }
+}
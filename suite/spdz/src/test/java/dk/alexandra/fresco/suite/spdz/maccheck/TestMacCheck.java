@@ -18,6 +18,7 @@ import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
 import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
 import dk.alexandra.fresco.framework.util.AesCtrDrbg;
 import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
 import dk.alexandra.fresco.lib.common.math.integer.division.DivisionTests.TestDivision;
 import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
 import dk.alexandra.fresco.suite.spdz.SpdzProtocolSuite;
@@ -25,6 +26,7 @@ import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzAccumulatingOpenedValueStore;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzOpenedValueStoreImpl;
@@ -47,6 +49,7 @@ public class TestMacCheck {
   public void testMacCorrupt() {
     try {
       runTest(new TestDivision<>(), EvaluationStrategy.SEQUENTIAL_BATCHED, 2, true);
+      Assert.fail("Expected the MAC check to fail");
     } catch (RuntimeException e) {
       if (e.getCause().getCause() == null
           || !(e.getCause().getCause() instanceof MaliciousException)) {
@@ -67,9 +70,33 @@ public class TestMacCheck {
     }
   }
 
+  @Test
+  public void testAccumulated() {
+    runTest(new TestDivision<>(), EvaluationStrategy.SEQUENTIAL_BATCHED, 2, false, true);
+  }
+
+  @Test
+  public void testAccumulatedMacCorrupt() {
+    try {
+      runTest(new TestDivision<>(), EvaluationStrategy.SEQUENTIAL_BATCHED, 2, true, true);
+      Assert.fail("Expected the MAC check to fail");
+    } catch (RuntimeException e) {
+      if (e.getCause().getCause() == null
+          || !(e.getCause().getCause() instanceof MaliciousException)) {
+        Assert.fail();
+      }
+    }
+  }
+
   protected void runTest(
       TestThreadRunner.TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> f,
       EvaluationStrategy evalStrategy, int noOfParties, boolean corruptMac) {
+    runTest(f, evalStrategy, noOfParties, corruptMac, false);
+  }
+
+  protected void runTest(
+      TestThreadRunner.TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> f,
+      EvaluationStrategy evalStrategy, int noOfParties, boolean corruptMac, boolean accumulate) {
     List<Integer> ports = new ArrayList<>(noOfParties);
     for (int i = 1; i <= noOfParties; i++) {
       ports.add(9000 + i * (noOfParties - 1));
@@ -91,7 +118,7 @@ public class TestMacCheck {
 
       TestThreadRunner.TestThreadConfiguration<SpdzResourcePool, ProtocolBuilderNumeric> ttc =
           new TestThreadRunner.TestThreadConfiguration<>(sce, () -> createResourcePool(playerId,
-              noOfParties, corruptMac),
+              noOfParties, corruptMac, accumulate),
               () -> new SocketNetwork(netConf.get(playerId)));
       conf.put(playerId, ttc);
     }
@@ -99,18 +126,22 @@ public class TestMacCheck {
   }
 
   private SpdzResourcePool createResourcePool(int myId, int size,
-      boolean corruptMac) {
+      boolean corruptMac, boolean accumulate) {
     BigInteger modulus = ModulusFinder.findSuitableModulus(512);
+    // a key which is zero modulo the field would make every mac zero and hide any corruption
+    BigInteger secretSharedKey = new BigInteger(512, new Random(0)).mod(modulus);
     SpdzDataSupplier supplier;
     if (myId == 1 && corruptMac) {
       supplier = new DummyMaliciousDataSupplier(myId, size,
-          new BigIntegerFieldDefinition(modulus.toString()), modulus);
+          new BigIntegerFieldDefinition(modulus.toString()), secretSharedKey);
     } else {
       supplier = new SpdzDummyDataSupplier(myId, size,
-          new BigIntegerFieldDefinition(modulus), modulus);
+          new BigIntegerFieldDefinition(modulus), secretSharedKey);
     }
-    return new SpdzResourcePoolImpl(myId, size, new SpdzOpenedValueStoreImpl(), supplier,
-        AesCtrDrbg::new);
+    OpenedValueStore<SpdzSInt, FieldElement> store = accumulate
+        ? new SpdzAccumulatingOpenedValueStore(new BigIntegerFieldDefinition(modulus))
+        : new SpdzOpenedValueStoreImpl();
+    return new SpdzResourcePoolImpl(myId, size, store, supplier, AesCtrDrbg::new);
   }
 
   private class DummyMaliciousDataSupplier extends SpdzDummyDataSupplier {
@@ -127,8 +158,7 @@ public class TestMacCheck {
       maliciousCountdown--;
       SpdzTriple trip = super.getNextTriple();
       if (maliciousCountdown == 0) {
-        FieldElement share = trip.getA().getShare();
-        share.add(definition.createElement(1));
+        FieldElement share = trip.getA().getShare().add(definition.createElement(1));
         SpdzSInt newA = new SpdzSInt(share, trip.getA().getMac());
         trip = new SpdzTriple(newA, trip.getB(), trip.getC());
       }
@@ -0,0 +1,141 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.core.Is;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdzAccumulatingOpenedValueStore {
+
+  private static final int AMOUNT = 100;
+
+  private FieldDefinition definition;
+  private FieldElement alpha;
+  private List<FieldElement> values;
+  private List<SpdzSInt> sharesOne;
+  private List<SpdzSInt> sharesTwo;
+
+  @Before
+  public void setUp() {
+    definition = new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(128));
+    Random random = new Random(42);
+    alpha = randomElement(random);
+    values = new ArrayList<>();
+    sharesOne = new ArrayList<>();
+    sharesTwo = new ArrayList<>();
+    for (int i = 0; i < AMOUNT; i++) {
+      FieldElement value = randomElement(random);
+      FieldElement shareOne = randomElement(random);
+      FieldElement macOne = randomElement(random);
+      values.add(value);
+      sharesOne.add(new SpdzSInt(shareOne, macOne));
+      sharesTwo.add(new SpdzSInt(value.subtract(shareOne), alpha.multiply(value).subtract(macOne)));
+    }
+  }
+
+  @Test
+  public void testAccumulatedValuesAreConsistent() {
+    SpdzAccumulatingOpenedValueStore storeOne = new SpdzAccumulatingOpenedValueStore(definition);
+    SpdzAccumulatingOpenedValueStore storeTwo = new SpdzAccumulatingOpenedValueStore(definition);
+    push(storeOne, sharesOne, values);
+    push(storeTwo, sharesTwo, values);
+    Assert.assertTrue(check(storeOne.popValues(), storeTwo.popValues()));
+    // the next check only covers values pushed after the previous pop
+    push(storeOne, sharesOne.subList(0, 10), values.subList(0, 10));
+    push(storeTwo, sharesTwo.subList(0, 10), values.subList(0, 10));
+    Assert.assertTrue(check(storeOne.popValues(), storeTwo.popValues()));
+  }
+
+  @Test
+  public void testCorruptedValueIsDetected() {
+    SpdzAccumulatingOpenedValueStore storeOne = new SpdzAccumulatingOpenedValueStore(definition);
+    SpdzAccumulatingOpenedValueStore storeTwo = new SpdzAccumulatingOpenedValueStore(definition);
+    List<FieldElement> corrupted = new ArrayList<>(values);
+    corrupted.set(AMOUNT / 2, values.get(AMOUNT / 2).add(definition.createElement(1)));
+    push(storeOne, sharesOne, corrupted);
+    push(storeTwo, sharesTwo, corrupted);
+    Assert.assertFalse(check(storeOne.popValues(), storeTwo.popValues()));
+  }
+
+  @Test
+  public void testCancellingErrorsAreDetected() {
+    SpdzAccumulatingOpenedValueStore storeOne = new SpdzAccumulatingOpenedValueStore(definition);
+    SpdzAccumulatingOpenedValueStore storeTwo = new SpdzAccumulatingOpenedValueStore(definition);
+    List<FieldElement> corrupted = new ArrayList<>(values);
+    FieldElement error = definition.createElement(5);
+    corrupted.set(0, values.get(0).add(error));
+    corrupted.set(1, values.get(1).subtract(error));
+    push(storeOne, sharesOne, corrupted);
+    push(storeTwo, sharesTwo, corrupted);
+    Assert.assertFalse(check(storeOne.popValues(), storeTwo.popValues()));
+  }
+
+  @Test
+  public void testCounting() {
+    SpdzAccumulatingOpenedValueStore store = new SpdzAccumulatingOpenedValueStore(definition);
+    Assert.assertFalse(store.hasPendingValues());
+    store.pushOpenedValues(sharesOne.subList(0, 3), values.subList(0, 3));
+    store.pushOpenedValue(sharesOne.get(3), values.get(3));
+    Assert.assertTrue(store.hasPendingValues());
+    Assert.assertTrue(store.exceedsThreshold(3));
+    Assert.assertFalse(store.exceedsThreshold(4));
+    Pair<List<SpdzSInt>, List<FieldElement>> popped = store.popValues();
+    Assert.assertThat(popped.getFirst().size(), Is.is(1));
+    Assert.assertThat(popped.getSecond().size(), Is.is(1));
+    Assert.assertFalse(store.hasPendingValues());
+    popped = store.popValues();
+    Assert.assertTrue(popped.getFirst().isEmpty());
+    Assert.assertTrue(popped.getSecond().isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMismatchingSizes() {
+    new SpdzAccumulatingOpenedValueStore(definition)
+        .pushOpenedValues(sharesOne.subList(0, 2), Arrays.asList(values.get(0)));
+  }
+
+  /**
+   * Pushes values in batches of varying size and as single values.
+   */
+  private void push(SpdzAccumulatingOpenedValueStore store, List<SpdzSInt> shares,
+      List<FieldElement> opened) {
+    int i = 0;
+    int batch = 1;
+    while (i < opened.size()) {
+      int end = Math.min(opened.size(), i + batch);
+      if (batch == 1) {
+        store.pushOpenedValue(shares.get(i), opened.get(i));
+      } else {
+        store.pushOpenedValues(shares.subList(i, end), opened.subList(i, end));
+      }
+      i = end;
+      batch++;
+    }
+  }
+
+  /**
+   * Checks the popped values of both parties as the mac check would.
+   */
+  private boolean check(Pair<List<SpdzSInt>, List<FieldElement>> one,
+      Pair<List<SpdzSInt>, List<FieldElement>> two) {
+    FieldElement opened = one.getSecond().get(0);
+    Assert.assertThat(two.getSecond().get(0).toBigInteger(), Is.is(opened.toBigInteger()));
+    FieldElement macSum = one.getFirst().get(0).getMac().add(two.getFirst().get(0).getMac());
+    return macSum.subtract(alpha.multiply(opened)).toBigInteger().equals(BigInteger.ZERO);
+  }
+
+  private FieldElement randomElement(Random random) {
+    return definition.createElement(new BigInteger(127, random));
+  }
+}
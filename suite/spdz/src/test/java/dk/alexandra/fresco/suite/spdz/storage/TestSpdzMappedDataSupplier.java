@@ -0,0 +1,207 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MontgomeryFieldDefinition;
+import dk.alexandra.fresco.framework.sce.resources.storage.FilebasedStreamedStorageImpl;
+import dk.alexandra.fresco.framework.sce.resources.storage.InMemoryStorage;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.hamcrest.core.Is;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdzMappedDataSupplier {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final int AMOUNT = 20;
+
+  private Path folder;
+  private FieldDefinition definition;
+  private FieldElement ssk;
+  private List<SpdzTriple[]> triples;
+  private List<SpdzSInt[]> bits;
+  private List<List<SpdzInputMask[]>> masks;
+  private List<SpdzSInt[][]> expPipes;
+
+  @Before
+  public void setUp() throws IOException {
+    folder = Files.createTempDirectory("spdz");
+    definition = new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(128));
+    List<FieldElement> alphaShares = FakeTripGen.generateAlphaShares(NO_OF_PARTIES, definition);
+    FieldElement alpha = alphaShares.get(0).add(alphaShares.get(1));
+    ssk = alphaShares.get(0);
+    triples = FakeTripGen.generateTriples(AMOUNT, NO_OF_PARTIES, definition, alpha);
+    bits = FakeTripGen.generateBits(AMOUNT, NO_OF_PARTIES, definition, alpha);
+    masks = FakeTripGen.generateInputMasks(AMOUNT, NO_OF_PARTIES, definition, alpha);
+    expPipes = FakeTripGen.generateExpPipes(2, NO_OF_PARTIES, definition, alpha);
+
+    // Store the material of party 1 in the streamed format
+    FilebasedStreamedStorageImpl storage = new FilebasedStreamedStorageImpl(new InMemoryStorage());
+    String name = streamedName();
+    storage.putNext(name + SpdzStorageDataSupplier.MODULUS_KEY, definition.getModulus());
+    storage.putNext(name + SpdzStorageDataSupplier.SSK_KEY, ssk);
+    for (int i = 0; i < AMOUNT; i++) {
+      storage.putNext(name + SpdzStorageDataSupplier.TRIPLE_STORAGE, triples.get(i)[0]);
+      storage.putNext(name + SpdzStorageDataSupplier.BIT_STORAGE, bits.get(i)[0]);
+      for (int partyId = 1; partyId <= NO_OF_PARTIES; partyId++) {
+        storage.putNext(name + SpdzStorageDataSupplier.INPUT_STORAGE + partyId,
+            masks.get(partyId - 1).get(i)[0]);
+      }
+    }
+    for (SpdzSInt[][] pipe : expPipes) {
+      storage.putNext(name + SpdzStorageDataSupplier.EXP_PIPE_STORAGE, pipe[0]);
+    }
+    storage.shutdown();
+  }
+
+  @After
+  public void tearDown() {
+    File[] files = folder.toFile().listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    folder.toFile().delete();
+  }
+
+  private String streamedName() {
+    return folder.resolve("streamed_").toString();
+  }
+
+  private String binaryName() {
+    return folder.resolve("binary_").toString();
+  }
+
+  private SpdzMappedDataSupplier convert() {
+    FilebasedStreamedStorageImpl storage = new FilebasedStreamedStorageImpl(new InMemoryStorage());
+    SpdzStorageConverter.convert(storage, streamedName(), binaryName(), NO_OF_PARTIES);
+    storage.shutdown();
+    return new SpdzMappedDataSupplier(binaryName());
+  }
+
+  @Test
+  public void testConvertAndRead() {
+    SpdzMappedDataSupplier supplier = convert();
+    Assert.assertThat(supplier.getFieldDefinition().getModulus(), Is.is(definition.getModulus()));
+    assertEquals(ssk, supplier.getSecretSharedKey());
+    for (int i = 0; i < 5; i++) {
+      assertEquals(triples.get(i)[0], supplier.getNextTriple());
+    }
+    List<SpdzTriple> bulk = supplier.getNextTriples(AMOUNT - 5);
+    for (int i = 5; i < AMOUNT; i++) {
+      assertEquals(triples.get(i)[0], bulk.get(i - 5));
+    }
+    for (int i = 0; i < AMOUNT; i++) {
+      assertEquals(bits.get(i)[0], supplier.getNextBit());
+      for (int partyId = 1; partyId <= NO_OF_PARTIES; partyId++) {
+        SpdzInputMask expected = masks.get(partyId - 1).get(i)[0];
+        SpdzInputMask actual = supplier.getNextInputMask(partyId);
+        assertEquals(expected.getMask(), actual.getMask());
+        if (expected.getRealValue() == null) {
+          Assert.assertNull(actual.getRealValue());
+        } else {
+          assertEquals(expected.getRealValue(), actual.getRealValue());
+        }
+      }
+    }
+    for (SpdzSInt[][] pipe : expPipes) {
+      SpdzSInt[] actual = supplier.getNextExpPipe();
+      Assert.assertThat(actual.length, Is.is(pipe[0].length));
+      for (int i = 0; i < actual.length; i++) {
+        assertEquals(pipe[0][i], actual[i]);
+      }
+    }
+    supplier.close();
+  }
+
+  @Test
+  public void testOtherFieldDefinition() {
+    convert().close();
+    MontgomeryFieldDefinition montgomery = new MontgomeryFieldDefinition(definition.getModulus());
+    SpdzMappedDataSupplier supplier = new SpdzMappedDataSupplier(binaryName(), montgomery);
+    Assert.assertThat(supplier.getFieldDefinition(), Is.is(montgomery));
+    SpdzTriple triple = supplier.getNextTriple();
+    assertEquals(triples.get(0)[0], triple);
+    supplier.close();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongModulus() {
+    convert().close();
+    new SpdzMappedDataSupplier(binaryName(), new BigIntegerFieldDefinition(BigInteger.valueOf(7)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingStorage() {
+    new SpdzMappedDataSupplier(binaryName());
+  }
+
+  @Test
+  public void testNoMoreTriples() {
+    SpdzMappedDataSupplier supplier = convert();
+    supplier.getNextTriples(AMOUNT);
+    try {
+      supplier.getNextTriple();
+      Assert.fail("Expected no more triples");
+    } catch (IllegalArgumentException e) {
+      Assert.assertTrue(e.getMessage().contains("Triple no. " + AMOUNT));
+    } finally {
+      supplier.close();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTruncated() throws IOException {
+    convert().close();
+    String name = binaryName() + SpdzStorageDataSupplier.TRIPLE_STORAGE;
+    try (RandomAccessFile file = new RandomAccessFile(name, "rw")) {
+      file.setLength(file.length() - 1);
+    }
+    SpdzMappedDataSupplier supplier = new SpdzMappedDataSupplier(binaryName());
+    try {
+      supplier.getNextTriple();
+    } finally {
+      supplier.close();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongRecordLength() {
+    SpdzBinaryStorageWriter writer = new SpdzBinaryStorageWriter(
+        binaryName() + SpdzStorageDataSupplier.BIT_STORAGE, definition, 2);
+    try {
+      writer.write(triples.get(0)[0]);
+    } finally {
+      writer.close();
+    }
+  }
+
+  private static void assertEquals(SpdzTriple expected, SpdzTriple actual) {
+    assertEquals(expected.getA(), actual.getA());
+    assertEquals(expected.getB(), actual.getB());
+    assertEquals(expected.getC(), actual.getC());
+  }
+
+  private static void assertEquals(SpdzSInt expected, SpdzSInt actual) {
+    assertEquals(expected.getShare(), actual.getShare());
+    assertEquals(expected.getMac(), actual.getMac());
+  }
+
+  private static void assertEquals(FieldElement expected, FieldElement actual) {
+    Assert.assertThat(actual.toBigInteger(), Is.is(expected.toBigInteger()));
+  }
+}
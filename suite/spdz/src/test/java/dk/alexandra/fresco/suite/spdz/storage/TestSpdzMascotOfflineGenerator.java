@@ -0,0 +1,195 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.NetManager;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.hamcrest.core.Is;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdzMascotOfflineGenerator {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final int NO_OF_SHARDS = 3;
+  private static final int NO_OF_TRIPLES = 20;
+  private static final int NO_OF_BITS = 10;
+  private static final int NO_OF_MASKS = 5;
+
+  private ExecutorService executorService;
+  private FieldDefinition definition;
+  private MascotSecurityParameters securityParameters;
+  private Path folder;
+
+  @Before
+  public void setUp() throws IOException {
+    executorService = Executors.newCachedThreadPool();
+    definition = new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(64));
+    securityParameters = new MascotSecurityParameters();
+    folder = Files.createTempDirectory("spdz");
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+    File[] files = folder.toFile().listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    folder.toFile().delete();
+  }
+
+  @Test
+  public void testShardNames() {
+    Assert.assertThat(SpdzMascotOfflineGenerator.getShardNames("name_", 2),
+        Is.is(Arrays.asList("name_0_", "name_1_")));
+  }
+
+  @Test
+  public void testGenerate() throws Exception {
+    List<Integer> ports = Arrays.asList(12001, 12002);
+    NetManager otManager = new NetManager(ports);
+    List<NetManager> shardManagers = new ArrayList<>();
+    for (int shard = 0; shard < NO_OF_SHARDS; shard++) {
+      shardManagers.add(new NetManager(ports));
+    }
+    List<Future<FieldElement>> futures = new ArrayList<>();
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      int finalMyId = myId;
+      futures.add(executorService.submit(() -> {
+        Drbg drbg = AesCtrDrbgFactory.fromSampledSeed();
+        Map<Integer, RotList> seedOts =
+            setupSeedOts(finalMyId, drbg, otManager.createExtraNetwork(finalMyId));
+        FieldElement ssk = SpdzMascotDataSupplier
+            .createRandomSsk(definition, securityParameters.getPrgSeedLength());
+        new SpdzMascotOfflineGenerator(finalMyId, NO_OF_PARTIES, definition, ssk, seedOts, drbg,
+            securityParameters, 4).generate(storageName(finalMyId), NO_OF_SHARDS,
+                shard -> shardManagers.get(shard).createExtraNetwork(finalMyId), NO_OF_TRIPLES,
+                NO_OF_BITS, NO_OF_MASKS);
+        return ssk;
+      }));
+    }
+    BigInteger key = BigInteger.ZERO;
+    for (Future<FieldElement> future : futures) {
+      key = key.add(future.get().toBigInteger());
+    }
+    otManager.close();
+    shardManagers.forEach(NetManager::close);
+
+    List<SpdzMappedDataSupplier> suppliers = new ArrayList<>();
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      suppliers.add(new SpdzMappedDataSupplier(
+          SpdzMascotOfflineGenerator.getShardNames(storageName(myId), NO_OF_SHARDS), null));
+    }
+    List<List<SpdzTriple>> triples = new ArrayList<>();
+    for (SpdzMappedDataSupplier supplier : suppliers) {
+      List<SpdzTriple> partyTriples = new ArrayList<>(supplier.getNextTriples(5));
+      for (int i = 5; i < NO_OF_TRIPLES; i++) {
+        partyTriples.add(supplier.getNextTriple());
+      }
+      triples.add(partyTriples);
+    }
+    for (int i = 0; i < NO_OF_TRIPLES; i++) {
+      int index = i;
+      BigInteger a = open(triples, key,
+          t -> t.get(0).get(index).getA().add(t.get(1).get(index).getA()));
+      BigInteger b = open(triples, key,
+          t -> t.get(0).get(index).getB().add(t.get(1).get(index).getB()));
+      BigInteger c = open(triples, key,
+          t -> t.get(0).get(index).getC().add(t.get(1).get(index).getC()));
+      Assert.assertThat(c, Is.is(a.multiply(b).mod(definition.getModulus())));
+    }
+    List<SpdzSInt> bits = new ArrayList<>();
+    for (int i = 0; i < NO_OF_BITS; i++) {
+      for (SpdzMappedDataSupplier supplier : suppliers) {
+        bits.add(supplier.getNextBit());
+      }
+      BigInteger bit = open(bits, key, l -> l.get(0).add(l.get(1)));
+      Assert.assertTrue(bit.equals(BigInteger.ZERO) || bit.equals(BigInteger.ONE));
+      bits.clear();
+    }
+    for (int partyId = 1; partyId <= NO_OF_PARTIES; partyId++) {
+      for (int i = 0; i < NO_OF_MASKS; i++) {
+        List<SpdzInputMask> masks = new ArrayList<>();
+        for (SpdzMappedDataSupplier supplier : suppliers) {
+          masks.add(supplier.getNextInputMask(partyId));
+        }
+        BigInteger mask = open(masks, key, l -> l.get(0).getMask().add(l.get(1).getMask()));
+        Assert.assertThat(masks.get(partyId - 1).getRealValue().toBigInteger(), Is.is(mask));
+        Assert.assertNull(masks.get(2 - partyId).getRealValue());
+      }
+    }
+    for (SpdzMappedDataSupplier supplier : suppliers) {
+      try {
+        supplier.getNextTriple();
+        Assert.fail("Expected no more triples");
+      } catch (IllegalArgumentException e) {
+        Assert.assertTrue(e.getMessage().contains("Triple no. " + NO_OF_TRIPLES));
+      }
+      supplier.close();
+    }
+  }
+
+  /**
+   * Opens the sum of the shares of all parties and checks the mac.
+   */
+  private <T> BigInteger open(List<T> values, BigInteger key, Function<List<T>, SpdzSInt> sum) {
+    SpdzSInt value = sum.apply(values);
+    BigInteger modulus = definition.getModulus();
+    BigInteger share = value.getShare().toBigInteger().mod(modulus);
+    Assert.assertThat(value.getMac().toBigInteger(), Is.is(share.multiply(key).mod(modulus)));
+    return share;
+  }
+
+  private String storageName(int myId) {
+    return folder.resolve("party" + myId + "_").toString();
+  }
+
+  private Map<Integer, RotList> setupSeedOts(int myId, Drbg drbg, Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= NO_OF_PARTIES; otherId++) {
+      if (otherId != myId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, securityParameters.getPrgSeedLength());
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+}
@@ -0,0 +1,198 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.NetManager;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.hamcrest.core.Is;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdzMascotPrefetchingDataSupplier {
+
+  private static final int PRG_SEED_LENGTH = 256;
+  private static final int MOD_BIT_LENGTH = 64;
+  private static final int NO_OF_PARTIES = 2;
+
+  private ExecutorService executorService;
+  private FieldDefinition definition;
+
+  @Before
+  public void setUp() {
+    executorService = Executors.newCachedThreadPool();
+    definition = new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(MOD_BIT_LENGTH));
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalWatermarks() {
+    new SpdzMascotPrefetchingDataSupplier(1, NO_OF_PARTIES, 1, null, definition, MOD_BIT_LENGTH,
+        null, PRG_SEED_LENGTH, 8, 16, 8, null, null, null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalBatchSize() {
+    new SpdzMascotPrefetchingDataSupplier(1, NO_OF_PARTIES, 1, null, definition, MOD_BIT_LENGTH,
+        null, PRG_SEED_LENGTH, 0, 8, 16, null, null, null);
+  }
+
+  @Test
+  public void testMaterial() throws Exception {
+    List<Integer> ports = Arrays.asList(11001, 11002);
+    NetManager otManager = new NetManager(ports);
+    NetManager tripleManager = new NetManager(ports);
+    List<Future<PartyResult>> futures = new ArrayList<>();
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      int finalMyId = myId;
+      futures.add(executorService.submit(() -> runParty(finalMyId, otManager, tripleManager)));
+    }
+    List<PartyResult> results = new ArrayList<>();
+    for (Future<PartyResult> future : futures) {
+      results.add(future.get());
+    }
+    otManager.close();
+    tripleManager.close();
+
+    BigInteger key = BigInteger.ZERO;
+    for (PartyResult result : results) {
+      key = key.add(result.key.toBigInteger());
+    }
+    for (int i = 0; i < results.get(0).triples.size(); i++) {
+      int index = i;
+      BigInteger a = open(results, key, r -> r.triples.get(index).getA());
+      BigInteger b = open(results, key, r -> r.triples.get(index).getB());
+      BigInteger c = open(results, key, r -> r.triples.get(index).getC());
+      Assert.assertThat(c, Is.is(a.multiply(b).mod(definition.getModulus())));
+    }
+    for (int i = 0; i < results.get(0).bits.size(); i++) {
+      int index = i;
+      BigInteger bit = open(results, key, r -> r.bits.get(index));
+      Assert.assertTrue(bit.equals(BigInteger.ZERO) || bit.equals(BigInteger.ONE));
+    }
+    for (int i = 0; i < results.get(0).randomElements.size(); i++) {
+      int index = i;
+      open(results, key, r -> r.randomElements.get(index));
+    }
+    for (int partyId = 1; partyId <= NO_OF_PARTIES; partyId++) {
+      int towardsPartyId = partyId;
+      for (int i = 0; i < results.get(0).masks.get(partyId).size(); i++) {
+        int index = i;
+        BigInteger mask =
+            open(results, key, r -> r.masks.get(towardsPartyId).get(index).getMask());
+        SpdzInputMask inputterMask = results.get(partyId - 1).masks.get(partyId).get(i);
+        Assert.assertThat(inputterMask.getRealValue().toBigInteger(), Is.is(mask));
+      }
+    }
+    for (PartyResult result : results) {
+      Map<String, Long> loggedValues = result.loggedValues;
+      Assert.assertTrue(loggedValues
+          .containsKey(SpdzMascotPrefetchingDataSupplier.PREPROCESSING_STALLS + "_triples"));
+      Assert.assertTrue(loggedValues
+          .containsKey(SpdzMascotPrefetchingDataSupplier.PREPROCESSING_STALL_TIME + "_triples"));
+    }
+  }
+
+  private BigInteger open(List<PartyResult> results, BigInteger key,
+      Function<PartyResult, SpdzSInt> selector) {
+    BigInteger value = BigInteger.ZERO;
+    BigInteger mac = BigInteger.ZERO;
+    for (PartyResult result : results) {
+      SpdzSInt share = selector.apply(result);
+      value = value.add(share.getShare().toBigInteger());
+      mac = mac.add(share.getMac().toBigInteger());
+    }
+    BigInteger modulus = definition.getModulus();
+    value = value.mod(modulus);
+    Assert.assertThat(mac.mod(modulus), Is.is(value.multiply(key).mod(modulus)));
+    return value;
+  }
+
+  private PartyResult runParty(int myId, NetManager otManager, NetManager tripleManager) {
+    Drbg drbg = AesCtrDrbgFactory.fromSampledSeed();
+    Map<Integer, RotList> seedOts = setupSeedOts(myId, drbg, otManager.createExtraNetwork(myId));
+    FieldElement ssk = SpdzMascotDataSupplier.createRandomSsk(definition, PRG_SEED_LENGTH);
+    CloseableNetwork network = tripleManager.createExtraNetwork(myId);
+    SpdzMascotPrefetchingDataSupplier supplier = new SpdzMascotPrefetchingDataSupplier(myId,
+        NO_OF_PARTIES, 1, () -> network, definition, MOD_BIT_LENGTH, null, PRG_SEED_LENGTH, 8, 8,
+        24, ssk, seedOts, drbg);
+    supplier.start();
+    PartyResult result = new PartyResult(ssk);
+    for (int i = 0; i < 20; i++) {
+      result.triples.add(supplier.getNextTriple());
+    }
+    result.triples.addAll(supplier.getNextTriples(30));
+    for (int i = 0; i < 10; i++) {
+      result.bits.add(supplier.getNextBit());
+      result.randomElements.add(supplier.getNextRandomFieldElement());
+      for (int partyId = 1; partyId <= NO_OF_PARTIES; partyId++) {
+        result.masks.get(partyId).add(supplier.getNextInputMask(partyId));
+      }
+    }
+    supplier.close();
+    result.loggedValues = supplier.getLoggedValues();
+    return result;
+  }
+
+  private Map<Integer, RotList> setupSeedOts(int myId, Drbg drbg, Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= NO_OF_PARTIES; otherId++) {
+      if (otherId != myId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, PRG_SEED_LENGTH);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+
+  private static class PartyResult {
+
+    private final FieldElement key;
+    private final List<SpdzTriple> triples = new ArrayList<>();
+    private final List<SpdzSInt> bits = new ArrayList<>();
+    private final List<SpdzSInt> randomElements = new ArrayList<>();
+    private final Map<Integer, List<SpdzInputMask>> masks = new HashMap<>();
+    private Map<String, Long> loggedValues;
+
+    private PartyResult(FieldElement key) {
+      this.key = key;
+      for (int partyId = 1; partyId <= NO_OF_PARTIES; partyId++) {
+        masks.put(partyId, new ArrayList<>());
+      }
+    }
+  }
+}
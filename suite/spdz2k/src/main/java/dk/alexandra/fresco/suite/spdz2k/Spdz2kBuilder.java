@@ -7,18 +7,21 @@ import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
 import dk.alexandra.fresco.suite.spdz2k.protocols.computations.Spdz2kInputComputation;
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kAddKnownProtocol;
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kKnownSIntProtocol;
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kMultiplyProtocol;
+import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kMultiplyVectorProtocol128;
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kOutputSinglePartyProtocol;
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kOutputToAllProtocol;
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kRandomBitProtocol;
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kRandomElementProtocol;
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kSubtractFromKnownProtocol;
 import java.math.BigInteger;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -77,6 +80,14 @@ public class Spdz2kBuilder<PlainT extends CompUInt<?, ?, PlainT>> implements
         return builder.append(new Spdz2kMultiplyProtocol<>(a, b));
       }
 
+      @Override
+      public DRes<List<DRes<SInt>>> multVector(List<DRes<SInt>> a, List<DRes<SInt>> b) {
+        if (factory instanceof CompUInt128Factory) {
+          return builder.append(new Spdz2kMultiplyVectorProtocol128(a, b));
+        }
+        return Numeric.super.multVector(a, b);
+      }
+
       @Override
       public DRes<SInt> mult(BigInteger a, DRes<SInt> b) {
         return () -> toSpdz2kSInt(b).multiply(factory.createElement(a));
@@ -0,0 +1,17 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt64;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntConverter64;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt32;
+
+/**
+ * Protocol suite using {@link CompUInt64} as the underlying plain-value type. <p>Values are 32
+ * bits with 32 bits of mac slack, so each share fits in a single {@code long}.</p>
+ */
+public class Spdz2kProtocolSuiteK32 extends Spdz2kProtocolSuite<UInt32, UInt32, CompUInt64> {
+
+  public Spdz2kProtocolSuiteK32() {
+    super(new CompUIntConverter64());
+  }
+
+}
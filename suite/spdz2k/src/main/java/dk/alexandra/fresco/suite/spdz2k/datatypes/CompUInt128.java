@@ -51,6 +51,13 @@ public class CompUInt128 implements CompUInt<UInt64, UInt64, CompUInt128> {
     this(value.toByteArray(), true);
   }
 
+  /**
+   * Creates new {@link CompUInt128} from its 64 most significant and 64 least significant bits.
+   */
+  public CompUInt128(long high, long low) {
+    this(high, (int) (low >>> 32), (int) low);
+  }
+
   CompUInt128(long high, int mid, int low) {
     this.high = high;
     this.mid = mid;
@@ -158,6 +165,14 @@ public class CompUInt128 implements CompUInt<UInt64, UInt64, CompUInt128> {
     return getLeastSignificant();
   }
 
+  /**
+   * Returns the 64 most significant bits as a long. <p>The counterpart of {@link #toLong()}, which
+   * unlike {@link #getMostSignificant()} does not wrap the bits in a new {@link UInt64}.</p>
+   */
+  public long toLongHigh() {
+    return high;
+  }
+
   @Override
   public long toLong() {
     return (UInt.toUnLong(this.mid) << 32) + UInt.toUnLong(this.low);
@@ -3,7 +3,7 @@ package dk.alexandra.fresco.suite.spdz2k.datatypes;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
-import dk.alexandra.fresco.suite.spdz2k.util.UIntSerializer;
+import dk.alexandra.fresco.suite.spdz2k.util.CompUInt128Serializer;
 import java.math.BigInteger;
 import java.security.SecureRandom;
 
@@ -18,7 +18,7 @@ public class CompUInt128Factory implements CompUIntFactory<CompUInt128> {
 
   public CompUInt128Factory() {
     random = new SecureRandom();
-    serializer = new UIntSerializer<>(this);
+    serializer = new CompUInt128Serializer();
   }
 
   @Override
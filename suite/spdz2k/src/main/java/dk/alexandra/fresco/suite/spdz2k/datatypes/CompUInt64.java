@@ -0,0 +1,158 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.ByteAndBitConverter;
+import java.math.BigInteger;
+
+/**
+ * Unsigned 64-bit integer composed of a 32-bit value and 32 bits of mac slack. <p>Since the entire
+ * composite value fits in a single {@code long}, all arithmetic maps directly onto primitive
+ * operations, which wrap modulo <i>2<sup>64</sup></i> as required.</p>
+ */
+public class CompUInt64 implements CompUInt<UInt32, UInt32, CompUInt64> {
+
+  private final long value;
+
+  /**
+   * Creates new {@link CompUInt64}. <p>Do <b>not</b> pad bytes by default.</p>
+   *
+   * @param bytes bytes interpreted in big-endian order.
+   */
+  public CompUInt64(byte[] bytes) {
+    this(bytes, false);
+  }
+
+  /**
+   * Creates new {@link CompUInt64}.
+   *
+   * @param bytes bytes interpreted in big-endian order.
+   * @param requiresPadding indicates if the bytes need to be padded up to 8 bytes.
+   */
+  public CompUInt64(byte[] bytes, boolean requiresPadding) {
+    byte[] padded = requiresPadding ? CompUInt.pad(bytes, 64) : bytes;
+    if (padded.length == 4) {
+      // we are instantiating from the least significant bits only
+      this.value = Integer.toUnsignedLong(toInt(padded));
+    } else {
+      this.value = toLong(padded);
+    }
+  }
+
+  /**
+   * Creates new {@link CompUInt64} from {@link BigInteger}.
+   */
+  public CompUInt64(BigInteger value) {
+    this(value.toByteArray(), true);
+  }
+
+  /**
+   * Creates new {@link CompUInt64} from a long holding all 64 bits.
+   */
+  public CompUInt64(long value) {
+    this.value = value;
+  }
+
+  CompUInt64(UInt32 value) {
+    this(Integer.toUnsignedLong(value.toInt()));
+  }
+
+  @Override
+  public CompUInt64 add(CompUInt64 other) {
+    return new CompUInt64(value + other.value);
+  }
+
+  @Override
+  public CompUInt64 multiply(CompUInt64 other) {
+    return new CompUInt64(value * other.value);
+  }
+
+  @Override
+  public CompUInt64 subtract(CompUInt64 other) {
+    return new CompUInt64(value - other.value);
+  }
+
+  @Override
+  public CompUInt64 negateUInt() {
+    return new CompUInt64(-value);
+  }
+
+  @Override
+  public boolean isZero() {
+    return value == 0;
+  }
+
+  @Override
+  public BigInteger toBigInteger() {
+    return new BigInteger(1, toByteArray());
+  }
+
+  @Override
+  public UInt32 getLeastSignificant() {
+    return new UInt32((int) value);
+  }
+
+  @Override
+  public UInt32 getMostSignificant() {
+    return new UInt32((int) (value >>> 32));
+  }
+
+  @Override
+  public UInt32 getLeastSignificantAsHigh() {
+    return getLeastSignificant();
+  }
+
+  @Override
+  public long toLong() {
+    return value;
+  }
+
+  @Override
+  public int toInt() {
+    return (int) value;
+  }
+
+  @Override
+  public CompUInt64 shiftLowIntoHigh() {
+    return new CompUInt64(value << 32);
+  }
+
+  @Override
+  public int getLowBitLength() {
+    return 32;
+  }
+
+  @Override
+  public int getHighBitLength() {
+    return 32;
+  }
+
+  @Override
+  public String toString() {
+    return toBigInteger().toString();
+  }
+
+  @Override
+  public byte[] toByteArray() {
+    return ByteAndBitConverter.toByteArray(value);
+  }
+
+  static BigInteger extractValue(FieldElement element) {
+    return ((CompUInt64) element).toBigInteger();
+  }
+
+  private static long toLong(byte[] bytes) {
+    long result = 0;
+    for (int i = 0; i < 8; i++) {
+      result = (result << 8) | (bytes[i] & 0xFFL);
+    }
+    return result;
+  }
+
+  private static int toInt(byte[] bytes) {
+    return (bytes[0] & 0xFF) << 24
+        | (bytes[1] & 0xFF) << 16
+        | (bytes[2] & 0xFF) << 8
+        | (bytes[3] & 0xFF);
+  }
+
+}
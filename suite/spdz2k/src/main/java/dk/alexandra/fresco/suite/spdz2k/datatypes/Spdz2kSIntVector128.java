@@ -0,0 +1,297 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+import dk.alexandra.fresco.suite.spdz2k.util.CompUInt128Serializer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A vector of authenticated, secret-shared elements over <i>Z<sub>2<sup>128</sup></sub></i>,
+ * stored as a struct of arrays. <p>Each share and mac share is kept as its 64 most significant and
+ * 64 least significant bits in four {@code long} arrays, so that batch protocols can compute on
+ * many {@link Spdz2kSInt} instances without allocating two {@link CompUInt128} objects per
+ * element and operation.</p>
+ *
+ * <p>Like {@link Spdz2kSInt}, all arithmetic operations return a new vector and leave this one
+ * unchanged.</p>
+ */
+public class Spdz2kSIntVector128 {
+
+
+  private final long[] shareHigh;
+  private final long[] shareLow;
+  private final long[] macHigh;
+  private final long[] macLow;
+
+  /**
+   * Creates a {@link Spdz2kSIntVector128} of the given size where all shares are zero.
+   */
+  public Spdz2kSIntVector128(int size) {
+    this(new long[size], new long[size], new long[size], new long[size]);
+  }
+
+  private Spdz2kSIntVector128(long[] shareHigh, long[] shareLow, long[] macHigh, long[] macLow) {
+    this.shareHigh = shareHigh;
+    this.shareLow = shareLow;
+    this.macHigh = macHigh;
+    this.macLow = macLow;
+  }
+
+  /**
+   * Creates a {@link Spdz2kSIntVector128} holding the given elements.
+   */
+  public static Spdz2kSIntVector128 fromSInts(List<Spdz2kSInt<CompUInt128>> elements) {
+    Spdz2kSIntVector128 vector = new Spdz2kSIntVector128(elements.size());
+    for (int i = 0; i < elements.size(); i++) {
+      vector.set(i, elements.get(i));
+    }
+    return vector;
+  }
+
+  /**
+   * Returns the number of elements.
+   */
+  public int size() {
+    return shareLow.length;
+  }
+
+  /**
+   * Returns the element at the given index.
+   */
+  public Spdz2kSInt<CompUInt128> get(int index) {
+    return new Spdz2kSInt<>(getShare(index), getMacShare(index));
+  }
+
+  /**
+   * Stores the given element at the given index.
+   */
+  public void set(int index, Spdz2kSInt<CompUInt128> element) {
+    CompUInt128 share = element.getShare();
+    CompUInt128 macShare = element.getMacShare();
+    shareHigh[index] = share.toLongHigh();
+    shareLow[index] = share.toLong();
+    macHigh[index] = macShare.toLongHigh();
+    macLow[index] = macShare.toLong();
+  }
+
+  /**
+   * Returns the share of the element at the given index.
+   */
+  public CompUInt128 getShare(int index) {
+    return new CompUInt128(shareHigh[index], shareLow[index]);
+  }
+
+  /**
+   * Returns the mac share of the element at the given index.
+   */
+  public CompUInt128 getMacShare(int index) {
+    return new CompUInt128(macHigh[index], macLow[index]);
+  }
+
+  /**
+   * Returns the elements as a list of {@link Spdz2kSInt}.
+   */
+  public List<Spdz2kSInt<CompUInt128>> toSInts() {
+    List<Spdz2kSInt<CompUInt128>> elements = new ArrayList<>(size());
+    for (int i = 0; i < size(); i++) {
+      elements.add(get(i));
+    }
+    return elements;
+  }
+
+  /**
+   * Returns a read-only list view of the elements. <p>Unlike {@link #toSInts()} no elements are
+   * created up front; each {@link Spdz2kSInt} is created when it is read from the view.</p>
+   */
+  public List<Spdz2kSInt<CompUInt128>> asSInts() {
+    return new SIntView();
+  }
+
+  /**
+   * Compute element-wise sum of this and other.
+   */
+  public Spdz2kSIntVector128 add(Spdz2kSIntVector128 other) {
+    checkSize(other.size());
+    Spdz2kSIntVector128 result = new Spdz2kSIntVector128(size());
+    add(shareHigh, shareLow, other.shareHigh, other.shareLow, result.shareHigh, result.shareLow);
+    add(macHigh, macLow, other.macHigh, other.macLow, result.macHigh, result.macLow);
+    return result;
+  }
+
+  /**
+   * Compute element-wise difference of this and other.
+   */
+  public Spdz2kSIntVector128 subtract(Spdz2kSIntVector128 other) {
+    checkSize(other.size());
+    Spdz2kSIntVector128 result = new Spdz2kSIntVector128(size());
+    subtract(shareHigh, shareLow, other.shareHigh, other.shareLow, result.shareHigh,
+        result.shareLow);
+    subtract(macHigh, macLow, other.macHigh, other.macLow, result.macHigh, result.macLow);
+    return result;
+  }
+
+  /**
+   * Compute product of each element and a constant (open) value.
+   */
+  public Spdz2kSIntVector128 multiply(CompUInt128 constant) {
+    long constantHigh = constant.toLongHigh();
+    long constantLow = constant.toLong();
+    Spdz2kSIntVector128 result = new Spdz2kSIntVector128(size());
+    for (int i = 0; i < size(); i++) {
+      result.shareLow[i] = shareLow[i] * constantLow;
+      result.shareHigh[i] = multiplyHigh(shareHigh[i], shareLow[i], constantHigh, constantLow);
+      result.macLow[i] = macLow[i] * constantLow;
+      result.macHigh[i] = multiplyHigh(macHigh[i], macLow[i], constantHigh, constantLow);
+    }
+    return result;
+  }
+
+  /**
+   * Compute element-wise product of this and constant (open) values.
+   */
+  public Spdz2kSIntVector128 multiply(List<CompUInt128> constants) {
+    checkSize(constants.size());
+    long[] constantHigh = new long[size()];
+    long[] constantLow = new long[size()];
+    unpack(constants, constantHigh, constantLow);
+    return multiply(constantHigh, constantLow);
+  }
+
+  /**
+   * Compute element-wise product of this and constant (open) values given as arrays of their most
+   * and least significant 64 bits.
+   */
+  public Spdz2kSIntVector128 multiply(long[] constantHigh, long[] constantLow) {
+    checkSize(constantHigh.length);
+    checkSize(constantLow.length);
+    Spdz2kSIntVector128 result = new Spdz2kSIntVector128(size());
+    for (int i = 0; i < size(); i++) {
+      result.shareLow[i] = shareLow[i] * constantLow[i];
+      result.shareHigh[i] =
+          multiplyHigh(shareHigh[i], shareLow[i], constantHigh[i], constantLow[i]);
+      result.macLow[i] = macLow[i] * constantLow[i];
+      result.macHigh[i] = multiplyHigh(macHigh[i], macLow[i], constantHigh[i], constantLow[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Compute element-wise sum of this and constant (open) values. <p>See {@link
+   * Spdz2kSInt#addConstant(CompUInt, CompUInt, CompUInt, boolean)}.</p>
+   *
+   * @param constants constant, open values
+   * @param macKeyShare mac key share for maccing open values
+   * @param isPartyOne used to ensure that only one party adds values to its shares
+   * @return result of sum
+   */
+  public Spdz2kSIntVector128 addConstants(List<CompUInt128> constants, CompUInt128 macKeyShare,
+      boolean isPartyOne) {
+    checkSize(constants.size());
+    long[] constantHigh = new long[size()];
+    long[] constantLow = new long[size()];
+    unpack(constants, constantHigh, constantLow);
+    return addConstants(constantHigh, constantLow, macKeyShare, isPartyOne);
+  }
+
+  /**
+   * Compute element-wise sum of this and constant (open) values given as arrays of their most and
+   * least significant 64 bits. <p>See {@link #addConstants(List, CompUInt128, boolean)}.</p>
+   */
+  public Spdz2kSIntVector128 addConstants(long[] constantHigh, long[] constantLow,
+      CompUInt128 macKeyShare, boolean isPartyOne) {
+    checkSize(constantHigh.length);
+    checkSize(constantLow.length);
+    long keyHigh = macKeyShare.toLongHigh();
+    long keyLow = macKeyShare.toLong();
+    long[] constantMacHigh = new long[size()];
+    long[] constantMacLow = new long[size()];
+    for (int i = 0; i < size(); i++) {
+      constantMacLow[i] = constantLow[i] * keyLow;
+      constantMacHigh[i] = multiplyHigh(constantHigh[i], constantLow[i], keyHigh, keyLow);
+    }
+    Spdz2kSIntVector128 result = new Spdz2kSIntVector128(size());
+    if (isPartyOne) {
+      add(shareHigh, shareLow, constantHigh, constantLow, result.shareHigh, result.shareLow);
+    } else {
+      System.arraycopy(shareHigh, 0, result.shareHigh, 0, size());
+      System.arraycopy(shareLow, 0, result.shareLow, 0, size());
+    }
+    add(macHigh, macLow, constantMacHigh, constantMacLow, result.macHigh, result.macLow);
+    return result;
+  }
+
+  /**
+   * Serializes the shares (but not the mac shares) of all elements in the format of {@link
+   * CompUInt128Serializer}.
+   */
+  public byte[] serializeShares() {
+    return CompUInt128Serializer.serialize(shareHigh, shareLow);
+  }
+
+  /**
+   * Serializes the least significant bits of the shares of all elements, which is what a party
+   * sends when the elements are opened. See {@link
+   * CompUInt128Serializer#serializeLeastSignificant(long[])}.
+   */
+  public byte[] serializeLeastSignificantShares() {
+    return CompUInt128Serializer.serializeLeastSignificant(shareLow);
+  }
+
+  private void checkSize(int otherSize) {
+    if (otherSize != size()) {
+      throw new IllegalArgumentException(
+          "Sizes must be equal but were " + size() + " and " + otherSize);
+    }
+  }
+
+  private static void unpack(List<CompUInt128> elements, long[] high, long[] low) {
+    for (int i = 0; i < elements.size(); i++) {
+      CompUInt128 element = elements.get(i);
+      high[i] = element.toLongHigh();
+      low[i] = element.toLong();
+    }
+  }
+
+  private static void add(long[] leftHigh, long[] leftLow, long[] rightHigh, long[] rightLow,
+      long[] resultHigh, long[] resultLow) {
+    for (int i = 0; i < leftLow.length; i++) {
+      long low = leftLow[i] + rightLow[i];
+      long carry = Long.compareUnsigned(low, leftLow[i]) < 0 ? 1 : 0;
+      resultHigh[i] = leftHigh[i] + rightHigh[i] + carry;
+      resultLow[i] = low;
+    }
+  }
+
+  private static void subtract(long[] leftHigh, long[] leftLow, long[] rightHigh,
+      long[] rightLow, long[] resultHigh, long[] resultLow) {
+    for (int i = 0; i < leftLow.length; i++) {
+      long borrow = Long.compareUnsigned(leftLow[i], rightLow[i]) < 0 ? 1 : 0;
+      resultHigh[i] = leftHigh[i] - rightHigh[i] - borrow;
+      resultLow[i] = leftLow[i] - rightLow[i];
+    }
+  }
+
+  /**
+   * Computes the 64 most significant bits of the product of two 128-bit values, modulo
+   * <i>2<sup>128</sup></i>.
+   */
+  private static long multiplyHigh(long leftHigh, long leftLow, long rightHigh, long rightLow) {
+    return MathUtils.unsignedMultiplyHigh(leftLow, rightLow) + leftLow * rightHigh
+        + leftHigh * rightLow;
+  }
+
+  private class SIntView extends AbstractList<Spdz2kSInt<CompUInt128>> implements RandomAccess {
+
+    @Override
+    public Spdz2kSInt<CompUInt128> get(int index) {
+      return Spdz2kSIntVector128.this.get(index);
+    }
+
+    @Override
+    public int size() {
+      return Spdz2kSIntVector128.this.size();
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Correlated Oblivious Product Evaluation (COPE) over <i>Z<sub>2<sup>k + s</sup></sub></i> with
+ * one other party, used for computing shares of the macs of values.
+ *
+ * <p>During initialization the parties run <i>k + s</i> random OTs in each direction, where the
+ * <i>signer</i> uses the bits of its mac key share as choice bits. The resulting seeds are used
+ * for PRGs, such that every later multiplication with the mac key share only requires the
+ * <i>inputter</i> to send one masked element per bit of the key. The protocol is the same as
+ * {@link Spdz2kOtMultiplier}, except that the choice bits are fixed.</p>
+ *
+ * <p>An instance handles both the signer and inputter role with one other party.</p>
+ */
+final class Spdz2kCope<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final int otherId;
+  private final Network network;
+  private final Spdz2kRingHelper<PlainT> ring;
+  private final byte[] macKeyShareBytes;
+  private final List<Drbg> signerPrgs;
+  private final List<Drbg> zeroPrgs;
+  private final List<Drbg> onePrgs;
+
+  /**
+   * Creates a new instance and runs the initialization using the given random OT.
+   *
+   * @param myId this party's id
+   * @param otherId the other party's id
+   * @param rot random OT with the other party
+   * @param network the network to use
+   * @param ring helper for ring arithmetic
+   * @param macKeyShare this party's share of the mac key
+   * @param seedLength the bit length of the PRG seeds
+   */
+  Spdz2kCope(int myId, int otherId, RotBatch rot, Network network, Spdz2kRingHelper<PlainT> ring,
+      PlainT macKeyShare, int seedLength) {
+    this.otherId = otherId;
+    this.network = network;
+    this.ring = ring;
+    this.macKeyShareBytes = macKeyShare.toByteArray();
+    this.signerPrgs = new ArrayList<>(ring.getBitLength());
+    this.zeroPrgs = new ArrayList<>(ring.getBitLength());
+    this.onePrgs = new ArrayList<>(ring.getBitLength());
+    // construction order matters since the OTs are run with the other party in lockstep
+    if (myId < otherId) {
+      initializeInputter(rot, seedLength);
+      initializeSigner(rot, macKeyShare, seedLength);
+    } else {
+      initializeSigner(rot, macKeyShare, seedLength);
+      initializeInputter(rot, seedLength);
+    }
+  }
+
+  /**
+   * Computes this party's shares of the products of the given values and the other party's mac
+   * key share. The other party must call {@link #sign(int)} with the number of values.
+   *
+   * @param values the values to multiply with the other party's mac key share
+   * @return this party's shares of the products
+   */
+  List<PlainT> input(List<PlainT> values) {
+    int bitLength = ring.getBitLength();
+    List<PlainT> diffs = new ArrayList<>(values.size() * bitLength);
+    List<PlainT> shares = new ArrayList<>(values.size());
+    List<PlainT> zeroMasks = new ArrayList<>(bitLength);
+    for (PlainT value : values) {
+      zeroMasks.clear();
+      for (int bit = 0; bit < bitLength; bit++) {
+        PlainT zero = ring.sample(zeroPrgs.get(bit));
+        PlainT one = ring.sample(onePrgs.get(bit));
+        diffs.add(zero.subtract(one).add(value));
+        zeroMasks.add(zero);
+      }
+      shares.add(ring.recombine(zeroMasks, 0).negateUInt());
+    }
+    network.send(otherId, ring.getFactory().getSerializer().serialize(diffs));
+    return shares;
+  }
+
+  /**
+   * Computes this party's shares of the products of the other party's values and this party's mac
+   * key share. The other party must call {@link #input(List)} with the values.
+   *
+   * @param numValues the number of values of the other party
+   * @return this party's shares of the products
+   */
+  List<PlainT> sign(int numValues) {
+    int bitLength = ring.getBitLength();
+    List<PlainT> diffs = ring.getFactory().getSerializer().deserializeList(
+        network.receive(otherId));
+    if (diffs.size() != numValues * bitLength) {
+      throw new IllegalStateException(
+          "Expected " + numValues * bitLength + " diffs but received " + diffs.size());
+    }
+    List<PlainT> shares = new ArrayList<>(numValues);
+    List<PlainT> summands = new ArrayList<>(bitLength);
+    for (int i = 0; i < numValues; i++) {
+      summands.clear();
+      for (int bit = 0; bit < bitLength; bit++) {
+        PlainT mask = ring.sample(signerPrgs.get(bit));
+        boolean keyBit = Spdz2kRingHelper.getBit(macKeyShareBytes, bit);
+        summands.add(keyBit ? mask.add(diffs.get(i * bitLength + bit)) : mask);
+      }
+      shares.add(ring.recombine(summands, 0));
+    }
+    return shares;
+  }
+
+  private void initializeSigner(RotBatch rot, PlainT macKeyShare, int seedLength) {
+    StrictBitVector choices = ring.toChoiceBits(Collections.singletonList(macKeyShare));
+    for (StrictBitVector seed : rot.receive(choices, seedLength)) {
+      signerPrgs.add(new AesCtrDrbg(seed.toByteArray()));
+    }
+  }
+
+  private void initializeInputter(RotBatch rot, int seedLength) {
+    for (Pair<StrictBitVector, StrictBitVector> seeds : rot.send(ring.getBitLength(),
+        seedLength)) {
+      zeroPrgs.add(new AesCtrDrbg(seeds.getFirst().toByteArray()));
+      onePrgs.add(new AesCtrDrbg(seeds.getSecond().toByteArray()));
+    }
+  }
+}
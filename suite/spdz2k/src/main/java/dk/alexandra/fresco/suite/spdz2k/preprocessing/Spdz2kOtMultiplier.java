@@ -0,0 +1,128 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Two-party multiplication of elements of <i>Z<sub>2<sup>k + s</sup></sub></i> based on random
+ * OT, following Gilboa's protocol.
+ *
+ * <p>The party holding a <i>left</i> factor <i>a</i> uses the bits <i>a<sub>t</sub></i> as choice
+ * bits in <i>k + s</i> random OTs where the other party, holding the <i>right</i> factor <i>b</i>,
+ * learns both messages <i>(q<sub>0, t</sub>, q<sub>1, t</sub>)</i>. The other party then sends
+ * <i>d<sub>t</sub> = q<sub>0, t</sub> - q<sub>1, t</sub> + b</i> which allows the first party to
+ * compute <i>q<sub>0, t</sub> + a<sub>t</sub> * b</i>. Recombining these with powers of two
+ * gives additive shares of <i>a * b</i>.</p>
+ *
+ * <p>An instance handles both directions of the multiplication with one other party. The two
+ * parties must call the methods of their instances in the same order.</p>
+ */
+final class Spdz2kOtMultiplier<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final int myId;
+  private final int otherId;
+  private final RotBatch rot;
+  private final Network network;
+  private final Spdz2kRingHelper<PlainT> ring;
+
+  Spdz2kOtMultiplier(int myId, int otherId, RotBatch rot, Network network,
+      Spdz2kRingHelper<PlainT> ring) {
+    this.myId = myId;
+    this.otherId = otherId;
+    this.rot = rot;
+    this.network = network;
+    this.ring = ring;
+  }
+
+  RotBatch getRot() {
+    return rot;
+  }
+
+  /**
+   * Computes shares of the products of this party's left factors and the other party's right
+   * factors, plus the products of the other party's left factors and this party's right factors.
+   *
+   * <p>Both parties must have the same number of left factors, and each right factor is
+   * multiplied with {@code leftPerRight} consecutive left factors of the other party.</p>
+   *
+   * @param leftFactors this party's left factors
+   * @param rightFactors this party's right factors
+   * @param leftPerRight number of left factors per right factor
+   * @return this party's shares of both cross products, for each left factor index
+   */
+  List<PlainT> multiply(List<PlainT> leftFactors, List<PlainT> rightFactors,
+      int leftPerRight) {
+    List<PlainT> asSender;
+    List<PlainT> asReceiver;
+    // the lower id acts as sender first such that the parties run the OTs in the same order
+    if (myId < otherId) {
+      asSender = multiplyAsSender(rightFactors, leftPerRight);
+      asReceiver = multiplyAsReceiver(leftFactors);
+    } else {
+      asReceiver = multiplyAsReceiver(leftFactors);
+      asSender = multiplyAsSender(rightFactors, leftPerRight);
+    }
+    List<PlainT> result = new ArrayList<>(leftFactors.size());
+    for (int i = 0; i < leftFactors.size(); i++) {
+      result.add(asSender.get(i).add(asReceiver.get(i)));
+    }
+    return result;
+  }
+
+  /**
+   * Runs the receiver side of the multiplication using the bits of this party's left factors as
+   * choice bits.
+   */
+  private List<PlainT> multiplyAsReceiver(List<PlainT> leftFactors) {
+    int bitLength = ring.getBitLength();
+    StrictBitVector choices = ring.toChoiceBits(leftFactors);
+    List<StrictBitVector> messages = rot.receive(choices, bitLength);
+    List<PlainT> diffs = ring.getFactory().getSerializer().deserializeList(
+        network.receive(otherId));
+    if (diffs.size() != messages.size()) {
+      throw new IllegalStateException(
+          "Expected " + messages.size() + " diffs but received " + diffs.size());
+    }
+    List<PlainT> summands = new ArrayList<>(messages.size());
+    for (int i = 0; i < messages.size(); i++) {
+      PlainT message = ring.fromMessage(messages.get(i));
+      summands.add(choices.getBit(i, false) ? message.add(diffs.get(i)) : message);
+    }
+    List<PlainT> shares = new ArrayList<>(leftFactors.size());
+    for (int i = 0; i < leftFactors.size(); i++) {
+      shares.add(ring.recombine(summands, i * bitLength));
+    }
+    return shares;
+  }
+
+  /**
+   * Runs the sender side of the multiplication, using this party's right factors as the
+   * correlation.
+   */
+  private List<PlainT> multiplyAsSender(List<PlainT> rightFactors, int leftPerRight) {
+    int bitLength = ring.getBitLength();
+    int numLeft = rightFactors.size() * leftPerRight;
+    List<Pair<StrictBitVector, StrictBitVector>> messages = rot.send(numLeft * bitLength,
+        bitLength);
+    List<PlainT> diffs = new ArrayList<>(messages.size());
+    List<PlainT> zeroMessages = new ArrayList<>(messages.size());
+    for (int i = 0; i < messages.size(); i++) {
+      PlainT zero = ring.fromMessage(messages.get(i).getFirst());
+      PlainT one = ring.fromMessage(messages.get(i).getSecond());
+      PlainT rightFactor = rightFactors.get(i / (bitLength * leftPerRight));
+      diffs.add(zero.subtract(one).add(rightFactor));
+      zeroMessages.add(zero);
+    }
+    network.send(otherId, ring.getFactory().getSerializer().serialize(diffs));
+    List<PlainT> shares = new ArrayList<>(numLeft);
+    for (int i = 0; i < numLeft; i++) {
+      shares.add(ring.recombine(zeroMessages, i * bitLength).negateUInt());
+    }
+    return shares;
+  }
+}
@@ -0,0 +1,527 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.lib.generic.SecureBroadcastUtil;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt;
+import dk.alexandra.fresco.tools.commitment.HashBasedCommitment;
+import dk.alexandra.fresco.tools.commitment.HashBasedCommitmentSerializer;
+import dk.alexandra.fresco.tools.cointossing.CoinTossing;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import dk.alexandra.fresco.tools.ot.otextension.BristolOtExtensionResourcePool;
+import dk.alexandra.fresco.tools.ot.otextension.BristolRotBatch;
+import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OT-based pre-processing for SPDZ2k, generating authenticated multiplication triples, input
+ * masks, random bits and random elements over <i>Z<sub>2<sup>k + s</sup></sub></i>.
+ *
+ * <p>The protocol follows the structure of MASCOT (<a href="https://eprint.iacr.org/2016/505.pdf">
+ * https://eprint.iacr.org/2016/505.pdf</a>) adapted to the ring setting of SPDZ2k (<a
+ * href="https://eprint.iacr.org/2018/482.pdf">https://eprint.iacr.org/2018/482.pdf</a>):</p>
+ * <ul>
+ *   <li>Values are authenticated using COPE instances between each pair of parties (see {@link
+ *   Spdz2kCope}) and the consistency of the inputs is checked with a random linear combination
+ *   which is masked by an extra uniformly random element.</li>
+ *   <li>Triples are computed with Gilboa multiplication on top of OT extension (see {@link
+ *   Spdz2kOtMultiplier}), combining several candidates for the left factor with random
+ *   coefficients to remove leakage on its bits, and sacrificing one triple to check another.</li>
+ *   <li>Random bits are computed as the XOR of random bits input by each party and checked by
+ *   opening <i>b * (1 - b)</i>.</li>
+ * </ul>
+ *
+ * <p>All values opened during the pre-processing are uniformly masked over the full ring and are
+ * mac checked before any material is returned.</p>
+ */
+public class Spdz2kOtPreprocessing<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  /**
+   * The bit length of the seeds of the PRGs, which is also the required length of the seed OTs.
+   */
+  public static final int PRG_SEED_LENGTH = AesCtrDrbg.SEED_LENGTH * Byte.SIZE;
+
+  private final int myId;
+  private final int noOfParties;
+  private final Network network;
+  private final Spdz2kRingHelper<PlainT> ring;
+  private final PlainT macKeyShare;
+  private final PlainT zero;
+  private final Drbg drbg;
+  private final int numCandidatesPerTriple;
+  private final Map<Integer, Spdz2kOtMultiplier<PlainT>> multipliers;
+  private final Map<Integer, Spdz2kCope<PlainT>> copes;
+  private final HashBasedCommitmentSerializer commitmentSerializer;
+
+  /**
+   * Creates a new {@link Spdz2kOtPreprocessing} and initializes the OT extension and COPE instances
+   * with all other parties. All parties must create their instances at the same time.
+   *
+   * @param myId this party's id
+   * @param noOfParties the number of parties
+   * @param instanceId identifier used to distinguish parallel instances
+   * @param network the network to use
+   * @param factory factory for the ring elements
+   * @param macKeyShare this party's share of the mac key
+   * @param seedOts pre-computed seed OTs of length {@value #PRG_SEED_LENGTH} for each other party
+   * @param drbg source of randomness
+   * @param lambdaSecurityParam the statistical security parameter of the OT extension
+   * @param numCandidatesPerTriple the number of candidates combined into the left factor of each
+   *     triple
+   */
+  public Spdz2kOtPreprocessing(int myId, int noOfParties, int instanceId, Network network,
+      CompUIntFactory<PlainT> factory, PlainT macKeyShare, Map<Integer, RotList> seedOts,
+      Drbg drbg, int lambdaSecurityParam, int numCandidatesPerTriple) {
+    if (numCandidatesPerTriple < 1) {
+      throw new IllegalArgumentException(
+          "Number of candidates must be positive but was " + numCandidatesPerTriple);
+    }
+    this.myId = myId;
+    this.noOfParties = noOfParties;
+    this.network = network;
+    this.ring = new Spdz2kRingHelper<>(factory);
+    this.macKeyShare = macKeyShare;
+    this.zero = factory.zero();
+    this.drbg = drbg;
+    this.numCandidatesPerTriple = numCandidatesPerTriple;
+    this.multipliers = new HashMap<>();
+    this.copes = new HashMap<>();
+    this.commitmentSerializer = new HashBasedCommitmentSerializer();
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (otherId != myId) {
+        CoinTossing ct = new CoinTossing(myId, otherId, drbg);
+        ct.initialize(network);
+        RotBatch rot = new BristolRotBatch(new RotFactory(
+            new BristolOtExtensionResourcePool(myId, otherId, PRG_SEED_LENGTH,
+                lambdaSecurityParam, instanceId, drbg, ct, seedOts.get(otherId)), network));
+        multipliers.put(otherId, new Spdz2kOtMultiplier<>(myId, otherId, rot, network, ring));
+        copes.put(otherId, new Spdz2kCope<>(myId, otherId, rot, network, ring, macKeyShare,
+            PRG_SEED_LENGTH));
+      }
+    }
+  }
+
+  /**
+   * Creates a new {@link Spdz2kOtPreprocessing} with the default security parameters, i.e., a
+   * statistical security parameter of 64 for the OT extension and 3 candidates per triple.
+   */
+  public Spdz2kOtPreprocessing(int myId, int noOfParties, int instanceId, Network network,
+      CompUIntFactory<PlainT> factory, PlainT macKeyShare, Map<Integer, RotList> seedOts,
+      Drbg drbg) {
+    this(myId, noOfParties, instanceId, network, factory, macKeyShare, seedOts, drbg, 64, 3);
+  }
+
+  /**
+   * Generates a batch of multiplication triples.
+   *
+   * @param numTriples the number of triples to generate
+   * @return this party's shares of the triples
+   */
+  public List<Spdz2kTriple<PlainT>> getTriples(int numTriples) {
+    int tau = numCandidatesPerTriple;
+    List<PlainT> rightFactors = ring.sample(drbg, numTriples);
+    // tau candidates for the left factor of each triple, which are combined twice: once into the
+    // triple and once into the triple which is sacrificed to check it
+    List<PlainT> leftFactors = ring.sample(drbg, numTriples * tau);
+    List<PlainT> products = new ArrayList<>(leftFactors.size());
+    for (int i = 0; i < leftFactors.size(); i++) {
+      products.add(leftFactors.get(i).multiply(rightFactors.get(i / tau)));
+    }
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (otherId != myId) {
+        List<PlainT> crossTerms = multipliers.get(otherId)
+            .multiply(leftFactors, rightFactors, tau);
+        for (int i = 0; i < products.size(); i++) {
+          products.set(i, products.get(i).add(crossTerms.get(i)));
+        }
+      }
+    }
+    Drbg jointDrbg = jointDrbg();
+    List<PlainT> coefficientsLeft = ring.sample(jointDrbg, tau);
+    List<PlainT> coefficientsSacrifice = ring.sample(jointDrbg, tau);
+    List<List<PlainT>> combined = new ArrayList<>(5);
+    for (int j = 0; j < 5; j++) {
+      combined.add(new ArrayList<>(numTriples));
+    }
+    for (int i = 0; i < numTriples; i++) {
+      List<PlainT> left = leftFactors.subList(i * tau, (i + 1) * tau);
+      List<PlainT> product = products.subList(i * tau, (i + 1) * tau);
+      combined.get(0).add(UInt.innerProduct(coefficientsLeft, left));
+      combined.get(1).add(rightFactors.get(i));
+      combined.get(2).add(UInt.innerProduct(coefficientsLeft, product));
+      combined.get(3).add(UInt.innerProduct(coefficientsSacrifice, left));
+      combined.get(4).add(UInt.innerProduct(coefficientsSacrifice, product));
+    }
+    List<PlainT> concatenated = new ArrayList<>(5 * numTriples);
+    combined.forEach(concatenated::addAll);
+    List<Spdz2kSInt<PlainT>> authenticated = authenticateShares(concatenated);
+    List<Spdz2kSInt<PlainT>> left = authenticated.subList(0, numTriples);
+    List<Spdz2kSInt<PlainT>> right = authenticated.subList(numTriples, 2 * numTriples);
+    List<Spdz2kSInt<PlainT>> product = authenticated.subList(2 * numTriples, 3 * numTriples);
+    List<Spdz2kSInt<PlainT>> sacrificeLeft = authenticated.subList(3 * numTriples,
+        4 * numTriples);
+    List<Spdz2kSInt<PlainT>> sacrificeProduct = authenticated.subList(4 * numTriples,
+        5 * numTriples);
+    // sacrifice
+    List<PlainT> challenges = ring.sample(jointDrbg(), numTriples);
+    List<Spdz2kSInt<PlainT>> rhos = new ArrayList<>(numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      rhos.add(left.get(i).multiply(challenges.get(i)).subtract(sacrificeLeft.get(i)));
+    }
+    List<PlainT> openRhos = open(rhos);
+    List<Spdz2kSInt<PlainT>> sigmas = new ArrayList<>(numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      sigmas.add(product.get(i).multiply(challenges.get(i))
+          .subtract(sacrificeProduct.get(i))
+          .subtract(right.get(i).multiply(openRhos.get(i))));
+    }
+    List<PlainT> openSigmas = open(sigmas);
+    List<Spdz2kSInt<PlainT>> toCheck = new ArrayList<>(rhos);
+    toCheck.addAll(sigmas);
+    List<PlainT> opened = new ArrayList<>(openRhos);
+    opened.addAll(openSigmas);
+    macCheck(toCheck, opened);
+    for (PlainT sigma : openSigmas) {
+      if (!sigma.isZero()) {
+        throw new MaliciousException("Sacrifice check failed");
+      }
+    }
+    List<Spdz2kTriple<PlainT>> triples = new ArrayList<>(numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      triples.add(new Spdz2kTriple<>(left.get(i), right.get(i), product.get(i)));
+    }
+    return triples;
+  }
+
+  /**
+   * Generates a batch of random authenticated elements.
+   *
+   * @param numElements the number of elements to generate
+   * @return this party's shares of the elements
+   */
+  public List<Spdz2kSInt<PlainT>> getRandomElements(int numElements) {
+    return authenticateShares(ring.sample(drbg, numElements));
+  }
+
+  /**
+   * Generates a batch of input masks for the given party.
+   *
+   * @param maskerId the id of the party which learns the masks
+   * @param numMasks the number of masks to generate
+   * @return the input masks
+   */
+  public List<Spdz2kInputMask<PlainT>> getInputMasks(int maskerId, int numMasks) {
+    List<Spdz2kInputMask<PlainT>> masks = new ArrayList<>(numMasks);
+    if (maskerId == myId) {
+      List<PlainT> values = ring.sample(drbg, numMasks);
+      List<Spdz2kSInt<PlainT>> authenticated = input(values);
+      for (int i = 0; i < numMasks; i++) {
+        masks.add(new Spdz2kInputMask<>(authenticated.get(i), values.get(i)));
+      }
+    } else {
+      for (Spdz2kSInt<PlainT> authenticated : input(maskerId, numMasks)) {
+        masks.add(new Spdz2kInputMask<>(authenticated));
+      }
+    }
+    return masks;
+  }
+
+  /**
+   * Generates a batch of random authenticated bits.
+   *
+   * @param numBits the number of bits to generate
+   * @return this party's shares of the bits
+   */
+  public List<Spdz2kSInt<PlainT>> getRandomBits(int numBits) {
+    List<Spdz2kTriple<PlainT>> triples = getTriples(noOfParties * numBits);
+    List<PlainT> myBits = new ArrayList<>(numBits);
+    for (PlainT element : ring.sample(drbg, numBits)) {
+      myBits.add(Spdz2kRingHelper.getBit(element.toByteArray(), 0)
+          ? ring.getFactory().createElement(1) : zero);
+    }
+    List<Spdz2kSInt<PlainT>> bits = null;
+    List<Spdz2kSInt<PlainT>> toCheck = new ArrayList<>();
+    List<PlainT> opened = new ArrayList<>();
+    int tripleOffset = 0;
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      List<Spdz2kSInt<PlainT>> partyBits = partyId == myId
+          ? input(myBits) : input(partyId, numBits);
+      if (bits == null) {
+        bits = partyBits;
+      } else {
+        // x xor y = x + y - 2 * x * y
+        List<Spdz2kSInt<PlainT>> products = multiply(bits, partyBits,
+            triples.subList(tripleOffset, tripleOffset + numBits), toCheck, opened);
+        tripleOffset += numBits;
+        List<Spdz2kSInt<PlainT>> xored = new ArrayList<>(numBits);
+        PlainT two = ring.getFactory().createElement(2);
+        for (int i = 0; i < numBits; i++) {
+          xored.add(bits.get(i).add(partyBits.get(i)).subtract(products.get(i).multiply(two)));
+        }
+        bits = xored;
+      }
+    }
+    // check that the results are bits, i.e., that b * (1 - b) = 0
+    List<Spdz2kSInt<PlainT>> negated = new ArrayList<>(numBits);
+    PlainT minusOne = ring.getFactory().createElement(1).negateUInt();
+    for (Spdz2kSInt<PlainT> bit : bits) {
+      negated.add(bit.multiply(minusOne).addConstant(ring.getFactory().createElement(1),
+          macKeyShare, zero, myId == 1));
+    }
+    List<Spdz2kSInt<PlainT>> products = multiply(bits, negated,
+        triples.subList(tripleOffset, tripleOffset + numBits), toCheck, opened);
+    List<PlainT> openProducts = open(products);
+    toCheck.addAll(products);
+    opened.addAll(openProducts);
+    macCheck(toCheck, opened);
+    for (PlainT product : openProducts) {
+      if (!product.isZero()) {
+        throw new MaliciousException("Bit check failed");
+      }
+    }
+    return bits;
+  }
+
+  /**
+   * Multiplies authenticated values using Beaver triples. The opened values are added to the given
+   * lists such that they can be mac checked later.
+   */
+  private List<Spdz2kSInt<PlainT>> multiply(List<Spdz2kSInt<PlainT>> left,
+      List<Spdz2kSInt<PlainT>> right, List<Spdz2kTriple<PlainT>> triples,
+      List<Spdz2kSInt<PlainT>> toCheck, List<PlainT> opened) {
+    List<Spdz2kSInt<PlainT>> epsilonsAndDeltas = new ArrayList<>(2 * left.size());
+    for (int i = 0; i < left.size(); i++) {
+      epsilonsAndDeltas.add(left.get(i).subtract(triples.get(i).getLeft()));
+      epsilonsAndDeltas.add(right.get(i).subtract(triples.get(i).getRight()));
+    }
+    List<PlainT> openEpsilonsAndDeltas = open(epsilonsAndDeltas);
+    toCheck.addAll(epsilonsAndDeltas);
+    opened.addAll(openEpsilonsAndDeltas);
+    List<Spdz2kSInt<PlainT>> products = new ArrayList<>(left.size());
+    for (int i = 0; i < left.size(); i++) {
+      Spdz2kTriple<PlainT> triple = triples.get(i);
+      PlainT epsilon = openEpsilonsAndDeltas.get(2 * i);
+      PlainT delta = openEpsilonsAndDeltas.get(2 * i + 1);
+      products.add(triple.getProduct()
+          .add(triple.getRight().multiply(epsilon))
+          .add(triple.getLeft().multiply(delta))
+          .addConstant(epsilon.multiply(delta), macKeyShare, zero, myId == 1));
+    }
+    return products;
+  }
+
+  /**
+   * Authenticates additive shares held by all parties, i.e., each party inputs its share and the
+   * results are summed.
+   */
+  private List<Spdz2kSInt<PlainT>> authenticateShares(List<PlainT> shares) {
+    List<Spdz2kSInt<PlainT>> result = null;
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      List<Spdz2kSInt<PlainT>> authenticated = partyId == myId
+          ? input(shares) : input(partyId, shares.size());
+      if (result == null) {
+        result = authenticated;
+      } else {
+        for (int i = 0; i < result.size(); i++) {
+          result.set(i, result.get(i).add(authenticated.get(i)));
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Authenticates values known by this party. This party holds the entire value as its share.
+   */
+  List<Spdz2kSInt<PlainT>> input(List<PlainT> values) {
+    List<PlainT> padded = new ArrayList<>(values);
+    padded.add(ring.sample(drbg));
+    List<PlainT> macs = new ArrayList<>(padded.size());
+    for (PlainT value : padded) {
+      macs.add(value.multiply(macKeyShare));
+    }
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (otherId != myId) {
+        List<PlainT> macShares = copes.get(otherId).input(padded);
+        for (int i = 0; i < macs.size(); i++) {
+          macs.set(i, macs.get(i).add(macShares.get(i)));
+        }
+      }
+    }
+    List<Spdz2kSInt<PlainT>> authenticated = new ArrayList<>(padded.size());
+    for (int i = 0; i < padded.size(); i++) {
+      authenticated.add(new Spdz2kSInt<>(padded.get(i), macs.get(i)));
+    }
+    List<PlainT> coefficients = ring.sample(jointDrbg(), values.size());
+    byte[] combined = combineWithPad(padded, coefficients).toByteArray();
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (otherId != myId) {
+        network.send(otherId, combined);
+      }
+    }
+    checkInput(combined, authenticated, coefficients);
+    return authenticated.subList(0, values.size());
+  }
+
+  /**
+   * Authenticates values known by another party. This party's shares of the values are zero.
+   */
+  List<Spdz2kSInt<PlainT>> input(int inputterId, int numValues) {
+    List<PlainT> macs = copes.get(inputterId).sign(numValues + 1);
+    List<Spdz2kSInt<PlainT>> authenticated = new ArrayList<>(macs.size());
+    for (PlainT mac : macs) {
+      authenticated.add(new Spdz2kSInt<>(zero, mac));
+    }
+    List<PlainT> coefficients = ring.sample(jointDrbg(), numValues);
+    checkInput(network.receive(inputterId), authenticated, coefficients);
+    return authenticated.subList(0, numValues);
+  }
+
+  /**
+   * Checks that the inputter used the same values with all parties by mac checking a random linear
+   * combination of the inputs which the inputter broadcasts.
+   */
+  private void checkInput(byte[] combinedBytes, List<Spdz2kSInt<PlainT>> authenticated,
+      List<PlainT> coefficients) {
+    validateBroadcast(Collections.singletonList(combinedBytes));
+    PlainT combined = ring.getFactory().deserialize(combinedBytes);
+    List<PlainT> macShares = new ArrayList<>(authenticated.size());
+    for (Spdz2kSInt<PlainT> value : authenticated) {
+      macShares.add(value.getMacShare());
+    }
+    PlainT combinedMac = combineWithPad(macShares, coefficients);
+    macCheck(Collections.singletonList(new Spdz2kSInt<>(zero, combinedMac)),
+        Collections.singletonList(combined));
+  }
+
+  /**
+   * Computes the linear combination of inputs which the inputter broadcasts, i.e., the last
+   * element, which is the uniformly random pad, plus the sum of the other elements multiplied by
+   * the given coefficients. The pad has coefficient one, so the combination is uniformly random
+   * regardless of the coefficients and reveals nothing about the inputs. A random coefficient on
+   * the pad would not be enough, since its trailing zero bits would leave the low bits of the
+   * combination unmasked.
+   */
+  private static <PlainT extends CompUInt<?, ?, PlainT>> PlainT combineWithPad(
+      List<PlainT> padded, List<PlainT> coefficients) {
+    if (coefficients.size() != padded.size() - 1) {
+      throw new IllegalArgumentException("Expected " + (padded.size() - 1)
+          + " coefficients but got " + coefficients.size());
+    }
+    PlainT pad = padded.get(padded.size() - 1);
+    if (coefficients.isEmpty()) {
+      return pad;
+    }
+    return UInt.innerProduct(coefficients, padded.subList(0, coefficients.size())).add(pad);
+  }
+
+  /**
+   * Opens authenticated values by broadcasting the shares. The opened values must be mac checked
+   * before they are trusted.
+   */
+  private List<PlainT> open(List<Spdz2kSInt<PlainT>> values) {
+    List<PlainT> shares = new ArrayList<>(values.size());
+    for (Spdz2kSInt<PlainT> value : values) {
+      shares.add(value.getShare());
+    }
+    network.sendToAll(ring.getFactory().getSerializer().serialize(shares));
+    List<PlainT> opened = null;
+    for (byte[] received : network.receiveFromAll()) {
+      List<PlainT> partyShares = ring.getFactory().getSerializer().deserializeList(received);
+      if (partyShares.size() != values.size()) {
+        throw new MaliciousException(
+            "Expected " + values.size() + " shares but received " + partyShares.size());
+      }
+      if (opened == null) {
+        opened = partyShares;
+      } else {
+        for (int i = 0; i < opened.size(); i++) {
+          opened.set(i, opened.get(i).add(partyShares.get(i)));
+        }
+      }
+    }
+    return opened;
+  }
+
+  /**
+   * Checks the macs of the opened values using a random linear combination.
+   *
+   * @throws MaliciousException if the check fails
+   */
+  private void macCheck(List<Spdz2kSInt<PlainT>> authenticated, List<PlainT> opened) {
+    List<PlainT> coefficients = ring.sample(jointDrbg(), opened.size());
+    List<PlainT> macShares = new ArrayList<>(authenticated.size());
+    for (Spdz2kSInt<PlainT> value : authenticated) {
+      macShares.add(value.getMacShare());
+    }
+    PlainT combined = UInt.innerProduct(coefficients, opened);
+    PlainT difference = UInt.innerProduct(coefficients, macShares)
+        .subtract(combined.multiply(macKeyShare));
+    PlainT sum = zero;
+    for (byte[] differenceShare : commitAndOpen(difference.toByteArray())) {
+      sum = sum.add(ring.getFactory().deserialize(differenceShare));
+    }
+    if (!sum.isZero()) {
+      throw new MaliciousException("Mac check failed");
+    }
+  }
+
+  /**
+   * Creates a DRBG from a jointly sampled seed.
+   */
+  private Drbg jointDrbg() {
+    byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+    drbg.nextBytes(seed);
+    byte[] jointSeed = new byte[AesCtrDrbg.SEED_LENGTH];
+    for (byte[] partySeed : commitAndOpen(seed)) {
+      if (partySeed.length != jointSeed.length) {
+        throw new MaliciousException("Seed of wrong length");
+      }
+      for (int i = 0; i < jointSeed.length; i++) {
+        jointSeed[i] ^= partySeed[i];
+      }
+    }
+    return new AesCtrDrbg(jointSeed);
+  }
+
+  /**
+   * Commits to the given value, and opens the commitments of all parties once all commitments are
+   * received.
+   *
+   * @return the committed values of all parties in the order of the party ids
+   */
+  private List<byte[]> commitAndOpen(byte[] value) {
+    HashBasedCommitment commitment = new HashBasedCommitment();
+    byte[] opening = commitment.commit(drbg, value);
+    network.sendToAll(commitmentSerializer.serialize(commitment));
+    List<byte[]> commitmentBytes = network.receiveFromAll();
+    validateBroadcast(commitmentBytes);
+    network.sendToAll(opening);
+    List<byte[]> openings = network.receiveFromAll();
+    validateBroadcast(openings);
+    List<byte[]> values = new ArrayList<>(noOfParties);
+    for (int i = 0; i < noOfParties; i++) {
+      values.add(commitmentSerializer.deserialize(commitmentBytes.get(i)).open(openings.get(i)));
+    }
+    return values;
+  }
+
+  private void validateBroadcast(List<byte[]> received) {
+    if (noOfParties > 2) {
+      SecureBroadcastUtil broadcastUtil = new SecureBroadcastUtil(network);
+      broadcastUtil.receiveAndValidateDigests(broadcastUtil.computeAndSendDigests(received));
+    }
+  }
+}
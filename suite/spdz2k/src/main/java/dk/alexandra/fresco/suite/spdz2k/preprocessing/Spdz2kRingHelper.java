@@ -0,0 +1,100 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helper for the ring arithmetic shared by the OT-based SPDZ2k pre-processing protocols, i.e.,
+ * sampling, bit decomposition and recombination of elements of <i>Z<sub>2<sup>k +
+ * s</sup></sub></i>.
+ */
+final class Spdz2kRingHelper<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final CompUIntFactory<PlainT> factory;
+  private final int bitLength;
+  private final int byteLength;
+
+  Spdz2kRingHelper(CompUIntFactory<PlainT> factory) {
+    this.factory = factory;
+    this.bitLength = factory.getCompositeBitLength();
+    this.byteLength = bitLength / Byte.SIZE;
+  }
+
+  /**
+   * The bit length of the elements, i.e., <i>k + s</i>.
+   */
+  int getBitLength() {
+    return bitLength;
+  }
+
+  CompUIntFactory<PlainT> getFactory() {
+    return factory;
+  }
+
+  /**
+   * Samples a uniformly random element using the given DRBG.
+   */
+  PlainT sample(Drbg drbg) {
+    byte[] bytes = new byte[byteLength];
+    drbg.nextBytes(bytes);
+    return factory.deserialize(bytes);
+  }
+
+  /**
+   * Samples a list of uniformly random elements using the given DRBG.
+   */
+  List<PlainT> sample(Drbg drbg, int numElements) {
+    List<PlainT> elements = new ArrayList<>(numElements);
+    for (int i = 0; i < numElements; i++) {
+      elements.add(sample(drbg));
+    }
+    return elements;
+  }
+
+  /**
+   * Interprets a message of an OT (of exactly <i>k + s</i> bits) as an element.
+   */
+  PlainT fromMessage(StrictBitVector message) {
+    return factory.deserialize(message.toByteArray());
+  }
+
+  /**
+   * Packs the bits of the given elements, least significant bit first, into a bit vector which can
+   * be used as choice bits for OTs. The bit at index <i>i * (k + s) + t</i> is bit <i>t</i> of
+   * element <i>i</i>.
+   */
+  StrictBitVector toChoiceBits(List<PlainT> elements) {
+    StrictBitVector choices = new StrictBitVector(elements.size() * bitLength);
+    for (int i = 0; i < elements.size(); i++) {
+      byte[] bytes = elements.get(i).toByteArray();
+      for (int bit = 0; bit < bitLength; bit++) {
+        choices.setBit(i * bitLength + bit, getBit(bytes, bit), false);
+      }
+    }
+    return choices;
+  }
+
+  /**
+   * Computes <i>sum<sub>t</sub> 2<sup>t</sup> * summands[from + t]</i> for <i>t = 0, ..., k + s -
+   * 1</i>. <p>Uses Horner's rule such that only additions are needed.</p>
+   */
+  PlainT recombine(List<PlainT> summands, int from) {
+    PlainT result = summands.get(from + bitLength - 1);
+    for (int bit = bitLength - 2; bit >= 0; bit--) {
+      result = result.add(result).add(summands.get(from + bit));
+    }
+    return result;
+  }
+
+  /**
+   * Returns bit number {@code bit} (counting from the least significant bit) of a big-endian
+   * encoded element.
+   */
+  static boolean getBit(byte[] bigEndian, int bit) {
+    return ((bigEndian[bigEndian.length - 1 - bit / Byte.SIZE] >>> (bit % Byte.SIZE)) & 1) == 1;
+  }
+}
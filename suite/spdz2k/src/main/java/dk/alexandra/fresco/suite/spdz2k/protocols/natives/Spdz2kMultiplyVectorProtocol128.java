@@ -0,0 +1,163 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.natives;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.MathUtils;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSIntVector128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDataSupplier;
+import dk.alexandra.fresco.suite.spdz2k.util.CompUInt128Serializer;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Native protocol for computing the element-wise product of two lists of secret numbers, when the
+ * plain-value type is {@link CompUInt128}.
+ *
+ * <p>Works as {@link Spdz2kMultiplyProtocol} for each pair of values, but the shares are kept in
+ * {@link Spdz2kSIntVector128} instances and the opened epsilons and deltas in arrays of their most
+ * and least significant bits. The shares of all epsilons and all deltas are each sent in a single
+ * message, and all the opened values are recorded in the opened value store at once. The products
+ * and the values recorded in the store are list views of the vectors, so elements are only created
+ * when they are read.</p>
+ */
+public class Spdz2kMultiplyVectorProtocol128 extends
+    Spdz2kNativeProtocol<List<DRes<SInt>>, CompUInt128> {
+
+  private final List<DRes<SInt>> left;
+  private final List<DRes<SInt>> right;
+  private Spdz2kSIntVector128 tripleLeft;
+  private Spdz2kSIntVector128 tripleRight;
+  private Spdz2kSIntVector128 tripleProduct;
+  private Spdz2kSIntVector128 epsilon;
+  private Spdz2kSIntVector128 delta;
+  private List<DRes<SInt>> products;
+
+  /**
+   * Creates new {@link Spdz2kMultiplyVectorProtocol128}.
+   *
+   * @param left left factors
+   * @param right right factors, must have the same size as left
+   */
+  public Spdz2kMultiplyVectorProtocol128(List<DRes<SInt>> left, List<DRes<SInt>> right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have the same size, was " + left.size() + " and " + right.size());
+    }
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, Spdz2kResourcePool<CompUInt128> resourcePool,
+      Network network) {
+    int size = left.size();
+    if (round == 0) {
+      if (size == 0) {
+        products = Collections.emptyList();
+        return EvaluationStatus.IS_DONE;
+      }
+      tripleLeft = new Spdz2kSIntVector128(size);
+      tripleRight = new Spdz2kSIntVector128(size);
+      tripleProduct = new Spdz2kSIntVector128(size);
+      Spdz2kSIntVector128 leftFactors = new Spdz2kSIntVector128(size);
+      Spdz2kSIntVector128 rightFactors = new Spdz2kSIntVector128(size);
+      Spdz2kDataSupplier<CompUInt128> supplier = resourcePool.getDataSupplier();
+      for (int i = 0; i < size; i++) {
+        Spdz2kTriple<CompUInt128> triple = supplier.getNextTripleShares();
+        tripleLeft.set(i, triple.getLeft());
+        tripleRight.set(i, triple.getRight());
+        tripleProduct.set(i, triple.getProduct());
+        leftFactors.set(i, toSpdz2kSInt(left.get(i)));
+        rightFactors.set(i, toSpdz2kSInt(right.get(i)));
+      }
+      epsilon = leftFactors.subtract(tripleLeft);
+      delta = rightFactors.subtract(tripleRight);
+      network.sendToAll(epsilon.serializeLeastSignificantShares());
+      network.sendToAll(delta.serializeLeastSignificantShares());
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      long[] epsilonHigh = new long[size];
+      long[] epsilonLow = new long[size];
+      long[] deltaHigh = new long[size];
+      long[] deltaLow = new long[size];
+      receiveAndReconstruct(network, resourcePool.getNoOfParties(), epsilonHigh, epsilonLow,
+          deltaHigh, deltaLow);
+      // compute [prod] = [c] + epsilon * [b] + delta * [a] + epsilon * delta
+      long[] productHigh = new long[size];
+      long[] productLow = new long[size];
+      for (int i = 0; i < size; i++) {
+        productLow[i] = epsilonLow[i] * deltaLow[i];
+        productHigh[i] = MathUtils.unsignedMultiplyHigh(epsilonLow[i], deltaLow[i])
+            + epsilonLow[i] * deltaHigh[i] + epsilonHigh[i] * deltaLow[i];
+      }
+      Spdz2kSIntVector128 product = tripleProduct
+          .add(tripleRight.multiply(epsilonHigh, epsilonLow))
+          .add(tripleLeft.multiply(deltaHigh, deltaLow))
+          .addConstants(productHigh, productLow,
+              resourcePool.getDataSupplier().getSecretSharedKey(),
+              resourcePool.getMyId() == 1);
+      products = Collections.unmodifiableList(product.asSInts());
+      resourcePool.getOpenedValueStore().pushOpenedValues(epsilon.asSInts(),
+          new OpenedValues(epsilonHigh, epsilonLow));
+      resourcePool.getOpenedValueStore().pushOpenedValues(delta.asSInts(),
+          new OpenedValues(deltaHigh, deltaLow));
+      tripleLeft = null;
+      tripleRight = null;
+      tripleProduct = null;
+      epsilon = null;
+      delta = null;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  /**
+   * Retrieves shares for all epsilons and deltas and reconstructs each into the given arrays. Like
+   * {@link Spdz2kMultiplyProtocol} the least significant bits received from each party are summed
+   * as {@link CompUInt128} values.
+   */
+  private void receiveAndReconstruct(Network network, int noOfParties, long[] epsilonHigh,
+      long[] epsilonLow, long[] deltaHigh, long[] deltaLow) {
+    for (int i = 1; i <= noOfParties; i++) {
+      CompUInt128Serializer.deserializeLeastSignificantAndAdd(network.receiveBuffer(i),
+          epsilonHigh, epsilonLow);
+      CompUInt128Serializer.deserializeLeastSignificantAndAdd(network.receiveBuffer(i),
+          deltaHigh, deltaLow);
+    }
+  }
+
+  @Override
+  public List<DRes<SInt>> out() {
+    return products;
+  }
+
+  /**
+   * Read-only list view of opened values stored as arrays of their most and least significant
+   * bits.
+   */
+  private static class OpenedValues extends AbstractList<CompUInt128> implements RandomAccess {
+
+    private final long[] high;
+    private final long[] low;
+
+    private OpenedValues(long[] high, long[] low) {
+      this.high = high;
+      this.low = low;
+    }
+
+    @Override
+    public CompUInt128 get(int index) {
+      return new CompUInt128(high[index], low[index]);
+    }
+
+    @Override
+    public int size() {
+      return low.length;
+    }
+  }
+}
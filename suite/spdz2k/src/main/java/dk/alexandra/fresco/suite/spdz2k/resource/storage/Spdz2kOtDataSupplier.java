@@ -0,0 +1,139 @@
+package dk.alexandra.fresco.suite.spdz2k.resource.storage;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.preprocessing.Spdz2kOtPreprocessing;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A data supplier which generates pre-processing material on demand using the OT-based protocol
+ * implemented by {@link Spdz2kOtPreprocessing}. <p>Material is generated in batches of a fixed size
+ * and the pre-processing protocol is initialized the first time material is requested.</p>
+ */
+public class Spdz2kOtDataSupplier<PlainT extends CompUInt<?, ?, PlainT>> implements
+    Spdz2kDataSupplier<PlainT> {
+
+  private static final Logger logger = LoggerFactory.getLogger(Spdz2kOtDataSupplier.class);
+  private final int myId;
+  private final int noOfParties;
+  private final int instanceId;
+  private final Supplier<Network> preprocessingNetwork;
+  private final CompUIntFactory<PlainT> factory;
+  private final PlainT macKeyShare;
+  private final Map<Integer, RotList> seedOts;
+  private final Drbg drbg;
+  private final int batchSize;
+
+  private final ArrayDeque<Spdz2kTriple<PlainT>> triples;
+  private final Map<Integer, ArrayDeque<Spdz2kInputMask<PlainT>>> masks;
+  private final ArrayDeque<Spdz2kSInt<PlainT>> randomElements;
+  private final ArrayDeque<Spdz2kSInt<PlainT>> randomBits;
+  private Spdz2kOtPreprocessing<PlainT> preprocessing;
+
+  /**
+   * Creates new {@link Spdz2kOtDataSupplier}.
+   *
+   * @param myId this party's id
+   * @param noOfParties number of parties
+   * @param instanceId identifier used to distinguish parallel instances of the pre-processing
+   * @param preprocessingNetwork supplier for the network to be used by the pre-processing; it
+   *     must not be shared with the online phase
+   * @param factory factory for the ring elements
+   * @param macKeyShare this party's share of the mac key
+   * @param seedOts pre-computed seed OTs of length {@link Spdz2kOtPreprocessing#PRG_SEED_LENGTH}
+   * @param drbg source of randomness
+   * @param batchSize the number of elements of each type to generate at a time
+   */
+  public Spdz2kOtDataSupplier(int myId, int noOfParties, int instanceId,
+      Supplier<Network> preprocessingNetwork, CompUIntFactory<PlainT> factory, PlainT macKeyShare,
+      Map<Integer, RotList> seedOts, Drbg drbg, int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive but was " + batchSize);
+    }
+    this.myId = myId;
+    this.noOfParties = noOfParties;
+    this.instanceId = instanceId;
+    this.preprocessingNetwork = preprocessingNetwork;
+    this.factory = factory;
+    this.macKeyShare = macKeyShare;
+    this.seedOts = seedOts;
+    this.drbg = drbg;
+    this.batchSize = batchSize;
+    this.triples = new ArrayDeque<>();
+    this.masks = new HashMap<>();
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      masks.put(partyId, new ArrayDeque<>());
+    }
+    this.randomElements = new ArrayDeque<>();
+    this.randomBits = new ArrayDeque<>();
+  }
+
+  @Override
+  public Spdz2kTriple<PlainT> getNextTripleShares() {
+    ensureInitialized();
+    if (triples.isEmpty()) {
+      logger.trace("Getting another triple batch");
+      triples.addAll(preprocessing.getTriples(batchSize));
+      logger.trace("Got another triple batch");
+    }
+    return triples.pop();
+  }
+
+  @Override
+  public Spdz2kInputMask<PlainT> getNextInputMask(int towardPlayerId) {
+    ensureInitialized();
+    ArrayDeque<Spdz2kInputMask<PlainT>> inputMasks = masks.get(towardPlayerId);
+    if (inputMasks.isEmpty()) {
+      logger.trace("Getting another mask batch");
+      inputMasks.addAll(preprocessing.getInputMasks(towardPlayerId, batchSize));
+      logger.trace("Got another mask batch");
+    }
+    return inputMasks.pop();
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextBitShare() {
+    ensureInitialized();
+    if (randomBits.isEmpty()) {
+      logger.trace("Getting another bit batch");
+      randomBits.addAll(preprocessing.getRandomBits(batchSize));
+      logger.trace("Got another bit batch");
+    }
+    return randomBits.pop();
+  }
+
+  @Override
+  public PlainT getSecretSharedKey() {
+    return macKeyShare;
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextRandomElementShare() {
+    ensureInitialized();
+    if (randomElements.isEmpty()) {
+      logger.trace("Getting another random element batch");
+      randomElements.addAll(preprocessing.getRandomElements(batchSize));
+      logger.trace("Got another random element batch");
+    }
+    return randomElements.pop();
+  }
+
+  private void ensureInitialized() {
+    if (preprocessing != null) {
+      return;
+    }
+    preprocessing = new Spdz2kOtPreprocessing<>(myId, noOfParties, instanceId,
+        preprocessingNetwork.get(), factory, macKeyShare, seedOts, drbg);
+  }
+}
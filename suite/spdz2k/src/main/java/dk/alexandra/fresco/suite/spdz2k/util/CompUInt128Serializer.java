@@ -0,0 +1,177 @@
+package dk.alexandra.fresco.suite.spdz2k.util;
+
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializer for {@link CompUInt128} instances. <p>Uses the same big-endian format as {@link
+ * UIntSerializer} but writes and reads the two 64-bit halves of each element directly, such that
+ * lists are serialized without intermediate per-element byte arrays. Also supports serializing
+ * elements stored as separate arrays of most and least significant bits.</p>
+ */
+public class CompUInt128Serializer implements ByteSerializer<CompUInt128> {
+
+  private static final int BYTE_LENGTH = 16;
+
+  @Override
+  public byte[] serialize(CompUInt128 object) {
+    return object.toByteArray();
+  }
+
+  @Override
+  public byte[] serialize(List<CompUInt128> objects) {
+    byte[] all = new byte[BYTE_LENGTH * objects.size()];
+    for (int i = 0; i < objects.size(); i++) {
+      CompUInt128 element = objects.get(i);
+      writeLong(all, i * BYTE_LENGTH, element.toLongHigh());
+      writeLong(all, i * BYTE_LENGTH + Long.BYTES, element.toLong());
+    }
+    return all;
+  }
+
+  @Override
+  public CompUInt128 deserialize(byte[] bytes) {
+    return new CompUInt128(bytes);
+  }
+
+  @Override
+  public List<CompUInt128> deserializeList(byte[] bytes) {
+    int numElements = checkLength(bytes);
+    List<CompUInt128> elements = new ArrayList<>(numElements);
+    for (int i = 0; i < numElements; i++) {
+      elements.add(new CompUInt128(readLong(bytes, i * BYTE_LENGTH),
+          readLong(bytes, i * BYTE_LENGTH + Long.BYTES)));
+    }
+    return elements;
+  }
+
+  /**
+   * Serializes elements given as arrays of their most and least significant 64 bits.
+   *
+   * @param high the most significant bits of the elements
+   * @param low the least significant bits of the elements
+   * @return the serialized elements
+   */
+  public static byte[] serialize(long[] high, long[] low) {
+    if (high.length != low.length) {
+      throw new IllegalArgumentException("Arrays must have the same length");
+    }
+    byte[] all = new byte[BYTE_LENGTH * high.length];
+    for (int i = 0; i < high.length; i++) {
+      writeLong(all, i * BYTE_LENGTH, high[i]);
+      writeLong(all, i * BYTE_LENGTH + Long.BYTES, low[i]);
+    }
+    return all;
+  }
+
+  /**
+   * Deserializes elements into arrays of their most and least significant 64 bits, adding them to
+   * the values already in the arrays. <p>This allows summing shares received from several parties
+   * without creating intermediate objects.</p>
+   *
+   * @param bytes the serialized elements
+   * @param high the most significant bits to add to
+   * @param low the least significant bits to add to
+   */
+  public static void deserializeAndAdd(byte[] bytes, long[] high, long[] low) {
+    int numElements = checkLength(bytes);
+    if (numElements != high.length || numElements != low.length) {
+      throw new IllegalArgumentException(
+          "Expected " + high.length + " elements but got " + numElements);
+    }
+    for (int i = 0; i < numElements; i++) {
+      long otherLow = readLong(bytes, i * BYTE_LENGTH + Long.BYTES);
+      long newLow = low[i] + otherLow;
+      long carry = Long.compareUnsigned(newLow, otherLow) < 0 ? 1 : 0;
+      high[i] += readLong(bytes, i * BYTE_LENGTH) + carry;
+      low[i] = newLow;
+    }
+  }
+
+  /**
+   * Serializes only the least significant 64 bits of elements, in the big-endian format of {@link
+   * dk.alexandra.fresco.suite.spdz2k.datatypes.UInt64#toByteArray()}. <p>This is used when opening
+   * values, where the most significant bits of the shares must not be revealed.</p>
+   *
+   * @param low the least significant bits of the elements
+   * @return the serialized elements
+   */
+  public static byte[] serializeLeastSignificant(long[] low) {
+    byte[] all = new byte[Long.BYTES * low.length];
+    for (int i = 0; i < low.length; i++) {
+      writeLong(all, i * Long.BYTES, low[i]);
+    }
+    return all;
+  }
+
+  /**
+   * Deserializes elements serialized by {@link #serializeLeastSignificant(long[])}, adding them to
+   * the values already in the arrays as elements with the most significant bits set to zero.
+   *
+   * @param bytes the serialized least significant bits
+   * @param high the most significant bits to add to
+   * @param low the least significant bits to add to
+   */
+  public static void deserializeLeastSignificantAndAdd(byte[] bytes, long[] high, long[] low) {
+    deserializeLeastSignificantAndAdd(ByteBuffer.wrap(bytes), high, low);
+  }
+
+  /**
+   * Deserializes elements serialized by {@link #serializeLeastSignificant(long[])} from the
+   * remaining bytes of a buffer, adding them to the values already in the arrays like {@link
+   * #deserializeLeastSignificantAndAdd(byte[], long[], long[])}. <p>This allows reading the
+   * received bytes in place, e.g., from {@link
+   * dk.alexandra.fresco.framework.network.Network#receiveBuffer(int)}.</p>
+   *
+   * @param buffer the serialized least significant bits, read in big-endian order
+   * @param high the most significant bits to add to
+   * @param low the least significant bits to add to
+   */
+  public static void deserializeLeastSignificantAndAdd(ByteBuffer buffer, long[] high,
+      long[] low) {
+    if (buffer.remaining() % Long.BYTES != 0) {
+      throw new IllegalArgumentException(
+          "Total number of bytes must be a multiple of length of single element");
+    }
+    int numElements = buffer.remaining() / Long.BYTES;
+    if (numElements != high.length || numElements != low.length) {
+      throw new IllegalArgumentException(
+          "Expected " + high.length + " elements but got " + numElements);
+    }
+    ByteBuffer bigEndian = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    for (int i = 0; i < numElements; i++) {
+      long otherLow = bigEndian.getLong();
+      long newLow = low[i] + otherLow;
+      long carry = Long.compareUnsigned(newLow, otherLow) < 0 ? 1 : 0;
+      high[i] += carry;
+      low[i] = newLow;
+    }
+  }
+
+  private static int checkLength(byte[] bytes) {
+    if (bytes.length % BYTE_LENGTH != 0) {
+      throw new IllegalArgumentException(
+          "Total number of bytes must be a multiple of length of single element");
+    }
+    return bytes.length / BYTE_LENGTH;
+  }
+
+  private static void writeLong(byte[] bytes, int offset, long value) {
+    for (int i = Long.BYTES - 1; i >= 0; i--) {
+      bytes[offset + i] = (byte) value;
+      value >>>= 8;
+    }
+  }
+
+  private static long readLong(byte[] bytes, int offset) {
+    long value = 0;
+    for (int i = 0; i < Long.BYTES; i++) {
+      value = (value << 8) | (bytes[offset + i] & 0xFFL);
+    }
+    return value;
+  }
+}
@@ -0,0 +1,59 @@
+package dk.alexandra.fresco.suite.spdz2k.util;
+
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt64;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializer for {@link CompUInt64} instances. <p>Uses the same big-endian format as {@link
+ * UIntSerializer} but writes and reads the backing {@code long} of each element directly, such
+ * that lists are serialized without intermediate per-element byte arrays.</p>
+ */
+public class CompUInt64Serializer implements ByteSerializer<CompUInt64> {
+
+  private static final int BYTE_LENGTH = Long.BYTES;
+
+  @Override
+  public byte[] serialize(CompUInt64 object) {
+    return object.toByteArray();
+  }
+
+  @Override
+  public byte[] serialize(List<CompUInt64> objects) {
+    byte[] all = new byte[BYTE_LENGTH * objects.size()];
+    for (int i = 0; i < objects.size(); i++) {
+      long value = objects.get(i).toLong();
+      int offset = i * BYTE_LENGTH;
+      for (int j = BYTE_LENGTH - 1; j >= 0; j--) {
+        all[offset + j] = (byte) value;
+        value >>>= 8;
+      }
+    }
+    return all;
+  }
+
+  @Override
+  public CompUInt64 deserialize(byte[] bytes) {
+    return new CompUInt64(bytes);
+  }
+
+  @Override
+  public List<CompUInt64> deserializeList(byte[] bytes) {
+    if (bytes.length % BYTE_LENGTH != 0) {
+      throw new IllegalArgumentException(
+          "Total number of bytes must be a multiple of length of single element");
+    }
+    int numElements = bytes.length / BYTE_LENGTH;
+    List<CompUInt64> elements = new ArrayList<>(numElements);
+    for (int i = 0; i < numElements; i++) {
+      long value = 0;
+      int offset = i * BYTE_LENGTH;
+      for (int j = 0; j < BYTE_LENGTH; j++) {
+        value = (value << 8) | (bytes[offset + j] & 0xFFL);
+      }
+      elements.add(new CompUInt64(value));
+    }
+    return elements;
+  }
+}
@@ -61,6 +61,11 @@ public abstract class Spdz2kTestSuite<Spdz2kResourcePoolT extends Spdz2kResource
     runTest(new BasicArithmeticTests.TestLotsMult<>(), EvaluationStrategy.SEQUENTIAL_BATCHED);
   }
 
+  @Test
+  public void testMultVector() {
+    runTest(new BasicArithmeticTests.TestMultVector<>(), EvaluationStrategy.SEQUENTIAL_BATCHED);
+  }
+
   @Test
   public void testSumAndMult() {
     runTest(new BasicArithmeticTests.TestSumAndMult<>(), EvaluationStrategy.SEQUENTIAL_BATCHED);
@@ -0,0 +1,124 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUInt64 {
+
+  private final BigInteger twoTo32 = BigInteger.ONE.shiftLeft(32);
+  private final BigInteger twoTo64 = BigInteger.ONE.shiftLeft(64);
+
+  @Test
+  public void testConstruct() {
+    assertEquals(BigInteger.ZERO, new CompUInt64(BigInteger.ZERO).toBigInteger());
+    assertEquals(BigInteger.ONE, new CompUInt64(BigInteger.ONE).toBigInteger());
+    assertEquals(twoTo32, new CompUInt64(twoTo32).toBigInteger());
+    assertEquals(twoTo32.subtract(BigInteger.ONE),
+        new CompUInt64(twoTo32.subtract(BigInteger.ONE)).toBigInteger());
+    assertEquals(twoTo64.subtract(BigInteger.ONE),
+        new CompUInt64(twoTo64.subtract(BigInteger.ONE)).toBigInteger());
+  }
+
+  @Test
+  public void testConstructFromLeastSignificantBytes() {
+    CompUInt64 uint = new CompUInt64(new byte[]{(byte) 0xff, 0x00, 0x00, 0x01});
+    assertEquals(BigInteger.valueOf(0xff000001L), uint.toBigInteger());
+    assertTrue(uint.getMostSignificant().isZero());
+  }
+
+  @Test
+  public void testArithmeticMatchesBigInteger() {
+    Random random = new Random(42);
+    for (int i = 0; i < 100; i++) {
+      BigInteger left = new BigInteger(64, random);
+      BigInteger right = new BigInteger(64, random);
+      CompUInt64 leftUInt = new CompUInt64(left);
+      CompUInt64 rightUInt = new CompUInt64(right);
+      assertEquals(left.add(right).mod(twoTo64), leftUInt.add(rightUInt).toBigInteger());
+      assertEquals(left.subtract(right).mod(twoTo64),
+          leftUInt.subtract(rightUInt).toBigInteger());
+      assertEquals(left.multiply(right).mod(twoTo64),
+          leftUInt.multiply(rightUInt).toBigInteger());
+      assertEquals(left.negate().mod(twoTo64), leftUInt.negateUInt().toBigInteger());
+    }
+  }
+
+  @Test
+  public void testSplit() {
+    CompUInt64 uint = new CompUInt64(0x0102030405060708L);
+    assertEquals(0x01020304, uint.getMostSignificant().toInt());
+    assertEquals(0x05060708, uint.getLeastSignificant().toInt());
+    assertEquals(0x05060708, uint.getLeastSignificantAsHigh().toInt());
+    assertEquals(0x0506070800000000L, uint.shiftLowIntoHigh().toLong());
+    assertEquals(0x05060708L, new CompUIntConverter64()
+        .createFromHigh(uint.getLeastSignificantAsHigh()).toLong());
+    assertEquals(0xfffffffeL, new CompUIntConverter64().createFromLow(new UInt32(-2)).toLong());
+  }
+
+  @Test
+  public void testToByteArray() {
+    byte[] bytes = new byte[8];
+    new Random(1).nextBytes(bytes);
+    assertArrayEquals(bytes, new CompUInt64(bytes).toByteArray());
+    byte[] padded = new CompUInt64(new byte[]{0x42}, true).toByteArray();
+    byte[] expected = new byte[8];
+    expected[7] = 0x42;
+    assertArrayEquals(expected, padded);
+  }
+
+  @Test
+  public void testSerializeList() {
+    ByteSerializer<CompUInt64> serializer = new CompUInt64Factory().getSerializer();
+    Random random = new Random(42);
+    List<CompUInt64> elements = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      elements.add(new CompUInt64(random.nextLong()));
+    }
+    byte[] serialized = serializer.serialize(elements);
+    assertEquals(8 * elements.size(), serialized.length);
+    List<CompUInt64> actual = serializer.deserializeList(serialized);
+    for (int i = 0; i < elements.size(); i++) {
+      assertEquals(elements.get(i).toLong(), actual.get(i).toLong());
+    }
+  }
+
+  @Test
+  public void testGetBitLength() {
+    CompUInt64 uint = new CompUInt64(1);
+    assertEquals(64, uint.getBitLength());
+    assertEquals(32, uint.getHighBitLength());
+    assertEquals(32, uint.getLowBitLength());
+  }
+
+  @Test
+  public void testFactoryConversions() {
+    CompUInt64Factory factory = new CompUInt64Factory();
+    assertEquals(twoTo32, factory.getModulus());
+    CompUInt64 minusOne = factory.createElement(twoTo64.subtract(BigInteger.ONE));
+    assertEquals(twoTo32.subtract(BigInteger.ONE), factory.convertToUnsigned(minusOne));
+    assertEquals(BigInteger.valueOf(-1),
+        factory.convertToSigned(factory.convertToUnsigned(minusOne)));
+    assertEquals(BigInteger.ONE, factory.convertToSigned(BigInteger.ONE));
+  }
+
+  @Test
+  public void testIsZero() {
+    assertTrue(new CompUInt64(0).isZero());
+    assertFalse(new CompUInt64(1L << 32).isZero());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPadIllegal() {
+    new CompUInt64(new byte[10], true);
+  }
+
+}
@@ -0,0 +1,152 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdz2kSIntVector128 {
+
+  private static final int SIZE = 100;
+
+  private final Random random = new Random(42);
+  private List<Spdz2kSInt<CompUInt128>> left;
+  private List<Spdz2kSInt<CompUInt128>> right;
+  private List<CompUInt128> constants;
+
+  @Before
+  public void setUp() {
+    left = randomSInts();
+    right = randomSInts();
+    constants = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      constants.add(randomElement());
+    }
+    // make sure carries and wrap-around are exercised
+    CompUInt128 max = new CompUInt128(-1L, -1L);
+    left.set(0, new Spdz2kSInt<>(max, max));
+    right.set(0, new Spdz2kSInt<>(max, max));
+    constants.set(0, max);
+  }
+
+  @Test
+  public void testRoundTrip() {
+    Spdz2kSIntVector128 vector = Spdz2kSIntVector128.fromSInts(left);
+    assertEquals(SIZE, vector.size());
+    assertSIntsEqual(left, vector.toSInts());
+  }
+
+  @Test
+  public void testAdd() {
+    List<Spdz2kSInt<CompUInt128>> expected = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      expected.add(left.get(i).add(right.get(i)));
+    }
+    assertSIntsEqual(expected, Spdz2kSIntVector128.fromSInts(left)
+        .add(Spdz2kSIntVector128.fromSInts(right)).toSInts());
+  }
+
+  @Test
+  public void testSubtract() {
+    List<Spdz2kSInt<CompUInt128>> expected = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      expected.add(left.get(i).subtract(right.get(i)));
+    }
+    assertSIntsEqual(expected, Spdz2kSIntVector128.fromSInts(left)
+        .subtract(Spdz2kSIntVector128.fromSInts(right)).toSInts());
+  }
+
+  @Test
+  public void testMultiplyConstant() {
+    CompUInt128 constant = constants.get(1);
+    List<Spdz2kSInt<CompUInt128>> expected = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      expected.add(left.get(i).multiply(constant));
+    }
+    assertSIntsEqual(expected, Spdz2kSIntVector128.fromSInts(left).multiply(constant).toSInts());
+  }
+
+  @Test
+  public void testMultiplyConstants() {
+    List<Spdz2kSInt<CompUInt128>> expected = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      expected.add(left.get(i).multiply(constants.get(i)));
+    }
+    assertSIntsEqual(expected, Spdz2kSIntVector128.fromSInts(left).multiply(constants).toSInts());
+  }
+
+  @Test
+  public void testAddConstants() {
+    CompUInt128 macKeyShare = randomElement();
+    CompUInt128 zero = new CompUInt128Factory().zero();
+    for (boolean isPartyOne : Arrays.asList(true, false)) {
+      List<Spdz2kSInt<CompUInt128>> expected = new ArrayList<>(SIZE);
+      for (int i = 0; i < SIZE; i++) {
+        expected.add(left.get(i).addConstant(constants.get(i), macKeyShare, zero, isPartyOne));
+      }
+      assertSIntsEqual(expected, Spdz2kSIntVector128.fromSInts(left)
+          .addConstants(constants, macKeyShare, isPartyOne).toSInts());
+    }
+  }
+
+  @Test
+  public void testPackedConstants() {
+    long[] constantHigh = new long[SIZE];
+    long[] constantLow = new long[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      constantHigh[i] = constants.get(i).toLongHigh();
+      constantLow[i] = constants.get(i).toLong();
+    }
+    CompUInt128 macKeyShare = randomElement();
+    Spdz2kSIntVector128 vector = Spdz2kSIntVector128.fromSInts(left);
+    assertSIntsEqual(vector.multiply(constants).toSInts(),
+        vector.multiply(constantHigh, constantLow).asSInts());
+    assertSIntsEqual(vector.addConstants(constants, macKeyShare, true).toSInts(),
+        vector.addConstants(constantHigh, constantLow, macKeyShare, true).asSInts());
+  }
+
+  @Test
+  public void testSerializeShares() {
+    List<CompUInt128> shares = new ArrayList<>(SIZE);
+    for (Spdz2kSInt<CompUInt128> element : left) {
+      shares.add(element.getShare());
+    }
+    List<CompUInt128> actual = new CompUInt128Factory().getSerializer()
+        .deserializeList(Spdz2kSIntVector128.fromSInts(left).serializeShares());
+    for (int i = 0; i < SIZE; i++) {
+      assertEquals(shares.get(i).toBigInteger(), actual.get(i).toBigInteger());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddDifferentSizes() {
+    new Spdz2kSIntVector128(2).add(new Spdz2kSIntVector128(3));
+  }
+
+  private List<Spdz2kSInt<CompUInt128>> randomSInts() {
+    List<Spdz2kSInt<CompUInt128>> elements = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      elements.add(new Spdz2kSInt<>(randomElement(), randomElement()));
+    }
+    return elements;
+  }
+
+  private CompUInt128 randomElement() {
+    return new CompUInt128(random.nextLong(), random.nextLong());
+  }
+
+  private static void assertSIntsEqual(List<Spdz2kSInt<CompUInt128>> expected,
+      List<Spdz2kSInt<CompUInt128>> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getShare().toBigInteger(),
+          actual.get(i).getShare().toBigInteger());
+      assertEquals(expected.get(i).getMacShare().toBigInteger(),
+          actual.get(i).getMacShare().toBigInteger());
+    }
+  }
+}
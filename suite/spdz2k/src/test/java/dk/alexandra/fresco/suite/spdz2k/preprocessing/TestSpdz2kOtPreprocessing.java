@@ -0,0 +1,243 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDataSupplier;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kOtDataSupplier;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class TestSpdz2kOtPreprocessing {
+
+  private static final int AMOUNT = 10;
+
+  private final CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+
+  @Test
+  public void testTwoParties() throws Exception {
+    testPreprocessing(2);
+  }
+
+  @Test
+  public void testThreeParties() throws Exception {
+    testPreprocessing(3);
+  }
+
+  @Test
+  public void testCombinedInputIsPad() throws Exception {
+    // with all inputs zero the linear combination which the inputter broadcasts must be exactly
+    // the pad, i.e., the pad has coefficient one and masks every bit of the combination
+    List<Boolean> results = runParties(2, (myId, network, drbg, seedOts) -> {
+      RecordingDrbg recordingDrbg = new RecordingDrbg(drbg);
+      RecordingNetwork recordingNetwork = new RecordingNetwork(network);
+      Spdz2kOtPreprocessing<CompUInt128> preprocessing = new Spdz2kOtPreprocessing<>(myId, 2, 1,
+          recordingNetwork, factory, factory.createRandom(), seedOts, recordingDrbg);
+      if (myId == 1) {
+        List<CompUInt128> zeros = new ArrayList<>();
+        for (int i = 0; i < AMOUNT; i++) {
+          zeros.add(factory.zero());
+        }
+        recordingDrbg.outputs.clear();
+        recordingNetwork.sent.clear();
+        preprocessing.input(zeros);
+        // the pad is the first element sampled by the input
+        byte[] pad = recordingDrbg.outputs.get(0);
+        return recordingNetwork.sent.stream().anyMatch(message -> Arrays.equals(pad, message));
+      } else {
+        preprocessing.input(1, AMOUNT);
+        return true;
+      }
+    });
+    assertEquals(Arrays.asList(true, true), results);
+  }
+
+  private void testPreprocessing(int noOfParties) throws Exception {
+    List<Material> material = runParties(noOfParties, (myId, network, drbg, seedOts) -> {
+      Spdz2kDataSupplier<CompUInt128> supplier = new Spdz2kOtDataSupplier<>(myId, noOfParties, 1,
+          () -> network, factory, factory.createRandom(), seedOts, drbg, AMOUNT / 2);
+      Material result = new Material();
+      result.macKeyShare = supplier.getSecretSharedKey();
+      for (int i = 0; i < AMOUNT; i++) {
+        result.triples.add(supplier.getNextTripleShares());
+        result.elements.add(supplier.getNextRandomElementShare());
+        result.bits.add(supplier.getNextBitShare());
+        result.masks.add(supplier.getNextInputMask(noOfParties));
+      }
+      return result;
+    });
+    CompUInt128 macKey = sum(material, m -> m.macKeyShare);
+    for (int i = 0; i < AMOUNT; i++) {
+      int index = i;
+      Spdz2kSInt<CompUInt128> left = recombine(material, m -> m.triples.get(index).getLeft());
+      Spdz2kSInt<CompUInt128> right = recombine(material, m -> m.triples.get(index).getRight());
+      Spdz2kSInt<CompUInt128> product = recombine(material,
+          m -> m.triples.get(index).getProduct());
+      assertMacCorrect(left, macKey);
+      assertMacCorrect(right, macKey);
+      assertMacCorrect(product, macKey);
+      assertEquals(left.getShare().multiply(right.getShare()).toBigInteger(),
+          product.getShare().toBigInteger());
+
+      assertMacCorrect(recombine(material, m -> m.elements.get(index)), macKey);
+
+      Spdz2kSInt<CompUInt128> bit = recombine(material, m -> m.bits.get(index));
+      assertMacCorrect(bit, macKey);
+      BigInteger bitValue = bit.getShare().toBigInteger();
+      assertTrue("Not a bit " + bitValue,
+          bitValue.equals(BigInteger.ZERO) || bitValue.equals(BigInteger.ONE));
+
+      Spdz2kSInt<CompUInt128> mask = recombine(material, m -> m.masks.get(index).getMaskShare());
+      assertMacCorrect(mask, macKey);
+      assertEquals(material.get(noOfParties - 1).masks.get(index).getOpenValue().toBigInteger(),
+          mask.getShare().toBigInteger());
+    }
+  }
+
+  private <T> List<T> runParties(int noOfParties, PartyTask<T> task) throws Exception {
+    Map<Integer, NetworkConfiguration> confs = NetworkUtil.getNetworkConfigurations(noOfParties);
+    ExecutorService executor = Executors.newFixedThreadPool(noOfParties);
+    try {
+      List<Future<T>> futures = new ArrayList<>(noOfParties);
+      for (int myId = 1; myId <= noOfParties; myId++) {
+        int id = myId;
+        futures.add(executor.submit(() -> {
+          try (CloseableNetwork network = new SocketNetwork(confs.get(id))) {
+            byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+            seed[0] = (byte) id;
+            Drbg drbg = new AesCtrDrbg(seed);
+            Map<Integer, RotList> seedOts = getSeedOts(id, noOfParties, drbg, network);
+            return task.run(id, network, drbg, seedOts);
+          }
+        }));
+      }
+      List<T> results = new ArrayList<>(noOfParties);
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private Map<Integer, RotList> getSeedOts(int myId, int noOfParties, Drbg drbg,
+      CloseableNetwork network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (myId != otherId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, Spdz2kOtPreprocessing.PRG_SEED_LENGTH);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+
+  private CompUInt128 sum(List<Material> material, Function<Material, CompUInt128> getter) {
+    CompUInt128 result = factory.zero();
+    for (Material partyMaterial : material) {
+      result = result.add(getter.apply(partyMaterial));
+    }
+    return result;
+  }
+
+  private Spdz2kSInt<CompUInt128> recombine(List<Material> material,
+      Function<Material, Spdz2kSInt<CompUInt128>> getter) {
+    return new Spdz2kSInt<>(sum(material, m -> getter.apply(m).getShare()),
+        sum(material, m -> getter.apply(m).getMacShare()));
+  }
+
+  private void assertMacCorrect(Spdz2kSInt<CompUInt128> recombined, CompUInt128 macKey) {
+    assertEquals(recombined.getShare().multiply(macKey).toBigInteger(),
+        recombined.getMacShare().toBigInteger());
+  }
+
+  private interface PartyTask<T> {
+
+    T run(int myId, Network network, Drbg drbg, Map<Integer, RotList> seedOts);
+  }
+
+  private static class RecordingDrbg implements Drbg {
+
+    private final Drbg drbg;
+    private final List<byte[]> outputs = new ArrayList<>();
+
+    private RecordingDrbg(Drbg drbg) {
+      this.drbg = drbg;
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+      drbg.nextBytes(bytes);
+      outputs.add(bytes.clone());
+    }
+  }
+
+  private static class RecordingNetwork implements Network {
+
+    private final Network network;
+    private final List<byte[]> sent = new ArrayList<>();
+
+    private RecordingNetwork(Network network) {
+      this.network = network;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      sent.add(data.clone());
+      network.send(partyId, data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return network.receive(partyId);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return network.getNoOfParties();
+    }
+  }
+
+  private static class Material {
+
+    private CompUInt128 macKeyShare;
+    private final List<Spdz2kTriple<CompUInt128>> triples = new ArrayList<>();
+    private final List<Spdz2kSInt<CompUInt128>> elements = new ArrayList<>();
+    private final List<Spdz2kSInt<CompUInt128>> bits = new ArrayList<>();
+    private final List<Spdz2kInputMask<CompUInt128>> masks = new ArrayList<>();
+  }
+}
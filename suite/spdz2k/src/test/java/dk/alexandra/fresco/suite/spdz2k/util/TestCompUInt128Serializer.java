@@ -0,0 +1,128 @@
+package dk.alexandra.fresco.suite.spdz2k.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUInt128Serializer {
+
+  private final CompUInt128Serializer serializer = new CompUInt128Serializer();
+  private final UIntSerializer<CompUInt128> reference =
+      new UIntSerializer<>(new CompUInt128Factory());
+
+  @Test
+  public void testSerializeListMatchesUIntSerializer() {
+    List<CompUInt128> elements = randomElements(new Random(42), 10);
+    byte[] expected = reference.serialize(elements);
+    assertArrayEquals(expected, serializer.serialize(elements));
+    List<CompUInt128> actual = serializer.deserializeList(expected);
+    for (int i = 0; i < elements.size(); i++) {
+      assertEquals(elements.get(i).toBigInteger(), actual.get(i).toBigInteger());
+    }
+  }
+
+  @Test
+  public void testSerializeArrays() {
+    Random random = new Random(42);
+    long[] high = new long[10];
+    long[] low = new long[10];
+    List<CompUInt128> elements = new ArrayList<>();
+    for (int i = 0; i < high.length; i++) {
+      high[i] = random.nextLong();
+      low[i] = random.nextLong();
+      elements.add(new CompUInt128(high[i], low[i]));
+    }
+    assertArrayEquals(reference.serialize(elements), CompUInt128Serializer.serialize(high, low));
+  }
+
+  @Test
+  public void testDeserializeAndAdd() {
+    Random random = new Random(42);
+    List<CompUInt128> first = randomElements(random, 10);
+    List<CompUInt128> second = randomElements(random, 10);
+    first.set(0, new CompUInt128(-1L, -1L));
+    second.set(0, new CompUInt128(0L, 1L));
+    long[] high = new long[10];
+    long[] low = new long[10];
+    CompUInt128Serializer.deserializeAndAdd(serializer.serialize(first), high, low);
+    CompUInt128Serializer.deserializeAndAdd(serializer.serialize(second), high, low);
+    for (int i = 0; i < first.size(); i++) {
+      BigInteger expected = first.get(i).add(second.get(i)).toBigInteger();
+      assertEquals(expected, new CompUInt128(high[i], low[i]).toBigInteger());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDeserializeAndAddWrongSize() {
+    CompUInt128Serializer.deserializeAndAdd(new byte[32], new long[1], new long[1]);
+  }
+
+  @Test
+  public void testLeastSignificantMatchesSingleOpen() {
+    Random random = new Random(42);
+    List<CompUInt128> first = randomElements(random, 10);
+    List<CompUInt128> second = randomElements(random, 10);
+    first.set(0, new CompUInt128(0L, -1L));
+    second.set(0, new CompUInt128(0L, 1L));
+    long[] high = new long[10];
+    long[] low = new long[10];
+    for (List<CompUInt128> shares : Arrays.asList(first, second)) {
+      long[] sharesLow = new long[shares.size()];
+      for (int i = 0; i < shares.size(); i++) {
+        sharesLow[i] = shares.get(i).toLong();
+      }
+      CompUInt128Serializer.deserializeLeastSignificantAndAdd(
+          CompUInt128Serializer.serializeLeastSignificant(sharesLow), high, low);
+    }
+    for (int i = 0; i < first.size(); i++) {
+      // the way Spdz2kMultiplyProtocol reconstructs an opened value
+      CompUInt128 expected = new CompUInt128(
+          first.get(i).getLeastSignificant().toByteArray())
+          .add(new CompUInt128(second.get(i).getLeastSignificant().toByteArray()));
+      assertEquals(expected.toBigInteger(), new CompUInt128(high[i], low[i]).toBigInteger());
+    }
+  }
+
+  @Test
+  public void testLeastSignificantFromBufferView() {
+    long[] sharesLow = {1L, -1L, 42L};
+    byte[] serialized = CompUInt128Serializer.serializeLeastSignificant(sharesLow);
+    byte[] padded = new byte[serialized.length + 5];
+    System.arraycopy(serialized, 0, padded, 3, serialized.length);
+    ByteBuffer view = ByteBuffer.wrap(padded, 3, serialized.length).slice().asReadOnlyBuffer();
+    long[] high = {0L, 0L, 7L};
+    long[] low = {0L, 1L, 0L};
+    CompUInt128Serializer.deserializeLeastSignificantAndAdd(view, high, low);
+    assertArrayEquals(new long[]{0L, 1L, 7L}, high);
+    assertArrayEquals(new long[]{1L, 0L, 42L}, low);
+    assertEquals(serialized.length, view.remaining());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDeserializeLeastSignificantAndAddWrongSize() {
+    CompUInt128Serializer.deserializeLeastSignificantAndAdd(new byte[16], new long[1],
+        new long[1]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDeserializeListWrongLength() {
+    serializer.deserializeList(new byte[17]);
+  }
+
+  private List<CompUInt128> randomElements(Random random, int numElements) {
+    List<CompUInt128> elements = new ArrayList<>(numElements);
+    for (int i = 0; i < numElements; i++) {
+      elements.add(new CompUInt128(random.nextLong(), random.nextLong()));
+    }
+    return elements;
+  }
+}
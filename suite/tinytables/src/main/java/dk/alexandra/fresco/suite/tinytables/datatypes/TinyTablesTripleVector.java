@@ -0,0 +1,167 @@
+package dk.alexandra.fresco.suite.tinytables.datatypes;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * This class keeps shares of a sequence of multiplication triples <i>(a,b,c)</i> in bit-sliced
+ * form: the shares of <i>a</i>, <i>b</i> and <i>c</i> are kept in three separate bit vectors packed
+ * into <code>long</code>'s, where the <i>i</i>'th triple is bit <code>i % 64</code> of word
+ * <code>i / 64</code>. This allows operations on many triples to be done word-wise. Bits beyond the
+ * size of the vector are always zero.
+ */
+public class TinyTablesTripleVector implements Serializable {
+
+  private static final long serialVersionUID = -4519245208563946322L;
+
+  private final int size;
+  private final long[] a;
+  private final long[] b;
+  private final long[] c;
+
+  /**
+   * Creates a new vector of the given size where all shares are zero.
+   *
+   * @param size the number of triples
+   */
+  public TinyTablesTripleVector(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Size must be non-negative but was " + size);
+    }
+    this.size = size;
+    this.a = new long[words(size)];
+    this.b = new long[words(size)];
+    this.c = new long[words(size)];
+  }
+
+  /**
+   * Creates a vector holding the given triples in the given order.
+   *
+   * @param triples the triples
+   * @return the vector
+   */
+  public static TinyTablesTripleVector fromTriples(List<TinyTablesTriple> triples) {
+    TinyTablesTripleVector vector = new TinyTablesTripleVector(triples.size());
+    for (int i = 0; i < triples.size(); i++) {
+      vector.set(i, triples.get(i));
+    }
+    return vector;
+  }
+
+  /**
+   * Returns the number of words needed to hold the given number of bits.
+   *
+   * @param bits the number of bits
+   * @return the number of <code>long</code>'s needed
+   */
+  public static int words(int bits) {
+    return (bits + Long.SIZE - 1) / Long.SIZE;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Returns the packed shares of <i>a</i>. The array is not copied.
+   */
+  public long[] getA() {
+    return a;
+  }
+
+  /**
+   * Returns the packed shares of <i>b</i>. The array is not copied.
+   */
+  public long[] getB() {
+    return b;
+  }
+
+  /**
+   * Returns the packed shares of <i>c</i>. The array is not copied.
+   */
+  public long[] getC() {
+    return c;
+  }
+
+  public TinyTablesTriple get(int index) {
+    checkIndex(index);
+    return TinyTablesTriple.fromShares(getBit(a, index), getBit(b, index), getBit(c, index));
+  }
+
+  public void set(int index, TinyTablesTriple triple) {
+    checkIndex(index);
+    setBit(a, index, triple.getA().getShare());
+    setBit(b, index, triple.getB().getShare());
+    setBit(c, index, triple.getC().getShare());
+  }
+
+  /**
+   * Copies <code>length</code> triples from the given vector, starting at <code>srcPos</code>, into
+   * this vector starting at <code>destPos</code>. The triples in this vector that are overwritten
+   * must be all zero, as is the case for a newly created vector.
+   *
+   * @param src the vector to copy from
+   * @param srcPos the index of the first triple to copy
+   * @param destPos the index in this vector of the first copied triple
+   * @param length the number of triples to copy
+   */
+  public void copyFrom(TinyTablesTripleVector src, int srcPos, int destPos, int length) {
+    if (length < 0 || srcPos < 0 || destPos < 0 || srcPos + length > src.size
+        || destPos + length > size) {
+      throw new IndexOutOfBoundsException("Cannot copy " + length + " triples from index " + srcPos
+          + " of " + src.size + " to index " + destPos + " of " + size);
+    }
+    copyBits(src.a, srcPos, a, destPos, length);
+    copyBits(src.b, srcPos, b, destPos, length);
+    copyBits(src.c, srcPos, c, destPos, length);
+  }
+
+  private static void copyBits(long[] src, int srcPos, long[] dest, int destPos, int length) {
+    for (int k = 0; k < length; k += Long.SIZE) {
+      long bits = readWord(src, srcPos + k);
+      int remaining = length - k;
+      if (remaining < Long.SIZE) {
+        bits &= (1L << remaining) - 1;
+      }
+      int word = (destPos + k) >>> 6;
+      int shift = (destPos + k) & 63;
+      dest[word] |= bits << shift;
+      if (shift != 0 && word + 1 < dest.length) {
+        dest[word + 1] |= bits >>> (Long.SIZE - shift);
+      }
+    }
+  }
+
+  private static long readWord(long[] bits, int pos) {
+    int word = pos >>> 6;
+    int shift = pos & 63;
+    long value = bits[word] >>> shift;
+    if (shift != 0 && word + 1 < bits.length) {
+      value |= bits[word + 1] << (Long.SIZE - shift);
+    }
+    return value;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+    }
+  }
+
+  private static boolean getBit(long[] bits, int index) {
+    return ((bits[index >>> 6] >>> index) & 1L) != 0;
+  }
+
+  private static void setBit(long[] bits, int index, boolean value) {
+    if (value) {
+      bits[index >>> 6] |= 1L << index;
+    } else {
+      bits[index >>> 6] &= ~(1L << index);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "TinyTablesTripleVector[size=" + size + "]";
+  }
+}
@@ -5,13 +5,18 @@ import dk.alexandra.fresco.framework.builder.binary.Binary;
 import dk.alexandra.fresco.framework.builder.binary.BuilderFactoryBinary;
 import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
 import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.lib.bristol.BristolCircuit;
+import dk.alexandra.fresco.lib.bristol.BristolCircuitBackend;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
 import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesANDProtocol;
+import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesCircuitProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesCloseProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesNOTProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesOpenToAllProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesXORProtocol;
+import java.util.Collections;
+import java.util.List;
 
 public class TinyTablesBuilderFactory implements BuilderFactoryBinary {
 
@@ -23,62 +28,108 @@ public class TinyTablesBuilderFactory implements BuilderFactoryBinary {
     return counter++;
   }
 
+  /**
+   * Reserves a block of consecutive ids and returns the first of them.
+   */
+  private int reserveIds(int count) {
+    int first = counter;
+    counter += count;
+    return first;
+  }
+
   @Override
   public Binary createBinary(ProtocolBuilderBinary builder) {
-    return new Binary() {
+    return new TinyTablesBinary(builder);
+  }
 
-      @Override
-      public DRes<SBool> xor(DRes<SBool> left, DRes<SBool> right) {
-        TinyTablesXORProtocol p = new TinyTablesXORProtocol(left, right);
-        builder.append(p);
-        return p;
-      }
+  /**
+   * The {@link Binary} computation directory of the builders. Also evaluates compiled Bristol
+   * circuits as a single native protocol, see {@link TinyTablesCircuitProtocol}.
+   */
+  private class TinyTablesBinary implements Binary, BristolCircuitBackend {
 
-      @Override
-      public DRes<SBool> randomBit() {
-        throw new UnsupportedOperationException(
-            "The random bit computation is not implemented for TinyTables");
-      }
+    private final ProtocolBuilderBinary builder;
 
-      @Override
-      public DRes<Boolean> open(DRes<SBool> toOpen, int towardsPartyId) {
-        throw new UnsupportedOperationException(
-            "Opening towards a party id is not implemented for TinyTables");
-      }
+    private TinyTablesBinary(ProtocolBuilderBinary builder) {
+      this.builder = builder;
+    }
 
-      @Override
-      public DRes<Boolean> open(DRes<SBool> toOpen) {
-        TinyTablesOpenToAllProtocol p = new TinyTablesOpenToAllProtocol(getNextId(), toOpen);
-        builder.append(p);
-        return p;
-      }
+    @Override
+    public DRes<SBool> xor(DRes<SBool> left, DRes<SBool> right) {
+      TinyTablesXORProtocol p = new TinyTablesXORProtocol(left, right);
+      builder.append(p);
+      return p;
+    }
 
-      @Override
-      public DRes<SBool> not(DRes<SBool> in) {
-        TinyTablesNOTProtocol p = new TinyTablesNOTProtocol(in);
-        builder.append(p);
-        return p;
-      }
+    @Override
+    public DRes<SBool> randomBit() {
+      throw new UnsupportedOperationException(
+          "The random bit computation is not implemented for TinyTables");
+    }
 
-      @Override
-      public DRes<SBool> known(boolean known) {
-        return () -> TinyTablesSBool.getInstance(TinyTablesElement.getInstance(known));
-      }
+    @Override
+    public DRes<Boolean> open(DRes<SBool> toOpen, int towardsPartyId) {
+      throw new UnsupportedOperationException(
+          "Opening towards a party id is not implemented for TinyTables");
+    }
 
-      @Override
-      public DRes<SBool> input(boolean in, int inputter) {
-        TinyTablesCloseProtocol p = new TinyTablesCloseProtocol(getNextId(), inputter, in);
-        builder.append(p);
-        return p;
-      }
+    @Override
+    public DRes<Boolean> open(DRes<SBool> toOpen) {
+      TinyTablesOpenToAllProtocol p = new TinyTablesOpenToAllProtocol(getNextId(), toOpen);
+      builder.append(p);
+      return p;
+    }
+
+    @Override
+    public DRes<SBool> not(DRes<SBool> in) {
+      TinyTablesNOTProtocol p = new TinyTablesNOTProtocol(in);
+      builder.append(p);
+      return p;
+    }
+
+    @Override
+    public DRes<SBool> known(boolean known) {
+      return () -> TinyTablesSBool.getInstance(TinyTablesElement.getInstance(known));
+    }
 
-      @Override
-      public DRes<SBool> and(DRes<SBool> left, DRes<SBool> right) {
-        TinyTablesANDProtocol p = new TinyTablesANDProtocol(getNextId(), left, right);
-        builder.append(p);
-        return p;
+    @Override
+    public DRes<SBool> input(boolean in, int inputter) {
+      TinyTablesCloseProtocol p = new TinyTablesCloseProtocol(getNextId(), inputter, in);
+      builder.append(p);
+      return p;
+    }
+
+    @Override
+    public DRes<SBool> and(DRes<SBool> left, DRes<SBool> right) {
+      TinyTablesANDProtocol p = new TinyTablesANDProtocol(getNextId(), left, right);
+      builder.append(p);
+      return p;
+    }
+
+    @Override
+    public DRes<List<SBool>> evaluate(ProtocolBuilderBinary circuitBuilder,
+        BristolCircuit circuit, List<DRes<SBool>> in1, List<DRes<SBool>> in2) {
+      DRes<List<List<SBool>>> out = evaluateMany(circuitBuilder, circuit,
+          Collections.singletonList(in1), Collections.singletonList(in2));
+      return () -> out.out().get(0);
+    }
+
+    @Override
+    public DRes<List<List<SBool>>> evaluateMany(ProtocolBuilderBinary circuitBuilder,
+        BristolCircuit circuit, List<List<DRes<SBool>>> in1, List<List<DRes<SBool>>> in2) {
+      if (in1.size() != in2.size()) {
+        throw new IllegalArgumentException("Number of first and second inputs must be equal but "
+            + "were " + in1.size() + " and " + in2.size());
+      }
+      for (int i = 0; i < in1.size(); i++) {
+        circuit.checkInputs(in1.get(i).size(), in2.get(i).size());
       }
-    };
+      int ids = Math.multiplyExact(circuit.getNoOfAndGates(), in1.size());
+      TinyTablesCircuitProtocol p =
+          new TinyTablesCircuitProtocol(reserveIds(ids), circuit, in1, in2);
+      circuitBuilder.append(p);
+      return p;
+    }
   }
 
 }
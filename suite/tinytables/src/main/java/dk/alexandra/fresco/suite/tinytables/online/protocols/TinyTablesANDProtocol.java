@@ -2,10 +2,9 @@ package dk.alexandra.fresco.suite.tinytables.online.protocols;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.network.Network;
-import dk.alexandra.fresco.framework.network.serializers.BooleanSerializer;
+import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 import dk.alexandra.fresco.framework.value.SBool;
-import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
 import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
@@ -29,6 +28,11 @@ import java.util.Objects;
  * Both players now add their share with the other players share to get the masked value of the
  * output wire.
  * </p>
+ * <p>
+ * The shares are sent using {@link Network#sendBit(int, boolean)}, such that on a {@link
+ * NetworkBatchDecorator} the shares of all AND gates evaluated in the same round are packed into
+ * one bit vector per player.
+ * </p>
  *
  * @author Jonas Lindstrøm (jonas.lindstrom@alexandra.dk)
  */
@@ -49,18 +53,20 @@ public class TinyTablesANDProtocol extends TinyTablesProtocol<SBool> {
     TinyTablesProtocolSuite ps = TinyTablesProtocolSuite.getInstance(resourcePool.getMyId());
 
     if (round == 0) {
-      TinyTable tinyTable = Objects.requireNonNull(ps.getStorage().getTinyTable(id),
+      TinyTablesElement myShare = Objects.requireNonNull(
+          ps.getStorage().lookupTinyTable(id,
+              ((TinyTablesSBool) inLeft.out()).getValue().getShare(),
+              ((TinyTablesSBool) inRight.out()).getValue().getShare()),
           "Unable to find TinyTable for gate with id " + id);
-      TinyTablesElement myShare = tinyTable.getValue(((TinyTablesSBool) inLeft.out()).getValue(),
-          ((TinyTablesSBool) inRight.out()).getValue());
 
-      network.sendToAll(new byte[]{BooleanSerializer.toBytes(myShare.getShare())});
+      for (int party = 1; party <= network.getNoOfParties(); party++) {
+        network.sendBit(party, myShare.getShare());
+      }
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
-      List<byte[]> buffers = network.receiveFromAll();
       List<TinyTablesElement> shares = new ArrayList<>();
-      for (byte[] bytes : buffers) {
-        shares.add(TinyTablesElement.getInstance(BooleanSerializer.fromBytes(bytes[0])));
+      for (int party = 1; party <= network.getNoOfParties(); party++) {
+        shares.add(TinyTablesElement.getInstance(network.receiveBit(party)));
       }
       boolean open = TinyTablesElement.open(shares);
       this.out = TinyTablesSBool.getInstance(TinyTablesElement.getInstance(open));
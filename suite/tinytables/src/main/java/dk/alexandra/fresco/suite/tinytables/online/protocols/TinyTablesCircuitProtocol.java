@@ -0,0 +1,196 @@
+package dk.alexandra.fresco.suite.tinytables.online.protocols;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.lib.bristol.BristolCircuit;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>
+ * This class evaluates one or more independent instances of a {@link BristolCircuit} in lock-step
+ * in the TinyTables protocol's online phase.
+ * </p>
+ * <p>
+ * The masked values of each wire in all instances are kept in a single bit vector. In each round,
+ * the XOR and NOT gates of a layer of the circuit are evaluated locally for all instances at once
+ * as in {@link TinyTablesXORProtocol} and {@link TinyTablesNOTProtocol}, and the entries of the
+ * TinyTables of all AND gates in the layer are looked up and sent to the other player in one
+ * packed message. The masked output values of the AND gates are computed as in {@link
+ * TinyTablesANDProtocol} when the shares are received in the next round, so the number of rounds
+ * only depends on the AND-depth of the circuit and not on the number of instances.
+ * </p>
+ * <p>
+ * The <i>i</i>'th instance of the <i>j</i>'th AND gate of the circuit uses the TinyTable with id
+ * <code>firstId + j * instances + i</code>, which must match the ids used in the preprocessing
+ * phase. The wire values take <code>circuit.getNoOfWires() * instances</code> bits of memory
+ * during the evaluation.
+ * </p>
+ */
+public class TinyTablesCircuitProtocol extends TinyTablesProtocol<List<List<SBool>>> {
+
+  private final int firstId;
+  private final BristolCircuit circuit;
+  private final List<List<DRes<SBool>>> in1;
+  private final List<List<DRes<SBool>>> in2;
+  private final int instances;
+  private final int words;
+  private long[] wires;
+  private int layer;
+  private List<List<SBool>> out;
+
+  /**
+   * Creates a new protocol evaluating a circuit on each pair of inputs.
+   *
+   * @param firstId the id of the first TinyTable used by the protocol
+   * @param circuit the circuit
+   * @param in1 the first input of each instance
+   * @param in2 the second input of each instance
+   */
+  public TinyTablesCircuitProtocol(int firstId, BristolCircuit circuit,
+      List<List<DRes<SBool>>> in1, List<List<DRes<SBool>>> in2) {
+    this.firstId = firstId;
+    this.circuit = circuit;
+    this.in1 = in1;
+    this.in2 = in2;
+    this.instances = in1.size();
+    this.words = (instances + Long.SIZE - 1) / Long.SIZE;
+    if ((long) circuit.getNoOfWires() * words > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Too many instances of circuit: " + instances);
+    }
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, ResourcePoolImpl resourcePool, Network network) {
+    if (round == 0) {
+      wires = new long[circuit.getNoOfWires() * words];
+      for (int i = 0; i < instances; i++) {
+        for (int w = 0; w < circuit.getNoOfInput1(); w++) {
+          setBit(w, i, getMaskedValue(in1.get(i).get(w)));
+        }
+        for (int w = 0; w < circuit.getNoOfInput2(); w++) {
+          setBit(circuit.getNoOfInput1() + w, i, getMaskedValue(in2.get(i).get(w)));
+        }
+      }
+      layer = 0;
+    } else {
+      receiveAndShares(network);
+      layer++;
+    }
+    TinyTablesStorage storage =
+        TinyTablesProtocolSuite.getInstance(resourcePool.getMyId()).getStorage();
+    for (; layer < circuit.getNoOfLayers(); layer++) {
+      evaluateLinearGates();
+      if (circuit.getAndStart(layer) < circuit.getLayerEnd(layer)) {
+        sendAndShares(storage, network);
+        return EvaluationStatus.HAS_MORE_ROUNDS;
+      }
+    }
+    out = new ArrayList<>(instances);
+    for (int i = 0; i < instances; i++) {
+      List<SBool> output = new ArrayList<>(circuit.getNoOfOutput());
+      for (int o = 0; o < circuit.getNoOfOutput(); o++) {
+        output.add(TinyTablesSBool.getInstance(
+            TinyTablesElement.getInstance(getBit(circuit.getOutputWire(o), i))));
+      }
+      out.add(output);
+    }
+    wires = null;
+    return EvaluationStatus.IS_DONE;
+  }
+
+  private static boolean getMaskedValue(DRes<SBool> in) {
+    return ((TinyTablesSBool) in.out()).getValue().getShare();
+  }
+
+  private boolean getBit(int wire, int instance) {
+    return ((wires[wire * words + (instance >>> 6)] >>> instance) & 1L) != 0;
+  }
+
+  private void setBit(int wire, int instance, boolean value) {
+    int index = wire * words + (instance >>> 6);
+    if (value) {
+      wires[index] |= 1L << instance;
+    } else {
+      wires[index] &= ~(1L << instance);
+    }
+  }
+
+  private void evaluateLinearGates() {
+    for (int g = circuit.getLayerStart(layer); g < circuit.getAndStart(layer); g++) {
+      int left = circuit.getLeftWire(g) * words;
+      int result = circuit.getOutWire(g) * words;
+      if (circuit.getType(g) == BristolCircuit.XOR) {
+        int right = circuit.getRightWire(g) * words;
+        for (int k = 0; k < words; k++) {
+          wires[result + k] = wires[left + k] ^ wires[right + k];
+        }
+      } else {
+        for (int k = 0; k < words; k++) {
+          wires[result + k] = ~wires[left + k];
+        }
+      }
+    }
+  }
+
+  private void sendAndShares(TinyTablesStorage storage, Network network) {
+    int start = circuit.getAndStart(layer);
+    int ands = circuit.getLayerEnd(layer) - start;
+    byte[] shares = new byte[sharesLength(ands)];
+    int bit = 0;
+    for (int a = 0; a < ands; a++) {
+      int g = start + a;
+      int left = circuit.getLeftWire(g);
+      int right = circuit.getRightWire(g);
+      int id = firstId + (circuit.getAndOffset(layer) + a) * instances;
+      for (int i = 0; i < instances; i++, bit++) {
+        TinyTablesElement share = Objects.requireNonNull(
+            storage.lookupTinyTable(id + i, getBit(left, i), getBit(right, i)),
+            "Unable to find TinyTable for gate with id " + (id + i));
+        if (share.getShare()) {
+          shares[bit >>> 3] |= 1 << (bit & 7);
+        }
+      }
+    }
+    network.sendToAll(shares);
+  }
+
+  private void receiveAndShares(Network network) {
+    int start = circuit.getAndStart(layer);
+    int ands = circuit.getLayerEnd(layer) - start;
+    byte[] opened = new byte[sharesLength(ands)];
+    for (byte[] shares : network.receiveFromAll()) {
+      if (shares.length != opened.length) {
+        throw new IllegalStateException(
+            "Expected " + opened.length + " bytes of shares but got " + shares.length);
+      }
+      for (int i = 0; i < opened.length; i++) {
+        opened[i] ^= shares[i];
+      }
+    }
+    int bit = 0;
+    for (int a = 0; a < ands; a++) {
+      int result = circuit.getOutWire(start + a);
+      for (int i = 0; i < instances; i++, bit++) {
+        setBit(result, i, ((opened[bit >>> 3] >>> (bit & 7)) & 1) != 0);
+      }
+    }
+  }
+
+  private int sharesLength(int ands) {
+    return (ands * instances + Byte.SIZE - 1) / Byte.SIZE;
+  }
+
+  @Override
+  public List<List<SBool>> out() {
+    return out;
+  }
+
+}
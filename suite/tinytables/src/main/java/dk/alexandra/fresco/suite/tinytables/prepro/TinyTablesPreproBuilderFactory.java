@@ -5,13 +5,18 @@ import dk.alexandra.fresco.framework.builder.binary.Binary;
 import dk.alexandra.fresco.framework.builder.binary.BuilderFactoryBinary;
 import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
 import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.lib.bristol.BristolCircuit;
+import dk.alexandra.fresco.lib.bristol.BristolCircuitBackend;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
 import dk.alexandra.fresco.suite.tinytables.prepro.datatypes.TinyTablesPreproSBool;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproANDProtocol;
+import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproCircuitProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproCloseProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproNOTProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproOpenToAllProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproXORProtocol;
+import java.util.Collections;
+import java.util.List;
 
 public class TinyTablesPreproBuilderFactory implements BuilderFactoryBinary {
 
@@ -23,65 +28,111 @@ public class TinyTablesPreproBuilderFactory implements BuilderFactoryBinary {
     return counter++;
   }
 
+  /**
+   * Reserves a block of consecutive ids and returns the first of them.
+   */
+  private int reserveIds(int count) {
+    int first = counter;
+    counter += count;
+    return first;
+  }
+
   @Override
   public Binary createBinary(ProtocolBuilderBinary builder) {
-    return new Binary() {
+    return new TinyTablesPreproBinary(builder);
+  }
 
-      @Override
-      public DRes<SBool> xor(DRes<SBool> left, DRes<SBool> right) {
-        TinyTablesPreproXORProtocol p = new TinyTablesPreproXORProtocol(left, right);
-        builder.append(p);
-        return p;
-      }
+  /**
+   * The {@link Binary} computation directory of the builders. Also evaluates compiled Bristol
+   * circuits as a single native protocol, see {@link TinyTablesPreproCircuitProtocol}.
+   */
+  private class TinyTablesPreproBinary implements Binary, BristolCircuitBackend {
 
-      @Override
-      public DRes<SBool> randomBit() {
-        throw new UnsupportedOperationException(
-            "The random bit computation is not implemented for TinyTables");
-      }
+    private final ProtocolBuilderBinary builder;
 
-      @Override
-      public DRes<Boolean> open(DRes<SBool> toOpen, int towardsPartyId) {
-        throw new UnsupportedOperationException(
-            "The opening towards party id is not implemented for TinyTables");
-      }
+    private TinyTablesPreproBinary(ProtocolBuilderBinary builder) {
+      this.builder = builder;
+    }
 
-      @Override
-      public DRes<Boolean> open(DRes<SBool> toOpen) {
-        TinyTablesPreproOpenToAllProtocol p =
-            new TinyTablesPreproOpenToAllProtocol(getNextId(), toOpen);
-        builder.append(p);
-        // Always return false - preprocessing cannot compute output.
-        return () -> false;
-      }
+    @Override
+    public DRes<SBool> xor(DRes<SBool> left, DRes<SBool> right) {
+      TinyTablesPreproXORProtocol p = new TinyTablesPreproXORProtocol(left, right);
+      builder.append(p);
+      return p;
+    }
 
-      @Override
-      public DRes<SBool> not(DRes<SBool> in) {
-        TinyTablesPreproNOTProtocol p = new TinyTablesPreproNOTProtocol(in);
-        builder.append(p);
-        return p;
-      }
+    @Override
+    public DRes<SBool> randomBit() {
+      throw new UnsupportedOperationException(
+          "The random bit computation is not implemented for TinyTables");
+    }
 
-      @Override
-      public DRes<SBool> known(boolean known) {
-        // Ignore the value and use trivial mask
-        return () -> new TinyTablesPreproSBool(TinyTablesElement.getInstance(false));
-      }
+    @Override
+    public DRes<Boolean> open(DRes<SBool> toOpen, int towardsPartyId) {
+      throw new UnsupportedOperationException(
+          "The opening towards party id is not implemented for TinyTables");
+    }
 
-      @Override
-      public DRes<SBool> input(boolean in, int inputter) {
-        TinyTablesPreproCloseProtocol p = new TinyTablesPreproCloseProtocol(getNextId(), inputter);
-        builder.append(p);
-        return p;
-      }
+    @Override
+    public DRes<Boolean> open(DRes<SBool> toOpen) {
+      TinyTablesPreproOpenToAllProtocol p =
+          new TinyTablesPreproOpenToAllProtocol(getNextId(), toOpen);
+      builder.append(p);
+      // Always return false - preprocessing cannot compute output.
+      return () -> false;
+    }
+
+    @Override
+    public DRes<SBool> not(DRes<SBool> in) {
+      TinyTablesPreproNOTProtocol p = new TinyTablesPreproNOTProtocol(in);
+      builder.append(p);
+      return p;
+    }
+
+    @Override
+    public DRes<SBool> known(boolean known) {
+      // Ignore the value and use trivial mask
+      return () -> new TinyTablesPreproSBool(TinyTablesElement.getInstance(false));
+    }
 
-      @Override
-      public DRes<SBool> and(DRes<SBool> left, DRes<SBool> right) {
-        TinyTablesPreproANDProtocol p = new TinyTablesPreproANDProtocol(getNextId(), left, right);
-        builder.append(p);
-        return p;
+    @Override
+    public DRes<SBool> input(boolean in, int inputter) {
+      TinyTablesPreproCloseProtocol p = new TinyTablesPreproCloseProtocol(getNextId(), inputter);
+      builder.append(p);
+      return p;
+    }
+
+    @Override
+    public DRes<SBool> and(DRes<SBool> left, DRes<SBool> right) {
+      TinyTablesPreproANDProtocol p = new TinyTablesPreproANDProtocol(getNextId(), left, right);
+      builder.append(p);
+      return p;
+    }
+
+    @Override
+    public DRes<List<SBool>> evaluate(ProtocolBuilderBinary builder, BristolCircuit circuit,
+        List<DRes<SBool>> in1, List<DRes<SBool>> in2) {
+      DRes<List<List<SBool>>> out = evaluateMany(builder, circuit,
+          Collections.singletonList(in1), Collections.singletonList(in2));
+      return () -> out.out().get(0);
+    }
+
+    @Override
+    public DRes<List<List<SBool>>> evaluateMany(ProtocolBuilderBinary builder,
+        BristolCircuit circuit, List<List<DRes<SBool>>> in1, List<List<DRes<SBool>>> in2) {
+      if (in1.size() != in2.size()) {
+        throw new IllegalArgumentException("Number of first and second inputs must be equal but "
+            + "were " + in1.size() + " and " + in2.size());
+      }
+      for (int i = 0; i < in1.size(); i++) {
+        circuit.checkInputs(in1.get(i).size(), in2.get(i).size());
       }
-    };
+      int ids = Math.multiplyExact(circuit.getNoOfAndGates(), in1.size());
+      TinyTablesPreproCircuitProtocol p =
+          new TinyTablesPreproCircuitProtocol(reserveIds(ids), circuit, in1, in2);
+      builder.append(p);
+      return p;
+    }
   }
 
 }
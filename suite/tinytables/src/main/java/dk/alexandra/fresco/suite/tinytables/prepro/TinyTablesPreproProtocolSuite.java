@@ -56,9 +56,19 @@ public class TinyTablesPreproProtocolSuite
       RoundSynchronization<TinyTablesPreproResourcePool> {
 
     /**
-     * The number of unprocessed AND protocols to collect before we compute their TinyTables.
+     * The minimum and maximum number of unprocessed AND protocols to collect before we compute
+     * their TinyTables.
      */
-    private static final int UNPROCESSED_BUFFER_SIZE = 1000;
+    private static final int MIN_UNPROCESSED_BUFFER_SIZE = 1000;
+    private static final int MAX_UNPROCESSED_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The number of unprocessed AND protocols to collect before we compute their TinyTables. This
+     * grows with the number of AND protocols evaluated in a single batch, so wide circuits collect
+     * the AND protocols of several batches before the round trip needed to compute the TinyTables.
+     */
+    private int bufferSize = MIN_UNPROCESSED_BUFFER_SIZE;
+    private int previouslyUnprocessed;
 
     @Override
     public void beforeBatch(
@@ -71,8 +81,15 @@ public class TinyTablesPreproProtocolSuite
     @Override
     public void finishedBatch(int gatesEvaluated,
         TinyTablesPreproResourcePool resourcePool, Network network) {
-      if (resourcePool.getUnprocessedAnds().size() > UNPROCESSED_BUFFER_SIZE) {
+      int unprocessed = resourcePool.getUnprocessedAnds().size();
+      long batchWidth = unprocessed - previouslyUnprocessed;
+      bufferSize = (int) Math.min(MAX_UNPROCESSED_BUFFER_SIZE,
+          Math.max(bufferSize, 4 * batchWidth));
+      if (unprocessed > bufferSize) {
         resourcePool.calculateTinyTables(network);
+        previouslyUnprocessed = 0;
+      } else {
+        previouslyUnprocessed = unprocessed;
       }
     }
 
@@ -3,16 +3,14 @@ package dk.alexandra.fresco.suite.tinytables.prepro;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 import dk.alexandra.fresco.framework.util.*;
-import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
-import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
-import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElementVector;
-import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTriple;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTripleVector;
 import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesOt;
+import dk.alexandra.fresco.suite.tinytables.prepro.datatypes.TinyTablesPreproSBool;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproANDProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproProtocol;
 import dk.alexandra.fresco.suite.tinytables.storage.BatchTinyTablesTripleProvider;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesArrayStorage;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
-import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorageImpl;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesTripleProvider;
 import dk.alexandra.fresco.suite.tinytables.util.TinyTablesTripleGenerator;
 import dk.alexandra.fresco.suite.tinytables.util.Util;
@@ -22,10 +20,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -39,7 +35,7 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
 
   private final Drng drng;
   private final List<TinyTablesPreproANDProtocol> unprocessedAnds;
-  private final TinyTablesStorage storage;
+  private final TinyTablesArrayStorage storage;
   private final File tinyTablesFile;
   private final Supplier<TinyTablesTripleProvider> supplier;
   private TinyTablesTripleProvider tinyTablesTripleProvider;
@@ -59,7 +55,7 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
       int otBatchSize, File tinyTablesFile, Supplier<Network> network) {
     super(myId, 2);
     this.unprocessedAnds = Collections.synchronizedList(new ArrayList<>());
-    this.storage = new TinyTablesStorageImpl();
+    this.storage = new TinyTablesArrayStorage();
     this.tinyTablesFile = tinyTablesFile;
     this.drng = new DrngImpl(drbg);
     this.supplier = () -> {
@@ -89,6 +85,27 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
     };
   }
 
+  /**
+   * Creates a resource pool getting the triples for the TinyTables from the given provider, e.g. a
+   * {@link dk.alexandra.fresco.suite.tinytables.storage.BitTripleTinyTablesTripleProvider}. The
+   * provider is created when the first TinyTables are calculated and closed at the end of the
+   * evaluation.
+   *
+   * @param myId The ID of the MPC party.
+   * @param drbg Secure bit randomness generator
+   * @param tinyTablesFile file for data
+   * @param tripleProvider supplier of the triple provider
+   */
+  public TinyTablesPreproResourcePool(int myId, Drbg drbg, File tinyTablesFile,
+      Supplier<TinyTablesTripleProvider> tripleProvider) {
+    super(myId, 2);
+    this.unprocessedAnds = Collections.synchronizedList(new ArrayList<>());
+    this.storage = new TinyTablesArrayStorage();
+    this.tinyTablesFile = tinyTablesFile;
+    this.drng = new DrngImpl(drbg);
+    this.supplier = tripleProvider;
+  }
+
   public Drng getDrng() {
     return drng;
   }
@@ -101,6 +118,15 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
     return unprocessedAnds;
   }
 
+  /**
+   * Calculates the TinyTables of all unprocessed AND gates in one pass. The gates are processed in
+   * bit-sliced form: the mask shares of the inputs and outputs of all gates and the triples used
+   * for the multiplications are packed into <code>long</code>'s, so the shares of <i>e</i> and
+   * <i>d</i> that are exchanged with the other player, the products and the four entries of the
+   * tables are each computed for 64 gates at a time.
+   *
+   * @param network the network used to exchange the shares of <i>e</i> and <i>d</i>
+   */
   void calculateTinyTables(Network network) {
     int unprocessedGates = this.unprocessedAnds.size();
     /*
@@ -108,57 +134,91 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
      */
     this.unprocessedAnds.sort(Comparator.comparingInt(TinyTablesPreproProtocol::getId));
 
-    // Two bits per gate
-    TinyTablesElementVector shares = new TinyTablesElementVector(unprocessedGates * 2);
-    List<TinyTablesTriple> usedTriples = new ArrayList<>();
+    int words = TinyTablesTripleVector.words(unprocessedGates);
+    int[] ids = new int[unprocessedGates];
+    long[] left = new long[words];
+    long[] right = new long[words];
+    long[] masks = new long[words];
     for (int i = 0; i < unprocessedGates; i++) {
       TinyTablesPreproANDProtocol gate = this.unprocessedAnds.get(i);
+      ids[i] = gate.getId();
+      long bit = 1L << i;
+      if (gate.getInLeft().getValue().getShare()) {
+        left[i >>> 6] |= bit;
+      }
+      if (gate.getInRight().getValue().getShare()) {
+        right[i >>> 6] |= bit;
+      }
+      if (((TinyTablesPreproSBool) gate.out()).getValue().getShare()) {
+        masks[i >>> 6] |= bit;
+      }
+    }
+
+    TinyTablesTripleVector triples;
+    if (unprocessedGates > 0) {
       if (tinyTablesTripleProvider == null) {
         tinyTablesTripleProvider = supplier.get();
       }
-      TinyTablesTriple triple = this.tinyTablesTripleProvider.getNextTriple();
-      usedTriples.add(triple);
-
-      /*
-       * Calculate temp values e, d for multiplication. These should be opened before calling
-       * finalize.
-       */
-      Pair<TinyTablesElement, TinyTablesElement> msg =
-          gate.getInRight().getValue().multiply(gate.getInLeft().getValue(), triple);
-
-      shares.setShare(2 * i, msg.getFirst().getShare());
-      shares.setShare(2 * i + 1, msg.getSecond().getShare());
+      triples = this.tinyTablesTripleProvider.getNextTriples(unprocessedGates);
+    } else {
+      triples = new TinyTablesTripleVector(0);
+    }
+    long[] a = triples.getA();
+    long[] b = triples.getB();
+    long[] c = triples.getC();
+
+    /*
+     * Calculate temp values e = r_v + a and d = r_u + b for the multiplications (see
+     * TinyTablesElement#multiply). The shares of all e's are followed by the shares of all d's.
+     */
+    long[] shares = new long[2 * words];
+    for (int k = 0; k < words; k++) {
+      shares[k] = right[k] ^ a[k];
+      shares[words + k] = left[k] ^ b[k];
     }
 
-    byte[] size = ByteBuffer.allocate(Integer.BYTES).putInt(shares.getSize()).array();
+    int otherId = Util.otherPlayerId(getMyId());
+    byte[] size = ByteBuffer.allocate(Integer.BYTES).putInt(unprocessedGates).array();
     // send
-    network.send(Util.otherPlayerId(getMyId()), size);
-    network.send(Util.otherPlayerId(this.getMyId()), shares.payload());
+    network.send(otherId, size);
+    network.send(otherId, toBytes(shares));
 
     // receive
-    size = network.receive(Util.otherPlayerId(this.getMyId()));
+    size = network.receive(otherId);
     int length = ByteBuffer.wrap(size).getInt();
-    byte[] data = network.receive(Util.otherPlayerId(this.getMyId()));
-    TinyTablesElementVector otherShares = new TinyTablesElementVector(data, length);
-
-    RegularBitVector open = TinyTablesElementVector.open(shares, otherShares);
-
-    for (int i = 0; i < unprocessedGates; i++) {
-      TinyTablesPreproANDProtocol gate = this.unprocessedAnds.get(i);
-      boolean e = open.getBit(2 * i);
-      boolean d = open.getBit(2 * i + 1);
-
-      TinyTablesElement product = TinyTablesElement.finalizeMultiplication(e, d, usedTriples.get(i),
-          this.getMyId());
-
-      TinyTable tinyTable = gate.calculateTinyTable(getMyId(), product);
+    byte[] data = network.receive(otherId);
+    if (length != unprocessedGates || data.length != shares.length * Long.BYTES) {
+      throw new IllegalStateException("Expected shares for " + unprocessedGates
+          + " AND gates but got " + length);
+    }
+    LongBuffer otherShares = ByteBuffer.wrap(data).asLongBuffer();
 
-      this.storage.storeTinyTable(gate.getId(), tinyTable);
+    /*
+     * Finalize the multiplications as in TinyTablesElement#finalizeMultiplication and calculate the
+     * entries of the tables as in TinyTablesPreproANDProtocol#calculateTinyTable.
+     */
+    long constant = getMyId() == 1 ? -1L : 0L;
+    long[][] entries = new long[4][words];
+    for (int k = 0; k < words; k++) {
+      long e = shares[k] ^ otherShares.get(k);
+      long d = shares[words + k] ^ otherShares.get(words + k);
+      long product = c[k] ^ (b[k] & e) ^ (a[k] & d) ^ (constant & e & d);
+      entries[0][k] = product ^ masks[k];
+      entries[1][k] = entries[0][k] ^ left[k];
+      entries[2][k] = entries[0][k] ^ right[k];
+      entries[3][k] = entries[0][k] ^ left[k] ^ right[k] ^ constant;
     }
+    this.storage.storeTinyTables(ids, entries);
 
     this.unprocessedAnds.clear();
   }
 
+  private static byte[] toBytes(long[] words) {
+    ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES);
+    buffer.asLongBuffer().put(words);
+    return buffer.array();
+  }
+
   public void closeEvaluation() {
     if (tinyTablesTripleProvider != null) {
       tinyTablesTripleProvider.close();
@@ -167,20 +227,12 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
      * Store the TinyTables to a file.
      */
     ExceptionConverter.safe(() -> {
-      storeTinyTables(storage, tinyTablesFile);
+      storage.write(tinyTablesFile);
       LOGGER.info("TinyTables stored to {}", tinyTablesFile);
       return null;
     }, "Failed to store TinyTables");
   }
 
-  private void storeTinyTables(TinyTablesStorage tinyTablesStorage, File file) throws IOException {
-    file.createNewFile();
-    try (FileOutputStream fout = new FileOutputStream(file);
-      ObjectOutputStream oos = new ObjectOutputStream(fout)) {
-      oos.writeObject(tinyTablesStorage);
-    }
-  }
-
   public TinyTablesStorage getStorage() {
     return storage;
   }
@@ -0,0 +1,136 @@
+package dk.alexandra.fresco.suite.tinytables.prepro.protocols;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.lib.bristol.BristolCircuit;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproResourcePool;
+import dk.alexandra.fresco.suite.tinytables.prepro.datatypes.TinyTablesPreproSBool;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * This class represents the evaluation of one or more instances of a {@link BristolCircuit} in the
+ * preprocessing phase of the TinyTables protocol. It is the preprocessing counterpart of the
+ * online phase's <code>TinyTablesCircuitProtocol</code>.
+ * </p>
+ *
+ * <p>
+ * The shares of the masks of all wires are computed in a single round: XOR and INV gates compute
+ * their masks as in {@link TinyTablesPreproXORProtocol} and {@link TinyTablesPreproNOTProtocol},
+ * and each AND gate is handed to a {@link TinyTablesPreproANDProtocol} which picks the mask of the
+ * output wire and registers the gate for the calculation of its TinyTable. The <i>i</i>'th
+ * instance of the <i>j</i>'th AND gate of the circuit gets the id <code>firstId + j * instances +
+ * i</code>.
+ * </p>
+ */
+public class TinyTablesPreproCircuitProtocol extends TinyTablesPreproProtocol<List<List<SBool>>> {
+
+  private final BristolCircuit circuit;
+  private final List<List<DRes<SBool>>> in1;
+  private final List<List<DRes<SBool>>> in2;
+  private final int instances;
+  private final int words;
+  private List<List<SBool>> out;
+
+  /**
+   * Creates a new protocol evaluating a circuit on each pair of inputs.
+   *
+   * @param firstId the id of the first AND gate
+   * @param circuit the circuit
+   * @param in1 the first input of each instance
+   * @param in2 the second input of each instance
+   */
+  public TinyTablesPreproCircuitProtocol(int firstId, BristolCircuit circuit,
+      List<List<DRes<SBool>>> in1, List<List<DRes<SBool>>> in2) {
+    super();
+    this.id = firstId;
+    this.circuit = circuit;
+    this.in1 = in1;
+    this.in2 = in2;
+    this.instances = in1.size();
+    this.words = (instances + Long.SIZE - 1) / Long.SIZE;
+    if ((long) circuit.getNoOfWires() * words > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Too many instances of circuit: " + instances);
+    }
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, TinyTablesPreproResourcePool resourcePool,
+      Network network) {
+    long[] masks = new long[circuit.getNoOfWires() * words];
+    for (int i = 0; i < instances; i++) {
+      for (int w = 0; w < circuit.getNoOfInput1(); w++) {
+        setBit(masks, w, i, getMaskShare(in1.get(i).get(w)));
+      }
+      for (int w = 0; w < circuit.getNoOfInput2(); w++) {
+        setBit(masks, circuit.getNoOfInput1() + w, i, getMaskShare(in2.get(i).get(w)));
+      }
+    }
+    for (int layer = 0; layer < circuit.getNoOfLayers(); layer++) {
+      for (int g = circuit.getLayerStart(layer); g < circuit.getAndStart(layer); g++) {
+        int left = circuit.getLeftWire(g) * words;
+        int result = circuit.getOutWire(g) * words;
+        if (circuit.getType(g) == BristolCircuit.XOR) {
+          int right = circuit.getRightWire(g) * words;
+          for (int k = 0; k < words; k++) {
+            masks[result + k] = masks[left + k] ^ masks[right + k];
+          }
+        } else {
+          System.arraycopy(masks, left, masks, result, words);
+        }
+      }
+      int start = circuit.getAndStart(layer);
+      for (int a = 0; start + a < circuit.getLayerEnd(layer); a++) {
+        int g = start + a;
+        int andId = id + (circuit.getAndOffset(layer) + a) * instances;
+        for (int i = 0; i < instances; i++) {
+          TinyTablesPreproANDProtocol and = new TinyTablesPreproANDProtocol(andId + i,
+              toSBool(getBit(masks, circuit.getLeftWire(g), i)),
+              toSBool(getBit(masks, circuit.getRightWire(g), i)));
+          and.evaluate(0, resourcePool, network);
+          setBit(masks, circuit.getOutWire(g), i,
+              ((TinyTablesPreproSBool) and.out()).getValue().getShare());
+        }
+      }
+    }
+    out = new ArrayList<>(instances);
+    for (int i = 0; i < instances; i++) {
+      List<SBool> output = new ArrayList<>(circuit.getNoOfOutput());
+      for (int o = 0; o < circuit.getNoOfOutput(); o++) {
+        output.add(toSBool(getBit(masks, circuit.getOutputWire(o), i)));
+      }
+      out.add(output);
+    }
+    return EvaluationStatus.IS_DONE;
+  }
+
+  private static boolean getMaskShare(DRes<SBool> in) {
+    return ((TinyTablesPreproSBool) in.out()).getValue().getShare();
+  }
+
+  private static TinyTablesPreproSBool toSBool(boolean maskShare) {
+    return new TinyTablesPreproSBool(TinyTablesElement.getInstance(maskShare));
+  }
+
+  private boolean getBit(long[] masks, int wire, int instance) {
+    return ((masks[wire * words + (instance >>> 6)] >>> instance) & 1L) != 0;
+  }
+
+  private void setBit(long[] masks, int wire, int instance, boolean value) {
+    int index = wire * words + (instance >>> 6);
+    if (value) {
+      masks[index] |= 1L << instance;
+    } else {
+      masks[index] &= ~(1L << instance);
+    }
+  }
+
+  @Override
+  public List<List<SBool>> out() {
+    return out;
+  }
+
+}
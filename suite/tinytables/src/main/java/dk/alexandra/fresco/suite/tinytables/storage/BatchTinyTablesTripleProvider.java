@@ -1,23 +1,23 @@
 package dk.alexandra.fresco.suite.tinytables.storage;
 
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTriple;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTripleVector;
 import dk.alexandra.fresco.suite.tinytables.util.TinyTablesTripleGenerator;
-import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This class implements a simple TinyTablesTripleProvider where triples are generated in batches,
  * and when a batch is used up a new batch is generated using the provided generator. The triples
- * are kept in memory and discarded when the program is closed.
+ * are kept in memory in bit-sliced form, so {@link #getNextTriples(int)} can hand out many triples
+ * by copying whole words, and they are discarded when the program is closed.
  *
  */
 public class BatchTinyTablesTripleProvider implements TinyTablesTripleProvider {
 
   private final static Logger logger = LoggerFactory.getLogger(BatchTinyTablesTripleProvider.class);
-  private Queue<TinyTablesTriple> triples = new ConcurrentLinkedQueue<>();
+  private TinyTablesTripleVector triples;
+  private int next;
   private TinyTablesTripleGenerator generator;
   private int batchSize;
 
@@ -29,17 +29,35 @@ public class BatchTinyTablesTripleProvider implements TinyTablesTripleProvider {
 
   @Override
   public synchronized TinyTablesTriple getNextTriple() {
-    if (triples.isEmpty()) {
+    if (next == triples.getSize()) {
       generateNewTriples();
     }
-    return triples.poll();
+    return triples.get(next++);
+  }
+
+  @Override
+  public synchronized TinyTablesTripleVector getNextTriples(int amount) {
+    TinyTablesTripleVector result = new TinyTablesTripleVector(amount);
+    int copied = 0;
+    while (copied < amount) {
+      if (next == triples.getSize()) {
+        generateNewTriples();
+      }
+      int length = Math.min(amount - copied, triples.getSize() - next);
+      result.copyFrom(triples, next, copied, length);
+      next += length;
+      copied += length;
+    }
+    return result;
   }
 
   private void generateNewTriples() {
-    List<TinyTablesTriple> newTriples = generator.generate(batchSize);
-    for (TinyTablesTriple triple : newTriples) {
-      triples.offer(triple);
+    triples = TinyTablesTripleVector.fromTriples(generator.generate(batchSize));
+    next = 0;
+    if (triples.getSize() == 0) {
+      throw new IllegalStateException("Triple generator produced no triples");
     }
+    logger.debug("Generated {} new triples", triples.getSize());
   }
 
   @Override
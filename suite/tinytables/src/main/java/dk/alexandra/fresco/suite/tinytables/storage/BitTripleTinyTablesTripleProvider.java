@@ -0,0 +1,153 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTriple;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTripleVector;
+import dk.alexandra.fresco.tools.bitTriples.BitTriple;
+import dk.alexandra.fresco.tools.bitTriples.BitTripleResourcePool;
+import dk.alexandra.fresco.tools.bitTriples.elements.MultiplicationTriple;
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A {@link TinyTablesTripleProvider} generating triples with the actively secure, OT extension
+ * based protocol from the <code>bitTriples</code> tool. The public-key base OTs are only done once
+ * when the provider is created, after which the triples are generated using OT extension in large
+ * batches.
+ * </p>
+ *
+ * <p>
+ * The triples are generated in the background on a separate thread: as soon as a batch is taken
+ * into use, generation of the next batch is started, so the preprocessing can continue while the
+ * next batch is being generated. Since the generation uses the network concurrently with the
+ * caller, the provider must be given a network which is not used for anything else. The provider
+ * takes ownership of this network and closes it when the provider is closed. Only the shares of
+ * the triples are kept, and the MACs authenticating them are discarded after the generation has
+ * checked them.
+ * </p>
+ */
+public class BitTripleTinyTablesTripleProvider implements TinyTablesTripleProvider {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(BitTripleTinyTablesTripleProvider.class);
+  private static final long CLOSE_TIMEOUT_SECONDS = 60;
+  private final Network network;
+  private final int batchSize;
+  private final ExecutorService executor;
+  private BitTriple bitTriple;
+  private Future<TinyTablesTripleVector> nextBatch;
+  private TinyTablesTripleVector triples;
+  private int next;
+
+  /**
+   * Creates a new provider and starts generating the first batch of triples. Both players must
+   * create their providers with the same batch size.
+   *
+   * @param resourcePool the resource pool for the triple generation
+   * @param network a network used only by this provider, which is closed along with the provider
+   *     if it is {@link Closeable}
+   * @param batchSize the minimum number of triples to generate in each batch
+   */
+  public BitTripleTinyTablesTripleProvider(BitTripleResourcePool resourcePool, Network network,
+      int batchSize) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be positive but was " + batchSize);
+    }
+    this.network = network;
+    this.batchSize = batchSize;
+    this.executor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "TinyTables-BitTriple");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.triples = new TinyTablesTripleVector(0);
+    this.nextBatch = executor.submit(() -> {
+      int keyLength = resourcePool.getComputationalSecurityBitParameter();
+      bitTriple = new BitTriple(resourcePool, network,
+          resourcePool.getLocalSampler().getNext(keyLength),
+          resourcePool.getLocalSampler().getNext(keyLength));
+      return generateBatch();
+    });
+  }
+
+  @Override
+  public synchronized TinyTablesTriple getNextTriple() {
+    if (next == triples.getSize()) {
+      nextBatch();
+    }
+    return triples.get(next++);
+  }
+
+  @Override
+  public synchronized TinyTablesTripleVector getNextTriples(int amount) {
+    TinyTablesTripleVector result = new TinyTablesTripleVector(amount);
+    int copied = 0;
+    while (copied < amount) {
+      if (next == triples.getSize()) {
+        nextBatch();
+      }
+      int length = Math.min(amount - copied, triples.getSize() - next);
+      result.copyFrom(triples, next, copied, length);
+      next += length;
+      copied += length;
+    }
+    return result;
+  }
+
+  /**
+   * Waits for the batch being generated, takes it into use and starts generating the next batch.
+   */
+  private void nextBatch() {
+    triples = ExceptionConverter.safe(nextBatch::get, "Failed to generate triples");
+    next = 0;
+    nextBatch = executor.submit(this::generateBatch);
+  }
+
+  private TinyTablesTripleVector generateBatch() {
+    List<MultiplicationTriple> generated = bitTriple.getTriples(batchSize);
+    TinyTablesTripleVector batch = new TinyTablesTripleVector(generated.size());
+    for (int i = 0; i < generated.size(); i++) {
+      MultiplicationTriple triple = generated.get(i);
+      batch.set(i, TinyTablesTriple.fromShares(triple.getLeft().getBit(),
+          triple.getRight().getBit(), triple.getProduct().getBit()));
+    }
+    logger.debug("Generated {} new triples", batch.getSize());
+    return batch;
+  }
+
+  /**
+   * Stops the generation of triples and closes the network. The batch currently being generated is
+   * completed, since the other player is generating it as well, so this method waits for it before
+   * returning. If the batch is not done within {@value #CLOSE_TIMEOUT_SECONDS} seconds, e.g.
+   * because the other player has stopped responding, the generation is interrupted instead.
+   */
+  @Override
+  public void close() {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        logger.warn("Triple generation did not finish within {} seconds, aborting",
+            CLOSE_TIMEOUT_SECONDS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdownNow();
+      if (network instanceof Closeable) {
+        ExceptionConverter.safe(() -> {
+          ((Closeable) network).close();
+          return null;
+        }, "Failed to close the network of the triple generation");
+      }
+    }
+  }
+
+}
@@ -0,0 +1,330 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * {@link TinyTablesStorage} keeping the TinyTables and mask shares in dense bit arrays indexed by
+ * the id of the protocol. Each TinyTable takes four bits and each mask share a single bit, plus a
+ * bit per id recording whether anything was stored for it.
+ * </p>
+ *
+ * <p>
+ * The storage can be written to a compact binary file using {@link #write(File)}, and such a file
+ * can be memory-mapped using {@link #load(File)}. A loaded storage reads directly from the mapped
+ * file and is read-only. The file consists of a header with the magic number {@link #MAGIC}, the
+ * format version, the table capacity and the mask capacity (all ints), followed by the table bits,
+ * the table presence bits, the mask bits and the mask presence bits as big-endian longs.
+ * </p>
+ *
+ * <p>
+ * All access to the arrays is synchronized on the storage, since storing may replace the arrays
+ * with larger copies while other threads are reading.
+ * </p>
+ */
+public class TinyTablesArrayStorage implements TinyTablesStorage {
+
+  /**
+   * Magic number at the start of files written by {@link #write(File)}.
+   */
+  public static final int MAGIC = 0x54544253;
+  private static final long serialVersionUID = 2862178632460532470L;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 4 * Integer.BYTES;
+  private static final int TABLES_PER_WORD = Long.SIZE / 4;
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private transient LongBuffer tables;
+  private transient LongBuffer tablesPresent;
+  private transient LongBuffer masks;
+  private transient LongBuffer masksPresent;
+  private transient boolean readOnly;
+
+  /**
+   * Creates a new, empty storage.
+   */
+  public TinyTablesArrayStorage() {
+    this(allocate(INITIAL_CAPACITY / TABLES_PER_WORD), allocate(INITIAL_CAPACITY / Long.SIZE),
+        allocate(INITIAL_CAPACITY / Long.SIZE), allocate(INITIAL_CAPACITY / Long.SIZE), false);
+  }
+
+  private TinyTablesArrayStorage(LongBuffer tables, LongBuffer tablesPresent, LongBuffer masks,
+      LongBuffer masksPresent, boolean readOnly) {
+    this.tables = tables;
+    this.tablesPresent = tablesPresent;
+    this.masks = masks;
+    this.masksPresent = masksPresent;
+    this.readOnly = readOnly;
+  }
+
+  @Override
+  public synchronized void storeTinyTable(int id, TinyTable table) {
+    checkWritable(id);
+    ensureTableCapacity(id);
+    long bits = 0;
+    for (int i = 0; i < 4; i++) {
+      TinyTablesElement entry = table.getValue(TinyTablesElement.getInstance(i >= 2),
+          TinyTablesElement.getInstance((i & 1) == 1));
+      if (entry.getShare()) {
+        bits |= 1L << i;
+      }
+    }
+    putTable(id, bits);
+  }
+
+  /**
+   * Stores the TinyTables for many protocols at once. The entries are given in bit-sliced form:
+   * <code>entries[j]</code> holds entry <i>j</i> of all the tables packed into <code>long</code>'s,
+   * where entry <i>j</i> is the entry for <i>(eu, ev)</i> with <code>j = 2 * eu + ev</code> and the
+   * bit for the table of <code>ids[i]</code> is bit <code>i % 64</code> of word <code>i /
+   * 64</code>.
+   *
+   * @param ids the ids of the protocols
+   * @param entries the four packed entries of the tables
+   */
+  public synchronized void storeTinyTables(int[] ids, long[][] entries) {
+    if (entries.length != 4) {
+      throw new IllegalArgumentException("Expected 4 entries but got " + entries.length);
+    }
+    int maxId = -1;
+    for (int id : ids) {
+      checkWritable(id);
+      maxId = Math.max(maxId, id);
+    }
+    ensureTableCapacity(maxId);
+    for (int i = 0; i < ids.length; i++) {
+      long bits = 0;
+      for (int j = 0; j < 4; j++) {
+        bits |= ((entries[j][i >>> 6] >>> i) & 1L) << j;
+      }
+      putTable(ids[i], bits);
+    }
+  }
+
+  @Override
+  public synchronized TinyTable getTinyTable(int id) {
+    if (!hasTinyTable(id)) {
+      return null;
+    }
+    TinyTablesElement[] values = new TinyTablesElement[4];
+    for (int i = 0; i < 4; i++) {
+      values[i] = TinyTablesElement.getInstance(tableEntry(id, i));
+    }
+    return new TinyTable(values);
+  }
+
+  @Override
+  public synchronized TinyTablesElement lookupTinyTable(int id, boolean eu, boolean ev) {
+    if (!hasTinyTable(id)) {
+      return null;
+    }
+    return TinyTablesElement.getInstance(tableEntry(id, (eu ? 2 : 0) | (ev ? 1 : 0)));
+  }
+
+  @Override
+  public synchronized void storeMaskShare(int id, TinyTablesElement r) {
+    checkWritable(id);
+    if (id >= maskCapacity()) {
+      int capacity = newCapacity(maskCapacity(), id);
+      masks = grow(masks, capacity / Long.SIZE);
+      masksPresent = grow(masksPresent, capacity / Long.SIZE);
+    }
+    setBit(masks, id, r.getShare());
+    setBit(masksPresent, id, true);
+  }
+
+  @Override
+  public synchronized TinyTablesElement getMaskShare(int id) {
+    if (id < 0 || id >= maskCapacity() || !getBit(masksPresent, id)) {
+      return null;
+    }
+    return TinyTablesElement.getInstance(getBit(masks, id));
+  }
+
+  /**
+   * Writes this storage to the given file in the compact binary format.
+   *
+   * @param file the file to write to
+   * @throws IOException if the file cannot be written
+   */
+  public synchronized void write(File file) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(tableCapacity());
+      out.writeInt(maskCapacity());
+      writeLongs(out, tables);
+      writeLongs(out, tablesPresent);
+      writeLongs(out, masks);
+      writeLongs(out, masksPresent);
+    }
+  }
+
+  /**
+   * Memory-maps a file written by {@link #write(File)}. The returned storage is read-only.
+   *
+   * @param file the file to load
+   * @return the storage
+   * @throws IOException if the file cannot be read or is not in the expected format
+   */
+  public static TinyTablesArrayStorage load(File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+        throw new IOException("Not a TinyTables storage file: " + file);
+      }
+      int version = buffer.getInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported TinyTables storage version " + version);
+      }
+      int tableCapacity = buffer.getInt();
+      int maskCapacity = buffer.getInt();
+      long expectedBytes = HEADER_BYTES + Long.BYTES
+          * ((long) tableCapacity / TABLES_PER_WORD + tableCapacity / Long.SIZE
+          + 2L * (maskCapacity / Long.SIZE));
+      if (tableCapacity < 0 || maskCapacity < 0 || channel.size() != expectedBytes) {
+        throw new IOException("Corrupt TinyTables storage file: " + file);
+      }
+      LongBuffer tables = slice(buffer, tableCapacity / TABLES_PER_WORD);
+      LongBuffer tablesPresent = slice(buffer, tableCapacity / Long.SIZE);
+      LongBuffer masks = slice(buffer, maskCapacity / Long.SIZE);
+      LongBuffer masksPresent = slice(buffer, maskCapacity / Long.SIZE);
+      return new TinyTablesArrayStorage(tables, tablesPresent, masks, masksPresent, true);
+    }
+  }
+
+  /**
+   * Checks whether the given file starts with the magic number of the compact binary format.
+   *
+   * @param file the file to check
+   * @return true if the file is in the compact binary format
+   * @throws IOException if the file cannot be read
+   */
+  public static boolean isStorageFile(File file) throws IOException {
+    if (file.length() < Integer.BYTES) {
+      return false;
+    }
+    try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+      return in.readInt() == MAGIC;
+    }
+  }
+
+  private boolean hasTinyTable(int id) {
+    return id >= 0 && id < tableCapacity() && getBit(tablesPresent, id);
+  }
+
+  private boolean tableEntry(int id, int entry) {
+    long word = tables.get(id / TABLES_PER_WORD);
+    return ((word >>> ((id % TABLES_PER_WORD) * 4 + entry)) & 1) == 1;
+  }
+
+  private void ensureTableCapacity(int id) {
+    if (id >= tableCapacity()) {
+      int capacity = newCapacity(tableCapacity(), id);
+      tables = grow(tables, capacity / TABLES_PER_WORD);
+      tablesPresent = grow(tablesPresent, capacity / Long.SIZE);
+    }
+  }
+
+  private void putTable(int id, long bits) {
+    int word = id / TABLES_PER_WORD;
+    int shift = (id % TABLES_PER_WORD) * 4;
+    tables.put(word, (tables.get(word) & ~(0xFL << shift)) | (bits << shift));
+    setBit(tablesPresent, id, true);
+  }
+
+  private int tableCapacity() {
+    return tablesPresent.capacity() * Long.SIZE;
+  }
+
+  private int maskCapacity() {
+    return masksPresent.capacity() * Long.SIZE;
+  }
+
+  private void checkWritable(int id) {
+    if (readOnly) {
+      throw new IllegalStateException("TinyTables storage loaded from file is read-only");
+    }
+    if (id < 0) {
+      throw new IllegalArgumentException("Id must be non-negative but was " + id);
+    }
+  }
+
+  private static int newCapacity(int capacity, int id) {
+    long newCapacity = Math.max(2L * capacity, ((long) id / Long.SIZE + 1) * Long.SIZE);
+    return (int) Math.min(newCapacity, Integer.MAX_VALUE / Long.SIZE * Long.SIZE);
+  }
+
+  private static boolean getBit(LongBuffer bits, int index) {
+    return ((bits.get(index / Long.SIZE) >>> (index % Long.SIZE)) & 1) == 1;
+  }
+
+  private static void setBit(LongBuffer bits, int index, boolean value) {
+    int word = index / Long.SIZE;
+    long mask = 1L << (index % Long.SIZE);
+    bits.put(word, value ? bits.get(word) | mask : bits.get(word) & ~mask);
+  }
+
+  private static LongBuffer allocate(int words) {
+    return LongBuffer.wrap(new long[words]);
+  }
+
+  private static LongBuffer grow(LongBuffer buffer, int words) {
+    return LongBuffer.wrap(Arrays.copyOf(buffer.array(), words));
+  }
+
+  private static LongBuffer slice(ByteBuffer buffer, int words) {
+    ByteBuffer slice = buffer.slice();
+    slice.limit(words * Long.BYTES);
+    buffer.position(buffer.position() + words * Long.BYTES);
+    return slice.asLongBuffer();
+  }
+
+  private static void writeLongs(DataOutputStream out, LongBuffer buffer) throws IOException {
+    for (int i = 0; i < buffer.capacity(); i++) {
+      out.writeLong(buffer.get(i));
+    }
+  }
+
+  private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    writeArray(out, tables);
+    writeArray(out, tablesPresent);
+    writeArray(out, masks);
+    writeArray(out, masksPresent);
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    tables = LongBuffer.wrap((long[]) in.readObject());
+    tablesPresent = LongBuffer.wrap((long[]) in.readObject());
+    masks = LongBuffer.wrap((long[]) in.readObject());
+    masksPresent = LongBuffer.wrap((long[]) in.readObject());
+    readOnly = false;
+  }
+
+  private static void writeArray(ObjectOutputStream out, LongBuffer buffer) throws IOException {
+    long[] array = new long[buffer.capacity()];
+    buffer.get(array, 0, array.length);
+    buffer.rewind();
+    out.writeObject(array);
+  }
+}
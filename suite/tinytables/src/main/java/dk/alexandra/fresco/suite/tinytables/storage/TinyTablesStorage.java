@@ -24,6 +24,24 @@ public interface TinyTablesStorage extends Serializable {
 
 	public TinyTable getTinyTable(int id);
 
+	/**
+	 * Look up the entry <i>(eu, ev)</i> of the {@link TinyTable} for the
+	 * protocol with the given <code>id</code>. Implementations may override
+	 * this to avoid creating the {@link TinyTable}.
+	 * 
+	 * @param id
+	 * @param eu
+	 * @param ev
+	 * @return the entry, or <code>null</code> if no table is stored for the id
+	 */
+	public default TinyTablesElement lookupTinyTable(int id, boolean eu, boolean ev) {
+		TinyTable table = getTinyTable(id);
+		if (table == null) {
+			return null;
+		}
+		return table.getValue(TinyTablesElement.getInstance(eu), TinyTablesElement.getInstance(ev));
+	}
+
 	/**
 	 * Store a boolean for the protocol with the given ID. Can be used by a
 	 * player to store a mask that he has picked during preprocessing.
@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.suite.tinytables.storage;
 
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTriple;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTripleVector;
 
 public interface TinyTablesTripleProvider {
 
@@ -10,6 +11,22 @@ public interface TinyTablesTripleProvider {
 	 * @return
 	 */
 	public TinyTablesTriple getNextTriple();
+
+	/**
+	 * Get shares of the next <code>amount</code> multiplication triples from this provider in
+	 * bit-sliced form. The triples are the same as those returned by <code>amount</code> calls to
+	 * {@link #getNextTriple()}.
+	 *
+	 * @param amount the number of triples
+	 * @return the triples
+	 */
+	public default TinyTablesTripleVector getNextTriples(int amount) {
+		TinyTablesTripleVector triples = new TinyTablesTripleVector(amount);
+		for (int i = 0; i < amount; i++) {
+			triples.set(i, getNextTriple());
+		}
+		return triples;
+	}
 	
 	/**
 	 * Let the provider know that we are done using it.
@@ -30,7 +30,12 @@ import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesNaorPinkasOt;
 import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesOt;
 import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproResourcePool;
+import dk.alexandra.fresco.suite.tinytables.storage.BitTripleTinyTablesTripleProvider;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesTripleProvider;
 import dk.alexandra.fresco.suite.tinytables.util.Util;
+import dk.alexandra.fresco.tools.bitTriples.BitTripleResourcePool;
+import dk.alexandra.fresco.tools.bitTriples.BitTripleResourcePoolImpl;
+import dk.alexandra.fresco.tools.bitTriples.BitTripleSecurityParameters;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
@@ -304,6 +309,33 @@ public class TestTinyTables {
         "testAES");
   }
 
+  @Category(IntegrationTest.class)
+  @Test
+  public void testAesCompiled() {
+    runTest(new BristolCryptoTests.AesTest<>(false, true), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        true, "testAESCompiled");
+    runTest(new BristolCryptoTests.AesTest<>(true, true), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        false, "testAESCompiled");
+  }
+
+  @Category(IntegrationTest.class)
+  @Test
+  public void testMultiAesCompiled() {
+    runTest(new BristolCryptoTests.MultiAesTest<>(false, true),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, true, "testMultiAESCompiled");
+    runTest(new BristolCryptoTests.MultiAesTest<>(true, true),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, false, "testMultiAESCompiled");
+  }
+
+  @Category(IntegrationTest.class)
+  @Test
+  public void testBatchAes() {
+    runTest(new BristolCryptoTests.BatchAesTest<>(false, true, 67),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, true, "testBatchAES");
+    runTest(new BristolCryptoTests.BatchAesTest<>(true, true, 67),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, false, "testBatchAES");
+  }
+
   @Category(IntegrationTest.class)
   @Test
   public void test_Des() {
@@ -388,6 +420,45 @@ public class TestTinyTables {
     TestThreadRunner.run(new BristolCryptoTests.DesTest<>(false), conf);
   }
 
+  @Category(IntegrationTest.class)
+  @Test
+  public void testBitTripleProviderAes() {
+    int noPlayers = 2;
+    Map<Integer, NetworkConfiguration> netConf = NetworkUtil
+        .getNetworkConfigurations(NetworkUtil.getFreePorts(noPlayers));
+    // the triples are generated in the background on a network of their own
+    Map<Integer, NetworkConfiguration> tripleNetConf = NetworkUtil
+        .getNetworkConfigurations(NetworkUtil.getFreePorts(noPlayers));
+    Map<Integer, TestThreadConfiguration<ResourcePoolImpl, ProtocolBuilderBinary>> conf =
+        new HashMap<>();
+
+    for (int playerId : netConf.keySet()) {
+      File tinyTablesFile = new File(getFilenameForTest(playerId, "testBitTripleProviderAes"));
+      TinyTablesPreproProtocolSuite suite = new TinyTablesPreproProtocolSuite();
+      Drbg random = new AesCtrDrbg(new byte[32]);
+      byte[] tripleSeed = new byte[32];
+      tripleSeed[0] = (byte) playerId;
+      // small parameters to keep the base OTs of the triple generation fast
+      BitTripleResourcePool tripleResourcePool = new BitTripleResourcePoolImpl(playerId,
+          noPlayers, 1, new AesCtrDrbg(tripleSeed), new BitTripleSecurityParameters(16, 40, 16));
+      // the provider closes its network when the resource pool closes the provider
+      Supplier<TinyTablesTripleProvider> tripleProvider =
+          () -> new BitTripleTinyTablesTripleProvider(tripleResourcePool,
+              new SocketNetwork(tripleNetConf.get(playerId)), 2047);
+      Supplier<ResourcePoolImpl> resourcePoolSupplier = () -> new TinyTablesPreproResourcePool(
+          playerId, random, tinyTablesFile, tripleProvider);
+      ProtocolEvaluator<TinyTablesPreproResourcePool> evaluator = new BatchedProtocolEvaluator<>(
+          EvaluationStrategy.SEQUENTIAL_BATCHED.getStrategy(), suite);
+      SecureComputationEngine<ResourcePoolImpl, ProtocolBuilderBinary> computationEngine =
+          (SecureComputationEngine) new SecureComputationEngineImpl<>(suite, evaluator);
+      conf.put(playerId, new TestThreadConfiguration<>(computationEngine, resourcePoolSupplier,
+          new NetworkSupplier(playerId, netConf)));
+    }
+    TestThreadRunner.run(new BristolCryptoTests.AesTest<>(false, true), conf);
+    runTest(new BristolCryptoTests.AesTest<>(true, true), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        false, "testBitTripleProviderAes");
+  }
+
   private static class NetworkSupplier implements Supplier<Network> {
 
     private final int playerId;
@@ -0,0 +1,69 @@
+package dk.alexandra.fresco.suite.tinytables.datatypes;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestTinyTablesTripleVector {
+
+  private static List<TinyTablesTriple> randomTriples(int amount, Random random) {
+    List<TinyTablesTriple> triples = new ArrayList<>();
+    for (int i = 0; i < amount; i++) {
+      triples.add(TinyTablesTriple.fromShares(random.nextBoolean(), random.nextBoolean(),
+          random.nextBoolean()));
+    }
+    return triples;
+  }
+
+  @Test
+  public void testFromTriples() {
+    List<TinyTablesTriple> triples = randomTriples(200, new Random(42));
+    TinyTablesTripleVector vector = TinyTablesTripleVector.fromTriples(triples);
+    assertThat(vector.getSize(), is(200));
+    assertThat(vector.getA().length, is(4));
+    for (int i = 0; i < triples.size(); i++) {
+      assertThat(vector.get(i), is(triples.get(i)));
+      boolean a = ((vector.getA()[i / 64] >>> (i % 64)) & 1) == 1;
+      assertThat(a, is(triples.get(i).getA().getShare()));
+    }
+  }
+
+  @Test
+  public void testCopyFrom() {
+    List<TinyTablesTriple> triples = randomTriples(300, new Random(42));
+    TinyTablesTripleVector src = TinyTablesTripleVector.fromTriples(triples);
+    TinyTablesTripleVector dest = new TinyTablesTripleVector(200);
+    dest.copyFrom(src, 5, 0, 70);
+    dest.copyFrom(src, 200, 70, 100);
+    dest.copyFrom(src, 64, 170, 30);
+    for (int i = 0; i < 70; i++) {
+      assertThat(dest.get(i), is(triples.get(5 + i)));
+    }
+    for (int i = 0; i < 100; i++) {
+      assertThat(dest.get(70 + i), is(triples.get(200 + i)));
+    }
+    for (int i = 0; i < 30; i++) {
+      assertThat(dest.get(170 + i), is(triples.get(64 + i)));
+    }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testCopyOutOfBounds() {
+    new TinyTablesTripleVector(10).copyFrom(new TinyTablesTripleVector(10), 5, 0, 6);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testGetOutOfBounds() {
+    new TinyTablesTripleVector(10).get(10);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeSize() {
+    new TinyTablesTripleVector(-1);
+  }
+
+}
@@ -4,6 +4,7 @@ import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTriple;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTripleVector;
 import dk.alexandra.fresco.suite.tinytables.util.TinyTablesTripleGenerator;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,4 +31,35 @@ public class TestBatchTinyTablesTripleProvider {
     }
   }
 
+  @Test
+  public void testNextTriples() {
+    TinyTablesTripleGenerator fac = new TinyTablesTripleGenerator(0, null, null) {
+
+      private int next;
+
+      @Override
+      public List<TinyTablesTriple> generate(int amount) {
+        List<TinyTablesTriple> triples = new ArrayList<>();
+        for (int i = 0; i < amount; i++, next++) {
+          triples.add(TinyTablesTriple.fromShares(next % 3 == 0, next % 5 == 0, next % 7 == 0));
+        }
+        return triples;
+      }
+    };
+    BatchTinyTablesTripleProvider gen = new BatchTinyTablesTripleProvider(fac, 100);
+    int next = 0;
+    // mix single triples with bulk requests which are unaligned and span several batches
+    for (int amount : new int[] {1, 63, 130, 0, 7, 250}) {
+      assertThat(gen.getNextTriple(),
+          is(TinyTablesTriple.fromShares(next % 3 == 0, next % 5 == 0, next % 7 == 0)));
+      next++;
+      TinyTablesTripleVector triples = gen.getNextTriples(amount);
+      assertThat(triples.getSize(), is(amount));
+      for (int i = 0; i < amount; i++, next++) {
+        assertThat(triples.get(i),
+            is(TinyTablesTriple.fromShares(next % 3 == 0, next % 5 == 0, next % 7 == 0)));
+      }
+    }
+  }
+
 }
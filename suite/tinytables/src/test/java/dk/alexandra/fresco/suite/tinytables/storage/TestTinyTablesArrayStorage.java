@@ -0,0 +1,154 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestTinyTablesArrayStorage {
+
+  private static final int GATES = 5000;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testStoreAndLookup() {
+    TinyTablesArrayStorage storage = new TinyTablesArrayStorage();
+    boolean[][] tables = fill(storage, new Random(42));
+    assertStorage(storage, tables);
+  }
+
+  @Test
+  public void testMissing() {
+    TinyTablesArrayStorage storage = new TinyTablesArrayStorage();
+    storage.storeTinyTable(3, table(true, false, false, true));
+    storage.storeMaskShare(5, TinyTablesElement.getInstance(false));
+    assertNull(storage.getTinyTable(2));
+    assertNull(storage.getTinyTable(100000));
+    assertNull(storage.lookupTinyTable(4, true, true));
+    assertNull(storage.getMaskShare(3));
+    assertNull(storage.getMaskShare(-1));
+    assertFalse(storage.getMaskShare(5).getShare());
+    assertTrue(storage.lookupTinyTable(3, true, true).getShare());
+    assertFalse(storage.lookupTinyTable(3, true, false).getShare());
+  }
+
+  @Test
+  public void testWriteAndLoad() throws IOException {
+    TinyTablesArrayStorage storage = new TinyTablesArrayStorage();
+    boolean[][] tables = fill(storage, new Random(42));
+    File file = folder.newFile();
+    storage.write(file);
+    assertTrue(TinyTablesArrayStorage.isStorageFile(file));
+    assertStorage(TinyTablesArrayStorage.load(file), tables);
+  }
+
+  @Test
+  public void testJavaSerialization() throws IOException, ClassNotFoundException {
+    TinyTablesArrayStorage storage = new TinyTablesArrayStorage();
+    boolean[][] tables = fill(storage, new Random(42));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(storage);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(
+        new ByteArrayInputStream(bytes.toByteArray()))) {
+      assertStorage((TinyTablesStorage) in.readObject(), tables);
+    }
+  }
+
+  @Test
+  public void testStoreTinyTables() {
+    Random random = new Random(42);
+    int[] ids = new int[150];
+    long[][] entries = new long[4][3];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = 3 * i + 1;
+    }
+    for (long[] entry : entries) {
+      for (int k = 0; k < entry.length; k++) {
+        entry[k] = random.nextLong();
+      }
+    }
+    TinyTablesArrayStorage storage = new TinyTablesArrayStorage();
+    storage.storeTinyTables(ids, entries);
+    for (int i = 0; i < ids.length; i++) {
+      for (int j = 0; j < 4; j++) {
+        boolean expected = ((entries[j][i / 64] >>> (i % 64)) & 1) == 1;
+        assertEquals(expected, storage.lookupTinyTable(ids[i], j >= 2, (j & 1) == 1).getShare());
+      }
+      assertNull(storage.getTinyTable(ids[i] + 1));
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testLoadedIsReadOnly() throws IOException {
+    TinyTablesArrayStorage storage = new TinyTablesArrayStorage();
+    storage.storeMaskShare(1, TinyTablesElement.getInstance(true));
+    File file = folder.newFile();
+    storage.write(file);
+    TinyTablesArrayStorage.load(file).storeMaskShare(2, TinyTablesElement.getInstance(true));
+  }
+
+  @Test(expected = IOException.class)
+  public void testLoadOtherFormat() throws IOException {
+    File file = folder.newFile();
+    Files.write(file.toPath(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+    assertFalse(TinyTablesArrayStorage.isStorageFile(file));
+    TinyTablesArrayStorage.load(file);
+  }
+
+  private boolean[][] fill(TinyTablesStorage storage, Random random) {
+    boolean[][] tables = new boolean[GATES][5];
+    // store in reverse to exercise growing the arrays by more than a factor of two
+    for (int id = GATES - 1; id >= 0; id -= 2) {
+      for (int i = 0; i < 5; i++) {
+        tables[id][i] = random.nextBoolean();
+      }
+      storage.storeTinyTable(id, table(tables[id][0], tables[id][1], tables[id][2],
+          tables[id][3]));
+      storage.storeMaskShare(id, TinyTablesElement.getInstance(tables[id][4]));
+    }
+    return tables;
+  }
+
+  private void assertStorage(TinyTablesStorage storage, boolean[][] tables) {
+    for (int id = 0; id < GATES; id++) {
+      if ((GATES - 1 - id) % 2 != 0) {
+        assertNull(storage.getTinyTable(id));
+        assertNull(storage.getMaskShare(id));
+        continue;
+      }
+      for (int i = 0; i < 4; i++) {
+        boolean eu = i >= 2;
+        boolean ev = (i & 1) == 1;
+        assertEquals(tables[id][i], storage.lookupTinyTable(id, eu, ev).getShare());
+        assertEquals(tables[id][i], storage.getTinyTable(id)
+            .getValue(TinyTablesElement.getInstance(eu), TinyTablesElement.getInstance(ev))
+            .getShare());
+      }
+      assertEquals(tables[id][4], storage.getMaskShare(id).getShare());
+    }
+  }
+
+  private static TinyTable table(boolean v00, boolean v01, boolean v10, boolean v11) {
+    return new TinyTable(new TinyTablesElement[]{
+        TinyTablesElement.getInstance(v00), TinyTablesElement.getInstance(v01),
+        TinyTablesElement.getInstance(v10), TinyTablesElement.getInstance(v11)});
+  }
+}